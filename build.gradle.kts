@@ -230,6 +230,10 @@ tasks.javadoc {
     }
 }
 
+jmh {
+    profilers.add("gc")
+}
+
 license {
     header(rootProject.file("license/HEADER.txt"))
     newLine(false)
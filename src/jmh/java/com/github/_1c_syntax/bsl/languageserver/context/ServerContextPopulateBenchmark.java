@@ -0,0 +1,100 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.jmh.BSLModuleGenerator;
+import com.github._1c_syntax.bsl.languageserver.jmh.BenchmarkContext;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Заполнение контекста сервера по каталогу синтетических общих модулей.
+ * <p>
+ * Каждый прогон выполняется на пустом контексте, поэтому используется режим однократного запуска.
+ */
+@State(Scope.Benchmark)
+public class ServerContextPopulateBenchmark {
+
+  @Param({"100", "500"})
+  int modules;
+
+  @Param({"1000"})
+  int lines;
+
+  private Path configurationRoot;
+  private List<File> files;
+  private ServerContext serverContext;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    configurationRoot = Files.createTempDirectory("bsl-ls-jmh");
+    files = new ArrayList<>(modules);
+    for (var i = 0; i < modules; i++) {
+      var content = BSLModuleGenerator.builder().seed(i).lines(lines).build().generate();
+      var file = configurationRoot.resolve("CommonModules/Module" + i + "/Ext/Module.bsl").toFile();
+      FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+      files.add(file);
+    }
+    serverContext = BenchmarkContext.getBean(ServerContext.class);
+    serverContext.setConfigurationRoot(configurationRoot);
+  }
+
+  @Setup(Level.Iteration)
+  public void clearContext() {
+    serverContext.clear();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    serverContext.clear();
+    serverContext.setConfigurationRoot(null);
+    FileUtils.deleteDirectory(configurationRoot.toFile());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @Fork(value = 2, warmups = 1)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 5)
+  public void populateContext() {
+    serverContext.populateContext(files);
+  }
+}
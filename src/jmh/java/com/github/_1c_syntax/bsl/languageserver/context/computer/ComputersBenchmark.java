@@ -0,0 +1,112 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.computer;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.jmh.BSLModuleGenerator;
+import com.github._1c_syntax.bsl.languageserver.jmh.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.function.Supplier;
+
+/**
+ * Вычисление данных документа каждым из компьютеров пакета {@code context.computer}
+ * на синтетическом модуле. Дерево разбора строится до замеров.
+ */
+@State(Scope.Benchmark)
+public class ComputersBenchmark {
+
+  @Param({
+    "SymbolTree",
+    "ModuleSymbol",
+    "MethodSymbol",
+    "RegionSymbol",
+    "VariableSymbol",
+    "Query",
+    "DiagnosticIgnorance",
+    "CognitiveComplexity",
+    "CyclomaticComplexity"
+  })
+  String computer;
+
+  @Param({"1000", "10000", "50000"})
+  int lines;
+
+  private DocumentContext documentContext;
+  private Supplier<Computer<?>> computerSupplier;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var content = BSLModuleGenerator.builder().lines(lines).build().generate();
+    documentContext = BenchmarkContext.createDocument("ComputersBenchmark", content);
+    documentContext.getAst();
+    computerSupplier = createComputerSupplier();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkContext.removeDocument(documentContext);
+  }
+
+  @Benchmark
+  @Fork(value = 2, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void compute(Blackhole bh) {
+    bh.consume(computerSupplier.get().compute());
+  }
+
+  private Supplier<Computer<?>> createComputerSupplier() {
+    var applicationContext = BenchmarkContext.getApplicationContext();
+    var symbolTree = documentContext.getSymbolTree();
+    switch (computer) {
+      case "SymbolTree":
+        return () -> new SymbolTreeComputer(documentContext);
+      case "ModuleSymbol":
+        return () -> new ModuleSymbolComputer(documentContext);
+      case "MethodSymbol":
+        return () -> new MethodSymbolComputer(documentContext);
+      case "RegionSymbol":
+        return () -> new RegionSymbolComputer(documentContext);
+      case "VariableSymbol":
+        return () -> new VariableSymbolComputer(documentContext, symbolTree.getModule(), symbolTree.getMethods());
+      case "Query":
+        return () -> new QueryComputer(documentContext);
+      case "DiagnosticIgnorance":
+        return () -> new DiagnosticIgnoranceComputer(documentContext);
+      case "CognitiveComplexity":
+        return () -> applicationContext.getBean(CognitiveComplexityComputer.class, documentContext);
+      case "CyclomaticComplexity":
+        return () -> applicationContext.getBean(CyclomaticComplexityComputer.class, documentContext);
+      default:
+        throw new IllegalArgumentException("Unknown computer: " + computer);
+    }
+  }
+}
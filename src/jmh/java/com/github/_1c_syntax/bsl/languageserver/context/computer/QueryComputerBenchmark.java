@@ -0,0 +1,84 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.computer;
+
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import com.github._1c_syntax.bsl.parser.BSLTokenizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Поиск запросов в модуле с большим количеством запросных строк, разнесенных по длинному модулю.
+ */
+@State(Scope.Benchmark)
+public class QueryComputerBenchmark {
+
+  @Param({"100", "500"})
+  int queriesCount;
+
+  @Param({"10", "100"})
+  int linesBetweenQueries;
+
+  private BSLParser.FileContext ast;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var content = new StringBuilder();
+    for (var i = 0; i < queriesCount; i++) {
+      content.append("Процедура Запрос").append(i).append("()\n");
+      content.append("  Запрос = Новый Запрос;\n");
+      content.append("  Запрос.Текст = \"ВЫБРАТЬ\n");
+      content.append("  |  Таблица.Ссылка КАК Ссылка,\n");
+      content.append("  |  Таблица.Код КАК Код\n");
+      content.append("  |ИЗ\n");
+      content.append("  |  Справочник.Справочник").append(i).append(" КАК Таблица\n");
+      content.append("  |ГДЕ\n");
+      content.append("  |  Таблица.Код = &Код\";\n");
+      content.append("  //\n".repeat(linesBetweenQueries));
+      content.append("КонецПроцедуры\n\n");
+    }
+    ast = new BSLTokenizer(content.toString()).getAst();
+  }
+
+  @Benchmark
+  @Fork(value = 2, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void findQueries(Blackhole bh) {
+    bh.consume(new QueryComputer(ast).compute());
+  }
+
+  @Benchmark
+  @Fork(value = 2, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void findAndParseQueries(Blackhole bh) {
+    for (var query : new QueryComputer(ast).compute()) {
+      bh.consume(query.getAst());
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics;
+
+import com.github._1c_syntax.bsl.languageserver.BSLLSBinding;
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.computer.DiagnosticComputer;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure.DiagnosticObjectProvider;
+import com.github._1c_syntax.bsl.languageserver.jmh.BSLModuleGenerator;
+import com.github._1c_syntax.bsl.languageserver.jmh.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Расчет диагностик на синтетическом модуле.
+ * <p>
+ * Значение параметра {@code diagnostic} по умолчанию ({@value #ALL_DIAGNOSTICS}) замеряет полный расчет
+ * диагностик документа через {@link DiagnosticComputer}. Для замера каждой зарегистрированной диагностики
+ * по отдельности используется {@link #main(String[])}, передающий в параметр коды всех диагностик.
+ */
+@State(Scope.Benchmark)
+public class DiagnosticsBenchmark {
+
+  static final String ALL_DIAGNOSTICS = "ALL";
+
+  @Param({ALL_DIAGNOSTICS})
+  String diagnostic;
+
+  @Param({"1000", "10000"})
+  int lines;
+
+  private DocumentContext documentContext;
+  private DiagnosticComputer diagnosticComputer;
+  private BSLDiagnostic bslDiagnostic;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var content = BSLModuleGenerator.builder().lines(lines).build().generate();
+    documentContext = BenchmarkContext.createDocument("DiagnosticsBenchmark", content);
+    documentContext.getAst();
+    documentContext.getDiagnosticIgnorance();
+
+    if (ALL_DIAGNOSTICS.equals(diagnostic)) {
+      diagnosticComputer = BenchmarkContext.getBean(DiagnosticComputer.class);
+      return;
+    }
+
+    var diagnosticInfo = BSLLSBinding.getDiagnosticInfos().stream()
+      .filter(info -> info.getCode().getStringValue().equals(diagnostic))
+      .findAny()
+      .orElseThrow(() -> new IllegalArgumentException("Unknown diagnostic: " + diagnostic));
+    bslDiagnostic = BenchmarkContext.getBean(DiagnosticObjectProvider.class).get(diagnosticInfo.getDiagnosticClass());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkContext.removeDocument(documentContext);
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void computeDiagnostics(Blackhole bh) {
+    if (diagnosticComputer != null) {
+      bh.consume(diagnosticComputer.compute(documentContext));
+    } else {
+      bh.consume(bslDiagnostic.getDiagnostics(documentContext));
+    }
+  }
+
+  /**
+   * Запуск замера каждой зарегистрированной диагностики с профилированием аллокаций.
+   *
+   * @param args Аргументы командной строки (не используются).
+   * @throws RunnerException Ошибка запуска JMH.
+   */
+  public static void main(String[] args) throws RunnerException {
+    var codes = BSLLSBinding.getDiagnosticInfos().stream()
+      .map(info -> info.getCode().getStringValue())
+      .sorted()
+      .toArray(String[]::new);
+
+    var options = new OptionsBuilder()
+      .include(DiagnosticsBenchmark.class.getName() + ".computeDiagnostics")
+      .param("diagnostic", codes)
+      .param("lines", "10000")
+      .addProfiler(GCProfiler.class)
+      .build();
+
+    new Runner(options).run();
+    System.exit(0);
+  }
+}
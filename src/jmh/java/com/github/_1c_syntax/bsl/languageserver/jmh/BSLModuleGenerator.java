@@ -0,0 +1,243 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.jmh;
+
+import lombok.Builder;
+
+import java.util.Random;
+
+/**
+ * Детерминированный генератор синтетических модулей на языке 1С для бенчмарков.
+ * <p>
+ * Модуль состоит из областей с переменными модуля, процедурами и функциями с вложенными
+ * условиями, циклами и попытками, вызовами методов модуля и общих модулей, текстами запросов
+ * и комментариями. При одинаковых параметрах (включая {@link #seed}) генерируется одинаковый текст.
+ */
+@Builder
+public class BSLModuleGenerator {
+
+  /**
+   * Зерно генератора случайных чисел.
+   */
+  @Builder.Default
+  private final long seed = 42;
+
+  /**
+   * Количество методов модуля. Игнорируется, если задано {@link #lines}.
+   */
+  @Builder.Default
+  private final int methods = 50;
+
+  /**
+   * Целевое количество строк модуля. Методы генерируются до достижения этого количества строк.
+   */
+  @Builder.Default
+  private final int lines = 0;
+
+  /**
+   * Максимальная глубина вложенности управляющих конструкций в методе.
+   */
+  @Builder.Default
+  private final int nestingDepth = 3;
+
+  /**
+   * Количество операторов в одном блоке.
+   */
+  @Builder.Default
+  private final int statementsPerBlock = 4;
+
+  /**
+   * Доля методов (в процентах), содержащих текст запроса.
+   */
+  @Builder.Default
+  private final int queryPercent = 20;
+
+  /**
+   * Доля операторов (в процентах), сопровождаемых комментарием.
+   */
+  @Builder.Default
+  private final int commentPercent = 15;
+
+  /**
+   * @return Текст сгенерированного модуля.
+   */
+  public String generate() {
+    return new Generation().generate();
+  }
+
+  /**
+   * Состояние одного прохода генерации.
+   */
+  private class Generation {
+
+    private final StringBuilder content = new StringBuilder();
+    private final Random random = new Random(seed);
+    private int lineCount;
+
+    private String generate() {
+      line(0, "#Область ПеременныеМодуля");
+      line(0, "");
+      for (var i = 0; i < 5; i++) {
+        line(0, "Перем МодульнаяПеременная" + i + (i % 2 == 0 ? " Экспорт;" : ";"));
+      }
+      line(0, "");
+      line(0, "#КонецОбласти");
+      line(0, "");
+      line(0, "#Область ПрограммныйИнтерфейс");
+      line(0, "");
+
+      var method = 0;
+      while (lines > 0 ? lineCount < lines : method < methods) {
+        if (method > 0 && method % 20 == 0) {
+          line(0, "#КонецОбласти");
+          line(0, "");
+          line(0, "#Область СлужебныеПроцедурыИФункции" + method);
+          line(0, "");
+        }
+        appendMethod(method++);
+      }
+
+      line(0, "#КонецОбласти");
+      return content.toString();
+    }
+
+    private void appendMethod(int index) {
+      var isFunction = index % 3 == 0;
+      var name = (isFunction ? "Функция" : "Процедура") + index;
+
+      line(0, "// Описание метода " + name + ".");
+      line(0, "//");
+      line(0, "// Параметры:");
+      line(0, "//  Параметр1 - Строка - первый параметр.");
+      line(0, "//  Параметр2 - Число - второй параметр.");
+      if (isFunction) {
+        line(0, "//");
+        line(0, "// Возвращаемое значение:");
+        line(0, "//  Число - результат.");
+      }
+      line(0, "//");
+      var export = index % 2 == 0 ? " Экспорт" : "";
+      line(0, (isFunction ? "Функция " : "Процедура ") + name + "(Параметр1, Знач Параметр2 = 0)" + export);
+      line(1, "");
+      line(1, "Результат = 0;");
+      line(1, "Коллекция = Новый Массив;");
+
+      if (random.nextInt(100) < queryPercent) {
+        appendQuery(index);
+      }
+
+      appendBlock(1, nestingDepth, index);
+
+      if (isFunction) {
+        line(1, "Возврат Результат;");
+        line(1, "");
+        line(0, "КонецФункции");
+      } else {
+        line(1, "");
+        line(0, "КонецПроцедуры");
+      }
+      line(0, "");
+    }
+
+    private void appendQuery(int index) {
+      line(1, "Запрос = Новый Запрос;");
+      line(1, "Запрос.Текст =");
+      line(1, "\"ВЫБРАТЬ");
+      line(1, "|  Товары.Ссылка КАК Ссылка,");
+      line(1, "|  Товары.Наименование КАК Наименование,");
+      line(1, "|  ЕСТЬNULL(Остатки.КоличествоОстаток, 0) КАК Количество");
+      line(1, "|ИЗ");
+      line(1, "|  Справочник.Товары" + index + " КАК Товары");
+      line(1, "|    ЛЕВОЕ СОЕДИНЕНИЕ РегистрНакопления.Остатки.Остатки(, Склад = &Склад) КАК Остатки");
+      line(1, "|    ПО Товары.Ссылка = Остатки.Номенклатура");
+      line(1, "|ГДЕ");
+      line(1, "|  Товары.ПометкаУдаления = ЛОЖЬ\";");
+      line(1, "Запрос.УстановитьПараметр(\"Склад\", Параметр1);");
+      line(1, "Выборка = Запрос.Выполнить().Выбрать();");
+    }
+
+    private void appendBlock(int indent, int depth, int methodIndex) {
+      for (var i = 0; i < statementsPerBlock; i++) {
+        if (random.nextInt(100) < commentPercent) {
+          line(indent, "// Комментарий к оператору " + i + " метода " + methodIndex);
+        }
+
+        var kind = depth > 0 ? random.nextInt(8) : 4 + random.nextInt(4);
+        switch (kind) {
+          case 0:
+            line(indent, "Если Параметр2 > " + i + " Тогда");
+            appendBlock(indent + 1, depth - 1, methodIndex);
+            line(indent, "ИначеЕсли Параметр2 = " + i + " Тогда");
+            line(indent + 1, "Результат = Результат - 1;");
+            line(indent, "Иначе");
+            appendBlock(indent + 1, depth - 1, methodIndex);
+            line(indent, "КонецЕсли;");
+            break;
+          case 1:
+            line(indent, "Для Индекс" + depth + " = 1 По Параметр2 Цикл");
+            appendBlock(indent + 1, depth - 1, methodIndex);
+            line(indent, "КонецЦикла;");
+            break;
+          case 2:
+            line(indent, "Для Каждого Элемент" + depth + " Из Коллекция Цикл");
+            appendBlock(indent + 1, depth - 1, methodIndex);
+            line(indent, "КонецЦикла;");
+            break;
+          case 3:
+            line(indent, "Попытка");
+            appendBlock(indent + 1, depth - 1, methodIndex);
+            line(indent, "Исключение");
+            line(indent + 1, "ЗаписьЖурналаРегистрации(\"Ошибка\", УровеньЖурналаРегистрации.Ошибка, , ,");
+            line(indent + 2, "ПодробноеПредставлениеОшибки(ИнформацияОбОшибке()));");
+            line(indent, "КонецПопытки;");
+            break;
+          case 4:
+            line(indent, "Результат = Результат + Параметр2 * " + random.nextInt(100) + ";");
+            break;
+          case 5:
+            line(indent, "Коллекция.Добавить(СтрШаблон(\"%1 - %2\", Параметр1, Результат));");
+            break;
+          case 6:
+            var target = random.nextInt(methodIndex + 1);
+            var targetName = (target % 3 == 0 ? "Функция" : "Процедура") + target;
+            if (target % 3 == 0) {
+              line(indent, "Результат = Результат + " + targetName + "(Параметр1, Результат);");
+            } else {
+              line(indent, targetName + "(Параметр1, Результат);");
+            }
+            break;
+          default:
+            line(indent, "ОбщийМодуль" + random.nextInt(10) + ".Метод" + random.nextInt(50) + "(Параметр1);");
+            break;
+        }
+      }
+    }
+
+    private void line(int indent, String text) {
+      if (!text.isEmpty()) {
+        content.append("\t".repeat(indent)).append(text);
+      }
+      content.append('\n');
+      lineCount++;
+    }
+  }
+}
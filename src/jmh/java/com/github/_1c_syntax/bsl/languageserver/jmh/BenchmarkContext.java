@@ -0,0 +1,81 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.jmh;
+
+import com.github._1c_syntax.bsl.languageserver.BSLLSBinding;
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import lombok.experimental.UtilityClass;
+import org.springframework.context.ApplicationContext;
+
+import java.net.URI;
+
+/**
+ * Доступ к контексту приложения и подготовка документов для бенчмарков, которым нужны бины сервера.
+ */
+@UtilityClass
+public class BenchmarkContext {
+
+  /**
+   * @return Контекст приложения (без веб-сервера и обработчика командной строки).
+   */
+  public ApplicationContext getApplicationContext() {
+    return BSLLSBinding.getApplicationContext();
+  }
+
+  /**
+   * @param beanClass Класс бина.
+   * @param <T>       Тип бина.
+   * @return Бин из контекста приложения.
+   */
+  public <T> T getBean(Class<T> beanClass) {
+    return getApplicationContext().getBean(beanClass);
+  }
+
+  /**
+   * Создать открытый документ общего модуля с переданным содержимым.
+   * <p>
+   * Документ помечается открытым, чтобы его вторичные данные не выгружались во время замеров.
+   *
+   * @param name    Имя общего модуля.
+   * @param content Содержимое модуля.
+   * @return Контекст документа.
+   */
+  public DocumentContext createDocument(String name, String content) {
+    var serverContext = getBean(ServerContext.class);
+    var uri = URI.create("file:///fake/CommonModules/" + name + "/Ext/Module.bsl");
+    var documentContext = serverContext.addDocument(uri);
+    serverContext.openDocument(documentContext, content, 1);
+    return documentContext;
+  }
+
+  /**
+   * Удалить документ из контекста сервера.
+   *
+   * @param documentContext Контекст документа.
+   */
+  public void removeDocument(DocumentContext documentContext) {
+    var serverContext = getBean(ServerContext.class);
+    serverContext.closeDocument(documentContext);
+    serverContext.removeDocument(documentContext.getUri());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.providers;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.jmh.BSLModuleGenerator;
+import com.github._1c_syntax.bsl.languageserver.jmh.BenchmarkContext;
+import org.eclipse.lsp4j.DocumentFormattingParams;
+import org.eclipse.lsp4j.FormattingOptions;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Форматирование синтетического модуля целиком.
+ */
+@State(Scope.Benchmark)
+public class FormatProviderBenchmark {
+
+  @Param({"1000", "10000", "50000"})
+  int lines;
+
+  private DocumentContext documentContext;
+  private FormatProvider formatProvider;
+  private DocumentFormattingParams params;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    var content = BSLModuleGenerator.builder().lines(lines).build().generate();
+    documentContext = BenchmarkContext.createDocument("FormatProviderBenchmark", content);
+    documentContext.getTokens();
+    formatProvider = BenchmarkContext.getBean(FormatProvider.class);
+
+    params = new DocumentFormattingParams();
+    params.setTextDocument(new TextDocumentIdentifier(documentContext.getUri().toString()));
+    params.setOptions(new FormattingOptions(4, false));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    BenchmarkContext.removeDocument(documentContext);
+  }
+
+  @Benchmark
+  @Fork(value = 2, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void getFormatting(Blackhole bh) {
+    bh.consume(formatProvider.getFormatting(params, documentContext));
+  }
+}
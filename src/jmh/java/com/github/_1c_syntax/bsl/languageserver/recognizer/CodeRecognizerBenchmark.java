@@ -0,0 +1,98 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.recognizer;
+
+import com.github._1c_syntax.bsl.languageserver.jmh.BSLModuleGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+
+/**
+ * Оценка строк комментариев детекторами {@link BSLFootprint}.
+ * <p>
+ * {@code detectors} - последовательный вызов всех детекторов (реализация до компиляции набора),
+ * {@code compiled} - однопроходная оценка {@link CompiledFootprint} без кэша,
+ * {@code memoized} - оценка с кэшем результатов, как в диагностиках.
+ */
+@State(Scope.Benchmark)
+public class CodeRecognizerBenchmark {
+
+  @Param({"1000", "10000"})
+  int lines;
+
+  private String[] comments;
+  private Set<AbstractDetector> detectors;
+  private CompiledFootprint compiledFootprint;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    // каждая строка синтетического модуля превращается в строку комментария:
+    // описания методов дают обычный текст, операторы - закомментированный код
+    comments = BSLModuleGenerator.builder().lines(lines).build().generate()
+      .lines()
+      .map(line -> "//" + line.strip())
+      .toArray(String[]::new);
+
+    var footprint = new BSLFootprint();
+    detectors = footprint.getDetectors();
+    compiledFootprint = new CompiledFootprint(detectors);
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void detectors(Blackhole bh) {
+    for (String comment : comments) {
+      double probability = 0;
+      for (AbstractDetector detector : detectors) {
+        probability = 1 - (1 - probability) * (1 - detector.detect(comment));
+      }
+      bh.consume(probability);
+    }
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void compiled(Blackhole bh) {
+    for (String comment : comments) {
+      bh.consume(compiledFootprint.compute(comment));
+    }
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 1)
+  @Warmup(time = 5, iterations = 3)
+  public void memoized(Blackhole bh) {
+    for (String comment : comments) {
+      bh.consume(compiledFootprint.recognition(comment));
+    }
+  }
+}
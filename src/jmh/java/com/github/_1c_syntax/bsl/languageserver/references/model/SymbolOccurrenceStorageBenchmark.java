@@ -0,0 +1,146 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.references.model;
+
+import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import org.eclipse.lsp4j.SymbolKind;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сравнение хранилищ обращений к символам по скорости заполнения и поиска.
+ * <p>
+ * Объем занимаемой памяти выводится после заполнения хранилища в начале каждого прогона;
+ * для оценки аллокаций запускать с профилировщиком {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+public class SymbolOccurrenceStorageBenchmark {
+
+  private static final int DOCUMENTS = 2_000;
+  private static final int SYMBOLS = 5_000;
+  private static final int OCCURRENCES_PER_DOCUMENT = 200;
+
+  @Param({"repositories", "compact"})
+  String storageType;
+
+  private SymbolOccurrenceStorage storage;
+  private List<URI> uris;
+  private List<Symbol> symbols;
+  private List<SymbolOccurrence> document;
+  private int lookupCounter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    uris = new ArrayList<>(DOCUMENTS);
+    for (var i = 0; i < DOCUMENTS; i++) {
+      uris.add(URI.create("file:///fake/CommonModules/Module" + i + "/Ext/Module.bsl"));
+    }
+
+    symbols = new ArrayList<>(SYMBOLS);
+    for (var i = 0; i < SYMBOLS; i++) {
+      symbols.add(Symbol.builder()
+        .mdoRef("CommonModule.Module" + (i % DOCUMENTS))
+        .moduleType(ModuleType.CommonModule)
+        .scopeName("")
+        .symbolKind(SymbolKind.Method)
+        .symbolName("method" + i)
+        .build()
+        .intern());
+    }
+
+    var usedMemoryBefore = usedMemory();
+    storage = createStorage();
+    for (var uriIndex = 0; uriIndex < DOCUMENTS; uriIndex++) {
+      createDocument(uriIndex).forEach(storage::save);
+    }
+    var usedMemoryAfter = usedMemory();
+    System.out.printf("%n%s storage retained memory: ~%d MB%n",
+      storageType, (usedMemoryAfter - usedMemoryBefore) / (1024 * 1024));
+
+    document = createDocument(0);
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 0)
+  @Warmup(time = 5, iterations = 3)
+  public void getAllBySymbol(Blackhole bh) {
+    var symbol = symbols.get(lookupCounter++ % SYMBOLS);
+    storage.getAllBySymbol(symbol).forEach(bh::consume);
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 0)
+  @Warmup(time = 5, iterations = 3)
+  public void getAllByLocationUri(Blackhole bh) {
+    var uri = uris.get(lookupCounter++ % DOCUMENTS);
+    storage.getAllByLocationUri(uri).forEach(bh::consume);
+  }
+
+  @Benchmark
+  @Fork(value = 1, warmups = 0)
+  @Warmup(time = 5, iterations = 3)
+  public void refillDocument() {
+    storage.deleteAll(uris.get(0));
+    document.forEach(storage::save);
+  }
+
+  private SymbolOccurrenceStorage createStorage() {
+    if ("compact".equals(storageType)) {
+      return new CompactSymbolOccurrenceStorage();
+    }
+    return new RepositorySymbolOccurrenceStorage(new LocationRepository(), new SymbolOccurrenceRepository());
+  }
+
+  private List<SymbolOccurrence> createDocument(int uriIndex) {
+    var uri = uris.get(uriIndex);
+    List<SymbolOccurrence> occurrences = new ArrayList<>(OCCURRENCES_PER_DOCUMENT);
+    for (var i = 0; i < OCCURRENCES_PER_DOCUMENT; i++) {
+      var symbol = symbols.get((uriIndex * 31 + i * 17) % SYMBOLS);
+      occurrences.add(SymbolOccurrence.builder()
+        .occurrenceType(OccurrenceType.REFERENCE)
+        .symbol(symbol)
+        .location(new Location(uri, Ranges.create(i * 3, 4, i * 3, 20)))
+        .build());
+    }
+    return occurrences;
+  }
+
+  private static long usedMemory() {
+    var runtime = Runtime.getRuntime();
+    for (var i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -32,7 +32,6 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
 
 /**
  * Перехватчик события заполнения контекста сервера, запускающий анализ всех файлов контекста.
@@ -45,6 +44,7 @@ public class AnalyzeProjectOnStart {
   private final DiagnosticProvider diagnosticProvider;
   private final LanguageClientHolder languageClientHolder;
   private final WorkDoneProgressHelper workDoneProgressHelper;
+  private final RequestScheduler scheduler;
 
   @EventListener
   @Async
@@ -63,10 +63,8 @@ public class AnalyzeProjectOnStart {
     var progress = workDoneProgressHelper.createProgress(documentContexts.size(), getMessage("filesSuffix"));
     progress.beginProgress(getMessage("analyzeProject"));
 
-    var executorService = new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism());
-
     try {
-      executorService.submit(() ->
+      scheduler.runAsync(RequestScheduler.Lane.BACKGROUND, () ->
         documentContexts.parallelStream().forEach((DocumentContext documentContext) -> {
           progress.tick();
 
@@ -82,8 +80,6 @@ public class AnalyzeProjectOnStart {
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new RuntimeException("Interrupted while analyzing project on start", e);
-    } finally {
-      executorService.shutdown();
     }
 
     progress.endProgress(getMessage("projectAnalyzed"));
@@ -24,6 +24,7 @@ package com.github._1c_syntax.bsl.languageserver;
 import com.github._1c_syntax.bsl.languageserver.cli.AnalyzeCommand;
 import com.github._1c_syntax.bsl.languageserver.cli.FormatCommand;
 import com.github._1c_syntax.bsl.languageserver.cli.LanguageServerStartCommand;
+import com.github._1c_syntax.bsl.languageserver.cli.MergeCommand;
 import com.github._1c_syntax.bsl.languageserver.cli.VersionCommand;
 import com.github._1c_syntax.bsl.languageserver.cli.WebsocketCommand;
 import com.github._1c_syntax.utils.CaseInsensitivePattern;
@@ -55,6 +56,7 @@ import static picocli.CommandLine.Command;
   subcommands = {
     AnalyzeCommand.class,
     FormatCommand.class,
+    MergeCommand.class,
     VersionCommand.class,
     LanguageServerStartCommand.class,
     WebsocketCommand.class
@@ -21,10 +21,13 @@
  */
 package com.github._1c_syntax.bsl.languageserver;
 
+import com.github._1c_syntax.bsl.languageserver.aop.measures.MeasureCollector;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
 import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.context.watcher.WorkspaceFileWatcher;
 import com.github._1c_syntax.bsl.languageserver.jsonrpc.DiagnosticParams;
 import com.github._1c_syntax.bsl.languageserver.jsonrpc.Diagnostics;
+import com.github._1c_syntax.bsl.languageserver.jsonrpc.Measures;
 import com.github._1c_syntax.bsl.languageserver.jsonrpc.ProtocolExtension;
 import com.github._1c_syntax.bsl.languageserver.providers.DocumentSymbolProvider;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +47,7 @@ import org.eclipse.lsp4j.FoldingRangeProviderOptions;
 import org.eclipse.lsp4j.HoverOptions;
 import org.eclipse.lsp4j.InitializeParams;
 import org.eclipse.lsp4j.InitializeResult;
+import org.eclipse.lsp4j.InitializedParams;
 import org.eclipse.lsp4j.ReferenceOptions;
 import org.eclipse.lsp4j.RenameCapabilities;
 import org.eclipse.lsp4j.RenameOptions;
@@ -59,6 +63,7 @@ import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.eclipse.lsp4j.services.TextDocumentService;
 import org.eclipse.lsp4j.services.WorkspaceService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
@@ -81,6 +86,9 @@ public class BSLLanguageServer implements LanguageServer, ProtocolExtension {
   private final ClientCapabilitiesHolder clientCapabilitiesHolder;
   private final ServerContext context;
   private final ServerInfo serverInfo;
+  private final RequestScheduler scheduler;
+  private final ObjectProvider<MeasureCollector> measureCollectorProvider;
+  private final WorkspaceFileWatcher workspaceFileWatcher;
   private boolean shutdownWasCalled;
 
   @Override
@@ -89,7 +97,7 @@ public class BSLLanguageServer implements LanguageServer, ProtocolExtension {
     clientCapabilitiesHolder.setCapabilities(params.getCapabilities());
     
     setConfigurationRoot(params);
-    CompletableFuture.runAsync(context::populateContext);
+    scheduler.runAsync(RequestScheduler.Lane.BACKGROUND, context::populateContext);
 
     var capabilities = new ServerCapabilities();
     capabilities.setTextDocumentSync(getTextDocumentSyncOptions());
@@ -135,9 +143,15 @@ public class BSLLanguageServer implements LanguageServer, ProtocolExtension {
     context.setConfigurationRoot(configurationRoot);
   }
 
+  @Override
+  public void initialized(InitializedParams params) {
+    workspaceFileWatcher.registerClientWatcher();
+  }
+
   @Override
   public CompletableFuture<Object> shutdown() {
     shutdownWasCalled = true;
+    workspaceFileWatcher.stop();
     textDocumentService.reset();
     context.clear();
     return CompletableFuture.completedFuture(Boolean.TRUE);
@@ -159,6 +173,23 @@ public class BSLLanguageServer implements LanguageServer, ProtocolExtension {
     return textDocumentService.diagnostics(params);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Если подсистема замеров выключена, возвращается {@link Measures#EMPTY}.
+   */
+  @Override
+  public CompletableFuture<Measures> measures() {
+    var measures = Optional.ofNullable(measureCollectorProvider.getIfAvailable())
+      .map(measureCollector -> new Measures(
+        true,
+        measureCollector.getStatistics(),
+        measureCollector.getSecondaryDataStats()
+      ))
+      .orElse(Measures.EMPTY);
+    return CompletableFuture.completedFuture(measures);
+  }
+
   @Override
   public TextDocumentService getTextDocumentService() {
     return textDocumentService;
@@ -173,7 +204,7 @@ public class BSLLanguageServer implements LanguageServer, ProtocolExtension {
     var textDocumentSync = new TextDocumentSyncOptions();
 
     textDocumentSync.setOpenClose(Boolean.TRUE);
-    textDocumentSync.setChange(TextDocumentSyncKind.Full);
+    textDocumentSync.setChange(TextDocumentSyncKind.Incremental);
     textDocumentSync.setWillSave(Boolean.FALSE);
     textDocumentSync.setWillSaveWaitUntil(Boolean.FALSE);
 
@@ -21,6 +21,7 @@
  */
 package com.github._1c_syntax.bsl.languageserver;
 
+import com.github._1c_syntax.bsl.languageserver.RequestScheduler.Lane;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
 import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.ComputeTrigger;
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
@@ -43,6 +44,7 @@ import com.github._1c_syntax.bsl.languageserver.providers.ReferencesProvider;
 import com.github._1c_syntax.bsl.languageserver.providers.RenameProvider;
 import com.github._1c_syntax.bsl.languageserver.providers.SelectionRangeProvider;
 import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import com.github._1c_syntax.bsl.languageserver.utils.TextChanges;
 import lombok.RequiredArgsConstructor;
 import org.eclipse.lsp4j.CallHierarchyIncomingCall;
 import org.eclipse.lsp4j.CallHierarchyIncomingCallsParams;
@@ -90,6 +92,7 @@ import org.eclipse.lsp4j.WorkspaceEdit;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.jsonrpc.messages.Either3;
 import org.eclipse.lsp4j.services.TextDocumentService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
@@ -118,6 +121,13 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
   private final SelectionRangeProvider selectionRangeProvider;
   private final ColorProvider colorProvider;
   private final RenameProvider renameProvider;
+  private final RequestScheduler scheduler;
+
+  /**
+   * Пауза перед расчетом диагностик при вводе текста, мс.
+   */
+  @Value("${app.diagnostics.on-type-delay:300}")
+  private long onTypeDiagnosticsDelay;
 
   @Override
   public CompletableFuture<Hover> hover(HoverParams params) {
@@ -125,7 +135,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
     if (documentContext == null) {
       return CompletableFuture.completedFuture(null);
     }
-    return CompletableFuture.supplyAsync(() ->
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
       hoverProvider.getHover(documentContext, params).orElse(null)
     );
   }
@@ -139,7 +149,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Either.forRight(Collections.emptyList()));
     }
 
-    return CompletableFuture.supplyAsync(() ->
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
       Either.forRight(definitionProvider.getDefinition(documentContext, params))
     );
   }
@@ -151,7 +161,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> referencesProvider.getReferences(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      referencesProvider.getReferences(documentContext, params)
+    );
   }
 
   @Override
@@ -164,7 +176,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() ->
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
       documentSymbolProvider.getDocumentSymbols(documentContext).stream()
         .map(Either::<SymbolInformation, DocumentSymbol>forRight)
         .collect(Collectors.toList())
@@ -178,7 +190,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() -> codeActionProvider.getCodeActions(params, documentContext));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      codeActionProvider.getCodeActions(params, documentContext)
+    );
   }
 
   @Override
@@ -188,7 +202,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> codeLensProvider.getCodeLens(documentContext));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      codeLensProvider.getCodeLens(documentContext)
+    );
   }
 
   @Override
@@ -198,7 +214,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
     if (documentContext == null) {
       return CompletableFuture.completedFuture(unresolved);
     }
-    return CompletableFuture.supplyAsync(() -> codeLensProvider.resolveCodeLens(documentContext, unresolved, data));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      codeLensProvider.resolveCodeLens(documentContext, unresolved, data)
+    );
   }
 
   @Override
@@ -230,7 +248,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() -> foldingRangeProvider.getFoldingRange(documentContext));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      foldingRangeProvider.getFoldingRange(documentContext)
+    );
   }
 
   @Override
@@ -241,7 +261,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() -> {
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () -> {
       List<CallHierarchyItem> callHierarchyItems = callHierarchyProvider.prepareCallHierarchy(documentContext, params);
       if (callHierarchyItems.isEmpty()) {
         return null;
@@ -259,7 +279,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> callHierarchyProvider.incomingCalls(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      callHierarchyProvider.incomingCalls(documentContext, params)
+    );
   }
 
   @Override
@@ -271,7 +293,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> callHierarchyProvider.outgoingCalls(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      callHierarchyProvider.outgoingCalls(documentContext, params)
+    );
   }
 
   @Override
@@ -281,7 +305,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> selectionRangeProvider.getSelectionRange(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      selectionRangeProvider.getSelectionRange(documentContext, params)
+    );
   }
 
   @Override
@@ -291,7 +317,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> colorProvider.getDocumentColor(documentContext));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      colorProvider.getDocumentColor(documentContext)
+    );
   }
 
   @Override
@@ -301,7 +329,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Collections.emptyList());
     }
 
-    return CompletableFuture.supplyAsync(() -> colorProvider.getColorPresentation(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      colorProvider.getColorPresentation(documentContext, params)
+    );
   }
 
   @Override
@@ -319,20 +349,20 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
   @Override
   public void didChange(DidChangeTextDocumentParams params) {
 
-    // TODO: Place to optimize -> migrate to #TextDocumentSyncKind.INCREMENTAL and build changed parse tree
     var documentContext = context.getDocument(params.getTextDocument().getUri());
-    if (documentContext == null) {
+    // содержимое гарантированно загружено только у открытого документа: он не выгружается по бюджету
+    if (documentContext == null || !context.isDocumentOpened(documentContext)) {
       return;
     }
 
     context.rebuildDocument(
       documentContext,
-      params.getContentChanges().get(0).getText(),
+      TextChanges.apply(documentContext.getContent(), params.getContentChanges()),
       params.getTextDocument().getVersion()
     );
 
     if (configuration.getDiagnosticsOptions().getComputeTrigger() == ComputeTrigger.ONTYPE) {
-      validate(documentContext);
+      validateDebounced(documentContext);
     }
   }
 
@@ -367,7 +397,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() -> documentLinkProvider.getDocumentLinks(documentContext));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      documentLinkProvider.getDocumentLinks(documentContext)
+    );
   }
 
   @Override
@@ -377,7 +409,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(Diagnostics.EMPTY);
     }
 
-    return CompletableFuture.supplyAsync(() -> {
+    return scheduler.supplyAsync(Lane.DIAGNOSTICS, documentContext, () -> {
       var diagnostics = documentContext.getDiagnostics();
 
       var range = params.getRange();
@@ -397,7 +429,7 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() ->
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
       Either3.forFirst(renameProvider.getPrepareRename(documentContext, params)));
   }
 
@@ -408,7 +440,9 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
       return CompletableFuture.completedFuture(null);
     }
 
-    return CompletableFuture.supplyAsync(() -> renameProvider.getRename(documentContext, params));
+    return scheduler.supplyAsync(Lane.INTERACTIVE, documentContext, () ->
+      renameProvider.getRename(documentContext, params)
+    );
   }
 
   public void reset() {
@@ -416,7 +450,22 @@ public class BSLTextDocumentService implements TextDocumentService, ProtocolExte
   }
 
   private void validate(DocumentContext documentContext) {
-    diagnosticProvider.computeAndPublishDiagnostics(documentContext);
+    scheduler.runAsync(Lane.DIAGNOSTICS, documentContext, () -> publishDiagnosticsIfOpened(documentContext));
+  }
+
+  private void validateDebounced(DocumentContext documentContext) {
+    scheduler.runDebounced(
+      Lane.DIAGNOSTICS,
+      documentContext,
+      onTypeDiagnosticsDelay,
+      () -> publishDiagnosticsIfOpened(documentContext)
+    );
+  }
+
+  private void publishDiagnosticsIfOpened(DocumentContext documentContext) {
+    if (context.isDocumentOpened(documentContext)) {
+      diagnosticProvider.computeAndPublishDiagnostics(documentContext);
+    }
   }
 
 }
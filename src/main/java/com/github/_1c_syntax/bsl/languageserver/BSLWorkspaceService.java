@@ -22,11 +22,13 @@
 package com.github._1c_syntax.bsl.languageserver;
 
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
+import com.github._1c_syntax.bsl.languageserver.context.watcher.WorkspaceFileChangeProcessor;
 import com.github._1c_syntax.bsl.languageserver.providers.SymbolProvider;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.beanutils.PropertyUtils;
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
+import org.eclipse.lsp4j.FileEvent;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
@@ -35,6 +37,7 @@ import org.eclipse.lsp4j.services.WorkspaceService;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -44,11 +47,15 @@ public class BSLWorkspaceService implements WorkspaceService {
 
   private final LanguageServerConfiguration configuration;
   private final SymbolProvider symbolProvider;
+  private final RequestScheduler scheduler;
+  private final WorkspaceFileChangeProcessor fileChangeProcessor;
 
   @Override
   @SuppressWarnings("deprecation")
   public CompletableFuture<Either<List<? extends SymbolInformation>,List<? extends WorkspaceSymbol>>> symbol(WorkspaceSymbolParams params) {
-    return CompletableFuture.supplyAsync(() -> Either.forRight(symbolProvider.getSymbols(params)));
+    return scheduler.supplyAsync(RequestScheduler.Lane.INTERACTIVE, () ->
+      Either.forRight(symbolProvider.getSymbols(params))
+    );
   }
 
   @Override
@@ -62,6 +69,6 @@ public class BSLWorkspaceService implements WorkspaceService {
 
   @Override
   public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
-    // no-op
+    params.getChanges().forEach((FileEvent fileEvent) -> fileChangeProcessor.onChange(URI.create(fileEvent.getUri())));
   }
 }
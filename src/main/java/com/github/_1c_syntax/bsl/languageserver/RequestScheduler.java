@@ -0,0 +1,291 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Планировщик выполнения запросов к серверу.
+ * <p>
+ * Запросы выполняются в раздельных пулах потоков ({@link Lane}), поэтому интерактивные запросы
+ * (hover, definition и т.п.) не ждут освобождения потоков, занятых расчетом диагностик
+ * или фоновым анализом проекта. Параллельные стримы, запущенные из задачи, выполняются
+ * в пуле той же полосы.
+ * <p>
+ * Отмена результирующего {@link CompletableFuture} (в том числе по {@code $/cancelRequest})
+ * снимает задачу из очереди. Задача по документу, версия которого изменилась до начала
+ * ее выполнения, завершается ошибкой {@link ResponseErrorCode#ContentModified}.
+ * Частые задачи по одному документу можно объединять с паузой через
+ * {@link #runDebounced(Lane, DocumentContext, long, Runnable)}.
+ */
+@Component
+public class RequestScheduler {
+
+  /**
+   * Полоса выполнения запросов.
+   */
+  public enum Lane {
+    /**
+     * Интерактивные запросы пользователя.
+     */
+    INTERACTIVE,
+    /**
+     * Расчет и публикация диагностик.
+     */
+    DIAGNOSTICS,
+    /**
+     * Фоновые задачи: заполнение контекста, анализ проекта.
+     */
+    BACKGROUND
+  }
+
+  @Value("${app.scheduler.interactive.parallelism:0}")
+  private int interactiveParallelism;
+
+  @Value("${app.scheduler.diagnostics.parallelism:0}")
+  private int diagnosticsParallelism;
+
+  @Value("${app.scheduler.background.parallelism:0}")
+  private int backgroundParallelism;
+
+  private final Map<Lane, ForkJoinPool> pools = new EnumMap<>(Lane.class);
+  private final Map<Object, CompletableFuture<Void>> debouncedTasks = new ConcurrentHashMap<>();
+  private ScheduledExecutorService debounceTimer;
+
+  @PostConstruct
+  void init() {
+    var processors = Runtime.getRuntime().availableProcessors();
+
+    pools.put(Lane.INTERACTIVE, createPool(
+      Lane.INTERACTIVE,
+      parallelism(interactiveParallelism, processors),
+      Thread.NORM_PRIORITY
+    ));
+    pools.put(Lane.DIAGNOSTICS, createPool(
+      Lane.DIAGNOSTICS,
+      parallelism(diagnosticsParallelism, Math.max(1, processors / 2)),
+      Thread.NORM_PRIORITY - 1
+    ));
+    pools.put(Lane.BACKGROUND, createPool(
+      Lane.BACKGROUND,
+      parallelism(backgroundParallelism, processors),
+      Thread.MIN_PRIORITY
+    ));
+
+    debounceTimer = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+      var thread = new Thread(runnable, "bsl-ls-debounce-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    debounceTimer.shutdownNow();
+    pools.values().forEach(ForkJoinPool::shutdownNow);
+  }
+
+  /**
+   * Выполнить задачу в указанной полосе.
+   *
+   * @param lane     Полоса выполнения.
+   * @param supplier Задача.
+   * @param <T>      Тип результата.
+   * @return Результат выполнения задачи.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Lane lane, Supplier<T> supplier) {
+    return schedule(lane, supplier, () -> false);
+  }
+
+  /**
+   * Выполнить задачу по документу в указанной полосе.
+   * <p>
+   * Если к началу выполнения версия документа изменилась, задача не выполняется,
+   * а результат завершается ошибкой {@link ResponseErrorCode#ContentModified}.
+   *
+   * @param lane            Полоса выполнения.
+   * @param documentContext Документ, к которому относится задача.
+   * @param supplier        Задача.
+   * @param <T>             Тип результата.
+   * @return Результат выполнения задачи.
+   */
+  public <T> CompletableFuture<T> supplyAsync(Lane lane, DocumentContext documentContext, Supplier<T> supplier) {
+    var version = documentContext.getVersion();
+    return schedule(lane, supplier, () -> documentContext.getVersion() != version);
+  }
+
+  /**
+   * Выполнить задачу в указанной полосе.
+   *
+   * @param lane     Полоса выполнения.
+   * @param runnable Задача.
+   * @return Результат выполнения задачи.
+   */
+  public CompletableFuture<Void> runAsync(Lane lane, Runnable runnable) {
+    return supplyAsync(lane, () -> {
+      runnable.run();
+      return null;
+    });
+  }
+
+  /**
+   * Выполнить задачу по документу в указанной полосе.
+   *
+   * @param lane            Полоса выполнения.
+   * @param documentContext Документ, к которому относится задача.
+   * @param runnable        Задача.
+   * @return Результат выполнения задачи.
+   * @see #supplyAsync(Lane, DocumentContext, Supplier)
+   */
+  public CompletableFuture<Void> runAsync(Lane lane, DocumentContext documentContext, Runnable runnable) {
+    return supplyAsync(lane, documentContext, () -> {
+      runnable.run();
+      return null;
+    });
+  }
+
+  /**
+   * Выполнить задачу по документу в указанной полосе после паузы.
+   * <p>
+   * Задачи по одному документу объединяются: новый вызов до истечения паузы отменяет
+   * ожидающую задачу, так что выполняется только задача для последней версии документа.
+   *
+   * @param lane            Полоса выполнения.
+   * @param documentContext Документ, к которому относится задача.
+   * @param delay           Пауза перед выполнением, мс.
+   * @param runnable        Задача.
+   * @return Результат выполнения задачи.
+   * @see #runAsync(Lane, DocumentContext, Runnable)
+   */
+  public CompletableFuture<Void> runDebounced(
+    Lane lane,
+    DocumentContext documentContext,
+    long delay,
+    Runnable runnable
+  ) {
+    var result = new CompletableFuture<Void>();
+    var previous = debouncedTasks.put(documentContext, result);
+    if (previous != null) {
+      previous.cancel(false);
+    }
+
+    var timer = debounceTimer.schedule(() -> {
+      if (result.isDone()) {
+        return;
+      }
+      var task = runAsync(lane, documentContext, runnable);
+      result.whenComplete((value, throwable) -> {
+        if (result.isCancelled()) {
+          task.cancel(false);
+        }
+      });
+      task.whenComplete((value, throwable) -> {
+        if (throwable == null) {
+          result.complete(value);
+        } else {
+          result.completeExceptionally(throwable);
+        }
+      });
+    }, delay, TimeUnit.MILLISECONDS);
+
+    result.whenComplete((value, throwable) -> {
+      debouncedTasks.remove(documentContext, result);
+      if (result.isCancelled()) {
+        timer.cancel(false);
+      }
+    });
+
+    return result;
+  }
+
+  private <T> CompletableFuture<T> schedule(Lane lane, Supplier<T> supplier, BooleanSupplier superseded) {
+    var result = new CompletableFuture<T>();
+
+    var task = pools.get(lane).submit(() -> {
+      if (result.isDone()) {
+        return;
+      }
+      if (superseded.getAsBoolean()) {
+        result.completeExceptionally(new ResponseErrorException(
+          new ResponseError(ResponseErrorCode.ContentModified, "Document content was modified", null)
+        ));
+        return;
+      }
+      try {
+        result.complete(supplier.get());
+      } catch (Throwable e) {
+        // как и CompletableFuture.supplyAsync, передаем любую ошибку в результат
+        result.completeExceptionally(e);
+      }
+    });
+
+    result.whenComplete((value, throwable) -> {
+      if (result.isCancelled()) {
+        task.cancel(false);
+      }
+    });
+
+    return result;
+  }
+
+  private static int parallelism(int configured, int defaultValue) {
+    return configured > 0 ? configured : defaultValue;
+  }
+
+  private static ForkJoinPool createPool(Lane lane, int parallelism, int priority) {
+    var threadNamePrefix = "bsl-ls-" + lane.name().toLowerCase(Locale.ENGLISH) + "-";
+    var threadCounter = new AtomicInteger();
+
+    return new ForkJoinPool(
+      parallelism,
+      (ForkJoinPool pool) -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(threadNamePrefix + threadCounter.incrementAndGet());
+        thread.setPriority(priority);
+        return thread;
+      },
+      null,
+      true
+    );
+  }
+}
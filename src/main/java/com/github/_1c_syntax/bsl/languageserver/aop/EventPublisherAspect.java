@@ -26,8 +26,11 @@ import com.github._1c_syntax.bsl.languageserver.configuration.events.LanguageSer
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
 import com.github._1c_syntax.bsl.languageserver.context.events.DocumentContextContentChangedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextClearedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextDocumentRemovedEvent;
 import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextPopulatedEvent;
 import com.github._1c_syntax.bsl.languageserver.events.LanguageServerInitializeRequestReceivedEvent;
+import com.github._1c_syntax.utils.Absolute;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
@@ -41,6 +44,7 @@ import org.springframework.context.ApplicationEventPublisherAware;
 
 import javax.annotation.PreDestroy;
 import java.io.File;
+import java.net.URI;
 import java.util.Collection;
 
 /**
@@ -83,6 +87,16 @@ public class EventPublisherAspect implements ApplicationEventPublisherAware {
     publishEvent(new ServerContextPopulatedEvent((ServerContext) joinPoint.getThis()));
   }
 
+  @AfterReturning("Pointcuts.isServerContext() && Pointcuts.isRemoveDocumentCall() && args(uri)")
+  public void serverContextDocumentRemoved(JoinPoint joinPoint, URI uri) {
+    publishEvent(new ServerContextDocumentRemovedEvent((ServerContext) joinPoint.getThis(), Absolute.uri(uri)));
+  }
+
+  @AfterReturning("Pointcuts.isServerContext() && Pointcuts.isClearCall()")
+  public void serverContextCleared(JoinPoint joinPoint) {
+    publishEvent(new ServerContextClearedEvent((ServerContext) joinPoint.getThis()));
+  }
+
   @AfterReturning("Pointcuts.isLanguageServer() && Pointcuts.isInitializeCall() && args(initializeParams)")
   public void languageServerInitialize(JoinPoint joinPoint, InitializeParams initializeParams) {
     var event = new LanguageServerInitializeRequestReceivedEvent(
@@ -63,6 +63,14 @@ public class MeasuresAspect {
     return measureCollector.measureIt(jp::proceed, "diagnostic: " + diagnosticCode);
   }
 
+  @Around("execution(* com.github._1c_syntax.bsl.languageserver.diagnostics.SinglePassDiagnosticWalker.compute(..))")
+  public Object measureSinglePassDiagnostics(ProceedingJoinPoint jp) throws Throwable {
+    if (measureCollector == null) {
+      return jp.proceed();
+    }
+    return measureCollector.measureIt(jp::proceed, "diagnostic: single pass walk");
+  }
+
   @Before("Pointcuts.isDocumentContext() && execution(* computeSymbolTree(..))")
   public void measureGetTokens(JoinPoint jp) {
     if (measureCollector == null) {
@@ -81,6 +89,24 @@ public class MeasuresAspect {
     return measureCollector.measureIt(jp::proceed, "context: symbolTree");
   }
 
+  @Around("Pointcuts.isDocumentContext() && execution(* rebuild(String, int))")
+  public Object measureRebuild(ProceedingJoinPoint jp) throws Throwable {
+    if (measureCollector == null) {
+      return jp.proceed();
+    }
+    return measureCollector.measureIt(jp::proceed, "context: rebuild");
+  }
+
+  @Around("within(com.github._1c_syntax.bsl.languageserver.providers.*) && execution(public !static * *(..))")
+  public Object measureProviders(ProceedingJoinPoint jp) throws Throwable {
+    if (measureCollector == null) {
+      return jp.proceed();
+    }
+    var signature = jp.getSignature();
+    var measureType = "provider: " + signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+    return measureCollector.measureIt(jp::proceed, measureType);
+  }
+
   @Before("Pointcuts.isServerContext() && execution(* populateContext(..)) && args(files)")
   public void initializeConfiguration(JoinPoint jp, Collection<File> files) {
     if (measureCollector == null) {
@@ -115,6 +115,22 @@ public class Pointcuts {
     // no-op
   }
 
+  /**
+   * Это вызов метода removeDocument.
+   */
+  @Pointcut("isBSLLanguageServerScope() && execution(* removeDocument(..))")
+  public void isRemoveDocumentCall() {
+    // no-op
+  }
+
+  /**
+   * Это вызов метода clear.
+   */
+  @Pointcut("isBSLLanguageServerScope() && execution(* clear(..))")
+  public void isClearCall() {
+    // no-op
+  }
+
   /**
    * Это вызов метода update.
    */
@@ -0,0 +1,121 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.aop.measures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма длительностей в наносекундах с неблокирующей записью.
+ * <p>
+ * Значения раскладываются по лог-линейным корзинам: каждая степень двойки разбивается
+ * на {@value #SUB_BUCKETS} равных частей, что дает относительную погрешность перцентилей не более 1/16.
+ * Память гистограммы постоянна и не зависит от количества записанных значений.
+ */
+class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Записать длительность.
+   *
+   * @param nanos Длительность в наносекундах. Отрицательные значения считаются нулевыми.
+   */
+  void record(long nanos) {
+    var value = Math.max(nanos, 0);
+    counts.incrementAndGet(bucketIndex(value));
+    total.add(value);
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  /**
+   * Получить снимок статистики гистограммы.
+   * <p>
+   * Снимок не атомарен относительно параллельной записи, но каждое значение в нем согласовано само с собой.
+   *
+   * @param name Имя замера.
+   * @return Статистика замера.
+   */
+  MeasureStatistics snapshot(String name) {
+    var bucketCounts = new long[BUCKETS];
+    long recorded = 0;
+    for (var i = 0; i < BUCKETS; i++) {
+      bucketCounts[i] = counts.get(i);
+      recorded += bucketCounts[i];
+    }
+    var maxValue = max.get();
+
+    return new MeasureStatistics(
+      name,
+      recorded,
+      total.sum(),
+      maxValue,
+      percentile(bucketCounts, recorded, 0.5, maxValue),
+      percentile(bucketCounts, recorded, 0.9, maxValue),
+      percentile(bucketCounts, recorded, 0.99, maxValue)
+    );
+  }
+
+  private static long percentile(long[] bucketCounts, long recorded, double quantile, long maxValue) {
+    if (recorded == 0) {
+      return 0;
+    }
+
+    var rank = (long) Math.ceil(quantile * recorded);
+    long seen = 0;
+    for (var i = 0; i < bucketCounts.length; i++) {
+      seen += bucketCounts[i];
+      if (seen >= rank) {
+        return Math.min(bucketUpperBound(i), maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    var subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    var exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    var subBucket = (long) (index % SUB_BUCKETS);
+    var width = 1L << (exponent - SUB_BUCKET_BITS);
+    return (1L << exponent) + (subBucket + 1) * width - 1;
+  }
+}
@@ -21,63 +21,172 @@
  */
 package com.github._1c_syntax.bsl.languageserver.aop.measures;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github._1c_syntax.bsl.languageserver.context.SecondaryDataBudget;
 import com.github._1c_syntax.bsl.languageserver.utils.ThrowingSupplier;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Component;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
 
 /**
  * Выполнение и агрегация замеров времени выполнения переданных операций.
+ * <p>
+ * Длительности накапливаются в гистограммах постоянного размера с неблокирующей записью,
+ * что позволяет держать замеры включенными в долгоживущем процессе сервера.
+ * Вместе с замерами публикуются показатели бюджета вторичных данных документов ({@link SecondaryDataBudget}).
+ * Накопленная статистика доступна через запрос <code>x-measures</code> протокола,
+ * выгрузку в JSON по окончании анализа и (при включенном <code>spring.jmx.enabled</code>) через JMX.
  */
 @Component
 @ConditionalOnMeasuresEnabled
+@ManagedResource(
+  objectName = "com.github._1c_syntax.bsl.languageserver:type=Measures",
+  description = "BSL Language Server measures"
+)
 @NoArgsConstructor
 @Slf4j
 public class MeasureCollector {
 
+  private static final double NANOS_IN_MILLI = 1_000_000.0;
+
   /**
-   * Коллекция замеров.
+   * Гистограммы замеров.
    * <p>
    * В качестве ключа выступает тип замера (метрики, дерево разбора, диагностика, и т. д.), в качестве значений -
-   * список длительностей выполнения замера.
+   * гистограмма длительностей выполнения замера.
    */
-  @Getter
-  private final Map<String, List<Long>> measures = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> measures = new ConcurrentHashMap<>();
+
+  /**
+   * Путь к файлу, в который выгружаются замеры по окончании анализа. Пустое значение отключает выгрузку.
+   */
+  @Value("${app.measures.output-file:}")
+  private String outputFile;
+
+  @Setter(onMethod = @__({@Autowired}))
+  private SecondaryDataBudget secondaryDataBudget;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
 
   /**
    * Выполнить операцию замера.
    *
    * @param supplier    Замеряемая операция.
    * @param measureType Текстовый идентификатор замера.
-   *                    Результаты замеров с совпадающим идентификатором будут просуммированы.
+   *                    Результаты замеров с совпадающим идентификатором будут агрегированы.
    * @return Результат работы замеряемой операции.
    */
   @SneakyThrows
   public Object measureIt(ThrowingSupplier<?> supplier, String measureType) {
-    long startDI = System.currentTimeMillis();
-    var result = supplier.get();
-    long endDI = System.currentTimeMillis();
+    long start = System.nanoTime();
+    try {
+      return supplier.get();
+    } finally {
+      record(measureType, System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Записать длительность выполнения операции.
+   *
+   * @param measureType Текстовый идентификатор замера.
+   * @param nanos       Длительность в наносекундах.
+   */
+  public void record(String measureType, long nanos) {
+    measures.computeIfAbsent(measureType, key -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * @return Статистика накопленных замеров, упорядоченная по суммарной длительности по убыванию.
+   */
+  public List<MeasureStatistics> getStatistics() {
+    return measures.entrySet().stream()
+      .map(entry -> entry.getValue().snapshot(entry.getKey()))
+      .sorted(Comparator.comparingLong(MeasureStatistics::getTotal).reversed())
+      .collect(Collectors.toList());
+  }
 
-    measures.computeIfAbsent(measureType, s -> new CopyOnWriteArrayList<>()).add(endDI - startDI);
-    return result;
+  /**
+   * @return Показатели бюджета вторичных данных документов.
+   */
+  public SecondaryDataBudget.Stats getSecondaryDataStats() {
+    return secondaryDataBudget.getStats();
   }
 
   /**
-   * Вывод накопленных замеров в лог.
+   * @return Показатели бюджета вторичных данных документов в формате JSON.
+   */
+  @ManagedOperation(description = "Dump secondary data budget stats as JSON")
+  @SneakyThrows
+  public String dumpSecondaryDataStats() {
+    return objectMapper.writeValueAsString(getSecondaryDataStats());
+  }
+
+  /**
+   * Сбросить накопленные замеры.
+   */
+  @ManagedOperation(description = "Reset collected measures")
+  public void reset() {
+    measures.clear();
+  }
+
+  /**
+   * @return Статистика накопленных замеров в формате JSON.
+   */
+  @ManagedOperation(description = "Dump collected measures as JSON")
+  @SneakyThrows
+  public String dumpMeasures() {
+    return objectMapper.writeValueAsString(getStatistics());
+  }
+
+  /**
+   * Вывод накопленных замеров в лог и, если задан <code>app.measures.output-file</code>, в JSON-файл.
    */
   public void printMeasures() {
-    measures.entrySet().stream()
-      .map(entry -> Map.entry(entry.getKey(), entry.getValue().stream().mapToLong(value -> value).sum()))
-      .sorted(Comparator.comparingLong(Map.Entry::getValue))
-      .map(entry -> String.format("%s - %d", entry.getKey(), entry.getValue()))
+    getStatistics().stream()
+      .map(statistics -> String.format(
+        "%s - count: %d, total: %.1f ms, p50: %.3f ms, p99: %.3f ms, max: %.3f ms",
+        statistics.getName(),
+        statistics.getCount(),
+        statistics.getTotal() / NANOS_IN_MILLI,
+        statistics.getP50() / NANOS_IN_MILLI,
+        statistics.getP99() / NANOS_IN_MILLI,
+        statistics.getMax() / NANOS_IN_MILLI
+      ))
       .forEach(LOGGER::info);
+    LOGGER.info("Secondary data budget - {}", getSecondaryDataStats());
+
+    if (outputFile != null && !outputFile.isBlank()) {
+      writeMeasures(new File(outputFile));
+    }
+  }
+
+  /**
+   * Выгрузить статистику накопленных замеров в JSON-файл.
+   *
+   * @param file Файл для выгрузки.
+   */
+  public void writeMeasures(File file) {
+    try {
+      objectMapper.writeValue(file, getStatistics());
+      LOGGER.info("Measures saved to {}", file.getAbsolutePath());
+    } catch (IOException e) {
+      LOGGER.error("Can't write measures to {}", file, e);
+    }
   }
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.aop.measures;
+
+import lombok.Value;
+
+/**
+ * Снимок статистики замера. Все длительности указаны в наносекундах.
+ * <p>
+ * Перцентили вычисляются по гистограмме и являются приближенными (погрешность не более 1/16 значения).
+ */
+@Value
+public class MeasureStatistics {
+
+  /**
+   * Текстовый идентификатор замера.
+   */
+  String name;
+
+  /**
+   * Количество выполненных замеров.
+   */
+  long count;
+
+  /**
+   * Суммарная длительность.
+   */
+  long total;
+
+  /**
+   * Максимальная длительность.
+   */
+  long max;
+
+  /**
+   * Медиана длительности.
+   */
+  long p50;
+
+  /**
+   * 90-й перцентиль длительности.
+   */
+  long p90;
+
+  /**
+   * 99-й перцентиль длительности.
+   */
+  long p99;
+}
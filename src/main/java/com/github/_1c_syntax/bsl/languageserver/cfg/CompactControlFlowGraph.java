@@ -0,0 +1,248 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемое компактное представление графа потока управления.
+ * <p>
+ * Вершины пронумерованы целыми числами: сначала вершины, достижимые из точки входа, в обратном порядке обхода
+ * в глубину (reverse postorder), затем недостижимые вершины. Списки смежности хранятся в плоских массивах,
+ * для каждого типа ребра вершины дополнительно хранится первая вершина-приемник, что позволяет находить
+ * переход нужного типа без перебора ребер.
+ * <p>
+ * Граф строится один раз по {@link ControlFlowGraph} и не изменяется, поэтому его можно использовать
+ * из нескольких диагностик одновременно.
+ */
+public final class CompactControlFlowGraph {
+
+  /**
+   * Признак отсутствия вершины.
+   */
+  public static final int NO_VERTEX = -1;
+
+  private static final CfgEdgeType[] EDGE_TYPES = CfgEdgeType.values();
+
+  private final CfgVertex[] vertices;
+  private final Map<CfgVertex, Integer> vertexIndexes;
+  private final int entryIndex;
+  private final int exitIndex;
+  private final int reachableCount;
+
+  private final int[] successorOffsets;
+  private final int[] successors;
+  private final byte[] successorEdgeTypes;
+  private final int[] predecessorOffsets;
+  private final int[] predecessors;
+  private final byte[] predecessorEdgeTypes;
+  private final int[] typedSuccessors;
+
+  private CompactControlFlowGraph(ControlFlowGraph graph) {
+    List<CfgVertex> orderedVertices = new ArrayList<>(graph.vertexSet().size());
+    reachableCount = orderVertices(graph, orderedVertices);
+    var vertexCount = orderedVertices.size();
+
+    vertices = orderedVertices.toArray(new CfgVertex[0]);
+    vertexIndexes = new HashMap<>(vertexCount * 2);
+    for (var i = 0; i < vertexCount; i++) {
+      vertexIndexes.put(vertices[i], i);
+    }
+    entryIndex = vertexIndexes.get(graph.getEntryPoint());
+    exitIndex = vertexIndexes.get(graph.getExitPoint());
+
+    var edgeCount = graph.edgeSet().size();
+    successorOffsets = new int[vertexCount + 1];
+    successors = new int[edgeCount];
+    successorEdgeTypes = new byte[edgeCount];
+    predecessorOffsets = new int[vertexCount + 1];
+    predecessors = new int[edgeCount];
+    predecessorEdgeTypes = new byte[edgeCount];
+    typedSuccessors = new int[vertexCount * EDGE_TYPES.length];
+    Arrays.fill(typedSuccessors, NO_VERTEX);
+
+    var successorPosition = 0;
+    var predecessorPosition = 0;
+    for (var i = 0; i < vertexCount; i++) {
+      successorOffsets[i] = successorPosition;
+      for (var edge : graph.outgoingEdgesOf(vertices[i])) {
+        var target = vertexIndexes.get(graph.getEdgeTarget(edge));
+        var type = edge.getType().ordinal();
+        successors[successorPosition] = target;
+        successorEdgeTypes[successorPosition] = (byte) type;
+        successorPosition++;
+        if (typedSuccessors[i * EDGE_TYPES.length + type] == NO_VERTEX) {
+          typedSuccessors[i * EDGE_TYPES.length + type] = target;
+        }
+      }
+
+      predecessorOffsets[i] = predecessorPosition;
+      for (var edge : graph.incomingEdgesOf(vertices[i])) {
+        predecessors[predecessorPosition] = vertexIndexes.get(graph.getEdgeSource(edge));
+        predecessorEdgeTypes[predecessorPosition] = (byte) edge.getType().ordinal();
+        predecessorPosition++;
+      }
+    }
+    successorOffsets[vertexCount] = successorPosition;
+    predecessorOffsets[vertexCount] = predecessorPosition;
+  }
+
+  /**
+   * Построить компактное представление графа потока управления.
+   *
+   * @param graph Граф потока управления.
+   * @return Компактный граф.
+   */
+  public static CompactControlFlowGraph of(ControlFlowGraph graph) {
+    return new CompactControlFlowGraph(graph);
+  }
+
+  /**
+   * @return Количество вершин графа.
+   */
+  public int getVertexCount() {
+    return vertices.length;
+  }
+
+  /**
+   * @return Количество вершин, достижимых из точки входа. Эти вершины имеют номера от 0 до количества - 1.
+   */
+  public int getReachableCount() {
+    return reachableCount;
+  }
+
+  /**
+   * @return Номер вершины точки входа.
+   */
+  public int getEntryIndex() {
+    return entryIndex;
+  }
+
+  /**
+   * @return Номер вершины точки выхода.
+   */
+  public int getExitIndex() {
+    return exitIndex;
+  }
+
+  public CfgVertex getVertex(int index) {
+    return vertices[index];
+  }
+
+  /**
+   * @param vertex Вершина исходного графа.
+   * @return Номер вершины или {@link #NO_VERTEX}, если вершина не принадлежит графу.
+   */
+  public int indexOf(CfgVertex vertex) {
+    return vertexIndexes.getOrDefault(vertex, NO_VERTEX);
+  }
+
+  /**
+   * @return Вершины графа в порядке их номеров.
+   */
+  public List<CfgVertex> getVertices() {
+    return Collections.unmodifiableList(Arrays.asList(vertices));
+  }
+
+  public int getSuccessorCount(int vertex) {
+    return successorOffsets[vertex + 1] - successorOffsets[vertex];
+  }
+
+  public int getSuccessor(int vertex, int position) {
+    return successors[successorOffsets[vertex] + position];
+  }
+
+  public CfgEdgeType getSuccessorEdgeType(int vertex, int position) {
+    return EDGE_TYPES[successorEdgeTypes[successorOffsets[vertex] + position]];
+  }
+
+  public int getPredecessorCount(int vertex) {
+    return predecessorOffsets[vertex + 1] - predecessorOffsets[vertex];
+  }
+
+  public int getPredecessor(int vertex, int position) {
+    return predecessors[predecessorOffsets[vertex] + position];
+  }
+
+  public CfgEdgeType getPredecessorEdgeType(int vertex, int position) {
+    return EDGE_TYPES[predecessorEdgeTypes[predecessorOffsets[vertex] + position]];
+  }
+
+  /**
+   * Найти вершину, в которую ведет ребро указанного типа.
+   *
+   * @param vertex   Номер вершины-источника.
+   * @param edgeType Тип ребра.
+   * @return Номер вершины-приемника или {@link #NO_VERTEX}, если ребра такого типа нет.
+   */
+  public int getSuccessor(int vertex, CfgEdgeType edgeType) {
+    return typedSuccessors[vertex * EDGE_TYPES.length + edgeType.ordinal()];
+  }
+
+  /**
+   * Упорядочить вершины: достижимые из точки входа в обратном порядке обхода в глубину, затем недостижимые.
+   *
+   * @return Количество достижимых вершин.
+   */
+  private static int orderVertices(ControlFlowGraph graph, List<CfgVertex> postOrder) {
+    Set<CfgVertex> visited = new HashSet<>();
+    Deque<Iterator<CfgEdge>> edgesStack = new ArrayDeque<>();
+    Deque<CfgVertex> vertexStack = new ArrayDeque<>();
+
+    var entryPoint = graph.getEntryPoint();
+    visited.add(entryPoint);
+    vertexStack.push(entryPoint);
+    edgesStack.push(graph.outgoingEdgesOf(entryPoint).iterator());
+
+    while (!vertexStack.isEmpty()) {
+      var edges = edgesStack.peek();
+      if (edges.hasNext()) {
+        var target = graph.getEdgeTarget(edges.next());
+        if (visited.add(target)) {
+          vertexStack.push(target);
+          edgesStack.push(graph.outgoingEdgesOf(target).iterator());
+        }
+      } else {
+        postOrder.add(vertexStack.pop());
+        edgesStack.pop();
+      }
+    }
+
+    Collections.reverse(postOrder);
+    var reachable = postOrder.size();
+    graph.vertexSet().stream()
+      .filter(vertex -> !visited.contains(vertex))
+      .forEachOrdered(postOrder::add);
+
+    return reachable;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import com.github._1c_syntax.bsl.parser.BSLParser;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Хранилище графов потока управления блоков кода документа.
+ * <p>
+ * Граф блока строится при первом обращении и далее переиспользуется всеми диагностиками.
+ * Графы строятся без ветвлений по инструкциям препроцессора, с ребрами итераций циклов
+ * и без выделения смежного мертвого кода.
+ */
+public class ControlFlowGraphStorage {
+
+  private final Map<BSLParser.CodeBlockContext, CompactControlFlowGraph> graphs = new ConcurrentHashMap<>();
+
+  /**
+   * Получить граф потока управления блока кода.
+   *
+   * @param codeBlock Блок кода из текущего дерева разбора документа.
+   * @return Граф потока управления.
+   */
+  public CompactControlFlowGraph get(BSLParser.CodeBlockContext codeBlock) {
+    return graphs.computeIfAbsent(codeBlock, ControlFlowGraphStorage::build);
+  }
+
+  private static CompactControlFlowGraph build(BSLParser.CodeBlockContext codeBlock) {
+    var builder = new CfgBuildingParseTreeVisitor();
+    builder.producePreprocessorConditions(false);
+    return CompactControlFlowGraph.of(builder.buildGraph(codeBlock));
+  }
+}
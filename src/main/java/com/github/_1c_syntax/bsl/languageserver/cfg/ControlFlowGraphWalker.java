@@ -42,30 +42,18 @@ public class ControlFlowGraphWalker {
   }
 
   public CfgEdge walkNext() {
-    var edges = availableRoutes();
-    var edgeOrNot = edges.stream()
-      .filter(x -> x.getType() == CfgEdgeType.DIRECT)
-      .findFirst();
-
-    if (edgeOrNot.isPresent()) {
-      currentNode = graph.getEdgeTarget(edgeOrNot.get());
-      return edgeOrNot.get();
-    }
-
-    throw new IllegalStateException("DIRECT edge is not found for node " + currentNode);
+    return walkNext(CfgEdgeType.DIRECT);
   }
 
   public CfgEdge walkNext(CfgEdgeType edgeType) {
-    var edgeOrNot = availableRoutes().stream()
-      .filter(x -> x.getType() == edgeType)
-      .findAny();
-
-    if(edgeOrNot.isPresent()) {
-      currentNode = graph.getEdgeTarget(edgeOrNot.get());
-      return edgeOrNot.get();
+    for (var edge : availableRoutes()) {
+      if (edge.getType() == edgeType) {
+        currentNode = graph.getEdgeTarget(edge);
+        return edge;
+      }
     }
 
-    throw new IllegalStateException("Edge is not found for node " + currentNode);
+    throw new IllegalStateException(edgeType + " edge is not found for node " + currentNode);
   }
 
   public void walkTo(CfgVertex target) {
@@ -0,0 +1,290 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import com.github._1c_syntax.bsl.languageserver.utils.Trees;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import com.github._1c_syntax.bsl.parser.BSLParserRuleContext;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Цепочки определений и использований локальных переменных на графе потока управления.
+ * <p>
+ * Определением считается присваивание переменной целиком ({@code А = ...}) и переменная цикла
+ * {@code Для}/{@code Для Каждого}, использованием - любое другое упоминание переменной, в том числе
+ * обращение к ее свойствам и методам. Для каждого использования вычисляются достигающие его определения
+ * (reaching definitions). Имена переменных сравниваются без учета регистра.
+ */
+public final class DefUseChains {
+
+  private static final List<Integer> USE_RULES = List.of(
+    BSLParser.RULE_complexIdentifier,
+    BSLParser.RULE_callStatement,
+    BSLParser.RULE_lValue
+  );
+
+  /**
+   * Обращение к переменной.
+   */
+  @Getter
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public static final class VariableAccess {
+    /**
+     * Номер вершины графа, в которой находится обращение.
+     */
+    private final int vertex;
+    /**
+     * Имя переменной в нижнем регистре.
+     */
+    private final String name;
+    /**
+     * Идентификатор переменной в дереве разбора.
+     */
+    private final TerminalNode node;
+    private final boolean definition;
+    /**
+     * Порядковый номер среди определений или использований графа.
+     */
+    private final int index;
+  }
+
+  private final List<VariableAccess> definitions = new ArrayList<>();
+  private final List<VariableAccess> uses = new ArrayList<>();
+  private final List<List<VariableAccess>> accessesByVertex;
+  private final Map<String, BitSet> definitionsByName = new HashMap<>();
+  private BitSet[] reachingDefinitions;
+
+  private DefUseChains(CompactControlFlowGraph graph) {
+    accessesByVertex = new ArrayList<>(graph.getVertexCount());
+    for (var vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+      List<VariableAccess> accesses = new ArrayList<>();
+      collectAccesses(graph.getVertex(vertex), vertex, accesses);
+      accessesByVertex.add(accesses);
+    }
+    computeReachingDefinitions(graph);
+  }
+
+  /**
+   * Вычислить цепочки определений и использований.
+   *
+   * @param graph Граф потока управления.
+   * @return Цепочки определений и использований.
+   */
+  public static DefUseChains of(CompactControlFlowGraph graph) {
+    return new DefUseChains(graph);
+  }
+
+  /**
+   * @return Все определения переменных в порядке номеров вершин.
+   */
+  public List<VariableAccess> getDefinitions() {
+    return Collections.unmodifiableList(definitions);
+  }
+
+  /**
+   * @return Все использования переменных в порядке номеров вершин.
+   */
+  public List<VariableAccess> getUses() {
+    return Collections.unmodifiableList(uses);
+  }
+
+  /**
+   * @param use Использование переменной.
+   * @return Определения, значения которых могут быть прочитаны в месте использования.
+   * Пустой список означает, что переменная не была присвоена в методе (параметр, переменная модуля и т.п.).
+   */
+  public List<VariableAccess> getReachingDefinitions(VariableAccess use) {
+    return reachingDefinitions[use.getIndex()].stream()
+      .mapToObj(definitions::get)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * @param definition Определение переменной.
+   * @return Использования, в которых может быть прочитано значение из определения.
+   */
+  public List<VariableAccess> getReachedUses(VariableAccess definition) {
+    return uses.stream()
+      .filter(use -> reachingDefinitions[use.getIndex()].get(definition.getIndex()))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * @return Определения, значения которых не читаются ни в одном использовании.
+   */
+  public List<VariableAccess> getUnusedDefinitions() {
+    var used = new BitSet(definitions.size());
+    for (var reaching : reachingDefinitions) {
+      used.or(reaching);
+    }
+    return definitions.stream()
+      .filter(definition -> !used.get(definition.getIndex()))
+      .collect(Collectors.toList());
+  }
+
+  private void collectAccesses(CfgVertex vertex, int vertexIndex, List<VariableAccess> accesses) {
+    if (vertex instanceof BasicBlockVertex) {
+      for (var statement : ((BasicBlockVertex) vertex).statements()) {
+        collectStatementAccesses(statement, vertexIndex, accesses);
+      }
+    } else if (vertex instanceof ConditionalVertex) {
+      collectUses(((ConditionalVertex) vertex).getExpression(), vertexIndex, accesses);
+    } else if (vertex instanceof WhileLoopVertex) {
+      collectUses(((WhileLoopVertex) vertex).getExpression(), vertexIndex, accesses);
+    } else if (vertex instanceof ForLoopVertex) {
+      var loopHeader = ((ForLoopVertex) vertex).getLoopHeader();
+      collectHeaderUses(loopHeader, vertexIndex, accesses);
+      addDefinition(loopHeader.IDENTIFIER(), vertexIndex, accesses);
+    } else if (vertex instanceof ForeachLoopVertex) {
+      var loopHeader = ((ForeachLoopVertex) vertex).getLoopHeader();
+      collectHeaderUses(loopHeader, vertexIndex, accesses);
+      addDefinition(loopHeader.IDENTIFIER(), vertexIndex, accesses);
+    }
+  }
+
+  private void collectStatementAccesses(
+    BSLParserRuleContext statement,
+    int vertexIndex,
+    List<VariableAccess> accesses
+  ) {
+    collectUses(statement, vertexIndex, accesses);
+    if (statement instanceof BSLParser.AssignmentContext) {
+      var lValue = ((BSLParser.AssignmentContext) statement).lValue();
+      if (lValue.acceptor() == null) {
+        addDefinition(lValue.IDENTIFIER(), vertexIndex, accesses);
+      }
+    }
+  }
+
+  /**
+   * В заголовке цикла учитываются только выражения, тело цикла представлено другими вершинами графа.
+   */
+  private void collectHeaderUses(BSLParserRuleContext loopHeader, int vertexIndex, List<VariableAccess> accesses) {
+    for (var i = 0; i < loopHeader.getChildCount(); i++) {
+      var child = loopHeader.getChild(i);
+      if (child instanceof BSLParser.ExpressionContext) {
+        collectUses(child, vertexIndex, accesses);
+      }
+    }
+  }
+
+  private void collectUses(ParseTree tree, int vertexIndex, List<VariableAccess> accesses) {
+    for (var node : Trees.findAllRuleNodes(tree, USE_RULES)) {
+      TerminalNode identifier = null;
+      if (node instanceof BSLParser.ComplexIdentifierContext) {
+        identifier = ((BSLParser.ComplexIdentifierContext) node).IDENTIFIER();
+      } else if (node instanceof BSLParser.CallStatementContext) {
+        identifier = ((BSLParser.CallStatementContext) node).IDENTIFIER();
+      } else if (node instanceof BSLParser.LValueContext && ((BSLParser.LValueContext) node).acceptor() != null) {
+        identifier = ((BSLParser.LValueContext) node).IDENTIFIER();
+      }
+
+      if (identifier != null) {
+        var use = new VariableAccess(vertexIndex, canonicalName(identifier), identifier, false, uses.size());
+        uses.add(use);
+        accesses.add(use);
+      }
+    }
+  }
+
+  private void addDefinition(TerminalNode identifier, int vertexIndex, List<VariableAccess> accesses) {
+    if (identifier == null) {
+      return;
+    }
+    var name = canonicalName(identifier);
+    var definition = new VariableAccess(vertexIndex, name, identifier, true, definitions.size());
+    definitions.add(definition);
+    definitionsByName.computeIfAbsent(name, key -> new BitSet()).set(definition.getIndex());
+    accesses.add(definition);
+  }
+
+  private void computeReachingDefinitions(CompactControlFlowGraph graph) {
+    var vertexCount = graph.getVertexCount();
+    var in = new BitSet[vertexCount];
+    var out = new BitSet[vertexCount];
+    for (var vertex = 0; vertex < vertexCount; vertex++) {
+      in[vertex] = new BitSet(definitions.size());
+      out[vertex] = transfer(vertex, in[vertex], false);
+    }
+
+    // вершины пронумерованы в обратном порядке обхода в глубину, поэтому прямой обход сходится быстро
+    var changed = true;
+    while (changed) {
+      changed = false;
+      for (var vertex = 0; vertex < vertexCount; vertex++) {
+        var vertexIn = new BitSet(definitions.size());
+        for (var i = 0; i < graph.getPredecessorCount(vertex); i++) {
+          vertexIn.or(out[graph.getPredecessor(vertex, i)]);
+        }
+        if (!vertexIn.equals(in[vertex])) {
+          in[vertex] = vertexIn;
+          out[vertex] = transfer(vertex, vertexIn, false);
+          changed = true;
+        }
+      }
+    }
+
+    reachingDefinitions = new BitSet[uses.size()];
+    for (var vertex = 0; vertex < vertexCount; vertex++) {
+      transfer(vertex, in[vertex], true);
+    }
+  }
+
+  /**
+   * Применить обращения вершины к множеству достигающих определений.
+   *
+   * @param recordUses Сохранить достигающие определения для каждого использования вершины.
+   * @return Множество определений на выходе из вершины.
+   */
+  private BitSet transfer(int vertex, BitSet in, boolean recordUses) {
+    var current = (BitSet) in.clone();
+    for (var access : accessesByVertex.get(vertex)) {
+      var sameName = definitionsByName.getOrDefault(access.getName(), new BitSet(0));
+      if (access.isDefinition()) {
+        current.andNot(sameName);
+        current.set(access.getIndex());
+      } else if (recordUses) {
+        var reaching = (BitSet) current.clone();
+        reaching.and(sameName);
+        reachingDefinitions[access.getIndex()] = reaching;
+      }
+    }
+    return current;
+  }
+
+  private static String canonicalName(TerminalNode identifier) {
+    return identifier.getText().toLowerCase(Locale.ENGLISH);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import java.util.Arrays;
+
+/**
+ * Дерево доминаторов графа потока управления.
+ * <p>
+ * Вершина A доминирует над вершиной B, если любой путь из точки входа в B проходит через A.
+ * Вычисляется итеративным алгоритмом Cooper, Harvey, Kennedy ("A Simple, Fast Dominance Algorithm")
+ * с использованием нумерации вершин {@link CompactControlFlowGraph} в обратном порядке обхода в глубину.
+ */
+public final class Dominators {
+
+  private final CompactControlFlowGraph graph;
+  private final int[] immediateDominators;
+
+  private Dominators(CompactControlFlowGraph graph) {
+    this.graph = graph;
+    this.immediateDominators = new int[graph.getVertexCount()];
+    Arrays.fill(immediateDominators, CompactControlFlowGraph.NO_VERTEX);
+    compute();
+  }
+
+  /**
+   * Вычислить дерево доминаторов.
+   *
+   * @param graph Граф потока управления.
+   * @return Дерево доминаторов.
+   */
+  public static Dominators of(CompactControlFlowGraph graph) {
+    return new Dominators(graph);
+  }
+
+  /**
+   * @param vertex Номер вершины.
+   * @return Номер непосредственного доминатора вершины или {@link CompactControlFlowGraph#NO_VERTEX}
+   * для точки входа и недостижимых вершин.
+   */
+  public int getImmediateDominator(int vertex) {
+    if (vertex == graph.getEntryIndex()) {
+      return CompactControlFlowGraph.NO_VERTEX;
+    }
+    return immediateDominators[vertex];
+  }
+
+  /**
+   * @param dominator Номер предполагаемого доминатора.
+   * @param vertex    Номер вершины.
+   * @return Признак того, что первая вершина доминирует над второй. Вершина доминирует сама над собой.
+   * Недостижимые вершины не доминируют и не доминируются.
+   */
+  public boolean dominates(int dominator, int vertex) {
+    if (!isReachable(dominator) || !isReachable(vertex)) {
+      return false;
+    }
+
+    var current = vertex;
+    // номер доминатора всегда меньше номера вершины
+    while (current > dominator) {
+      current = immediateDominators[current];
+    }
+    return current == dominator;
+  }
+
+  private boolean isReachable(int vertex) {
+    return vertex < graph.getReachableCount();
+  }
+
+  private void compute() {
+    var entry = graph.getEntryIndex();
+    immediateDominators[entry] = entry;
+
+    var changed = true;
+    while (changed) {
+      changed = false;
+      for (var vertex = 0; vertex < graph.getReachableCount(); vertex++) {
+        if (vertex == entry) {
+          continue;
+        }
+
+        var newDominator = CompactControlFlowGraph.NO_VERTEX;
+        for (var i = 0; i < graph.getPredecessorCount(vertex); i++) {
+          var predecessor = graph.getPredecessor(vertex, i);
+          if (!isReachable(predecessor) || immediateDominators[predecessor] == CompactControlFlowGraph.NO_VERTEX) {
+            continue;
+          }
+          if (newDominator == CompactControlFlowGraph.NO_VERTEX) {
+            newDominator = predecessor;
+          } else {
+            newDominator = intersect(predecessor, newDominator);
+          }
+        }
+
+        if (immediateDominators[vertex] != newDominator) {
+          immediateDominators[vertex] = newDominator;
+          changed = true;
+        }
+      }
+    }
+  }
+
+  private int intersect(int first, int second) {
+    var left = first;
+    var right = second;
+    while (left != right) {
+      while (left > right) {
+        left = immediateDominators[left];
+      }
+      while (right > left) {
+        right = immediateDominators[right];
+      }
+    }
+    return left;
+  }
+}
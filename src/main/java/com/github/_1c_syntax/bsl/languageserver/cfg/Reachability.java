@@ -0,0 +1,93 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.BitSet;
+
+/**
+ * Анализ достижимости вершин компактного графа потока управления.
+ */
+@UtilityClass
+public class Reachability {
+
+  /**
+   * @param graph Граф потока управления.
+   * @return Номера вершин, недостижимых из точки входа.
+   */
+  public BitSet unreachableVertices(CompactControlFlowGraph graph) {
+    var unreachable = new BitSet(graph.getVertexCount());
+    unreachable.set(graph.getReachableCount(), graph.getVertexCount());
+    return unreachable;
+  }
+
+  /**
+   * @param graph Граф потока управления.
+   * @param from  Номер начальной вершины.
+   * @return Номера вершин, достижимых из начальной вершины, включая ее саму.
+   */
+  public BitSet reachableFrom(CompactControlFlowGraph graph, int from) {
+    var reached = new BitSet(graph.getVertexCount());
+    var stack = new int[graph.getVertexCount()];
+    var size = 0;
+
+    reached.set(from);
+    stack[size++] = from;
+    while (size > 0) {
+      var vertex = stack[--size];
+      for (var i = 0; i < graph.getSuccessorCount(vertex); i++) {
+        var successor = graph.getSuccessor(vertex, i);
+        if (!reached.get(successor)) {
+          reached.set(successor);
+          stack[size++] = successor;
+        }
+      }
+    }
+    return reached;
+  }
+
+  /**
+   * @param graph Граф потока управления.
+   * @param to    Номер конечной вершины.
+   * @return Номера вершин, из которых достижима конечная вершина, включая ее саму.
+   */
+  public BitSet reaching(CompactControlFlowGraph graph, int to) {
+    var reached = new BitSet(graph.getVertexCount());
+    var stack = new int[graph.getVertexCount()];
+    var size = 0;
+
+    reached.set(to);
+    stack[size++] = to;
+    while (size > 0) {
+      var vertex = stack[--size];
+      for (var i = 0; i < graph.getPredecessorCount(vertex); i++) {
+        var predecessor = graph.getPredecessor(vertex, i);
+        if (!reached.get(predecessor)) {
+          reached.set(predecessor);
+          stack[size++] = predecessor;
+        }
+      }
+    }
+    return reached;
+  }
+}
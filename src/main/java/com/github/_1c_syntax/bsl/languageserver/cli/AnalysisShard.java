@@ -0,0 +1,112 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Часть (шард) файлов проекта, анализируемая отдельным запуском анализатора.
+ * <p>
+ * Задается строкой вида {@code i/n}, где {@code n} - общее количество шардов,
+ * а {@code i} - номер шарда от 1 до {@code n}. Файл относится к шарду по стабильному хешу
+ * своего относительного пути, поэтому разбиение не зависит от порядка обхода файлов,
+ * операционной системы и запуска, в котором оно вычисляется.
+ */
+@Value
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class AnalysisShard {
+
+  private static final Pattern SHARD_PATTERN = Pattern.compile("(\\d+)/(\\d+)");
+
+  /**
+   * Номер шарда, начиная с 1.
+   */
+  int index;
+
+  /**
+   * Общее количество шардов.
+   */
+  int count;
+
+  /**
+   * Разобрать строковое представление шарда.
+   *
+   * @param value Строка вида {@code i/n}.
+   * @return Шард.
+   * @throws IllegalArgumentException если строка не соответствует формату или номер шарда вне диапазона.
+   */
+  public static AnalysisShard parse(String value) {
+    var matcher = SHARD_PATTERN.matcher(value.trim());
+    if (!matcher.matches()) {
+      throw new IllegalArgumentException("Shard must be in form i/n, got `" + value + "`");
+    }
+
+    int index;
+    int count;
+    try {
+      index = Integer.parseInt(matcher.group(1));
+      count = Integer.parseInt(matcher.group(2));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Shard must be in form i/n, got `" + value + "`", e);
+    }
+
+    if (count < 1 || index < 1 || index > count) {
+      throw new IllegalArgumentException(
+        "Shard index must be between 1 and " + count + ", got `" + value + "`"
+      );
+    }
+
+    return new AnalysisShard(index, count);
+  }
+
+  /**
+   * Проверить принадлежность файла шарду.
+   *
+   * @param relativePath Путь к файлу относительно каталога исходных файлов.
+   * @return Признак принадлежности файла шарду.
+   */
+  public boolean contains(Path relativePath) {
+    if (count == 1) {
+      return true;
+    }
+
+    // разделители пути приводятся к единому виду, чтобы шарды,
+    // рассчитанные на разных операционных системах, совпадали.
+    var normalizedPath = relativePath.toString().replace('\\', '/');
+    var crc = new CRC32();
+    crc.update(normalizedPath.getBytes(StandardCharsets.UTF_8));
+
+    return crc.getValue() % count == index - 1;
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
@@ -27,6 +27,7 @@ import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
 import com.github._1c_syntax.bsl.languageserver.reporters.ReportersAggregator;
 import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
 import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.databind.AnalysisInfoObjectMapper;
 import com.github._1c_syntax.bsl.types.MdoReference;
 import com.github._1c_syntax.mdclasses.mdo.AbstractMDObjectBase;
 import com.github._1c_syntax.utils.Absolute;
@@ -45,6 +46,8 @@ import java.io.File;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
@@ -72,6 +75,16 @@ import static picocli.CommandLine.Option;
  * выполнения анализа. Может быть указано более одного ключа. Если параметр опущен,
  * то вывод результата будет призведен в консоль.
  * -q, (--silent)              -       Флаг для отключения вывода прогресс-бара и дополнительных сообщений в консоль
+ * --changed &lt;arg&gt;            -  Путь к измененному файлу. Может быть указано более одного файла.
+ * Включает инкрементальный анализ: анализируются только измененные файлы, остальные модули тех же объектов
+ * метаданных и модули, обращающиеся к символам измененных модулей.
+ * --changedSince &lt;arg&gt;       -  Ревизия или диапазон ревизий git, изменения относительно которых определяют
+ * список измененных файлов. Включает инкрементальный анализ.
+ * --baseline &lt;arg&gt;           -  Путь к JSON-отчету предыдущего анализа. Результаты по файлам, не попавшим
+ * в инкрементальный анализ, переносятся из него в новые отчеты.
+ * --shard &lt;arg&gt;              -  Шард анализа в виде i/n. Анализируются только файлы, относящиеся к i-му
+ * из n шардов по хешу пути относительно каталога исходных файлов. Контекст (метаданные и индекс ссылок)
+ * по-прежнему строится по всем файлам. Отчеты шардов объединяются командой merge.
  * Выводимая информация:
  * Выполняет анализ каталога исходных файлов и генерацию файлов отчета. Для каждого указанного ключа "Репортера"
  * создается отдельный файл (каталог файлов). Реализованные "репортеры" находятся в пакете "reporter".
@@ -139,9 +152,37 @@ public class AnalyzeCommand implements Callable<Integer> {
     description = "Silent mode")
   private boolean silentMode;
 
+  @Option(
+    names = {"--changed"},
+    paramLabel = "<path>",
+    description = "Changed file. Enables incremental analysis of changed files and their dependents")
+  private String[] changedFilesOptions = {};
+
+  @Option(
+    names = {"--changedSince"},
+    paramLabel = "<revision>",
+    description = "Git revision or range to compute changed files. Enables incremental analysis",
+    defaultValue = "")
+  private String changedSinceOption;
+
+  @Option(
+    names = {"--baseline"},
+    paramLabel = "<path>",
+    description = "Previous json report to take results of files skipped by incremental analysis",
+    defaultValue = "")
+  private String baselineOption;
+
+  @Option(
+    names = {"--shard"},
+    paramLabel = "<i/n>",
+    description = "Analyze only i-th of n shards of source files. Use merge command to combine json reports",
+    defaultValue = "")
+  private String shardOption;
+
   private final ReportersAggregator aggregator;
   private final LanguageServerConfiguration configuration;
   private final ServerContext context;
+  private final IncrementalAnalysisScope incrementalAnalysisScope;
 
   public Integer call() {
 
@@ -157,6 +198,14 @@ public class AnalyzeCommand implements Callable<Integer> {
       return 1;
     }
 
+    AnalysisShard shard;
+    try {
+      shard = AnalysisShard.parse(shardOption.isEmpty() ? "1/1" : shardOption);
+    } catch (IllegalArgumentException e) {
+      LOGGER.error(e.getMessage());
+      return 1;
+    }
+
     var configurationFile = new File(configurationOption);
     if (configurationFile.exists()) {
       configuration.update(configurationFile);
@@ -169,29 +218,54 @@ public class AnalyzeCommand implements Callable<Integer> {
 
     context.populateContext(files);
 
-    List<FileInfo> fileInfos;
-    if (silentMode) {
-      fileInfos = files.parallelStream()
-        .map((File file) -> getFileInfoFromFile(workspaceDir, file))
+    // контекст заполняется всеми файлами, чтобы межмодульные диагностики шарда
+    // видели метаданные и ссылки всей конфигурации.
+    // Файлы упорядочиваются по пути, чтобы порядок результатов в отчетах не зависел от порядка обхода каталогов.
+    var shardFiles = files.stream()
+      .filter(file -> shard.contains(srcDir.relativize(Absolute.path(file))))
+      .sorted()
+      .collect(Collectors.toList());
+
+    var filesToAnalyze = shardFiles;
+    if (isIncrementalAnalysis()) {
+      var scope = incrementalAnalysisScope.compute(getChangedFiles(srcDir));
+      filesToAnalyze = shardFiles.stream()
+        .filter(file -> scope.contains(Absolute.uri(file.toURI())))
         .collect(Collectors.toList());
-    } else {
-      try (ProgressBar pb = new ProgressBarBuilder()
-        .setTaskName("Analyzing files...")
-        .setInitialMax(files.size())
-        .setStyle(ProgressBarStyle.ASCII)
-        .build()) {
-        fileInfos = files.parallelStream()
-          .map((File file) -> {
-            pb.step();
-            return getFileInfoFromFile(workspaceDir, file);
-          })
-          .collect(Collectors.toList());
-      }
     }
+    var analyzedFiles = filesToAnalyze;
 
-    var analysisInfo = new AnalysisInfo(LocalDateTime.now(), fileInfos, srcDir.toString());
+    // результаты анализа передаются репортерам по мере готовности,
+    // чтобы не держать в памяти диагностики и метрики всех файлов проекта одновременно.
+    // Файлы анализируются параллельно, но результаты передаются в порядке списка файлов.
+    // Отчеты формируются только после успешного окончания анализа, дата анализа фиксируется после него.
     var outputDir = Absolute.path(outputDirOption);
-    aggregator.report(analysisInfo, outputDir);
+    try (var writer = aggregator.createWriter(srcDir.toString(), outputDir)) {
+      if (silentMode) {
+        analyzedFiles.parallelStream()
+          .map((File file) -> getFileInfoFromFile(workspaceDir, file))
+          .forEachOrdered(writer::write);
+      } else {
+        try (ProgressBar pb = new ProgressBarBuilder()
+          .setTaskName("Analyzing files...")
+          .setInitialMax(analyzedFiles.size())
+          .setStyle(ProgressBarStyle.ASCII)
+          .build()) {
+          analyzedFiles.parallelStream()
+            .map((File file) -> {
+              pb.step();
+              return getFileInfoFromFile(workspaceDir, file);
+            })
+            .forEachOrdered(writer::write);
+        }
+      }
+
+      if (!baselineOption.isEmpty()) {
+        getBaselineFileInfos(workspaceDir, shardFiles, analyzedFiles).forEach(writer::write);
+      }
+
+      writer.complete(LocalDateTime.now());
+    }
     return 0;
   }
 
@@ -199,6 +273,46 @@ public class AnalyzeCommand implements Callable<Integer> {
     return reportersOptions.clone();
   }
 
+  private boolean isIncrementalAnalysis() {
+    return changedFilesOptions.length > 0 || !changedSinceOption.isEmpty();
+  }
+
+  private List<File> getChangedFiles(Path srcDir) {
+    List<File> changedFiles = Arrays.stream(changedFilesOptions)
+      .map(Absolute::path)
+      .map(Path::toFile)
+      .collect(Collectors.toCollection(ArrayList::new));
+
+    if (!changedSinceOption.isEmpty()) {
+      changedFiles.addAll(incrementalAnalysisScope.getChangedFiles(srcDir, changedSinceOption));
+    }
+
+    return changedFiles;
+  }
+
+  /**
+   * Результаты предыдущего анализа по существующим файлам, не вошедшим в текущий анализ.
+   */
+  @SneakyThrows
+  private List<FileInfo> getBaselineFileInfos(Path workspaceDir, List<File> files, List<File> analyzedFiles) {
+    var analyzedPaths = analyzedFiles.stream()
+      .map(file -> workspaceDir.relativize(Absolute.path(file)))
+      .collect(Collectors.toSet());
+    var skippedPaths = files.stream()
+      .map(file -> workspaceDir.relativize(Absolute.path(file)))
+      .filter(path -> !analyzedPaths.contains(path))
+      .collect(Collectors.toSet());
+
+    var mapper = new AnalysisInfoObjectMapper();
+    mapper.findAndRegisterModules();
+    var baseline = mapper.readValue(Absolute.path(baselineOption).toFile(), AnalysisInfo.class);
+
+    return baseline.getFileinfos().stream()
+      .filter(fileInfo -> skippedPaths.contains(fileInfo.getPath()))
+      .sorted(Comparator.comparing(FileInfo::getPath))
+      .collect(Collectors.toList());
+  }
+
   @SneakyThrows
   private FileInfo getFileInfoFromFile(Path srcDir, File file) {
     var documentContext = context.addDocument(file.toURI());
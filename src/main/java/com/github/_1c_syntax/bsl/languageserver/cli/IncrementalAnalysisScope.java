@@ -0,0 +1,118 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.references.ReferenceIndex;
+import com.github._1c_syntax.bsl.languageserver.utils.MdoRefBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Определение области инкрементального анализа.
+ * <p>
+ * В область анализа попадают измененные модули, остальные модули тех же объектов метаданных
+ * и модули, обращающиеся к символам измененных модулей (по данным {@link ReferenceIndex}).
+ * Контекст сервера к моменту вызова должен быть заполнен всеми файлами проекта.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IncrementalAnalysisScope {
+
+  private final ServerContext context;
+  private final ReferenceIndex referenceIndex;
+
+  /**
+   * Вычислить область анализа по списку измененных файлов.
+   *
+   * @param changedFiles Измененные файлы. Удаленные и не входящие в контекст файлы игнорируются.
+   * @return URI документов, которые необходимо проанализировать.
+   */
+  public Set<URI> compute(Collection<File> changedFiles) {
+    var changedDocuments = changedFiles.stream()
+      .map(file -> context.getDocument(file.toURI()))
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+
+    Set<DocumentContext> documents = new HashSet<>(changedDocuments);
+    changedDocuments.forEach(documentContext ->
+      documents.addAll(context.getDocuments(MdoRefBuilder.getMdoRef(documentContext)).values())
+    );
+
+    Set<URI> scope = documents.stream()
+      .map(DocumentContext::getUri)
+      .collect(Collectors.toCollection(HashSet::new));
+    scope.addAll(referenceIndex.getReferencingDocuments(documents));
+
+    LOGGER.info("Incremental analysis: {} changed files, {} files to analyze", changedDocuments.size(), scope.size());
+
+    return scope;
+  }
+
+  /**
+   * Получить список файлов, измененных относительно указанной ревизии git.
+   *
+   * @param srcDir   Каталог исходных файлов внутри рабочей копии git.
+   * @param revision Ревизия или диапазон ревизий в формате {@code git diff}.
+   * @return Измененные файлы каталога исходных файлов.
+   */
+  @SneakyThrows
+  public List<File> getChangedFiles(Path srcDir, String revision) {
+    // имена файлов разделяются нулевым символом, чтобы git не экранировал пути с кириллицей
+    var process = new ProcessBuilder("git", "diff", "--name-only", "--relative", "-z", revision)
+      .directory(srcDir.toFile())
+      .redirectError(ProcessBuilder.Redirect.INHERIT)
+      .start();
+
+    List<File> changedFiles;
+    try (var inputStream = process.getInputStream()) {
+      var output = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      changedFiles = Arrays.stream(output.split("\0"))
+        .filter(name -> !name.isBlank())
+        .map(name -> srcDir.resolve(name).normalize().toFile())
+        .collect(Collectors.toList());
+    }
+
+    var exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException(String.format("git diff %s exited with code %d", revision, exitCode));
+    }
+
+    return changedFiles;
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
+import com.github._1c_syntax.bsl.languageserver.reporters.ReportWriter;
+import com.github._1c_syntax.bsl.languageserver.reporters.ReportersAggregator;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.databind.AnalysisInfoObjectMapper;
+import com.github._1c_syntax.utils.Absolute;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Объединение результатов анализа шардов
+ * Ключ команды:
+ * -m, (--merge)
+ * Параметры:
+ * &lt;files&gt;                     -  Пути к JSON-отчетам (репортер json) шардов анализа.
+ * -o, (--outputDir) &lt;arg&gt; -     Путь к каталогу размещения отчетов. Если параметр опущен,
+ * то файлы отчета будут сохранены в текущем каталоге запуска.
+ * -c, (--configuration) &lt;arg&gt; - Путь к конфигурационному файлу BSL Language Server (.bsl-language-server.json).
+ * -r, (--reporter) &lt;arg&gt; -      Ключи "Репортеров", т.е. форматов отчетов, котрые необходимо сгенерировать.
+ * Обязательный параметр.
+ * Выводимая информация:
+ * Результаты анализа файлов из всех переданных отчетов передаются выбранным репортерам так же,
+ * как при выполнении команды analyze. Дата анализа берется из первого отчета.
+ * Результаты по файлу, встретившемуся в нескольких отчетах, берутся из первого из них.
+ * Объединяются только отчеты с одинаковым каталогом исходных файлов: при расхождении, а также при отсутствии
+ * или неизвестном ключе репортера, команда завершается с ошибкой без формирования отчетов.
+ **/
+@Slf4j
+@Command(
+  name = "merge",
+  aliases = {"-m", "--merge"},
+  description = "Merge json reports of analysis shards",
+  usageHelpAutoWidth = true,
+  footer = "@|green Copyright(c) 2018-2022|@")
+@Component
+@RequiredArgsConstructor
+public class MergeCommand implements Callable<Integer> {
+
+  private static final String SOURCE_DIR_FIELD = "sourceDir";
+
+  private static class ReportersKeys extends ArrayList<String> {
+    ReportersKeys(ReportersAggregator aggregator) {
+      super(aggregator.reporterKeys());
+    }
+  }
+
+  @Option(
+    names = {"-h", "--help"},
+    usageHelp = true,
+    description = "Show this help message and exit")
+  private boolean usageHelpRequested;
+
+  @Option(
+    names = {"-o", "--outputDir"},
+    description = "Output report directory",
+    paramLabel = "<path>",
+    defaultValue = "")
+  private String outputDirOption;
+
+  @Option(
+    names = {"-c", "--configuration"},
+    description = "Path to language server configuration file",
+    paramLabel = "<path>",
+    defaultValue = "")
+  private String configurationOption;
+
+  @Option(
+    names = {"-r", "--reporter"},
+    paramLabel = "<keys>",
+    completionCandidates = ReportersKeys.class,
+    description = "Reporter key (${COMPLETION-CANDIDATES})")
+  private String[] reportersOptions = {};
+
+  @Parameters(
+    paramLabel = "<path>",
+    arity = "1..*",
+    description = "Json reports of analysis shards")
+  private String[] reportFiles = {};
+
+  private final ReportersAggregator aggregator;
+  private final LanguageServerConfiguration configuration;
+
+  public Integer call() {
+
+    List<File> files = new ArrayList<>();
+    for (var reportFile : reportFiles) {
+      var file = Absolute.path(reportFile).toFile();
+      if (!file.isFile()) {
+        LOGGER.error("Report file `{}` is not exists", file);
+        return 1;
+      }
+      files.add(file);
+    }
+
+    var reporterKeys = Arrays.asList(reportersOptions);
+    if (!checkReporterKeys(reporterKeys)) {
+      return 1;
+    }
+
+    var mapper = new AnalysisInfoObjectMapper();
+    mapper.findAndRegisterModules();
+
+    // каталоги исходных файлов проверяются до формирования отчетов, чтобы не оставлять частично записанные отчеты
+    var sourceDir = readSourceDir(mapper, files.get(0));
+    for (var file : files.subList(1, files.size())) {
+      var reportSourceDir = readSourceDir(mapper, file);
+      if (!sourceDir.equals(reportSourceDir)) {
+        LOGGER.error(
+          "Report `{}` has source dir `{}` that differs from source dir `{}` of report `{}`",
+          file, reportSourceDir, sourceDir, files.get(0)
+        );
+        return 1;
+      }
+    }
+
+    var configurationFile = new File(configurationOption);
+    if (configurationFile.exists()) {
+      configuration.update(configurationFile);
+    }
+
+    // отчеты шардов читаются по одному, чтобы не держать в памяти результаты всей конфигурации.
+    var firstReport = readReport(mapper, files.get(0));
+    var outputDir = Absolute.path(outputDirOption);
+    Set<Path> mergedPaths = new HashSet<>();
+
+    try (var writer = aggregator.createWriter(reporterKeys, sourceDir, outputDir)) {
+      write(writer, firstReport, mergedPaths);
+      for (var file : files.subList(1, files.size())) {
+        write(writer, readReport(mapper, file), mergedPaths);
+      }
+      writer.complete(firstReport.getDate());
+    }
+
+    return 0;
+  }
+
+  private boolean checkReporterKeys(List<String> reporterKeys) {
+    var knownKeys = aggregator.reporterKeys();
+    if (reporterKeys.isEmpty()) {
+      LOGGER.error("Reporter is not specified. Use -r option with one of keys: {}", knownKeys);
+      return false;
+    }
+
+    var unknownKeys = reporterKeys.stream()
+      .filter(key -> !knownKeys.contains(key))
+      .collect(Collectors.toList());
+    if (!unknownKeys.isEmpty()) {
+      LOGGER.error("Unknown reporter keys: {}. Available keys: {}", unknownKeys, knownKeys);
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Прочитать каталог исходных файлов отчета без чтения результатов анализа файлов.
+   */
+  @SneakyThrows
+  private static String readSourceDir(AnalysisInfoObjectMapper mapper, File file) {
+    try (var parser = mapper.getFactory().createParser(file)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return "";
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        var fieldName = parser.getCurrentName();
+        parser.nextToken();
+        if (SOURCE_DIR_FIELD.equals(fieldName)) {
+          return parser.getValueAsString("");
+        }
+        parser.skipChildren();
+      }
+    }
+    return "";
+  }
+
+  @SneakyThrows
+  private static AnalysisInfo readReport(AnalysisInfoObjectMapper mapper, File file) {
+    return mapper.readValue(file, AnalysisInfo.class);
+  }
+
+  private static void write(ReportWriter writer, AnalysisInfo report, Set<Path> mergedPaths) {
+    for (var fileInfo : report.getFileinfos()) {
+      if (mergedPaths.add(fileInfo.getPath())) {
+        writer.write(fileInfo);
+      } else {
+        LOGGER.warn("Duplicate results for file `{}` are skipped", fileInfo.getPath());
+      }
+    }
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.mdo.support.ScriptVariant;
+import com.github._1c_syntax.bsl.supconf.SupportConfiguration;
+import com.github._1c_syntax.bsl.support.CompatibilityMode;
+import com.github._1c_syntax.bsl.support.SupportVariant;
+import com.github._1c_syntax.bsl.types.ConfigurationSource;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import com.github._1c_syntax.mdclasses.Configuration;
+import com.github._1c_syntax.mdclasses.mdo.AbstractMDObjectBase;
+import com.github._1c_syntax.mdclasses.mdo.MDCommonModule;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.Getter;
+import lombok.Value;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Компактный снимок данных метаданных конфигурации, необходимых серверу при заполнении контекста:
+ * типы модулей, варианты поддержки и ссылки на объекты метаданных модулей, общие модули,
+ * источник конфигурации, вариант встроенного языка и режим совместимости.
+ * <p>
+ * Снимок строится по полной модели метаданных ({@link Configuration}) и может быть сохранен в бинарном
+ * виде, что позволяет не разбирать описания метаданных при каждом запуске сервера.
+ * Полная модель метаданных по-прежнему доступна через {@link ServerContext#getConfiguration()}.
+ */
+public final class ConfigurationSnapshot {
+
+  @Getter
+  private final ConfigurationSource configurationSource;
+
+  @Getter
+  @Nullable
+  private final ScriptVariant scriptVariant;
+
+  @Getter
+  @Nullable
+  private final CompatibilityMode compatibilityMode;
+
+  private final Map<URI, ModuleData> modules;
+
+  /**
+   * Ссылки на общие модули по именам в нижнем регистре.
+   */
+  private final Map<String, String> commonModules;
+
+  /**
+   * Модули объектов метаданных в разрезе типов модулей по ссылкам на объекты.
+   * Вычисляется по {@link #modules} и не сохраняется в бинарном представлении.
+   */
+  private final Map<String, Map<ModuleType, URI>> modulesByMdoRef;
+
+  private ConfigurationSnapshot(
+    ConfigurationSource configurationSource,
+    @Nullable ScriptVariant scriptVariant,
+    @Nullable CompatibilityMode compatibilityMode,
+    Map<URI, ModuleData> modules,
+    Map<String, String> commonModules
+  ) {
+    this.configurationSource = configurationSource;
+    this.scriptVariant = scriptVariant;
+    this.compatibilityMode = compatibilityMode;
+    this.modules = modules;
+    this.commonModules = commonModules;
+    this.modulesByMdoRef = computeModulesByMdoRef(modules);
+  }
+
+  /**
+   * Построить снимок по полной модели метаданных.
+   *
+   * @param configuration Модель метаданных конфигурации.
+   * @return Снимок данных конфигурации.
+   */
+  public static ConfigurationSnapshot create(Configuration configuration) {
+    var modulesByObject = configuration.getModulesByObject();
+
+    Map<URI, ModuleData> modules = new HashMap<>();
+    configuration.getModulesByType().forEach((URI uri, ModuleType moduleType) -> {
+      var mdoRef = Optional.ofNullable(modulesByObject.get(uri))
+        .map(mdObject -> ((AbstractMDObjectBase) mdObject).getMdoReference().getMdoRef())
+        .orElse(null);
+      modules.put(uri, new ModuleData(moduleType, mdoRef, configuration.getModuleSupport(uri)));
+    });
+
+    Map<String, String> commonModules = new HashMap<>();
+    modulesByObject.values().stream()
+      .filter(MDCommonModule.class::isInstance)
+      .map(MDCommonModule.class::cast)
+      .forEach(commonModule -> commonModules.put(
+        commonModule.getName().toLowerCase(Locale.ENGLISH),
+        commonModule.getMdoReference().getMdoRef()
+      ));
+
+    return new ConfigurationSnapshot(
+      configuration.getConfigurationSource(),
+      configuration.getScriptVariant(),
+      configuration.getCompatibilityMode(),
+      modules,
+      commonModules
+    );
+  }
+
+  /**
+   * @param uri URI модуля.
+   * @return Тип модуля или {@link ModuleType#UNKNOWN}, если модуль не принадлежит конфигурации.
+   */
+  public ModuleType getModuleType(URI uri) {
+    return Optional.ofNullable(modules.get(uri))
+      .map(ModuleData::getModuleType)
+      .orElse(ModuleType.UNKNOWN);
+  }
+
+  /**
+   * @param uri URI модуля.
+   * @return Варианты поддержки модуля в разрезе конфигураций поставщиков.
+   */
+  public Map<SupportConfiguration, SupportVariant> getModuleSupport(URI uri) {
+    return Optional.ofNullable(modules.get(uri))
+      .map(ModuleData::getSupportVariants)
+      .orElse(Collections.emptyMap());
+  }
+
+  /**
+   * @param uri URI модуля.
+   * @return Ссылка на объект метаданных, которому принадлежит модуль.
+   */
+  public Optional<String> getMdoRef(URI uri) {
+    return Optional.ofNullable(modules.get(uri))
+      .map(ModuleData::getMdoRef);
+  }
+
+  /**
+   * @param mdoRef Ссылка на объект метаданных.
+   * @return URI модулей объекта метаданных в разрезе типов модулей.
+   */
+  public Map<ModuleType, URI> getModulesByMDORef(String mdoRef) {
+    return modulesByMdoRef.getOrDefault(mdoRef, Collections.emptyMap());
+  }
+
+  /**
+   * @param name Имя общего модуля (без учета регистра).
+   * @return Ссылка на общий модуль.
+   */
+  public Optional<String> getCommonModuleMdoRef(String name) {
+    return Optional.ofNullable(commonModules.get(name.toLowerCase(Locale.ENGLISH)));
+  }
+
+  /**
+   * @return URI всех модулей конфигурации.
+   */
+  public Set<URI> getModuleUris() {
+    return Collections.unmodifiableSet(modules.keySet());
+  }
+
+  /**
+   * Записать снимок в бинарном виде.
+   *
+   * @param output Поток записи.
+   * @throws IOException Ошибка записи.
+   */
+  public void write(DataOutput output) throws IOException {
+    output.writeUTF(configurationSource.name());
+    writeNullable(output, scriptVariant == null ? null : scriptVariant.name());
+    output.writeBoolean(compatibilityMode != null);
+    if (compatibilityMode != null) {
+      output.writeInt(compatibilityMode.getMinor());
+      output.writeInt(compatibilityMode.getVersion());
+    }
+
+    output.writeInt(modules.size());
+    for (var entry : modules.entrySet()) {
+      var moduleData = entry.getValue();
+      output.writeUTF(entry.getKey().toString());
+      output.writeUTF(moduleData.getModuleType().name());
+      writeNullable(output, moduleData.getMdoRef());
+      output.writeInt(moduleData.getSupportVariants().size());
+      for (var support : moduleData.getSupportVariants().entrySet()) {
+        var supportConfiguration = support.getKey();
+        output.writeUTF(Objects.toString(supportConfiguration.getName(), ""));
+        output.writeUTF(Objects.toString(supportConfiguration.getProvider(), ""));
+        output.writeUTF(Objects.toString(supportConfiguration.getVersion(), ""));
+        output.writeUTF(support.getValue().name());
+      }
+    }
+
+    output.writeInt(commonModules.size());
+    for (var entry : commonModules.entrySet()) {
+      output.writeUTF(entry.getKey());
+      output.writeUTF(entry.getValue());
+    }
+  }
+
+  /**
+   * Прочитать снимок, записанный {@link #write(DataOutput)}.
+   *
+   * @param input Поток чтения.
+   * @return Снимок данных конфигурации.
+   * @throws IOException Ошибка чтения.
+   */
+  public static ConfigurationSnapshot read(DataInput input) throws IOException {
+    var configurationSource = ConfigurationSource.valueOf(input.readUTF());
+    var scriptVariantName = readNullable(input);
+    var scriptVariant = scriptVariantName == null ? null : ScriptVariant.valueOf(scriptVariantName);
+    CompatibilityMode compatibilityMode = null;
+    if (input.readBoolean()) {
+      compatibilityMode = new CompatibilityMode(input.readInt(), input.readInt());
+    }
+
+    var modulesCount = input.readInt();
+    Map<URI, ModuleData> modules = new HashMap<>(modulesCount * 4 / 3 + 1);
+    for (var i = 0; i < modulesCount; i++) {
+      var uri = URI.create(input.readUTF());
+      var moduleType = ModuleType.valueOf(input.readUTF());
+      var mdoRef = readNullable(input);
+      var supportCount = input.readInt();
+      Map<SupportConfiguration, SupportVariant> supportVariants = new LinkedHashMap<>();
+      for (var j = 0; j < supportCount; j++) {
+        var supportConfiguration = new SupportConfiguration(input.readUTF(), input.readUTF(), input.readUTF());
+        supportVariants.put(supportConfiguration, SupportVariant.valueOf(input.readUTF()));
+      }
+      modules.put(uri, new ModuleData(moduleType, mdoRef, supportVariants));
+    }
+
+    var commonModulesCount = input.readInt();
+    Map<String, String> commonModules = new HashMap<>(commonModulesCount * 4 / 3 + 1);
+    for (var i = 0; i < commonModulesCount; i++) {
+      commonModules.put(input.readUTF(), input.readUTF());
+    }
+
+    return new ConfigurationSnapshot(configurationSource, scriptVariant, compatibilityMode, modules, commonModules);
+  }
+
+  private static Map<String, Map<ModuleType, URI>> computeModulesByMdoRef(Map<URI, ModuleData> modules) {
+    Map<String, Map<ModuleType, URI>> modulesByMdoRef = new HashMap<>();
+    modules.forEach((URI uri, ModuleData moduleData) -> {
+      var mdoRef = moduleData.getMdoRef();
+      if (mdoRef != null) {
+        modulesByMdoRef.computeIfAbsent(mdoRef, key -> new EnumMap<>(ModuleType.class))
+          .put(moduleData.getModuleType(), uri);
+      }
+    });
+    modulesByMdoRef.replaceAll((String mdoRef, Map<ModuleType, URI> moduleTypes) ->
+      Collections.unmodifiableMap(moduleTypes));
+    return modulesByMdoRef;
+  }
+
+  private static void writeNullable(DataOutput output, @Nullable String value) throws IOException {
+    output.writeBoolean(value != null);
+    if (value != null) {
+      output.writeUTF(value);
+    }
+  }
+
+  @Nullable
+  private static String readNullable(DataInput input) throws IOException {
+    return input.readBoolean() ? input.readUTF() : null;
+  }
+
+  @Value
+  private static class ModuleData {
+    ModuleType moduleType;
+    @Nullable
+    String mdoRef;
+    Map<SupportConfiguration, SupportVariant> supportVariants;
+  }
+}
@@ -21,6 +21,8 @@
  */
 package com.github._1c_syntax.bsl.languageserver.context;
 
+import com.github._1c_syntax.bsl.languageserver.cfg.CompactControlFlowGraph;
+import com.github._1c_syntax.bsl.languageserver.cfg.ControlFlowGraphStorage;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
 import com.github._1c_syntax.bsl.languageserver.context.computer.CognitiveComplexityComputer;
 import com.github._1c_syntax.bsl.languageserver.context.computer.ComplexityData;
@@ -32,9 +34,11 @@ import com.github._1c_syntax.bsl.languageserver.context.computer.QueryComputer;
 import com.github._1c_syntax.bsl.languageserver.context.computer.SymbolTreeComputer;
 import com.github._1c_syntax.bsl.languageserver.context.symbol.MethodSymbol;
 import com.github._1c_syntax.bsl.languageserver.context.symbol.SymbolTree;
+import com.github._1c_syntax.bsl.languageserver.utils.ParseTreeIndex;
 import com.github._1c_syntax.bsl.languageserver.utils.Trees;
+import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.BslExpression;
+import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.ExpressionTreeStorage;
 import com.github._1c_syntax.bsl.mdo.support.ScriptVariant;
-import com.github._1c_syntax.bsl.parser.BSLLexer;
 import com.github._1c_syntax.bsl.parser.BSLParser;
 import com.github._1c_syntax.bsl.parser.BSLTokenizer;
 import com.github._1c_syntax.bsl.parser.SDBLTokenizer;
@@ -45,9 +49,11 @@ import com.github._1c_syntax.bsl.types.ModuleType;
 import com.github._1c_syntax.mdclasses.mdo.AbstractMDObjectBase;
 import com.github._1c_syntax.utils.Lazy;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.antlr.v4.runtime.Token;
 import org.apache.commons.io.FileUtils;
@@ -63,19 +69,19 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
-import static java.util.Objects.requireNonNull;
-import static org.antlr.v4.runtime.Token.DEFAULT_CHANNEL;
 
 @Component
 @Scope("prototype")
@@ -88,17 +94,33 @@ public class DocumentContext {
   @Getter
   private final URI uri;
 
+  /**
+   * Загруженное содержимое документа вместе с результатом его разбора.
+   * <p>
+   * Хранится одним неизменяемым объектом в volatile-поле: читатели берут локальную ссылку и не зависят
+   * от одновременной выгрузки содержимого другим потоком.
+   */
   @Nullable
-  private String content;
+  private volatile LoadedContent loadedContent;
   @Getter
   private int version;
 
+  /**
+   * Счетчик изменений содержимого документа.
+   * <p>
+   * Увеличивается до захвата блокировок при перестроении и очистке документа, что позволяет
+   * выполняющимся вычислениям по предыдущему содержимому прерваться досрочно.
+   */
+  private final AtomicLong modificationCount = new AtomicLong();
+
   @Setter(onMethod = @__({@Autowired}))
   private ServerContext context;
   @Setter(onMethod = @__({@Autowired}))
   private DiagnosticComputer diagnosticComputer;
   @Setter(onMethod = @__({@Autowired}))
   private LanguageServerConfiguration configuration;
+  @Setter(onMethod = @__({@Autowired}))
+  private SecondaryDataBudget secondaryDataBudget;
 
   @Setter(onMethod = @__({@Autowired}))
   private ObjectProvider<CognitiveComplexityComputer> cognitiveComplexityComputerProvider;
@@ -108,14 +130,48 @@ public class DocumentContext {
   @Getter
   private FileType fileType;
   @Getter
-  private BSLTokenizer tokenizer;
-  @Getter
   private SymbolTree symbolTree;
 
+  /**
+   * Признак дерева символов, восстановленного из снимка без разбора содержимого.
+   * Такой документ при первом обращении к содержимому перестраивается полностью.
+   */
+  private boolean symbolTreeRestored;
+
+  /**
+   * Метрики, восстановленные из снимка вместе с деревом символов. Сбрасываются при перестроении документа.
+   */
+  @Nullable
+  private MetricStorage restoredMetrics;
+
+  /**
+   * Данные об игнорировании диагностик, восстановленные из снимка. Сбрасываются при перестроении документа.
+   */
+  @Nullable
+  private DiagnosticIgnoranceComputer.Data restoredDiagnosticIgnorance;
+
+  /**
+   * Отпечаток содержимого, вытесненного по бюджету вторичных данных. Только такое содержимое
+   * загружается из файла повторно; содержимое, выгруженное явно, повторно не загружается.
+   */
+  @Nullable
+  private ContentStamp evictedContentStamp;
+
   @Getter
   private boolean isComputedDataFrozen;
 
+  /**
+   * Время последнего обращения к вторичным данным документа, используется для вытеснения.
+   */
+  @Getter(AccessLevel.PACKAGE)
+  private volatile long lastAccessTime;
+
   private final ReentrantLock computeLock = new ReentrantLock();
+
+  /**
+   * Блокировка расчета диагностик. Исключает параллельный расчет диагностик одного документа
+   * и никогда не захватывается под {@link #computeLock}.
+   */
   private final ReentrantLock diagnosticsLock = new ReentrantLock();
 
   private final Lazy<String[]> contentList = new Lazy<>(this::computeContentList, computeLock);
@@ -129,9 +185,21 @@ public class DocumentContext {
   private final Lazy<DiagnosticIgnoranceComputer.Data> diagnosticIgnoranceData
     = new Lazy<>(this::computeDiagnosticIgnorance, computeLock);
   private final Lazy<MetricStorage> metrics = new Lazy<>(this::computeMetrics, computeLock);
-  private final Lazy<List<Diagnostic>> diagnostics = new Lazy<>(this::computeDiagnostics, diagnosticsLock);
+
+  /**
+   * Диагностики, рассчитанные для значения счетчика изменений. Результат по устаревшему содержимому
+   * отбрасывается сравнением счетчиков, поэтому перестроение документа не ждет окончания расчета.
+   */
+  private final AtomicReference<ComputedDiagnostics> diagnostics = new AtomicReference<>();
 
   private final Lazy<List<SDBLTokenizer>> queries = new Lazy<>(this::computeQueries, computeLock);
+  private final Lazy<TokenViews> tokenViews = new Lazy<>(this::computeTokenViews, computeLock);
+  private final Lazy<WordIndex> wordIndex = new Lazy<>(this::computeWordIndex, computeLock);
+  private final Lazy<ControlFlowGraphStorage> controlFlowGraphs
+    = new Lazy<>(ControlFlowGraphStorage::new, computeLock);
+  private final Lazy<ExpressionTreeStorage> expressionTrees
+    = new Lazy<>(ExpressionTreeStorage::new, computeLock);
+  private final Lazy<ParseTreeIndex> nodeIndex = new Lazy<>(this::computeNodeIndex, computeLock);
 
   @PostConstruct
   void init() {
@@ -143,32 +211,49 @@ public class DocumentContext {
   }
 
   public String getContent() {
-    requireNonNull(content);
-    return content;
+    return ensureContent().getContent();
   }
 
   public String[] getContentList() {
     return contentList.getOrCompute();
   }
 
+  /**
+   * @return Дерево разбора документа. Для дерева регистрируется индекс узлов ({@link ParseTreeIndex}),
+   * который используется методами {@link Trees} вместо полного обхода дерева.
+   */
   public BSLParser.FileContext getAst() {
-    requireNonNull(content);
-    return tokenizer.getAst();
+    var ast = ensureContent().getAst();
+    nodeIndex.getOrCompute();
+    return ast;
   }
 
   public List<Token> getTokens() {
-    requireNonNull(content);
-    return tokenizer.getTokens();
+    return ensureContent().getTokens();
+  }
+
+  /**
+   * @return Неизменяемые представления токенов документа по каналам, типам и строкам.
+   */
+  public TokenViews getTokenViews() {
+    ensureContent();
+    return tokenViews.getOrCompute();
+  }
+
+  /**
+   * @return Инвертированный индекс идентификаторов и слов строковых литералов документа.
+   */
+  public WordIndex getWordIndex() {
+    ensureContent();
+    return wordIndex.getOrCompute();
   }
 
   public List<Token> getTokensFromDefaultChannel() {
-    return getTokens().stream().filter(token -> token.getChannel() == DEFAULT_CHANNEL).collect(Collectors.toList());
+    return getTokenViews().getDefaultChannelTokens();
   }
 
   public List<Token> getComments() {
-    return getTokens().stream()
-      .filter(token -> token.getType() == BSLLexer.LINE_COMMENT)
-      .collect(Collectors.toList());
+    return getTokenViews().getComments();
   }
 
   public String getText(Range range) {
@@ -202,7 +287,7 @@ public class DocumentContext {
   }
 
   public Locale getScriptVariantLocale() {
-    var mdConfiguration = getServerContext().getConfiguration();
+    var mdConfiguration = getServerContext().getConfigurationSnapshot();
 
     String languageTag;
     if (mdConfiguration.getConfigurationSource() == ConfigurationSource.EMPTY || fileType == FileType.OS) {
@@ -253,16 +338,79 @@ public class DocumentContext {
     return queries.getOrCompute();
   }
 
+  /**
+   * Получить граф потока управления блока кода документа.
+   * <p>
+   * Граф строится при первом обращении и хранится до изменения или выгрузки содержимого документа.
+   *
+   * @param codeBlock Блок кода (например, тело метода) из текущего дерева разбора документа.
+   * @return Граф потока управления.
+   */
+  public CompactControlFlowGraph getControlFlowGraph(BSLParser.CodeBlockContext codeBlock) {
+    return controlFlowGraphs.getOrCompute().get(codeBlock);
+  }
+
+  /**
+   * Получить дерево вычисления выражения документа.
+   * <p>
+   * Дерево строится при первом обращении и хранится до изменения или выгрузки содержимого документа.
+   * Полученное дерево разделяется между всеми потребителями и не должно изменяться.
+   *
+   * @param expression Выражение из текущего дерева разбора документа.
+   * @return Дерево вычисления выражения.
+   */
+  public BslExpression getExpressionTree(BSLParser.ExpressionContext expression) {
+    return expressionTrees.getOrCompute().get(expression);
+  }
+
   public List<Diagnostic> getDiagnostics() {
-    return diagnostics.getOrCompute();
+    var computed = getActualDiagnostics();
+    if (computed != null) {
+      return computed;
+    }
+
+    diagnosticsLock.lock();
+    try {
+      computed = getActualDiagnostics();
+      if (computed != null) {
+        return computed;
+      }
+      var currentModificationCount = modificationCount.get();
+      computed = computeDiagnostics();
+      diagnostics.set(new ComputedDiagnostics(currentModificationCount, computed));
+      return computed;
+    } finally {
+      diagnosticsLock.unlock();
+    }
+  }
+
+  /**
+   * Получить текущее значение счетчика изменений содержимого документа.
+   * <p>
+   * Длительные вычисления могут запомнить значение в начале работы и прекратить вычисление,
+   * если значение изменилось.
+   *
+   * @return Значение счетчика изменений.
+   */
+  public long getModificationCount() {
+    return modificationCount.get();
   }
 
   public List<Diagnostic> getComputedDiagnostics() {
     return Optional
-      .ofNullable(diagnostics.get())
+      .ofNullable(getActualDiagnostics())
       .orElseGet(Collections::emptyList);
   }
 
+  @Nullable
+  private List<Diagnostic> getActualDiagnostics() {
+    var computed = diagnostics.get();
+    if (computed == null || computed.getModificationCount() != modificationCount.get()) {
+      return null;
+    }
+    return computed.getDiagnostics();
+  }
+
   public void freezeComputedData() {
     isComputedDataFrozen = true;
   }
@@ -272,31 +420,80 @@ public class DocumentContext {
   }
 
   protected void rebuild(String content, int version) {
+    modificationCount.incrementAndGet();
     computeLock.lock();
 
     try {
+      rebuildLocked(content, version);
+    } finally {
+      computeLock.unlock();
+    }
 
-      boolean versionMatches = version == this.version && version != 0;
+    // вытеснение данных других документов выполняется без удержания блокировки этого документа
+    if (!computeLock.isHeldByCurrentThread()) {
+      secondaryDataBudget.evictIfNeeded(this);
+    }
+  }
 
-      if (versionMatches && (this.content != null)) {
-        clearDependantData();
-        computeLock.unlock();
-        return;
-      }
+  /**
+   * Перестроить документ по новому содержимому. Выполняется под {@link #computeLock}.
+   */
+  private void rebuildLocked(String content, int version) {
+    var previousContent = loadedContent;
+    boolean versionMatches = version == this.version && version != 0;
 
-      if (!isComputedDataFrozen) {
-        clearSecondaryData();
-      }
+    if (versionMatches && (loadedContent != null)) {
+      clearDependantData();
+      return;
+    }
 
-      this.content = content;
-      tokenizer = new BSLTokenizer(content);
-      this.version = version;
-      symbolTree = computeSymbolTree();
+    if (!isComputedDataFrozen) {
+      clearSecondaryData();
+    }
 
+    loadedContent = LoadedContent.of(content, previousContent);
+    symbolTreeRestored = false;
+    restoredMetrics = null;
+    restoredDiagnosticIgnorance = null;
+    evictedContentStamp = null;
+    tokenViews.clear();
+    wordIndex.clear();
+    controlFlowGraphs.clear();
+    expressionTrees.clear();
+    nodeIndex.clear();
+    this.version = version;
+    symbolTree = computeSymbolTree();
+    lastAccessTime = System.nanoTime();
+    secondaryDataBudget.onLoad(this, content.length());
+  }
+
+  /**
+   * Восстановить документ из ранее вычисленных данных без разбора содержимого.
+   * <p>
+   * Документ остается без контента. При первом обращении к контенту документ
+   * перестраивается обычным образом.
+   *
+   * @param symbolTree          восстановленное дерево символов документа.
+   * @param metrics             восстановленные метрики документа.
+   * @param diagnosticIgnorance восстановленные данные об игнорировании диагностик.
+   */
+  protected void restore(
+    SymbolTree symbolTree,
+    MetricStorage metrics,
+    DiagnosticIgnoranceComputer.Data diagnosticIgnorance
+  ) {
+    computeLock.lock();
+
+    try {
+      clearSecondaryData();
+      this.version = 0;
+      this.symbolTree = symbolTree;
+      symbolTreeRestored = true;
+      restoredMetrics = metrics;
+      restoredDiagnosticIgnorance = diagnosticIgnorance;
     } finally {
       computeLock.unlock();
     }
-
   }
 
   protected void rebuild() {
@@ -309,14 +506,12 @@ public class DocumentContext {
   }
 
   protected void clearSecondaryData() {
+    modificationCount.incrementAndGet();
     computeLock.lock();
 
     try {
-
-      content = null;
-      contentList.clear();
-      tokenizer = null;
-      queries.clear();
+      unloadContent();
+      evictedContentStamp = null;
       clearDependantData();
 
       if (!isComputedDataFrozen) {
@@ -330,17 +525,155 @@ public class DocumentContext {
     }
   }
 
-  private void clearDependantData() {
-    computeLock.lock();
-    diagnosticsLock.lock();
+  /**
+   * Выгрузить содержимое документа и данные, построенные по его токенам и AST.
+   * Выполняется под {@link #computeLock}.
+   */
+  private void unloadContent() {
+    loadedContent = null;
+    contentList.clear();
+    tokenViews.clear();
+    wordIndex.clear();
+    queries.clear();
+    controlFlowGraphs.clear();
+    expressionTrees.clear();
+    nodeIndex.clear();
+    secondaryDataBudget.onUnload(this);
+  }
+
+  /**
+   * Попытаться выгрузить вторичные данные документа без ожидания блокировок.
+   * <p>
+   * Выгружаются только содержимое и построенные по нему данные; вычисленные данные, дерево символов
+   * и счетчик изменений сохраняются. Запоминается отпечаток содержимого: при повторной загрузке
+   * файл, изменившийся на диске, приводит к полному перестроению документа.
+   * Открытый документ и документ, по которому в данный момент выполняются вычисления, не выгружаются.
+   *
+   * @return {@code true}, если данные выгружены.
+   */
+  boolean tryClearSecondaryData() {
+    if (!computeLock.tryLock()) {
+      return false;
+    }
 
     try {
-      diagnostics.clear();
+      // проверка под блокировкой: открытие документа помечает его открытым до перестроения
+      if (diagnosticsLock.isLocked() || context.isDocumentOpened(this)) {
+        return false;
+      }
+      var current = loadedContent;
+      if (current != null) {
+        evictedContentStamp = ContentStamp.of(current.getContent());
+      }
+      unloadContent();
+      return true;
     } finally {
-      diagnosticsLock.unlock();
       computeLock.unlock();
     }
+  }
 
+  /**
+   * Обеспечить наличие содержимого документа, загрузив его из файла,
+   * если содержимое было вытеснено по бюджету вторичных данных.
+   *
+   * @return Загруженное содержимое документа.
+   * @throws IllegalStateException Содержимое документа выгружено явно и не может быть загружено.
+   */
+  private LoadedContent ensureContent() {
+    lastAccessTime = System.nanoTime();
+    var current = loadedContent;
+    while (current == null) {
+      current = loadContent();
+    }
+    return current;
+  }
+
+  /**
+   * Загрузить выгруженное содержимое документа из файла.
+   * <p>
+   * Если файл не изменился с момента вытеснения, вычисленные данные (диагностики, метрики, сложность),
+   * дерево символов и счетчик изменений сохраняются: они получены по тому же содержимому.
+   * Если файл изменился, документ полностью перестраивается с обновлением индексов по событию
+   * изменения содержимого. Документ, восстановленный из снимка, перестраивается так же.
+   *
+   * @return Загруженное содержимое или {@code null}, если документ был перестроен и содержимое
+   * необходимо получить повторно.
+   */
+  @Nullable
+  private LoadedContent loadContent() {
+    LoadedContent current;
+    String changedContent = null;
+
+    computeLock.lock();
+    try {
+      current = loadedContent;
+      if (current != null) {
+        return current;
+      }
+
+      var stamp = evictedContentStamp;
+      if (!symbolTreeRestored && stamp == null) {
+        throw new IllegalStateException("Content of document is not loaded: " + uri);
+      }
+
+      secondaryDataBudget.recordMiss();
+      var fileContent = readContent();
+      if (symbolTreeRestored || !stamp.matches(fileContent)) {
+        changedContent = fileContent;
+      } else {
+        current = new LoadedContent(fileContent);
+        loadedContent = current;
+        evictedContentStamp = null;
+        secondaryDataBudget.onLoad(this, fileContent.length());
+      }
+    } finally {
+      computeLock.unlock();
+    }
+
+    if (changedContent != null) {
+      rebuildFromFile(changedContent);
+      return loadedContent;
+    }
+
+    // вытеснение данных других документов выполняется без удержания блокировки этого документа
+    if (!computeLock.isHeldByCurrentThread()) {
+      secondaryDataBudget.evictIfNeeded(this);
+    }
+    return current;
+  }
+
+  /**
+   * Полностью перестроить документ по содержимому файла: файл изменился после вытеснения содержимого
+   * или документ был восстановлен из снимка.
+   * <p>
+   * Замороженные вычисленные данные на время перестроения размораживаются, чтобы они были сброшены,
+   * а индекс ссылок заполнен по событию изменения содержимого.
+   */
+  private void rebuildFromFile(String content) {
+    LOGGER.debug("Rebuilding unloaded document from file: {}", uri);
+    var frozen = isComputedDataFrozen;
+    unfreezeComputedData();
+    try {
+      rebuild(content, 0);
+    } finally {
+      if (frozen) {
+        freezeComputedData();
+      }
+    }
+  }
+
+  private String readContent() {
+    try {
+      return FileUtils.readFileToString(new File(uri), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      LOGGER.error("Can't rebuild content from uri", e);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void clearDependantData() {
+    // расчет диагностик мог начаться до изменения: его результат будет отброшен по счетчику изменений
+    diagnostics.set(null);
   }
 
   private static FileType computeFileType(URI uri) {
@@ -365,17 +698,29 @@ public class DocumentContext {
     return CONTENT_SPLIT_PATTERN.split(getContent(), -1);
   }
 
+  private ParseTreeIndex computeNodeIndex() {
+    return ParseTreeIndex.register(ensureContent().getAst());
+  }
+
+  private TokenViews computeTokenViews() {
+    return new TokenViews(getTokens());
+  }
+
+  private WordIndex computeWordIndex() {
+    return new WordIndex(getTokens());
+  }
+
   private SymbolTree computeSymbolTree() {
     return new SymbolTreeComputer(this).compute();
   }
 
 
   private ModuleType computeModuleType() {
-    return context.getConfiguration().getModuleType(uri);
+    return context.getConfigurationSnapshot().getModuleType(uri);
   }
 
   private Map<SupportConfiguration, SupportVariant> computeSupportVariants() {
-    return context.getConfiguration().getModuleSupport(uri);
+    return context.getConfigurationSnapshot().getModuleSupport(uri);
   }
 
   private ComplexityData computeCognitiveComplexity() {
@@ -389,6 +734,11 @@ public class DocumentContext {
   }
 
   private MetricStorage computeMetrics() {
+    var metricsRestored = restoredMetrics;
+    if (metricsRestored != null) {
+      return metricsRestored;
+    }
+
     var metricsTemp = new MetricStorage();
     final List<MethodSymbol> methodsUnboxed = symbolTree.getMethods();
 
@@ -427,6 +777,11 @@ public class DocumentContext {
   }
 
   private DiagnosticIgnoranceComputer.Data computeDiagnosticIgnorance() {
+    var diagnosticIgnoranceRestored = restoredDiagnosticIgnorance;
+    if (diagnosticIgnoranceRestored != null) {
+      return diagnosticIgnoranceRestored;
+    }
+
     Computer<DiagnosticIgnoranceComputer.Data> diagnosticIgnoranceComputer = new DiagnosticIgnoranceComputer(this);
     return diagnosticIgnoranceComputer.compute();
   }
@@ -439,4 +794,84 @@ public class DocumentContext {
     return (new QueryComputer(this)).compute();
   }
 
+  @Value
+  private static class ComputedDiagnostics {
+    long modificationCount;
+    List<Diagnostic> diagnostics;
+  }
+
+  /**
+   * Отпечаток содержимого документа: длина и хеш строки.
+   */
+  @Value
+  private static class ContentStamp {
+    int length;
+    int hash;
+
+    static ContentStamp of(String content) {
+      return new ContentStamp(content.length(), content.hashCode());
+    }
+
+    boolean matches(String content) {
+      return content.length() == length && content.hashCode() == hash;
+    }
+  }
+
+  /**
+   * Загруженное содержимое документа с его токенами и деревом разбора.
+   * <p>
+   * Содержимое, полученное изменением ранее загруженного содержимого с вычисленными токенами, токенизируется
+   * только в измененных строках ({@link IncrementalTokenizer}), дерево разбора в этом случае строится
+   * по полученным токенам.
+   */
+  private static final class LoadedContent {
+    @Getter
+    private final String content;
+    @Nullable
+    private final BSLTokenizer tokenizer;
+    private final Lazy<BSLParser.FileContext> ast;
+    @Nullable
+    private volatile List<Token> tokens;
+
+    LoadedContent(String content) {
+      this.content = content;
+      var contentTokenizer = new BSLTokenizer(content);
+      this.tokenizer = contentTokenizer;
+      this.ast = new Lazy<>(contentTokenizer::getAst);
+    }
+
+    private LoadedContent(String content, List<Token> tokens) {
+      this.content = content;
+      this.tokenizer = null;
+      this.tokens = tokens;
+      this.ast = new Lazy<>(() -> IncrementalTokenizer.parse(tokens));
+    }
+
+    /**
+     * @param content  Новое содержимое документа.
+     * @param previous Предыдущее содержимое документа. Его токены уже получены при построении дерева символов.
+     */
+    static LoadedContent of(String content, @Nullable LoadedContent previous) {
+      if (previous == null) {
+        return new LoadedContent(content);
+      }
+      return IncrementalTokenizer.relex(previous.getContent(), previous.getTokens(), content)
+        .map(relexedTokens -> new LoadedContent(content, relexedTokens))
+        .orElseGet(() -> new LoadedContent(content));
+    }
+
+    List<Token> getTokens() {
+      var result = tokens;
+      if (result == null) {
+        result = Objects.requireNonNull(tokenizer).getTokens();
+        tokens = result;
+      }
+      return result;
+    }
+
+    BSLParser.FileContext getAst() {
+      return ast.getOrCompute();
+    }
+  }
+
 }
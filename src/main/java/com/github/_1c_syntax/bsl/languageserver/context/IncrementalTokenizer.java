@@ -0,0 +1,245 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import com.github._1c_syntax.bsl.parser.BSLTokenizer;
+import lombok.experimental.UtilityClass;
+import org.antlr.v4.runtime.BailErrorStrategy;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Токенизация измененного содержимого документа по токенам предыдущего содержимого.
+ * <p>
+ * Режимы лексера BSL (препроцессор, аннотации) не переходят через перевод строки, поэтому перед первым значимым
+ * токеном строки, которому предшествует скрытый токен с переводом строки, лексер всегда находится в режиме
+ * по умолчанию. Лексический анализ повторяется только для строк от такой точки перед изменением до такой же
+ * точки после него. Токены до измененного фрагмента переиспользуются, токены после него копируются
+ * со сдвигом позиций.
+ */
+@UtilityClass
+class IncrementalTokenizer {
+
+  private static final char BOM = '\uFEFF';
+
+  /**
+   * Получить токены нового содержимого документа, повторив лексический анализ только измененных строк.
+   *
+   * @param oldContent Предыдущее содержимое документа.
+   * @param oldTokens  Токены предыдущего содержимого.
+   * @param newContent Новое содержимое документа.
+   * @return Токены нового содержимого или пустое значение, если изменение требует полной токенизации.
+   */
+  Optional<List<Token>> relex(String oldContent, List<Token> oldTokens, String newContent) {
+    // токенизатор пропускает BOM, и смещения токенов не совпадают со смещениями в строке
+    if (oldTokens.isEmpty() || startsWithBom(oldContent) || startsWithBom(newContent)) {
+      return Optional.empty();
+    }
+
+    var prefix = commonPrefixLength(oldContent, newContent);
+    var suffix = commonSuffixLength(oldContent, newContent, prefix);
+    var oldDamageEnd = oldContent.length() - suffix;
+    var delta = newContent.length() - oldContent.length();
+
+    var restart = restartIndex(oldTokens, prefix);
+    var resync = resyncIndex(oldTokens, oldDamageEnd);
+
+    var restartToken = oldTokens.get(restart);
+    var fragmentStart = restartToken.getStartIndex();
+    var fragmentEnd = resync < 0 ? newContent.length() : (oldTokens.get(resync).getStartIndex() + delta);
+    var fragmentTokens = new BSLTokenizer(newContent.substring(fragmentStart, fragmentEnd)).getTokens();
+
+    var fragmentEof = fragmentTokens.get(fragmentTokens.size() - 1);
+    if (fragmentEof.getType() != Token.EOF) {
+      return Optional.empty();
+    }
+
+    var tokens = new ArrayList<Token>(oldTokens.size() + fragmentTokens.size());
+    tokens.addAll(oldTokens.subList(0, restart));
+
+    var lineShift = restartToken.getLine() - 1;
+    var columnShift = restartToken.getCharPositionInLine();
+    var fragmentSize = resync < 0 ? fragmentTokens.size() : (fragmentTokens.size() - 1);
+    for (var i = 0; i < fragmentSize; i++) {
+      var token = fragmentTokens.get(i);
+      var tokenColumnShift = token.getLine() == 1 ? columnShift : 0;
+      tokens.add(copy(token, fragmentStart, lineShift, tokenColumnShift, tokens.size()));
+    }
+
+    if (resync >= 0) {
+      var resyncToken = oldTokens.get(resync);
+      var resyncColumn = fragmentEof.getCharPositionInLine() + (fragmentEof.getLine() == 1 ? columnShift : 0);
+      if (resyncColumn != resyncToken.getCharPositionInLine()) {
+        return Optional.empty();
+      }
+
+      var tailLineShift = fragmentEof.getLine() + lineShift - resyncToken.getLine();
+      for (var i = resync; i < oldTokens.size(); i++) {
+        tokens.add(copy(oldTokens.get(i), delta, tailLineShift, 0, tokens.size()));
+      }
+    }
+
+    return Optional.of(tokens);
+  }
+
+  /**
+   * Построить дерево разбора по токенам документа.
+   * <p>
+   * Используется двухэтапный разбор: в режиме SLL и, при ошибке разбора, повторно в режиме LL.
+   *
+   * @param tokens Токены документа, включая завершающий токен {@link Token#EOF}.
+   * @return Дерево разбора документа.
+   */
+  BSLParser.FileContext parse(List<Token> tokens) {
+    var tokenStream = new CommonTokenStream(new ListTokenSource(tokens));
+    var parser = new BSLParser(tokenStream);
+    parser.removeErrorListener(ConsoleErrorListener.INSTANCE);
+
+    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+    parser.setErrorHandler(new BailErrorStrategy());
+    try {
+      return parser.file();
+    } catch (ParseCancellationException e) {
+      tokenStream.seek(0);
+      parser.reset();
+      parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+      parser.setErrorHandler(new DefaultErrorStrategy());
+      return parser.file();
+    }
+  }
+
+  /**
+   * Индекс токена, с которого начинается повторный анализ: ближайшая к изменению точка перезапуска лексера
+   * не правее токена, содержащего символ перед изменением.
+   */
+  private static int restartIndex(List<Token> tokens, int prefix) {
+    var index = firstTokenEndingAtOrAfter(tokens, prefix - 1);
+    while (index > 0 && !isLineHead(tokens, index)) {
+      index--;
+    }
+    return index;
+  }
+
+  /**
+   * Индекс токена, начиная с которого токены предыдущего содержимого переиспользуются: точка перезапуска
+   * лексера, скрытый токен перед которой целиком расположен после изменения.
+   *
+   * @return Индекс токена или -1, если анализ необходимо выполнить до конца документа.
+   */
+  private static int resyncIndex(List<Token> tokens, int oldDamageEnd) {
+    var eofIndex = tokens.size() - 1;
+    for (var index = firstTokenStartingAtOrAfter(tokens, oldDamageEnd) + 1; index < eofIndex; index++) {
+      if (isLineHead(tokens, index)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isLineHead(List<Token> tokens, int index) {
+    var previous = tokens.get(index - 1);
+    var type = tokens.get(index).getType();
+    return previous.getChannel() == Token.HIDDEN_CHANNEL
+      && containsLineBreak(previous.getText())
+      && type != BSLLexer.WHITE_SPACE
+      && type != BSLLexer.STRINGPART
+      && type != BSLLexer.STRINGTAIL;
+  }
+
+  private static int firstTokenEndingAtOrAfter(List<Token> tokens, int offset) {
+    var low = 0;
+    var high = tokens.size() - 1;
+    while (low < high) {
+      var middle = (low + high) >>> 1;
+      if (tokens.get(middle).getStopIndex() < offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static int firstTokenStartingAtOrAfter(List<Token> tokens, int offset) {
+    var low = 0;
+    var high = tokens.size() - 1;
+    while (low < high) {
+      var middle = (low + high) >>> 1;
+      if (tokens.get(middle).getStartIndex() < offset) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static Token copy(Token token, int offsetShift, int lineShift, int columnShift, int index) {
+    var copy = new CommonToken(token);
+    copy.setText(token.getText());
+    copy.setStartIndex(token.getStartIndex() + offsetShift);
+    copy.setStopIndex(token.getStopIndex() + offsetShift);
+    copy.setLine(token.getLine() + lineShift);
+    copy.setCharPositionInLine(token.getCharPositionInLine() + columnShift);
+    copy.setTokenIndex(index);
+    return copy;
+  }
+
+  private static boolean containsLineBreak(String text) {
+    return text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+  }
+
+  private static boolean startsWithBom(String content) {
+    return !content.isEmpty() && content.charAt(0) == BOM;
+  }
+
+  private static int commonPrefixLength(String first, String second) {
+    var length = Math.min(first.length(), second.length());
+    var index = 0;
+    while (index < length && first.charAt(index) == second.charAt(index)) {
+      index++;
+    }
+    return index;
+  }
+
+  private static int commonSuffixLength(String first, String second, int prefix) {
+    var length = Math.min(first.length(), second.length()) - prefix;
+    var index = 0;
+    while (index < length
+      && first.charAt(first.length() - 1 - index) == second.charAt(second.length() - 1 - index)) {
+      index++;
+    }
+    return index;
+  }
+}
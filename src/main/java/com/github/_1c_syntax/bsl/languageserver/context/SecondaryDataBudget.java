@@ -0,0 +1,191 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бюджет памяти на вторичные данные документов (содержимое, токены, AST, запросы).
+ * <p>
+ * Учитывает документы с загруженным содержимым и их оценочный размер. При превышении бюджета,
+ * заданного настройкой {@code app.context.secondary-data-budget}, выгружает вторичные данные
+ * давно не использовавшихся закрытых документов. Вытесненные данные перестраиваются из файла
+ * при следующем обращении к ним.
+ * <p>
+ * Нулевой бюджет (по умолчанию) отключает вытеснение, учет загруженных документов при этом сохраняется.
+ * Показатели бюджета доступны через подсистему замеров
+ * ({@link com.github._1c_syntax.bsl.languageserver.aop.measures.MeasureCollector}).
+ */
+@Slf4j
+@Component
+public class SecondaryDataBudget {
+
+  /**
+   * Грубая оценка объема вторичных данных в байтах на один символ содержимого документа:
+   * строка содержимого, ее построчное представление, токены и узлы AST.
+   */
+  static final int ESTIMATED_BYTES_PER_CHAR = 48;
+
+  /**
+   * Доля бюджета, до которой освобождается память при вытеснении,
+   * чтобы не запускать вытеснение на каждой загрузке документа.
+   */
+  private static final double EVICTION_TARGET_RATIO = 0.9;
+
+  private final long budget;
+
+  private final Map<DocumentContext, Long> loadedDocuments = new ConcurrentHashMap<>();
+  private final AtomicLong estimatedSize = new AtomicLong();
+
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public SecondaryDataBudget(@Value("${app.context.secondary-data-budget:0}") DataSize budget) {
+    this.budget = budget.toBytes();
+  }
+
+  /**
+   * @return Признак включенного вытеснения вторичных данных.
+   */
+  public boolean isEnabled() {
+    return budget > 0;
+  }
+
+  /**
+   * Получить текущие показатели использования бюджета.
+   *
+   * @return Снимок показателей.
+   */
+  public Stats getStats() {
+    return new Stats(
+      misses.sum(),
+      evictions.sum(),
+      loadedDocuments.size(),
+      estimatedSize.get(),
+      budget
+    );
+  }
+
+  void recordMiss() {
+    misses.increment();
+  }
+
+  /**
+   * Зарегистрировать загрузку содержимого документа.
+   *
+   * @param documentContext Документ.
+   * @param contentLength   Длина содержимого документа.
+   */
+  void onLoad(DocumentContext documentContext, int contentLength) {
+    long size = (long) contentLength * ESTIMATED_BYTES_PER_CHAR;
+    var previousSize = loadedDocuments.put(documentContext, size);
+    estimatedSize.addAndGet(size - (previousSize == null ? 0 : previousSize));
+  }
+
+  /**
+   * Зарегистрировать выгрузку содержимого документа.
+   *
+   * @param documentContext Документ.
+   */
+  void onUnload(DocumentContext documentContext) {
+    var previousSize = loadedDocuments.remove(documentContext);
+    if (previousSize != null) {
+      estimatedSize.addAndGet(-previousSize);
+    }
+  }
+
+  /**
+   * Выгрузить вторичные данные давно не использовавшихся документов, если бюджет превышен.
+   * <p>
+   * Не должен вызываться под блокировками документов, чтобы исключить взаимную блокировку
+   * при вытеснении данных другого документа.
+   *
+   * @param current Документ, загрузка которого привела к проверке. Не вытесняется.
+   */
+  void evictIfNeeded(DocumentContext current) {
+    if (!isEnabled() || estimatedSize.get() <= budget) {
+      return;
+    }
+
+    synchronized (this) {
+      var target = (long) (budget * EVICTION_TARGET_RATIO);
+      if (estimatedSize.get() <= target) {
+        return;
+      }
+
+      List<DocumentContext> candidates = new ArrayList<>(loadedDocuments.keySet());
+      candidates.remove(current);
+      candidates.sort(Comparator.comparingLong(DocumentContext::getLastAccessTime));
+
+      var evicted = 0;
+      for (var documentContext : candidates) {
+        if (estimatedSize.get() <= target) {
+          break;
+        }
+        if (documentContext.getServerContext().tryEvictDocument(documentContext)) {
+          evicted++;
+        }
+      }
+
+      evictions.add(evicted);
+      LOGGER.debug("Evicted secondary data of {} documents. {}", evicted, getStats());
+    }
+  }
+
+  /**
+   * Показатели использования бюджета вторичных данных.
+   */
+  @lombok.Value
+  public static class Stats {
+    /**
+     * Количество обращений к выгруженным данным, потребовавших загрузки содержимого из файла.
+     */
+    long misses;
+    /**
+     * Количество вытесненных документов.
+     */
+    long evictions;
+    /**
+     * Количество документов с загруженными вторичными данными.
+     */
+    int loadedDocuments;
+    /**
+     * Оценочный объем загруженных вторичных данных в байтах.
+     */
+    long estimatedSize;
+    /**
+     * Бюджет в байтах. Ноль - вытеснение отключено.
+     */
+    long budget;
+  }
+}
@@ -23,6 +23,9 @@ package com.github._1c_syntax.bsl.languageserver.context;
 
 import com.github._1c_syntax.bsl.languageserver.WorkDoneProgressHelper;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
+import com.github._1c_syntax.bsl.languageserver.context.cache.ConfigurationSnapshotCache;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentContextCache;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshots;
 import com.github._1c_syntax.bsl.languageserver.utils.MdoRefBuilder;
 import com.github._1c_syntax.bsl.languageserver.utils.Resources;
 import com.github._1c_syntax.bsl.types.ModuleType;
@@ -30,6 +33,7 @@ import com.github._1c_syntax.mdclasses.Configuration;
 import com.github._1c_syntax.utils.Absolute;
 import com.github._1c_syntax.utils.Lazy;
 import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +44,7 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -60,10 +65,15 @@ public class ServerContext {
   private final ObjectProvider<DocumentContext> documentContextProvider;
   private final WorkDoneProgressHelper workDoneProgressHelper;
   private final LanguageServerConfiguration languageServerConfiguration;
+  private final ObjectProvider<DocumentContextCache> documentContextCacheProvider;
+  private final SecondaryDataBudget secondaryDataBudget;
+  private final ConfigurationSnapshotCache configurationSnapshotCache;
 
   private final Map<URI, DocumentContext> documents = Collections.synchronizedMap(new HashMap<>());
   private final Lazy<Configuration> configurationMetadata = new Lazy<>(this::computeConfigurationMetadata);
+  private final Lazy<ConfigurationSnapshot> configurationSnapshot = new Lazy<>(this::computeConfigurationSnapshot);
   @Nullable
+  @Getter
   @Setter
   private Path configurationRoot;
   private final Map<URI, String> mdoRefs = Collections.synchronizedMap(new HashMap<>());
@@ -101,6 +111,7 @@ public class ServerContext {
     workDoneProgressReporter.beginProgress(getMessage("populatePopulatingContext"));
 
     LOGGER.debug("Populating context...");
+    var documentContextCache = documentContextCacheProvider.getObject();
     contextLock.writeLock().lock();
 
     try {
@@ -113,7 +124,17 @@ public class ServerContext {
         var documentContext = getDocument(uri);
         if (documentContext == null) {
           documentContext = createDocumentContext(uri);
-          rebuildDocument(documentContext);
+          var snapshot = documentContextCache.restore(documentContext);
+          if (snapshot.isPresent()) {
+            documentContext.restore(
+              DocumentSnapshots.createSymbolTree(snapshot.get(), documentContext),
+              snapshot.get().getMetrics(),
+              DocumentSnapshots.createDiagnosticIgnorance(snapshot.get())
+            );
+          } else {
+            rebuildDocument(documentContext);
+            documentContextCache.save(documentContext);
+          }
           documentContext.freezeComputedData();
           tryClearDocument(documentContext);
         }
@@ -175,15 +196,20 @@ public class ServerContext {
     removeDocumentMdoRefByUri(absoluteURI);
     states.remove(documentContext);
     documents.remove(absoluteURI);
+    if (documentContext != null) {
+      secondaryDataBudget.onUnload(documentContext);
+    }
   }
 
   public void clear() {
+    new ArrayList<>(documents.values()).forEach(secondaryDataBudget::onUnload);
     documents.clear();
     openedDocuments.clear();
     states.clear();
     documentsByMDORef.clear();
     mdoRefs.clear();
     configurationMetadata.clear();
+    configurationSnapshot.clear();
   }
 
   /**
@@ -200,7 +226,10 @@ public class ServerContext {
    * @param version         версия документа.
    */
   public void openDocument(DocumentContext documentContext, String content, Integer version) {
-    openedDocuments.add(documentContext);
+    synchronized (documentContext) {
+      // ожидает завершения действий, начатых через runIfNotOpened
+      openedDocuments.add(documentContext);
+    }
     documentContext.unfreezeComputedData();
     rebuildDocument(documentContext, content, version);
   }
@@ -246,6 +275,54 @@ public class ServerContext {
     documentContext.clearSecondaryData();
   }
 
+  /**
+   * Попытаться вытеснить вторичные данные документа для освобождения памяти.
+   * <p>
+   * Открытые документы и документы, по которым выполняются вычисления, не вытесняются.
+   *
+   * @param documentContext документ, данные которого необходимо вытеснить.
+   * @return {@code true}, если данные документа выгружены.
+   */
+  boolean tryEvictDocument(DocumentContext documentContext) {
+    if (openedDocuments.contains(documentContext) || !documentContext.tryClearSecondaryData()) {
+      return false;
+    }
+
+    states.put(documentContext, State.WITHOUT_CONTENT);
+    return true;
+  }
+
+  /**
+   * Проверить, открыт ли документ в клиенте.
+   *
+   * @param documentContext документ.
+   * @return {@code true}, если документ открыт.
+   */
+  public boolean isDocumentOpened(DocumentContext documentContext) {
+    return openedDocuments.contains(documentContext);
+  }
+
+  /**
+   * Выполнить действие над документом, если он не открыт в клиенте.
+   * <p>
+   * Проверка и действие выполняются атомарно относительно {@link #openDocument(DocumentContext, String, Integer)}:
+   * открытие документа ожидает завершения действия и затем перестраивает документ по содержимому клиента,
+   * поэтому действие (например, перестроение документа по файлу на диске) не может перезаписать его.
+   *
+   * @param documentContext документ.
+   * @param action          действие над документом.
+   * @return {@code true}, если действие выполнено.
+   */
+  public boolean runIfNotOpened(DocumentContext documentContext, Runnable action) {
+    synchronized (documentContext) {
+      if (openedDocuments.contains(documentContext)) {
+        return false;
+      }
+      action.run();
+      return true;
+    }
+  }
+
   /**
    * Закрыть документ и очистить его содержимое.
    *
@@ -261,6 +338,18 @@ public class ServerContext {
     return configurationMetadata.getOrCompute();
   }
 
+  /**
+   * Получить снимок данных метаданных конфигурации, используемых при заполнении контекста.
+   * <p>
+   * Если включен кэш и описания метаданных не изменились с момента сохранения снимка, снимок загружается
+   * из кэша без разбора полной модели метаданных.
+   *
+   * @return Снимок данных метаданных конфигурации.
+   */
+  public ConfigurationSnapshot getConfigurationSnapshot() {
+    return configurationSnapshot.getOrCompute();
+  }
+
   private DocumentContext createDocumentContext(URI uri) {
     var absoluteURI = Absolute.uri(uri);
 
@@ -300,6 +389,19 @@ public class ServerContext {
     return configuration;
   }
 
+  private ConfigurationSnapshot computeConfigurationSnapshot() {
+    var root = configurationRoot;
+    if (root == null) {
+      return ConfigurationSnapshot.create(getConfiguration());
+    }
+
+    return configurationSnapshotCache.load(root).orElseGet(() -> {
+      var snapshot = ConfigurationSnapshot.create(getConfiguration());
+      configurationSnapshotCache.save(root, snapshot);
+      return snapshot;
+    });
+  }
+
   private void addMdoRefByUri(URI uri, DocumentContext documentContext) {
     String mdoRef = MdoRefBuilder.getMdoRef(documentContext);
 
@@ -0,0 +1,131 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import lombok.Getter;
+import org.antlr.v4.runtime.Token;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемые представления токенов документа, разбитые по каналам, типам и строкам.
+ * <p>
+ * Строятся один раз за проход по списку токенов и разделяются всеми потребителями документа,
+ * вместо повторной фильтрации полного списка токенов при каждом обращении.
+ */
+public final class TokenViews {
+
+  private final List<Token> tokens;
+
+  /**
+   * Токены из канала по умолчанию (значащие токены).
+   */
+  @Getter
+  private final List<Token> defaultChannelTokens;
+
+  /**
+   * Токены комментариев.
+   */
+  @Getter
+  private final List<Token> comments;
+
+  private final Map<Integer, List<Token>> tokensByType;
+
+  /**
+   * Индекс первого токена каждой строки в полном списке токенов. Токены строки {@code line} занимают
+   * полуинтервал {@code [lineStarts[line], lineStarts[line + 1])}.
+   */
+  private final int[] lineStarts;
+
+  TokenViews(List<Token> tokens) {
+    this.tokens = tokens;
+
+    var defaultChannel = new ArrayList<Token>();
+    var byType = new HashMap<Integer, List<Token>>();
+
+    for (Token token : tokens) {
+      if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+        defaultChannel.add(token);
+      }
+      byType.computeIfAbsent(token.getType(), type -> new ArrayList<>()).add(token);
+    }
+
+    defaultChannelTokens = Collections.unmodifiableList(defaultChannel);
+    byType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+    tokensByType = byType;
+    comments = getTokensByType(BSLLexer.LINE_COMMENT);
+    lineStarts = computeLineStarts(tokens);
+  }
+
+  /**
+   * @param tokenType Тип токена (см. {@link BSLLexer}).
+   * @return Токены указанного типа в порядке следования в документе.
+   */
+  public List<Token> getTokensByType(int tokenType) {
+    return tokensByType.getOrDefault(tokenType, Collections.emptyList());
+  }
+
+  /**
+   * @return Количество строк, покрытых токенами документа.
+   */
+  public int getLineCount() {
+    return lineStarts.length - 1;
+  }
+
+  /**
+   * Получить токены, начинающиеся на строке, без перебора полного списка токенов.
+   *
+   * @param line Номер строки (с нуля).
+   * @return Токены строки всех каналов в порядке следования.
+   */
+  public List<Token> getTokensOnLine(int line) {
+    if (line < 0 || line >= getLineCount()) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(tokens.subList(lineStarts[line], lineStarts[line + 1]));
+  }
+
+  private static int[] computeLineStarts(List<Token> tokens) {
+    if (tokens.isEmpty()) {
+      return new int[]{0};
+    }
+
+    var lineCount = tokens.get(tokens.size() - 1).getLine();
+    var starts = new int[lineCount + 1];
+    var currentLine = 0;
+    for (var i = 0; i < tokens.size(); i++) {
+      var tokenLine = tokens.get(i).getLine() - 1;
+      while (currentLine <= tokenLine) {
+        starts[currentLine++] = i;
+      }
+    }
+    while (currentLine <= lineCount) {
+      starts[currentLine++] = tokens.size();
+    }
+    return starts;
+  }
+}
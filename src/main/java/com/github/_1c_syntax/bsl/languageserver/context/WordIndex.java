@@ -0,0 +1,158 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import org.antlr.v4.runtime.Token;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Инвертированный индекс слов документа без учета регистра.
+ * <p>
+ * Отдельно индексируются идентификаторы (включая ключевые слова и инструкции препроцессора)
+ * и слова внутри строковых литералов. Строится один раз за проход по списку токенов и позволяет
+ * без обхода дерева разбора узнать, встречается ли слово в документе и в каких токенах.
+ */
+public final class WordIndex {
+
+  private final Map<String, List<Token>> identifiers;
+  private final Map<String, List<Token>> stringWords;
+
+  WordIndex(List<Token> tokens) {
+    var identifiersByWord = new HashMap<String, List<Token>>();
+    var stringTokensByWord = new HashMap<String, List<Token>>();
+
+    for (Token token : tokens) {
+      var text = token.getText();
+      if (text == null || text.isEmpty()) {
+        continue;
+      }
+      if (isStringToken(token.getType())) {
+        addStringWords(stringTokensByWord, token, text);
+      } else if (isWordStart(text.charAt(0))) {
+        identifiersByWord.computeIfAbsent(normalize(text), word -> new ArrayList<>()).add(token);
+      }
+    }
+
+    identifiersByWord.replaceAll((word, list) -> Collections.unmodifiableList(list));
+    stringTokensByWord.replaceAll((word, list) -> Collections.unmodifiableList(list));
+    identifiers = identifiersByWord;
+    stringWords = stringTokensByWord;
+  }
+
+  /**
+   * @param word Слово. Регистр не учитывается.
+   * @return Признак наличия в документе идентификатора, совпадающего со словом.
+   */
+  public boolean containsIdentifier(String word) {
+    return identifiers.containsKey(normalize(word));
+  }
+
+  /**
+   * @param words Слова. Регистр не учитывается.
+   * @return Признак наличия в документе хотя бы одного идентификатора из переданных.
+   */
+  public boolean containsAnyIdentifier(Collection<String> words) {
+    return words.stream().anyMatch(this::containsIdentifier);
+  }
+
+  /**
+   * @param word Слово. Регистр не учитывается.
+   * @return Токены идентификаторов, совпадающих со словом, в порядке следования в документе.
+   */
+  public List<Token> getIdentifierTokens(String word) {
+    return identifiers.getOrDefault(normalize(word), Collections.emptyList());
+  }
+
+  /**
+   * @param word Слово. Регистр не учитывается.
+   * @return Признак наличия слова внутри строковых литералов документа.
+   */
+  public boolean containsStringWord(String word) {
+    return stringWords.containsKey(normalize(word));
+  }
+
+  /**
+   * @param words Слова. Регистр не учитывается.
+   * @return Признак наличия внутри строковых литералов документа хотя бы одного слова из переданных.
+   */
+  public boolean containsAnyStringWord(Collection<String> words) {
+    return words.stream().anyMatch(this::containsStringWord);
+  }
+
+  /**
+   * @param word Слово. Регистр не учитывается.
+   * @return Токены строковых литералов, содержащих слово, в порядке следования в документе.
+   */
+  public List<Token> getStringTokens(String word) {
+    return stringWords.getOrDefault(normalize(word), Collections.emptyList());
+  }
+
+  /**
+   * Привести слово к виду, в котором оно хранится в индексе.
+   *
+   * @param word Слово.
+   * @return Слово в нижнем регистре.
+   */
+  public static String normalize(String word) {
+    return word.toLowerCase(Locale.ENGLISH);
+  }
+
+  private static void addStringWords(Map<String, List<Token>> index, Token token, String text) {
+    var start = -1;
+    for (var i = 0; i <= text.length(); i++) {
+      var isWordChar = i < text.length() && isWordPart(text.charAt(i));
+      if (isWordChar && start < 0) {
+        start = i;
+      } else if (!isWordChar && start >= 0) {
+        var tokensOfWord = index.computeIfAbsent(normalize(text.substring(start, i)), word -> new ArrayList<>());
+        // одно слово может встречаться в литерале несколько раз
+        if (tokensOfWord.isEmpty() || tokensOfWord.get(tokensOfWord.size() - 1) != token) {
+          tokensOfWord.add(token);
+        }
+        start = -1;
+      }
+    }
+  }
+
+  private static boolean isStringToken(int tokenType) {
+    return tokenType == BSLLexer.STRING
+      || tokenType == BSLLexer.STRINGSTART
+      || tokenType == BSLLexer.STRINGPART
+      || tokenType == BSLLexer.STRINGTAIL;
+  }
+
+  private static boolean isWordStart(char character) {
+    return Character.isLetter(character) || character == '_';
+  }
+
+  private static boolean isWordPart(char character) {
+    return Character.isLetterOrDigit(character) || character == '_';
+  }
+}
@@ -0,0 +1,401 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.context.events.DocumentContextContentChangedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextClearedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextDocumentRemovedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextPopulatedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.SourceDefinedSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.Symbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.SymbolTree;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.VariableSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.variable.VariableKind;
+import com.github._1c_syntax.utils.CaseInsensitivePattern;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Индекс символов рабочей области для запросов workspace/symbol.
+ * <p>
+ * Хранит методы, а также переменные модуля и глобальные переменные всех документов контекста.
+ * Поиск подстроки выполняется по отсортированному индексу триграмм имен без учета регистра: имена дополняются
+ * в конце служебными символами, поэтому запросы короче триграммы обслуживаются выборкой диапазона триграмм,
+ * начинающихся с запроса. Запросы по начальным буквам слов имени ("camel hump", например {@code НУП}
+ * для {@code НеУстаревшаяПроцедура}) обслуживаются выборкой диапазона по отсортированным ключам.
+ * Запросы, содержащие метасимволы регулярных выражений, выполняются как регулярные выражения по всем символам
+ * индекса.
+ * <p>
+ * Индекс обновляется по событиям: при изменении содержимого документа, после заполнения контекста сервера
+ * (для документов, восстановленных из кэша без перестроения), при удалении документа и очистке контекста.
+ */
+@Component
+public class WorkspaceSymbolIndex {
+
+  private static final Set<VariableKind> SUPPORTED_VARIABLE_KINDS = EnumSet.of(
+    VariableKind.MODULE,
+    VariableKind.GLOBAL
+  );
+
+  private static final Pattern REGEX_METACHARACTERS = Pattern.compile("[\\\\.\\[\\]{}()*+?^$|]");
+
+  private static final int TRIGRAM_LENGTH = 3;
+  private static final String TRIGRAM_PADDING = "\0\0";
+  private static final int CHAR_BITS = 16;
+
+  private final Map<URI, IndexedDocument> documents = new ConcurrentHashMap<>();
+  private final NavigableMap<Long, Set<Entry>> trigrams = new ConcurrentSkipListMap<>();
+  private final NavigableMap<String, Set<Entry>> humps = new ConcurrentSkipListMap<>();
+
+  /**
+   * Найти символы рабочей области.
+   *
+   * @param query Строка запроса. Пустая строка соответствует всем символам.
+   * @param limit Максимальное количество результатов. Ноль или отрицательное значение снимает ограничение.
+   * @return Найденные символы, упорядоченные по релевантности.
+   */
+  public List<Entry> find(String query, int limit) {
+    List<Match> matches;
+    if (REGEX_METACHARACTERS.matcher(query).find()) {
+      matches = findByRegex(query);
+    } else {
+      matches = findByText(query.toLowerCase(Locale.ROOT));
+    }
+
+    var stream = matches.stream()
+      .sorted()
+      .map(Match::getEntry);
+    if (limit > 0) {
+      stream = stream.limit(limit);
+    }
+    return stream.collect(Collectors.toList());
+  }
+
+  @EventListener
+  public void handleEvent(DocumentContextContentChangedEvent event) {
+    index(event.getSource());
+  }
+
+  /**
+   * Проиндексировать документы, восстановленные при заполнении контекста без перестроения.
+   *
+   * @param event Событие заполнения контекста сервера.
+   */
+  @EventListener
+  public void handleEvent(ServerContextPopulatedEvent event) {
+    new ArrayList<>(event.getSource().getDocuments().values()).forEach(this::index);
+  }
+
+  @EventListener
+  public void handleEvent(ServerContextDocumentRemovedEvent event) {
+    removeDocument(event.getUri());
+  }
+
+  @EventListener
+  public synchronized void handleEvent(ServerContextClearedEvent event) {
+    documents.clear();
+    trigrams.clear();
+    humps.clear();
+  }
+
+  /**
+   * Проиндексировать символы документа, заменив ранее проиндексированные.
+   *
+   * @param documentContext Документ.
+   */
+  public synchronized void index(DocumentContext documentContext) {
+    var uri = documentContext.getUri();
+    var symbolTree = documentContext.getSymbolTree();
+    if (symbolTree == null) {
+      return;
+    }
+
+    var indexedDocument = documents.get(uri);
+    if (indexedDocument != null && indexedDocument.getSymbolTree() == symbolTree) {
+      return;
+    }
+    removeDocument(uri);
+
+    List<Entry> entries = symbolTree.getChildrenFlat().stream()
+      .filter(WorkspaceSymbolIndex::isSupported)
+      .map(symbol -> new Entry(uri, symbol))
+      .collect(Collectors.toList());
+
+    for (Entry entry : entries) {
+      for (long trigram : nameTrigramsOf(entry)) {
+        trigrams.computeIfAbsent(trigram, key -> ConcurrentHashMap.newKeySet()).add(entry);
+      }
+      humps.computeIfAbsent(entry.getHumps(), key -> ConcurrentHashMap.newKeySet()).add(entry);
+    }
+    documents.put(uri, new IndexedDocument(symbolTree, entries));
+  }
+
+  /**
+   * Исключить символы документа из индекса.
+   *
+   * @param uri URI документа.
+   */
+  public synchronized void removeDocument(URI uri) {
+    var indexedDocument = documents.remove(uri);
+    if (indexedDocument == null) {
+      return;
+    }
+
+    for (Entry entry : indexedDocument.getEntries()) {
+      for (long trigram : nameTrigramsOf(entry)) {
+        removePosting(trigrams, trigram, entry);
+      }
+      removePosting(humps, entry.getHumps(), entry);
+    }
+  }
+
+  private static <K> void removePosting(Map<K, Set<Entry>> postingsMap, K key, Entry entry) {
+    postingsMap.computeIfPresent(key, (K postingsKey, Set<Entry> postings) -> {
+      postings.remove(entry);
+      return postings.isEmpty() ? null : postings;
+    });
+  }
+
+  private List<Match> findByRegex(String query) {
+    var pattern = CaseInsensitivePattern.compile(query);
+    return allEntries()
+      .filter(entry -> pattern.matcher(entry.getName()).find())
+      .map(entry -> new Match(entry, MatchKind.SUBSTRING))
+      .collect(Collectors.toList());
+  }
+
+  private List<Match> findByText(String query) {
+    if (query.isEmpty()) {
+      return allEntries()
+        .map(entry -> new Match(entry, MatchKind.SUBSTRING))
+        .collect(Collectors.toList());
+    }
+
+    Set<Entry> candidates = new HashSet<>();
+    if (query.length() < TRIGRAM_LENGTH) {
+      shortQueryCandidates(query).forEach(candidates::addAll);
+    } else {
+      candidates.addAll(trigramCandidates(query));
+    }
+    // совпадения по начальным буквам слов не обязаны содержать запрос как подстроку
+    humps.tailMap(query, true).entrySet().stream()
+      .takeWhile(humpsPostings -> humpsPostings.getKey().startsWith(query))
+      .forEach(humpsPostings -> candidates.addAll(humpsPostings.getValue()));
+
+    List<Match> matches = new ArrayList<>();
+    for (Entry entry : candidates) {
+      var matchKind = MatchKind.of(entry, query);
+      if (matchKind != null) {
+        matches.add(new Match(entry, matchKind));
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Списки символов по всем триграммам, начинающимся с запроса длиной меньше триграммы.
+   */
+  private Collection<Set<Entry>> shortQueryCandidates(String query) {
+    long from = 0;
+    for (var i = 0; i < TRIGRAM_LENGTH; i++) {
+      from <<= CHAR_BITS;
+      if (i < query.length()) {
+        from |= query.charAt(i);
+      }
+    }
+    var freeBits = CHAR_BITS * (TRIGRAM_LENGTH - query.length());
+    var to = from | ((1L << freeBits) - 1);
+    return trigrams.subMap(from, true, to, true).values();
+  }
+
+  private Collection<Entry> trigramCandidates(String query) {
+    List<Set<Entry>> postings = new ArrayList<>();
+    for (long trigram : trigramsOf(query)) {
+      var trigramPostings = trigrams.get(trigram);
+      if (trigramPostings == null) {
+        return Collections.emptyList();
+      }
+      postings.add(trigramPostings);
+    }
+
+    postings.sort(Comparator.comparingInt(Set::size));
+    var smallest = postings.get(0);
+    var others = postings.subList(1, postings.size());
+    return smallest.stream()
+      .filter(entry -> others.stream().allMatch(trigramPostings -> trigramPostings.contains(entry)))
+      .collect(Collectors.toList());
+  }
+
+  private Stream<Entry> allEntries() {
+    return documents.values().stream()
+      .flatMap(indexedDocument -> indexedDocument.getEntries().stream());
+  }
+
+  /**
+   * Триграммы имени символа, дополненного служебными символами, чтобы каждая позиция имени
+   * начинала триграмму.
+   */
+  private static long[] nameTrigramsOf(Entry entry) {
+    return trigramsOf(entry.getLowerCaseName() + TRIGRAM_PADDING);
+  }
+
+  /**
+   * Триграммы строки, упакованные в long по 16 бит на символ.
+   */
+  private static long[] trigramsOf(String text) {
+    var count = Math.max(0, text.length() - TRIGRAM_LENGTH + 1);
+    var result = new long[count];
+    for (var i = 0; i < count; i++) {
+      result[i] = ((long) text.charAt(i) << (2 * CHAR_BITS))
+        | ((long) text.charAt(i + 1) << CHAR_BITS)
+        | text.charAt(i + 2);
+    }
+    return result;
+  }
+
+  private static boolean isSupported(Symbol symbol) {
+    var symbolKind = symbol.getSymbolKind();
+    switch (symbolKind) {
+      case Method:
+        return true;
+      case Variable:
+        return SUPPORTED_VARIABLE_KINDS.contains(((VariableSymbol) symbol).getKind());
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Начальные буквы слов имени в нижнем регистре: первый символ, заглавные буквы после строчных
+   * и символы после подчеркивания.
+   */
+  private static String humpsOf(String name) {
+    var humps = new StringBuilder();
+    var previous = '_';
+    for (var i = 0; i < name.length(); i++) {
+      var current = name.charAt(i);
+      var wordStart = (previous == '_' && current != '_')
+        || (Character.isUpperCase(current) && !Character.isUpperCase(previous));
+      if (wordStart) {
+        humps.append(Character.toLowerCase(current));
+      }
+      previous = current;
+    }
+    return humps.toString();
+  }
+
+  /**
+   * Проиндексированный символ.
+   */
+  @Getter
+  public static final class Entry {
+    private final URI uri;
+    private final SourceDefinedSymbol symbol;
+    private final String name;
+    @Getter(AccessLevel.PRIVATE)
+    private final String lowerCaseName;
+    @Getter(AccessLevel.PRIVATE)
+    private final String humps;
+
+    private Entry(URI uri, SourceDefinedSymbol symbol) {
+      this.uri = uri;
+      this.symbol = symbol;
+      this.name = symbol.getName();
+      this.lowerCaseName = name.toLowerCase(Locale.ROOT);
+      this.humps = humpsOf(name);
+    }
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static final class IndexedDocument {
+    private final SymbolTree symbolTree;
+    private final List<Entry> entries;
+  }
+
+  /**
+   * Вид совпадения, в порядке убывания релевантности.
+   */
+  private enum MatchKind {
+    EXACT,
+    PREFIX,
+    CAMEL_HUMP,
+    SUBSTRING;
+
+    @Nullable
+    private static MatchKind of(Entry entry, String query) {
+      var name = entry.getLowerCaseName();
+      if (name.equals(query)) {
+        return EXACT;
+      }
+      if (name.startsWith(query)) {
+        return PREFIX;
+      }
+      if (entry.getHumps().startsWith(query)) {
+        return CAMEL_HUMP;
+      }
+      if (name.contains(query)) {
+        return SUBSTRING;
+      }
+      return null;
+    }
+  }
+
+  @Getter
+  @RequiredArgsConstructor
+  private static final class Match implements Comparable<Match> {
+    private static final Comparator<Match> ORDER = Comparator.comparing(Match::getKind)
+      .thenComparingInt(match -> match.getEntry().getName().length())
+      .thenComparing(match -> match.getEntry().getLowerCaseName())
+      .thenComparing(match -> match.getEntry().getUri());
+
+    private final Entry entry;
+    private final MatchKind kind;
+
+    @Override
+    public int compareTo(Match other) {
+      return ORDER.compare(this, other);
+    }
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.cache;
+
+import com.github._1c_syntax.bsl.languageserver.context.ConfigurationSnapshot;
+import com.github._1c_syntax.utils.Absolute;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Персистентный кэш снимков метаданных конфигурации ({@link ConfigurationSnapshot}).
+ * <p>
+ * Снимок сохраняется вместе с отпечатком каталога конфигурации: относительными путями файлов модулей, а для
+ * файлов описаний метаданных - также их размерами и датами изменения. Если отпечаток не изменился,
+ * снимок загружается без разбора описаний метаданных.
+ * <p>
+ * Кэш включается настройкой {@code app.cache.enabled}, каталог кэша задается настройкой {@code app.cache.path}.
+ */
+@Slf4j
+@Component
+public class ConfigurationSnapshotCache {
+
+  /**
+   * Версия формата снимка. Должна увеличиваться при любом изменении структуры {@link ConfigurationSnapshot}.
+   */
+  private static final int FORMAT_VERSION = 1;
+  private static final String SNAPSHOT_EXTENSION = ".bin.gz";
+  private static final Set<String> MODULE_EXTENSIONS = Set.of("bsl", "os");
+  private static final Set<String> METADATA_EXTENSIONS = Set.of("xml", "mdo", "form", "bin");
+
+  @Value("${app.cache.enabled:false}")
+  private boolean enabled;
+
+  @Value("${app.cache.path:.bsl-language-server/cache}")
+  private String cachePath = "";
+
+  /**
+   * Загрузить снимок метаданных, если он был сохранен для текущего состояния каталога конфигурации.
+   *
+   * @param configurationRoot Корневой каталог конфигурации.
+   * @return Снимок метаданных конфигурации.
+   */
+  public Optional<ConfigurationSnapshot> load(Path configurationRoot) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+
+    var snapshotPath = getSnapshotPath(configurationRoot);
+    if (!Files.exists(snapshotPath)) {
+      return Optional.empty();
+    }
+
+    String fingerprint;
+    try {
+      fingerprint = computeFingerprint(configurationRoot);
+    } catch (IOException e) {
+      LOGGER.warn("Can't compute fingerprint of configuration {}", configurationRoot, e);
+      return Optional.empty();
+    }
+
+    try (var input = new DataInputStream(
+      new BufferedInputStream(new GZIPInputStream(Files.newInputStream(snapshotPath)))
+    )) {
+      if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(fingerprint)) {
+        return Optional.empty();
+      }
+      var snapshot = ConfigurationSnapshot.read(input);
+      LOGGER.debug("Configuration metadata snapshot loaded from {}", snapshotPath);
+      return Optional.of(snapshot);
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.warn("Can't read configuration metadata snapshot {}", snapshotPath, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Сохранить снимок метаданных для текущего состояния каталога конфигурации.
+   *
+   * @param configurationRoot Корневой каталог конфигурации.
+   * @param snapshot          Снимок метаданных конфигурации.
+   */
+  public void save(Path configurationRoot, ConfigurationSnapshot snapshot) {
+    if (!enabled) {
+      return;
+    }
+
+    var snapshotPath = getSnapshotPath(configurationRoot);
+    try {
+      var fingerprint = computeFingerprint(configurationRoot);
+      Files.createDirectories(snapshotPath.getParent());
+      var tempFile = Files.createTempFile(snapshotPath.getParent(), null, null);
+      try (var output = new DataOutputStream(
+        new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile)))
+      )) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(fingerprint);
+        snapshot.write(output);
+      }
+      Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOGGER.warn("Can't write configuration metadata snapshot {}", snapshotPath, e);
+    }
+  }
+
+  private Path getSnapshotPath(Path configurationRoot) {
+    var digest = createDigest();
+    digest.update(Absolute.path(configurationRoot).toString().getBytes(StandardCharsets.UTF_8));
+    var key = toHex(digest.digest());
+
+    return Absolute.path(cachePath)
+      .resolve("configuration")
+      .resolve(key + SNAPSHOT_EXTENSION);
+  }
+
+  /**
+   * Отпечаток каталога конфигурации. Состав модулей зависит только от путей файлов, поэтому для модулей
+   * учитываются только пути, для описаний метаданных, форм и данных поддержки - также размер и дата изменения.
+   * Скрытые каталоги (в том числе каталог кэша и служебные каталоги систем контроля версий) не учитываются.
+   */
+  private static String computeFingerprint(Path configurationRoot) throws IOException {
+    List<String> lines = new ArrayList<>();
+    Files.walkFileTree(configurationRoot, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) {
+        if (!dir.equals(configurationRoot) && dir.getFileName().toString().startsWith(".")) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+        var relativePath = configurationRoot.relativize(file).toString().replace('\\', '/');
+        var extension = FilenameUtils.getExtension(relativePath).toLowerCase(Locale.ENGLISH);
+        if (MODULE_EXTENSIONS.contains(extension)) {
+          lines.add(relativePath);
+        } else if (METADATA_EXTENSIONS.contains(extension)) {
+          lines.add(relativePath + '|' + attributes.size() + '|' + attributes.lastModifiedTime().toMillis());
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    Collections.sort(lines);
+    var digest = createDigest();
+    lines.forEach((String line) -> {
+      digest.update(line.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    });
+    return toHex(digest.digest());
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    return String.format("%0" + (bytes.length * 2) + "x", new BigInteger(1, bytes));
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github._1c_syntax.bsl.languageserver.context.ConfigurationSnapshot;
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.references.ReferenceIndex;
+import com.github._1c_syntax.bsl.languageserver.references.model.OccurrenceType;
+import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrenceStorage;
+import com.github._1c_syntax.bsl.languageserver.utils.MdoRefBuilder;
+import com.github._1c_syntax.utils.Absolute;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.lsp4j.ServerInfo;
+import org.eclipse.lsp4j.SymbolKind;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Персистентный кэш данных документов, вычисляемых при заполнении контекста сервера.
+ * <p>
+ * Для каждого документа на диске хранится {@link DocumentSnapshot}, ключом которого является хэш uri файла,
+ * ссылки на объект метаданных, версии сервера и набора модулей конфигурации. Снимок хранит время изменения
+ * и размер файла, по содержимому которого он построен: если они совпадают с текущими, дерево символов, метрики,
+ * данные об игнорировании диагностик и записи индекса ссылок восстанавливаются без чтения файла и без запуска
+ * лексера и парсера.
+ * <p>
+ * Кэш включается настройкой {@code app.cache.enabled}, каталог кэша задается настройкой {@code app.cache.path}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentContextCache {
+
+  /**
+   * Версия формата снимков. Должна увеличиваться при любом изменении структуры {@link DocumentSnapshot}
+   * или алгоритмов вычисления дерева символов и индекса ссылок.
+   */
+  private static final int FORMAT_VERSION = 2;
+  private static final String SNAPSHOT_EXTENSION = ".json.gz";
+
+  private final ServerInfo serverInfo;
+  private final ReferenceIndex referenceIndex;
+  private final SymbolOccurrenceStorage symbolOccurrenceStorage;
+
+  private final ObjectMapper mapper = new ObjectMapper()
+    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  @Value("${app.cache.enabled:false}")
+  private boolean enabled;
+
+  @Value("${app.cache.path:.bsl-language-server/cache}")
+  private String cachePath = "";
+
+  @Nullable
+  private ConfigurationSnapshot fingerprintedConfiguration;
+  private String configurationFingerprint = "";
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Попытаться восстановить данные документа из кэша.
+   * <p>
+   * Содержимое файла не читается: актуальность снимка проверяется по времени изменения и размеру файла.
+   * При успешном восстановлении записи индекса ссылок документа заменяются сохраненными.
+   *
+   * @param documentContext Документ, данные которого необходимо восстановить.
+   * @return Снимок данных документа, если в кэше есть снимок для текущего состояния файла.
+   */
+  public Optional<DocumentSnapshot> restore(DocumentContext documentContext) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+
+    var uri = documentContext.getUri();
+    var snapshotPath = getSnapshotPath(documentContext);
+    if (!snapshotPath.toFile().exists()) {
+      return Optional.empty();
+    }
+
+    BasicFileAttributes attributes;
+    DocumentSnapshot snapshot;
+    try {
+      attributes = readAttributes(uri);
+      try (var inputStream = new GZIPInputStream(Files.newInputStream(snapshotPath))) {
+        snapshot = mapper.readValue(inputStream, DocumentSnapshot.class);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Can't read document snapshot {}", snapshotPath, e);
+      return Optional.empty();
+    }
+
+    if (!matches(snapshot, attributes)) {
+      return Optional.empty();
+    }
+
+    restoreReferences(uri, snapshot.getOccurrences());
+
+    return Optional.of(snapshot);
+  }
+
+  /**
+   * Сохранить данные документа в кэш.
+   * <p>
+   * Документ должен содержать контент, по которому были вычислены дерево символов и индекс ссылок.
+   * Если файл изменился после построения документа, снимок не сохраняется: время изменения и размер
+   * файла, записанные в снимок, должны соответствовать содержимому, по которому вычислены данные.
+   *
+   * @param documentContext Документ, данные которого необходимо сохранить.
+   */
+  public void save(DocumentContext documentContext) {
+    if (!enabled) {
+      return;
+    }
+
+    var uri = documentContext.getUri();
+    var snapshotPath = getSnapshotPath(documentContext);
+    try {
+      var attributes = readAttributes(uri);
+      var fileContent = FileUtils.readFileToString(new File(uri), StandardCharsets.UTF_8);
+      if (!fileContent.equals(documentContext.getContent()) || !matches(attributes, readAttributes(uri))) {
+        LOGGER.debug("File was changed after document rebuild, snapshot is not saved: {}", uri);
+        return;
+      }
+
+      var occurrences = symbolOccurrenceStorage.getAllByLocationUri(uri)
+        .collect(Collectors.toList());
+      var snapshot = DocumentSnapshots.create(
+        documentContext,
+        occurrences,
+        attributes.lastModifiedTime().toMillis(),
+        attributes.size()
+      );
+
+      Files.createDirectories(snapshotPath.getParent());
+      var tempFile = Files.createTempFile(snapshotPath.getParent(), null, null);
+      try (var outputStream = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+        mapper.writeValue(outputStream, snapshot);
+      }
+      Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOGGER.warn("Can't write document snapshot {}", snapshotPath, e);
+    }
+  }
+
+  private void restoreReferences(URI uri, List<DocumentSnapshot.OccurrenceData> occurrences) {
+    var update = referenceIndex.startUpdate(uri);
+    occurrences.forEach((DocumentSnapshot.OccurrenceData occurrence) -> {
+      if (occurrence.getSymbolKind() == SymbolKind.Variable) {
+        update.addVariableUsage(
+          occurrence.getMdoRef(),
+          occurrence.getModuleType(),
+          occurrence.getScopeName(),
+          occurrence.getSymbolName(),
+          occurrence.getRange(),
+          occurrence.getOccurrenceType() == OccurrenceType.DEFINITION
+        );
+      } else {
+        update.addMethodCall(
+          occurrence.getMdoRef(),
+          occurrence.getModuleType(),
+          occurrence.getSymbolName(),
+          occurrence.getRange()
+        );
+      }
+    });
+    update.commit();
+  }
+
+  private static BasicFileAttributes readAttributes(URI uri) throws IOException {
+    return Files.readAttributes(Path.of(uri), BasicFileAttributes.class);
+  }
+
+  private static boolean matches(DocumentSnapshot snapshot, BasicFileAttributes attributes) {
+    return snapshot.getLastModified() == attributes.lastModifiedTime().toMillis()
+      && snapshot.getSize() == attributes.size();
+  }
+
+  private static boolean matches(BasicFileAttributes first, BasicFileAttributes second) {
+    return first.lastModifiedTime().equals(second.lastModifiedTime())
+      && first.size() == second.size();
+  }
+
+  private Path getSnapshotPath(DocumentContext documentContext) {
+    var digest = createDigest();
+    update(digest, String.valueOf(FORMAT_VERSION));
+    update(digest, documentContext.getUri().toString());
+    update(digest, MdoRefBuilder.getMdoRef(documentContext));
+    update(digest, documentContext.getModuleType().name());
+    update(digest, getConfigurationFingerprint(documentContext.getServerContext().getConfigurationSnapshot()));
+
+    var key = toHex(digest.digest());
+    var versionDirectory = Objects.toString(serverInfo.getVersion(), "")
+      .replaceAll("[^A-Za-z0-9._-]", "_");
+    if (versionDirectory.isEmpty()) {
+      versionDirectory = "unknown";
+    }
+
+    return Absolute.path(cachePath)
+      .resolve(versionDirectory)
+      .resolve(key.substring(0, 2))
+      .resolve(key + SNAPSHOT_EXTENSION);
+  }
+
+  /**
+   * Отпечаток набора модулей конфигурации. Разрешение ссылок на методы других модулей зависит от состава
+   * конфигурации, поэтому его изменение должно инвалидировать все снимки.
+   */
+  private synchronized String getConfigurationFingerprint(ConfigurationSnapshot configuration) {
+    if (configuration != fingerprintedConfiguration) {
+      var digest = createDigest();
+      configuration.getModuleUris().stream()
+        .map(URI::toString)
+        .sorted()
+        .forEach(moduleUri -> update(digest, moduleUri));
+      configurationFingerprint = toHex(digest.digest());
+      fingerprintedConfiguration = configuration;
+    }
+    return configurationFingerprint;
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static String toHex(byte[] bytes) {
+    return String.format("%0" + (bytes.length * 2) + "x", new BigInteger(1, bytes));
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.cache;
+
+import com.github._1c_syntax.bsl.languageserver.context.MetricStorage;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.ParameterDefinition;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.annotations.AnnotationKind;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.annotations.AnnotationParameterDefinition;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.annotations.CompilerDirectiveKind;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.variable.VariableKind;
+import com.github._1c_syntax.bsl.languageserver.references.model.OccurrenceType;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.Value;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
+
+import java.util.List;
+
+/**
+ * Снимок данных документа, вычисляемых при заполнении контекста сервера.
+ * <p>
+ * Содержит плоское представление дерева символов, обращения к символам из индекса ссылок, метрики
+ * и данные об игнорировании диагностик. Не содержит ссылок на
+ * {@link com.github._1c_syntax.bsl.languageserver.context.DocumentContext}, поэтому может быть сериализован
+ * и восстановлен для любого экземпляра документа с тем же содержимым.
+ */
+@Value
+public class DocumentSnapshot {
+
+  /**
+   * Время последнего изменения файла документа в миллисекундах, по содержимому которого построен снимок.
+   */
+  long lastModified;
+
+  /**
+   * Размер файла документа в байтах, по содержимому которого построен снимок.
+   */
+  long size;
+
+  /**
+   * Имя символа модуля.
+   */
+  String moduleName;
+
+  /**
+   * Диапазон символа модуля.
+   */
+  Range moduleRange;
+
+  /**
+   * Область первого токена модуля.
+   */
+  Range moduleSelectionRange;
+
+  /**
+   * Символы документа (кроме символа модуля) в порядке обхода дерева символов в глубину.
+   */
+  List<SymbolData> symbols;
+
+  /**
+   * Обращения к символам, расположенные в документе.
+   */
+  List<OccurrenceData> occurrences;
+
+  /**
+   * Метрики документа.
+   */
+  MetricStorage metrics;
+
+  /**
+   * Диапазоны строк, в которых игнорируются диагностики.
+   */
+  List<IgnoranceData> diagnosticIgnorance;
+
+  /**
+   * Вид символа в снимке.
+   */
+  public enum SymbolType {
+    METHOD,
+    REGION,
+    VARIABLE
+  }
+
+  /**
+   * Данные символа.
+   */
+  @Value
+  public static class SymbolData {
+    SymbolType type;
+    String name;
+
+    /**
+     * Индекс родительского символа в {@link DocumentSnapshot#getSymbols()}. -1, если родитель - модуль.
+     */
+    int parent;
+
+    /**
+     * Индекс символа-области объявления переменной в {@link DocumentSnapshot#getSymbols()}.
+     * -1, если областью объявления является модуль.
+     */
+    int scope;
+
+    Range range;
+    Range selectionRange;
+
+    @Nullable
+    Range startRange;
+    @Nullable
+    Range endRange;
+
+    boolean function;
+    boolean export;
+    boolean deprecated;
+
+    @Nullable
+    VariableKind variableKind;
+    @Nullable
+    CompilerDirectiveKind compilerDirectiveKind;
+
+    @Nullable
+    DescriptionData description;
+    @Nullable
+    DescriptionData trailingDescription;
+
+    List<ParameterData> parameters;
+    List<AnnotationData> annotations;
+  }
+
+  /**
+   * Данные описания символа - исходный текст комментария и его диапазон.
+   */
+  @Value
+  public static class DescriptionData {
+    String text;
+    Range range;
+  }
+
+  /**
+   * Данные параметра метода.
+   */
+  @Value
+  public static class ParameterData {
+    String name;
+    boolean byValue;
+    ParameterDefinition.DefaultValue defaultValue;
+    Range range;
+  }
+
+  /**
+   * Данные аннотации метода.
+   */
+  @Value
+  public static class AnnotationData {
+    String name;
+    AnnotationKind kind;
+    List<AnnotationParameterDefinition> parameters;
+  }
+
+  /**
+   * Данные обращения к символу.
+   */
+  @Value
+  public static class OccurrenceData {
+    String mdoRef;
+    ModuleType moduleType;
+    String scopeName;
+    SymbolKind symbolKind;
+    String symbolName;
+    OccurrenceType occurrenceType;
+    Range range;
+  }
+
+  /**
+   * Диапазон строк, в котором игнорируется диагностика.
+   */
+  @Value
+  public static class IgnoranceData {
+    String diagnosticCode;
+    int startLine;
+    int endLine;
+  }
+}
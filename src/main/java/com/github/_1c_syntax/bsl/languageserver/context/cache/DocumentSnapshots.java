@@ -0,0 +1,422 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.cache;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.AnnotationData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.DescriptionData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.IgnoranceData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.OccurrenceData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.ParameterData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.SymbolData;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentSnapshot.SymbolType;
+import com.github._1c_syntax.bsl.languageserver.context.computer.DiagnosticIgnoranceComputer;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.MethodSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.ModuleSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.ParameterDefinition;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.RegionSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.SourceDefinedSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.SymbolTree;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.VariableSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.annotations.Annotation;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.description.MethodDescription;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.description.ParameterDescription;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.description.SourceDefinedSymbolDescription;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.variable.VariableDescription;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticCode;
+import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrence;
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.experimental.UtilityClass;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.Token;
+import org.apache.commons.lang3.Range;
+import org.eclipse.lsp4j.SymbolKind;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Преобразование данных документа в {@link DocumentSnapshot} и обратно.
+ * <p>
+ * Описания символов восстанавливаются из исходного текста комментариев, поэтому для восстановления
+ * не требуется повторный разбор модуля.
+ */
+@UtilityClass
+public class DocumentSnapshots {
+
+  private static final int MODULE_INDEX = -1;
+
+  /**
+   * Создать снимок данных документа.
+   *
+   * @param documentContext Документ с вычисленными данными.
+   * @param occurrences     Обращения к символам, расположенные в документе.
+   * @param lastModified    Время последнего изменения файла документа в миллисекундах.
+   * @param size            Размер файла документа в байтах.
+   * @return Снимок данных документа.
+   */
+  public DocumentSnapshot create(
+    DocumentContext documentContext,
+    Collection<SymbolOccurrence> occurrences,
+    long lastModified,
+    long size
+  ) {
+    var symbolTree = documentContext.getSymbolTree();
+    var module = symbolTree.getModule();
+    var symbols = symbolTree.getChildrenFlat();
+
+    Map<SourceDefinedSymbol, Integer> indexes = new IdentityHashMap<>(symbols.size());
+    for (var i = 0; i < symbols.size(); i++) {
+      indexes.put(symbols.get(i), i);
+    }
+
+    var symbolsData = symbols.stream()
+      .map(symbol -> createSymbolData(symbol, indexes))
+      .collect(Collectors.toList());
+
+    var occurrencesData = occurrences.stream()
+      .map(DocumentSnapshots::createOccurrenceData)
+      .collect(Collectors.toList());
+
+    var diagnosticIgnoranceData = new ArrayList<IgnoranceData>();
+    documentContext.getDiagnosticIgnorance().getDiagnosticIgnorance().forEach(
+      (DiagnosticCode diagnosticCode, List<Range<Integer>> ranges) -> ranges.forEach(range ->
+        diagnosticIgnoranceData.add(
+          new IgnoranceData(diagnosticCode.getStringValue(), range.getMinimum(), range.getMaximum())
+        )
+      )
+    );
+
+    return new DocumentSnapshot(
+      lastModified,
+      size,
+      module.getName(),
+      module.getRange(),
+      module.getSelectionRange(),
+      symbolsData,
+      occurrencesData,
+      documentContext.getMetrics(),
+      diagnosticIgnoranceData
+    );
+  }
+
+  /**
+   * Восстановить данные об игнорировании диагностик из снимка.
+   *
+   * @param snapshot Снимок данных документа.
+   * @return Данные об игнорировании диагностик.
+   */
+  public DiagnosticIgnoranceComputer.Data createDiagnosticIgnorance(DocumentSnapshot snapshot) {
+    Map<DiagnosticCode, List<Range<Integer>>> diagnosticIgnorance = new HashMap<>();
+    snapshot.getDiagnosticIgnorance().forEach(data ->
+      diagnosticIgnorance.computeIfAbsent(new DiagnosticCode(data.getDiagnosticCode()), code -> new ArrayList<>())
+        .add(Range.between(data.getStartLine(), data.getEndLine()))
+    );
+    return new DiagnosticIgnoranceComputer.Data(diagnosticIgnorance);
+  }
+
+  /**
+   * Восстановить дерево символов из снимка.
+   *
+   * @param snapshot Снимок данных документа.
+   * @param owner    Документ, которому будут принадлежать восстановленные символы.
+   * @return Дерево символов документа.
+   */
+  public SymbolTree createSymbolTree(DocumentSnapshot snapshot, DocumentContext owner) {
+    var module = ModuleSymbol.builder()
+      .name(snapshot.getModuleName())
+      .symbolKind(SymbolKind.Module)
+      .owner(owner)
+      .range(snapshot.getModuleRange())
+      .selectionRange(snapshot.getModuleSelectionRange())
+      .build();
+
+    var symbolsData = snapshot.getSymbols();
+    var symbols = new SourceDefinedSymbol[symbolsData.size()];
+
+    // переменные ссылаются на область объявления, поэтому создаются после методов
+    for (var i = 0; i < symbolsData.size(); i++) {
+      var data = symbolsData.get(i);
+      if (data.getType() == SymbolType.METHOD) {
+        symbols[i] = createMethodSymbol(data, owner);
+      } else if (data.getType() == SymbolType.REGION) {
+        symbols[i] = createRegionSymbol(data, owner);
+      }
+    }
+
+    for (var i = 0; i < symbolsData.size(); i++) {
+      var data = symbolsData.get(i);
+      if (data.getType() == SymbolType.VARIABLE) {
+        symbols[i] = createVariableSymbol(data, owner, getSymbol(symbols, data.getScope(), module));
+      }
+    }
+
+    for (var i = 0; i < symbolsData.size(); i++) {
+      var symbol = symbols[i];
+      var parent = getSymbol(symbols, symbolsData.get(i).getParent(), module);
+      parent.getChildren().add(symbol);
+      symbol.setParent(Optional.of(parent));
+    }
+
+    return new SymbolTree(module);
+  }
+
+  private static SymbolData createSymbolData(SourceDefinedSymbol symbol, Map<SourceDefinedSymbol, Integer> indexes) {
+    int parent = symbol.getParent()
+      .map(parentSymbol -> indexes.getOrDefault(parentSymbol, MODULE_INDEX))
+      .orElse(MODULE_INDEX);
+
+    if (symbol instanceof MethodSymbol) {
+      var method = (MethodSymbol) symbol;
+      return new SymbolData(
+        SymbolType.METHOD,
+        method.getName(),
+        parent,
+        MODULE_INDEX,
+        method.getRange(),
+        method.getSubNameRange(),
+        null,
+        null,
+        method.isFunction(),
+        method.isExport(),
+        method.isDeprecated(),
+        null,
+        method.getCompilerDirectiveKind().orElse(null),
+        method.getDescription().map(DocumentSnapshots::createDescriptionData).orElse(null),
+        null,
+        method.getParameters().stream()
+          .map(DocumentSnapshots::createParameterData)
+          .collect(Collectors.toList()),
+        method.getAnnotations().stream()
+          .map(annotation -> new AnnotationData(annotation.getName(), annotation.getKind(), annotation.getParameters()))
+          .collect(Collectors.toList())
+      );
+    }
+
+    if (symbol instanceof RegionSymbol) {
+      var region = (RegionSymbol) symbol;
+      return new SymbolData(
+        SymbolType.REGION,
+        region.getName(),
+        parent,
+        MODULE_INDEX,
+        region.getRange(),
+        region.getRegionNameRange(),
+        region.getStartRange(),
+        region.getEndRange(),
+        false,
+        false,
+        false,
+        null,
+        null,
+        null,
+        null,
+        Collections.emptyList(),
+        Collections.emptyList()
+      );
+    }
+
+    var variable = (VariableSymbol) symbol;
+    var description = variable.getDescription();
+    return new SymbolData(
+      SymbolType.VARIABLE,
+      variable.getName(),
+      parent,
+      indexes.getOrDefault(variable.getScope(), MODULE_INDEX),
+      variable.getRange(),
+      variable.getVariableNameRange(),
+      null,
+      null,
+      false,
+      variable.isExport(),
+      false,
+      variable.getKind(),
+      null,
+      description.map(DocumentSnapshots::createDescriptionData).orElse(null),
+      description.flatMap(VariableDescription::getTrailingDescription)
+        .map(DocumentSnapshots::createDescriptionData)
+        .orElse(null),
+      Collections.emptyList(),
+      Collections.emptyList()
+    );
+  }
+
+  private static DescriptionData createDescriptionData(SourceDefinedSymbolDescription description) {
+    return new DescriptionData(description.getDescription(), description.getRange());
+  }
+
+  private static ParameterData createParameterData(ParameterDefinition parameter) {
+    return new ParameterData(
+      parameter.getName(),
+      parameter.isByValue(),
+      parameter.getDefaultValue(),
+      parameter.getRange()
+    );
+  }
+
+  private static OccurrenceData createOccurrenceData(SymbolOccurrence occurrence) {
+    var symbol = occurrence.getSymbol();
+    return new OccurrenceData(
+      symbol.getMdoRef(),
+      symbol.getModuleType(),
+      symbol.getScopeName(),
+      symbol.getSymbolKind(),
+      symbol.getSymbolName(),
+      occurrence.getOccurrenceType(),
+      occurrence.getLocation().getRange()
+    );
+  }
+
+  private static SourceDefinedSymbol getSymbol(SourceDefinedSymbol[] symbols, int index, ModuleSymbol module) {
+    if (index == MODULE_INDEX || symbols[index] == null) {
+      return module;
+    }
+    return symbols[index];
+  }
+
+  private static MethodSymbol createMethodSymbol(SymbolData data, DocumentContext owner) {
+    Optional<MethodDescription> description = Optional.ofNullable(data.getDescription())
+      .map(DocumentSnapshots::createCommentTokens)
+      .map(MethodDescription::new);
+
+    var parameters = data.getParameters().stream()
+      .map(parameter -> ParameterDefinition.builder()
+        .name(parameter.getName())
+        .byValue(parameter.isByValue())
+        .defaultValue(parameter.getDefaultValue())
+        .range(parameter.getRange())
+        .description(getParameterDescription(parameter.getName(), description))
+        .build())
+      .collect(Collectors.toList());
+
+    var annotations = data.getAnnotations().stream()
+      .map(annotation -> Annotation.builder()
+        .name(annotation.getName())
+        .kind(annotation.getKind())
+        .parameters(annotation.getParameters())
+        .build())
+      .collect(Collectors.toList());
+
+    return MethodSymbol.builder()
+      .name(data.getName().intern())
+      .owner(owner)
+      .range(data.getRange())
+      .subNameRange(data.getSelectionRange())
+      .function(data.isFunction())
+      .export(data.isExport())
+      .description(description)
+      .deprecated(data.isDeprecated())
+      .parameters(parameters)
+      .compilerDirectiveKind(Optional.ofNullable(data.getCompilerDirectiveKind()))
+      .annotations(annotations)
+      .build();
+  }
+
+  private static RegionSymbol createRegionSymbol(SymbolData data, DocumentContext owner) {
+    return RegionSymbol.builder()
+      .name(data.getName().intern())
+      .owner(owner)
+      .range(data.getRange())
+      .startRange(data.getStartRange())
+      .endRange(data.getEndRange())
+      .regionNameRange(data.getSelectionRange())
+      .build();
+  }
+
+  private static VariableSymbol createVariableSymbol(
+    SymbolData data,
+    DocumentContext owner,
+    SourceDefinedSymbol scope
+  ) {
+    Optional<VariableDescription> description = Optional.ofNullable(data.getDescription())
+      .map((DescriptionData descriptionData) -> {
+        var trailingComment = Optional.ofNullable(data.getTrailingDescription())
+          .map(DocumentSnapshots::createCommentTokens)
+          .flatMap(tokens -> tokens.stream().findFirst());
+        return new VariableDescription(createCommentTokens(descriptionData), trailingComment);
+      });
+
+    return VariableSymbol.builder()
+      .name(data.getName().intern())
+      .owner(owner)
+      .range(data.getRange())
+      .variableNameRange(data.getSelectionRange())
+      .export(data.isExport())
+      .kind(data.getVariableKind())
+      .description(description)
+      .scope(scope)
+      .build();
+  }
+
+  private static Optional<ParameterDescription> getParameterDescription(
+    String parameterName,
+    Optional<MethodDescription> description
+  ) {
+    return description.map(MethodDescription::getParameters)
+      .stream()
+      .flatMap(Collection::stream)
+      .filter(parameterDescription -> parameterDescription.getName().equalsIgnoreCase(parameterName))
+      .findFirst();
+  }
+
+  /**
+   * Восстановление токенов комментариев по тексту описания.
+   * <p>
+   * Описание всегда собирается из однострочных комментариев, соединенных переводом строки, а его диапазон
+   * вычисляется по первому и последнему токену. Поэтому достаточно восстановить позиции крайних токенов.
+   */
+  private static List<Token> createCommentTokens(@Nullable DescriptionData data) {
+    if (data == null || data.getText().isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    var lines = data.getText().split("\n", -1);
+    var start = data.getRange().getStart();
+    var end = data.getRange().getEnd();
+
+    List<Token> tokens = new ArrayList<>(lines.length);
+    for (var i = 0; i < lines.length; i++) {
+      var token = new CommonToken(BSLLexer.LINE_COMMENT, lines[i]);
+      if (i == lines.length - 1) {
+        token.setLine(end.getLine() + 1);
+        token.setCharPositionInLine(end.getCharacter() - lines[i].length());
+      } else if (i == 0) {
+        token.setLine(start.getLine() + 1);
+        token.setCharPositionInLine(start.getCharacter());
+      } else {
+        token.setLine(Math.min(start.getLine() + 1 + i, end.getLine() + 1));
+        token.setCharPositionInLine(0);
+      }
+      tokens.add(token);
+    }
+
+    return tokens;
+  }
+}
@@ -23,13 +23,23 @@ package com.github._1c_syntax.bsl.languageserver.context.computer;
 
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.BSLDiagnostic;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.SinglePassDiagnosticWalker;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure.DiagnosticObjectProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp4j.Diagnostic;
 import org.springframework.beans.factory.annotation.Lookup;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -38,31 +48,91 @@ import java.util.stream.Stream;
 @Slf4j
 public abstract class DiagnosticComputer {
 
+  private final DiagnosticObjectProvider diagnosticObjectProvider;
+
   public List<Diagnostic> compute(DocumentContext documentContext) {
 
     DiagnosticIgnoranceComputer.Data diagnosticIgnorance = documentContext.getDiagnosticIgnorance();
 
-    return diagnostics(documentContext).parallelStream()
-      .flatMap((BSLDiagnostic diagnostic) -> {
-        try {
-          return diagnostic.getDiagnostics(documentContext).stream();
-        } catch (RuntimeException e) {
-          String message = String.format(
-            "Diagnostic computation error.%nFile: %s%nDiagnostic: %s",
-            documentContext.getUri(),
-            diagnostic.getInfo().getCode()
-          );
-          LOGGER.error(message, e);
-
-          return Stream.empty();
-        }
-      })
+    var poolGeneration = diagnosticObjectProvider.getGeneration();
+    List<BSLDiagnostic> diagnostics = diagnostics(documentContext);
+    Set<BSLDiagnostic> failedDiagnostics = ConcurrentHashMap.newKeySet();
+    BiConsumer<BSLDiagnostic, RuntimeException> errorHandler = (BSLDiagnostic diagnostic, RuntimeException e) -> {
+      failedDiagnostics.add(diagnostic);
+      logComputationError(documentContext, diagnostic, e);
+    };
+
+    Map<Boolean, List<BSLDiagnostic>> diagnosticsBySinglePassSupport = diagnostics.stream()
+      .collect(Collectors.partitioningBy(SinglePassDiagnosticWalker::supports));
+    List<BSLDiagnostic> singlePassDiagnostics = diagnosticsBySinglePassSupport.get(true);
+
+    List<Supplier<Stream<Diagnostic>>> tasks = new ArrayList<>();
+    if (!singlePassDiagnostics.isEmpty()) {
+      tasks.add(() -> computeSinglePass(documentContext, singlePassDiagnostics, errorHandler));
+    }
+    diagnosticsBySinglePassSupport.get(false).forEach((BSLDiagnostic diagnostic) ->
+      tasks.add(() -> computeDiagnostic(documentContext, diagnostic, errorHandler)));
+
+    // Изменение документа во время вычисления делает результат неактуальным:
+    // оставшиеся диагностики не запускаются, а результат не возвращается.
+    var modificationCount = documentContext.getModificationCount();
+    BooleanSupplier isCancelled = () -> documentContext.getModificationCount() != modificationCount;
+
+    List<Diagnostic> result = tasks.parallelStream()
+      .flatMap((Supplier<Stream<Diagnostic>> task) -> isCancelled.getAsBoolean() ? Stream.empty() : task.get())
       .filter((Diagnostic diagnostic) ->
         !diagnosticIgnorance.diagnosticShouldBeIgnored(diagnostic))
       .collect(Collectors.toList());
 
+    // Все задачи завершены, экземпляры диагностик можно переиспользовать.
+    // Экземпляры с ошибкой вычисления могут содержать незавершенное состояние и в пул не возвращаются.
+    diagnostics.stream()
+      .filter(diagnostic -> !failedDiagnostics.contains(diagnostic))
+      .forEach(diagnostic -> diagnosticObjectProvider.release(diagnostic, poolGeneration));
+
+    if (isCancelled.getAsBoolean()) {
+      throw new CancellationException("Document was modified during diagnostics computation: "
+        + documentContext.getUri());
+    }
+
+    return result;
   }
 
   @Lookup("diagnostics")
   protected abstract List<BSLDiagnostic> diagnostics(DocumentContext documentContext);
+
+  private static Stream<Diagnostic> computeDiagnostic(
+    DocumentContext documentContext,
+    BSLDiagnostic diagnostic,
+    BiConsumer<BSLDiagnostic, RuntimeException> errorHandler
+  ) {
+    try {
+      return diagnostic.getDiagnostics(documentContext).stream();
+    } catch (RuntimeException e) {
+      errorHandler.accept(diagnostic, e);
+      return Stream.empty();
+    }
+  }
+
+  private static Stream<Diagnostic> computeSinglePass(
+    DocumentContext documentContext,
+    List<BSLDiagnostic> diagnostics,
+    BiConsumer<BSLDiagnostic, RuntimeException> errorHandler
+  ) {
+    return SinglePassDiagnosticWalker.compute(documentContext, diagnostics, errorHandler).values().stream()
+      .flatMap(List::stream);
+  }
+
+  private static void logComputationError(
+    DocumentContext documentContext,
+    BSLDiagnostic diagnostic,
+    RuntimeException e
+  ) {
+    String message = String.format(
+      "Diagnostic computation error.%nFile: %s%nDiagnostic: %s",
+      documentContext.getUri(),
+      diagnostic.getInfo().getCode()
+    );
+    LOGGER.error(message, e);
+  }
 }
@@ -30,6 +30,7 @@ import com.github._1c_syntax.bsl.parser.BSLLexer;
 import com.github._1c_syntax.utils.CaseInsensitivePattern;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.antlr.v4.runtime.Token;
 import org.apache.commons.lang3.Range;
 import org.eclipse.lsp4j.Diagnostic;
@@ -47,6 +48,7 @@ import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.antlr.v4.runtime.Token.HIDDEN_CHANNEL;
 
@@ -115,9 +117,11 @@ public class DiagnosticIgnoranceComputer implements Computer<DiagnosticIgnorance
       return;
     }
 
-    documentContext.getTokens().stream()
+    var tokenViews = documentContext.getTokenViews();
+    Stream.concat(
+        tokenViews.getTokensByType(BSLLexer.PREPROC_INSERT).stream(),
+        tokenViews.getTokensByType(BSLLexer.PREPROC_ENDINSERT).stream())
       .filter(token -> token.getChannel() == HIDDEN_CHANNEL)
-      .filter(token -> token.getType() == BSLLexer.PREPROC_INSERT || token.getType() == BSLLexer.PREPROC_ENDINSERT)
       .forEach(token -> lines.put(token.getLine(), token.getType() == BSLLexer.PREPROC_ENDINSERT));
 
     var lastTokenLine = -1;
@@ -244,6 +248,7 @@ public class DiagnosticIgnoranceComputer implements Computer<DiagnosticIgnorance
 
   @AllArgsConstructor
   public static class Data {
+    @Getter
     private final Map<DiagnosticCode, List<Range<Integer>>> diagnosticIgnorance;
 
     public boolean diagnosticShouldBeIgnored(Diagnostic diagnostic) {
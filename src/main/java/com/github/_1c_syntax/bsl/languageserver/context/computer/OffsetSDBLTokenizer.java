@@ -0,0 +1,82 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.computer;
+
+import com.github._1c_syntax.bsl.parser.SDBLParser;
+import com.github._1c_syntax.bsl.parser.SDBLTokenizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.WritableToken;
+
+import java.util.List;
+
+/**
+ * Токенизатор текста запроса, расположенного не с начала документа.
+ * <p>
+ * Текст запроса разбирается без выравнивающих пустых строк в начале, номера строк токенов
+ * сдвигаются на номер строки начала запроса в документе. Сдвиг выполняется один раз при первом
+ * обращении к токенам или дереву разбора, до этого момента запрос не токенизируется.
+ * Узлы дерева разбора ссылаются на те же токены, поэтому их диапазоны также соответствуют документу.
+ */
+final class OffsetSDBLTokenizer extends SDBLTokenizer {
+
+  private final int lineOffset;
+  private volatile boolean shifted;
+
+  /**
+   * @param content    Текст запроса.
+   * @param lineOffset Количество строк документа, предшествующих первой строке запроса.
+   */
+  OffsetSDBLTokenizer(String content, int lineOffset) {
+    super(content);
+    this.lineOffset = lineOffset;
+  }
+
+  @Override
+  public List<Token> getTokens() {
+    var tokens = super.getTokens();
+    if (!shifted) {
+      shiftTokens(tokens);
+    }
+    return tokens;
+  }
+
+  @Override
+  public SDBLParser.QueryPackageContext getAst() {
+    getTokens();
+    return super.getAst();
+  }
+
+  private synchronized void shiftTokens(List<Token> tokens) {
+    if (shifted) {
+      return;
+    }
+
+    if (lineOffset != 0) {
+      for (Token token : tokens) {
+        if (token instanceof WritableToken) {
+          ((WritableToken) token).setLine(token.getLine() + lineOffset);
+        }
+      }
+    }
+    shifted = true;
+  }
+}
@@ -32,6 +32,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 public class QueryComputer extends BSLParserBaseVisitor<ParseTree> implements Computer<List<SDBLTokenizer>> {
@@ -67,17 +68,34 @@ public class QueryComputer extends BSLParserBaseVisitor<ParseTree> implements Co
   private static final Pattern FIRST_QUOTE_PATTERN = CaseInsensitivePattern.compile(
     "^\\s*(\")");
 
-  private final DocumentContext documentContext;
+  private final Supplier<BSLParser.FileContext> astSupplier;
   private final List<SDBLTokenizer> queries = new ArrayList<>();
 
   public QueryComputer(DocumentContext documentContext) {
-    this.documentContext = documentContext;
+    this.astSupplier = documentContext::getAst;
   }
 
+  /**
+   * Создать вычислитель запросов по готовому дереву разбора модуля.
+   *
+   * @param ast Дерево разбора модуля.
+   */
+  public QueryComputer(BSLParser.FileContext ast) {
+    this.astSupplier = () -> ast;
+  }
+
+  /**
+   * Найти тексты запросов в строковых литералах модуля.
+   * <p>
+   * Запросы не токенизируются при поиске: разбор текста запроса выполняется при первом обращении
+   * к его токенам или дереву разбора. Номера строк токенов соответствуют строкам модуля.
+   *
+   * @return Токенизаторы найденных запросов.
+   */
   @Override
   public List<SDBLTokenizer> compute() {
     queries.clear();
-    visitFile(documentContext.getAst());
+    visitFile(astSupplier.get());
     return new ArrayList<>(queries);
   }
 
@@ -90,10 +108,10 @@ public class QueryComputer extends BSLParserBaseVisitor<ParseTree> implements Co
     }
 
     var startLine = 0;
-    var startEmptyLines = "";
+    var lineOffset = 0;
     if (!ctx.getTokens().isEmpty()) {
       startLine = ctx.getTokens().get(0).getLine();
-      startEmptyLines = "\n".repeat(startLine - 1);
+      lineOffset = startLine - 1;
     }
 
     var isQuery = false;
@@ -136,7 +154,7 @@ public class QueryComputer extends BSLParserBaseVisitor<ParseTree> implements Co
     }
 
     if (isQuery) {
-      queries.add(new SDBLTokenizer(startEmptyLines + removeDoubleQuotes(strings.toString())));
+      queries.add(new OffsetSDBLTokenizer(removeDoubleQuotes(strings.toString()), lineOffset));
     }
 
     return ctx;
@@ -0,0 +1,54 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.events;
+
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.net.URI;
+
+/**
+ * Описание события удаления документа из контекста сервера.
+ * <p>
+ * В качестве источника события содержит ссылку на {@link ServerContext}.
+ */
+public class ServerContextDocumentRemovedEvent extends ApplicationEvent {
+
+  private static final long serialVersionUID = 2571949394164327413L;
+
+  /**
+   * URI удаленного документа.
+   */
+  @Getter
+  private final URI uri;
+
+  public ServerContextDocumentRemovedEvent(ServerContext source, URI uri) {
+    super(source);
+    this.uri = uri;
+  }
+
+  @Override
+  public ServerContext getSource() {
+    return (ServerContext) super.getSource();
+  }
+}
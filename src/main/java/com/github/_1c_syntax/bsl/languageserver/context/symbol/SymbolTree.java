@@ -21,13 +21,17 @@
  */
 package com.github._1c_syntax.bsl.languageserver.context.symbol;
 
+import com.github._1c_syntax.bsl.languageserver.utils.RangeIndex;
 import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
 import com.github._1c_syntax.bsl.languageserver.utils.Trees;
 import com.github._1c_syntax.bsl.parser.BSLParser;
 import com.github._1c_syntax.bsl.parser.BSLParserRuleContext;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Value;
+import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolKind;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -73,6 +77,19 @@ public class SymbolTree {
   @Getter(lazy = true)
   List<VariableSymbol> variables = createVariables();
 
+  /**
+   * Индекс символов (за исключением областей) по их полным диапазонам.
+   */
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  RangeIndex<SourceDefinedSymbol> symbolsByRange = createSymbolsByRange();
+
+  /**
+   * Индекс всех символов по диапазонам их имен.
+   */
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  RangeIndex<SourceDefinedSymbol> symbolsBySelectionRange
+    = RangeIndex.create(getChildrenFlat(), SourceDefinedSymbol::getSelectionRange);
+
   // TODO: value = AccessLevel.PRIVATE после окончания тестирования производительности
   @Getter(lazy = true)
   Map<SourceDefinedSymbol, Map<String, VariableSymbol>> variablesByName = createVariablesByName();
@@ -116,6 +133,28 @@ public class SymbolTree {
     return getChildrenFlat(RegionSymbol.class);
   }
 
+  /**
+   * Поиск символа, в диапазон которого попадает позиция. Области не учитываются.
+   * <p>
+   * Для вложенных символов возвращается внешний (например, метод, а не объявленная в нем переменная).
+   *
+   * @param position Позиция в документе.
+   * @return Найденный символ.
+   */
+  public Optional<SourceDefinedSymbol> getSymbolAt(Position position) {
+    return getSymbolsByRange().findFirstContaining(position);
+  }
+
+  /**
+   * Поиск символа, в диапазон имени которого попадает позиция.
+   *
+   * @param position Позиция в документе.
+   * @return Найденный символ.
+   */
+  public Optional<SourceDefinedSymbol> getSymbolBySelectionRange(Position position) {
+    return getSymbolsBySelectionRange().findFirstContaining(position);
+  }
+
   /**
    * Попытка поиска символа метода по узлу дерева разбора.
    * <p>
@@ -205,6 +244,13 @@ public class SymbolTree {
     return symbols;
   }
 
+  private RangeIndex<SourceDefinedSymbol> createSymbolsByRange() {
+    var symbols = getChildrenFlat().stream()
+      .filter(symbol -> symbol.getSymbolKind() != SymbolKind.Namespace)
+      .collect(Collectors.toList());
+    return RangeIndex.create(symbols, SourceDefinedSymbol::getRange);
+  }
+
   private List<MethodSymbol> createMethods() {
     return getChildrenFlat(MethodSymbol.class);
   }
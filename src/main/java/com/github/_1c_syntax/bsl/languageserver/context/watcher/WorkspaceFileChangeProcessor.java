@@ -0,0 +1,214 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.watcher;
+
+import com.github._1c_syntax.bsl.languageserver.RequestScheduler;
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.context.cache.DocumentContextCache;
+import com.github._1c_syntax.bsl.languageserver.references.ReferenceIndex;
+import com.github._1c_syntax.utils.Absolute;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обработчик изменений исходных файлов рабочей области.
+ * <p>
+ * Изменения накапливаются в течение паузы {@code app.file-watcher.delay} (мс) и обрабатываются пакетом
+ * в фоновой полосе {@link RequestScheduler}. Действие над документом определяется состоянием файла на диске
+ * на момент обработки пакета, поэтому серии событий по одному файлу (создание, изменение, удаление)
+ * сводятся к одному действию:
+ * <ul>
+ *   <li>файл существует - документ добавляется в контекст или перестраивается из файла;</li>
+ *   <li>файл отсутствует - документ и его записи в индексе ссылок удаляются из контекста.</li>
+ * </ul>
+ * Документы, открытые в редакторе, не обрабатываются: их содержимым управляет клиент. Проверка открытия
+ * и изменение документа выполняются атомарно относительно открытия документа клиентом
+ * (см. {@link ServerContext#runIfNotOpened(DocumentContext, Runnable)}).
+ * Файлы вне каталога конфигурации контекста сервера игнорируются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceFileChangeProcessor {
+
+  private static final Set<String> SOURCE_FILE_EXTENSIONS = Set.of("bsl", "os");
+
+  private final ServerContext serverContext;
+  private final ReferenceIndex referenceIndex;
+  private final ObjectProvider<DocumentContextCache> documentContextCacheProvider;
+  private final RequestScheduler scheduler;
+
+  @Value("${app.file-watcher.delay:300}")
+  private long delay;
+
+  private final Set<URI> pendingChanges = new LinkedHashSet<>();
+  @Nullable
+  private ScheduledFuture<?> scheduledFlush;
+  private ScheduledExecutorService timer;
+
+  @PostConstruct
+  void init() {
+    timer = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+      var thread = new Thread(runnable, "bsl-ls-file-watcher-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    timer.shutdownNow();
+  }
+
+  /**
+   * Зарегистрировать изменение файла. Изменения файлов, не являющихся исходными текстами,
+   * и файлов вне каталога конфигурации игнорируются.
+   *
+   * @param uri URI измененного (созданного, удаленного) файла.
+   */
+  public synchronized void onChange(URI uri) {
+    if (!isSourceFile(uri)) {
+      return;
+    }
+
+    var absoluteUri = Absolute.uri(uri);
+    if (!isUnderConfigurationRoot(absoluteUri)) {
+      return;
+    }
+
+    pendingChanges.add(absoluteUri);
+    if (scheduledFlush == null || scheduledFlush.isDone()) {
+      scheduledFlush = timer.schedule(
+        () -> scheduler.runAsync(RequestScheduler.Lane.BACKGROUND, this::flush),
+        delay,
+        TimeUnit.MILLISECONDS
+      );
+    }
+  }
+
+  /**
+   * Обработать накопленные изменения.
+   */
+  public void flush() {
+    List<URI> changes;
+    synchronized (this) {
+      changes = new ArrayList<>(pendingChanges);
+      pendingChanges.clear();
+    }
+
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    LOGGER.debug("Processing {} changed files", changes.size());
+    var documentContextCache = documentContextCacheProvider.getObject();
+    changes.forEach((URI uri) -> {
+      try {
+        process(uri, documentContextCache);
+      } catch (RuntimeException e) {
+        LOGGER.error("Can't process file change: " + uri, e);
+      }
+    });
+  }
+
+  private void process(URI uri, DocumentContextCache documentContextCache) {
+    var documentContext = serverContext.getDocument(uri);
+    var file = new File(uri);
+    if (!file.isFile()) {
+      if (documentContext != null) {
+        var removedDocument = documentContext;
+        serverContext.runIfNotOpened(removedDocument, () -> {
+          serverContext.removeDocument(uri);
+          referenceIndex.clearReferences(removedDocument.getUri());
+        });
+      }
+      return;
+    }
+
+    if (documentContext != null && serverContext.isDocumentOpened(documentContext)) {
+      return;
+    }
+
+    String content;
+    try {
+      content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      LOGGER.error("Can't read changed file: " + uri, e);
+      return;
+    }
+
+    if (documentContext == null) {
+      documentContext = serverContext.addDocument(uri);
+    }
+    var changedDocument = documentContext;
+    serverContext.runIfNotOpened(changedDocument, () -> rebuild(changedDocument, content, documentContextCache));
+  }
+
+  private boolean isUnderConfigurationRoot(URI uri) {
+    var configurationRoot = serverContext.getConfigurationRoot();
+    return configurationRoot != null && Absolute.path(uri).startsWith(Absolute.path(configurationRoot));
+  }
+
+  /**
+   * Перестроение документа по аналогии с заполнением контекста: вычисленные данные размораживаются,
+   * чтобы индекс ссылок и символов обновился по событию изменения содержимого, после чего документ
+   * сохраняется в кэш, снова замораживается и выгружается.
+   */
+  private void rebuild(DocumentContext documentContext, String content, DocumentContextCache documentContextCache) {
+    documentContext.unfreezeComputedData();
+    serverContext.rebuildDocument(documentContext, content, 0);
+    documentContextCache.save(documentContext);
+    documentContext.freezeComputedData();
+    serverContext.tryClearDocument(documentContext);
+  }
+
+  private static boolean isSourceFile(URI uri) {
+    if (!"file".equals(uri.getScheme())) {
+      return false;
+    }
+    var extension = FilenameUtils.getExtension(uri.getPath()).toLowerCase(Locale.ENGLISH);
+    return SOURCE_FILE_EXTENSIONS.contains(extension);
+  }
+}
@@ -0,0 +1,325 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.watcher;
+
+import com.github._1c_syntax.bsl.languageserver.ClientCapabilitiesHolder;
+import com.github._1c_syntax.bsl.languageserver.LanguageClientHolder;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextPopulatedEvent;
+import com.github._1c_syntax.utils.Absolute;
+import com.sun.nio.file.SensitivityWatchEventModifier;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp4j.ClientCapabilities;
+import org.eclipse.lsp4j.DidChangeWatchedFilesCapabilities;
+import org.eclipse.lsp4j.DidChangeWatchedFilesRegistrationOptions;
+import org.eclipse.lsp4j.FileSystemWatcher;
+import org.eclipse.lsp4j.Registration;
+import org.eclipse.lsp4j.RegistrationParams;
+import org.eclipse.lsp4j.WorkspaceClientCapabilities;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Отслеживатель изменений исходных файлов рабочей области.
+ * <p>
+ * Если клиент поддерживает динамическую регистрацию {@code workspace/didChangeWatchedFiles},
+ * сервер после инициализации регистрирует у клиента наблюдение за файлами {@code *.bsl} и {@code *.os},
+ * а уведомления обрабатываются {@link WorkspaceFileChangeProcessor}.
+ * <p>
+ * Для остальных клиентов после заполнения контекста запускается рекурсивное наблюдение за каталогом
+ * конфигурации средствами {@link WatchService} (отключается настройкой {@code app.file-watcher.fallback}).
+ * Скрытые каталоги (например, {@code .git}) не отслеживаются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkspaceFileWatcher {
+
+  private static final String WATCHED_FILES_METHOD = "workspace/didChangeWatchedFiles";
+  private static final String WATCHED_FILES_GLOB = "**/*.{bsl,os}";
+
+  private final ClientCapabilitiesHolder clientCapabilitiesHolder;
+  private final LanguageClientHolder languageClientHolder;
+  private final WorkspaceFileChangeProcessor processor;
+
+  @Value("${app.file-watcher.fallback:true}")
+  private boolean fallbackEnabled;
+
+  private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+  // изменяются под блокировкой экземпляра, читаются также потоком наблюдения
+  @Nullable
+  private volatile WatchService watchService;
+  @Nullable
+  private Thread watcherThread;
+  @Nullable
+  private volatile ServerContext serverContext;
+  @Nullable
+  private volatile Path root;
+
+  /**
+   * Зарегистрировать наблюдение за файлами у клиента, если клиент поддерживает динамическую регистрацию.
+   * Вызывается после получения уведомления {@code initialized}.
+   */
+  public void registerClientWatcher() {
+    if (!clientSupportsWatchedFiles()) {
+      return;
+    }
+
+    var watcher = new FileSystemWatcher(Either.forLeft(WATCHED_FILES_GLOB));
+    var registrationOptions = new DidChangeWatchedFilesRegistrationOptions(List.of(watcher));
+    var registration = new Registration(WATCHED_FILES_METHOD, WATCHED_FILES_METHOD, registrationOptions);
+
+    languageClientHolder.execIfConnected(languageClient ->
+      languageClient.registerCapability(new RegistrationParams(List.of(registration)))
+    );
+  }
+
+  /**
+   * Обработчик события {@link ServerContextPopulatedEvent}.
+   * <p>
+   * Запускает наблюдение за каталогом конфигурации, если клиент не присылает уведомления об изменении файлов.
+   *
+   * @param event Событие
+   */
+  @EventListener
+  public void handleEvent(ServerContextPopulatedEvent event) {
+    if (!fallbackEnabled || !languageClientHolder.isConnected() || clientSupportsWatchedFiles()) {
+      return;
+    }
+
+    var context = event.getSource();
+    var configurationRoot = context.getConfigurationRoot();
+    if (configurationRoot == null) {
+      return;
+    }
+
+    start(context, Absolute.path(configurationRoot));
+  }
+
+  /**
+   * Запустить наблюдение за каталогом.
+   *
+   * @param context Контекст сервера, документы которого нужно поддерживать в актуальном состоянии.
+   * @param path    Отслеживаемый каталог.
+   */
+  public synchronized void start(ServerContext context, Path path) {
+    if (path.equals(root) && watcherThread != null && watcherThread.isAlive()) {
+      return;
+    }
+    stop();
+
+    try {
+      watchService = path.getFileSystem().newWatchService();
+      serverContext = context;
+      root = path;
+      registerRecursively(path);
+    } catch (IOException e) {
+      LOGGER.error("Can't watch workspace directory " + path, e);
+      stop();
+      return;
+    }
+
+    var service = watchService;
+    watcherThread = new Thread(() -> watch(service), "bsl-ls-workspace-watcher");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+
+    LOGGER.debug("Watch for source file changes in {}", path);
+  }
+
+  /**
+   * Остановить наблюдение за каталогом.
+   */
+  @PreDestroy
+  public synchronized void stop() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        LOGGER.warn("Can't close workspace watch service", e);
+      }
+    }
+    if (watcherThread != null) {
+      watcherThread.interrupt();
+    }
+    watchService = null;
+    watcherThread = null;
+    root = null;
+    watchedDirectories.clear();
+  }
+
+  private void watch(WatchService service) {
+    while (!Thread.currentThread().isInterrupted()) {
+      WatchKey watchKey;
+      try {
+        watchKey = service.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ClosedWatchServiceException e) {
+        return;
+      }
+
+      var directory = watchedDirectories.get(watchKey);
+      for (WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+        try {
+          handleWatchEvent(directory, watchEvent);
+        } catch (IOException | RuntimeException e) {
+          LOGGER.warn("Can't handle file system event in " + directory, e);
+        }
+      }
+
+      if (!watchKey.reset()) {
+        watchedDirectories.remove(watchKey);
+      }
+    }
+  }
+
+  private void handleWatchEvent(@Nullable Path directory, WatchEvent<?> watchEvent) throws IOException {
+    var currentRoot = root;
+    if (watchEvent.kind() == OVERFLOW && currentRoot != null) {
+      // события потеряны, сверяем с диском весь каталог
+      onChangeRecursively(currentRoot);
+      return;
+    }
+
+    if (directory == null || !(watchEvent.context() instanceof Path)) {
+      return;
+    }
+
+    var path = directory.resolve((Path) watchEvent.context());
+    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+      if (watchEvent.kind() == ENTRY_CREATE && !isHidden(path)) {
+        registerRecursively(path);
+        onChangeRecursively(path);
+      }
+      return;
+    }
+
+    processor.onChange(path.toUri());
+    if (watchEvent.kind() == ENTRY_DELETE) {
+      // при удалении каталога события по вложенным файлам не приходят
+      documentsUnder(path).forEach(processor::onChange);
+    }
+  }
+
+  private void registerRecursively(Path directory) throws IOException {
+    var service = watchService;
+    if (service == null) {
+      return;
+    }
+
+    Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+        if (!dir.equals(directory) && isHidden(dir)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        var watchKey = dir.register(
+          service,
+          new WatchEvent.Kind[]{ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY},
+          SensitivityWatchEventModifier.HIGH
+        );
+        watchedDirectories.put(watchKey, dir);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  private void onChangeRecursively(Path directory) throws IOException {
+    Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (!dir.equals(directory) && isHidden(dir)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+        processor.onChange(file.toUri());
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    documentsUnder(directory).forEach(processor::onChange);
+  }
+
+  private List<URI> documentsUnder(Path path) {
+    var context = serverContext;
+    if (context == null) {
+      return List.of();
+    }
+
+    var absolutePath = Absolute.path(path);
+    List<URI> result = new ArrayList<>();
+    new ArrayList<>(context.getDocuments().keySet()).forEach((URI uri) -> {
+      if ("file".equals(uri.getScheme()) && Absolute.path(uri).startsWith(absolutePath)) {
+        result.add(uri);
+      }
+    });
+    return result;
+  }
+
+  private boolean clientSupportsWatchedFiles() {
+    return clientCapabilitiesHolder.getCapabilities()
+      .map(ClientCapabilities::getWorkspace)
+      .map(WorkspaceClientCapabilities::getDidChangeWatchedFiles)
+      .map(DidChangeWatchedFilesCapabilities::getDynamicRegistration)
+      .orElse(false);
+  }
+
+  private static boolean isHidden(Path path) {
+    return Optional.ofNullable(path.getFileName())
+      .map(Path::toString)
+      .filter(name -> name.startsWith("."))
+      .isPresent();
+  }
+}
@@ -46,4 +46,10 @@ public abstract class AbstractDiagnostic implements BSLDiagnostic {
   }
 
   protected abstract void check();
+
+  @Override
+  public void clearDocumentState() {
+    documentContext = null;
+    diagnosticStorage.clearDiagnostics();
+  }
 }
@@ -48,4 +48,15 @@ public abstract class AbstractListenerDiagnostic extends BSLParserBaseListener i
     return diagnosticStorage.getDiagnostics();
   }
 
+  void prepareSinglePass(DocumentContext documentContext) {
+    this.documentContext = documentContext;
+    diagnosticStorage.clearDiagnostics();
+  }
+
+  @Override
+  public void clearDocumentState() {
+    documentContext = null;
+    diagnosticStorage.clearDiagnostics();
+  }
+
 }
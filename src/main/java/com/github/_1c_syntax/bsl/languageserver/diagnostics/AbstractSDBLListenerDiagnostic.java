@@ -51,4 +51,10 @@ public abstract class AbstractSDBLListenerDiagnostic extends SDBLParserBaseListe
     return diagnosticStorage.getDiagnostics();
   }
 
+  @Override
+  public void clearDocumentState() {
+    documentContext = null;
+    diagnosticStorage.clearDiagnostics();
+  }
+
 }
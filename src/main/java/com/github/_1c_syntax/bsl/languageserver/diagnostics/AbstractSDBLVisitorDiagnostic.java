@@ -60,4 +60,10 @@ public abstract class AbstractSDBLVisitorDiagnostic extends SDBLParserBaseVisito
     return super.visitQueryPackage(ctx);
   }
 
+  @Override
+  public void clearDocumentState() {
+    documentContext = null;
+    diagnosticStorage.clearDiagnostics();
+  }
+
 }
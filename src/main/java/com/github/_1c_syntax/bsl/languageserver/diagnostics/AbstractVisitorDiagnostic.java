@@ -24,9 +24,11 @@ package com.github._1c_syntax.bsl.languageserver.diagnostics;
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticInfo;
 import com.github._1c_syntax.bsl.parser.BSLParserBaseVisitor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.RuleNode;
 import org.eclipse.lsp4j.Diagnostic;
 
 import java.util.List;
@@ -39,6 +41,12 @@ public abstract class AbstractVisitorDiagnostic extends BSLParserBaseVisitor<Par
   protected final DiagnosticStorage diagnosticStorage = new DiagnosticStorage(this);
   protected DocumentContext documentContext;
 
+  /**
+   * Режим однопроходного обхода {@link SinglePassDiagnosticWalker}: дочерние узлы обходит сам обходчик.
+   */
+  @Setter(AccessLevel.PACKAGE)
+  private boolean singlePassMode;
+
   @Override
   public List<Diagnostic> getDiagnostics(DocumentContext documentContext) {
     this.documentContext = documentContext;
@@ -47,4 +55,23 @@ public abstract class AbstractVisitorDiagnostic extends BSLParserBaseVisitor<Par
     return diagnosticStorage.getDiagnostics();
   }
 
+  @Override
+  public ParseTree visitChildren(RuleNode node) {
+    if (singlePassMode) {
+      return defaultResult();
+    }
+    return super.visitChildren(node);
+  }
+
+  void prepareSinglePass(DocumentContext documentContext) {
+    this.documentContext = documentContext;
+    diagnosticStorage.clearDiagnostics();
+  }
+
+  @Override
+  public void clearDocumentState() {
+    documentContext = null;
+    diagnosticStorage.clearDiagnostics();
+  }
+
 }
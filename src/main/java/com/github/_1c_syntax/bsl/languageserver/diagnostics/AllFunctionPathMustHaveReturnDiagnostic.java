@@ -22,12 +22,9 @@
 package com.github._1c_syntax.bsl.languageserver.diagnostics;
 
 import com.github._1c_syntax.bsl.languageserver.cfg.BasicBlockVertex;
-import com.github._1c_syntax.bsl.languageserver.cfg.CfgBuildingParseTreeVisitor;
 import com.github._1c_syntax.bsl.languageserver.cfg.CfgEdgeType;
 import com.github._1c_syntax.bsl.languageserver.cfg.CfgVertex;
 import com.github._1c_syntax.bsl.languageserver.cfg.ConditionalVertex;
-import com.github._1c_syntax.bsl.languageserver.cfg.ControlFlowGraph;
-import com.github._1c_syntax.bsl.languageserver.cfg.ExitVertex;
 import com.github._1c_syntax.bsl.languageserver.cfg.LoopVertex;
 import com.github._1c_syntax.bsl.languageserver.cfg.WhileLoopVertex;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticMetadata;
@@ -46,6 +43,7 @@ import org.eclipse.lsp4j.DiagnosticRelatedInformation;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -98,24 +96,16 @@ public class AllFunctionPathMustHaveReturnDiagnostic extends AbstractVisitorDiag
   }
 
   private void checkAllPathsHaveReturns(BSLParser.FunctionContext ctx) {
-    var builder = new CfgBuildingParseTreeVisitor();
-    builder.producePreprocessorConditions(false);
-    var graph = builder.buildGraph(ctx.subCodeBlock().codeBlock());
-
-    var exitNode = graph.vertexSet().stream()
-      .filter(ExitVertex.class::isInstance)
-      .findFirst();
-
-    if (exitNode.isEmpty()) {
-      throw new IllegalStateException();
+    var graph = documentContext.getControlFlowGraph(ctx.subCodeBlock().codeBlock());
+    var exitIndex = graph.getExitIndex();
+
+    List<BSLParserRuleContext> incomingVertices = new ArrayList<>();
+    for (var i = 0; i < graph.getPredecessorCount(exitIndex); i++) {
+      var vertex = graph.getVertex(graph.getPredecessor(exitIndex, i));
+      nonExplicitReturnNode(vertex, graph.getPredecessorEdgeType(exitIndex, i))
+        .ifPresent(incomingVertices::add);
     }
 
-    var incomingVertices = graph.incomingEdgesOf(exitNode.get()).stream()
-      .map(graph::getEdgeSource)
-      .map(vertex -> nonExplicitReturnNode(vertex, graph))
-      .flatMap(Optional::stream)
-      .collect(Collectors.toList());
-
     if (incomingVertices.isEmpty()) {
       return;
     }
@@ -135,25 +125,21 @@ public class AllFunctionPathMustHaveReturnDiagnostic extends AbstractVisitorDiag
 
   }
 
-  private Optional<BSLParserRuleContext> nonExplicitReturnNode(CfgVertex v, ControlFlowGraph graph) {
+  private Optional<BSLParserRuleContext> nonExplicitReturnNode(CfgVertex v, CfgEdgeType edgeToExit) {
     if (v instanceof BasicBlockVertex) {
       return checkBasicBlockExitingNode((BasicBlockVertex) v);
     } else if (v instanceof LoopVertex) {
       return checkLoopExitingNode((LoopVertex) v);
     } else if (v instanceof ConditionalVertex) {
-      return checkElseIfClauseExitingNode((ConditionalVertex) v, graph);
+      return checkElseIfClauseExitingNode((ConditionalVertex) v, edgeToExit);
     }
 
     return v.getAst();
   }
 
-  private Optional<BSLParserRuleContext> checkElseIfClauseExitingNode(ConditionalVertex v, ControlFlowGraph graph) {
+  private Optional<BSLParserRuleContext> checkElseIfClauseExitingNode(ConditionalVertex v, CfgEdgeType edgeToExit) {
     // check if this vertex connected to exit by FALSE branch
-    var edgeOrNot = graph.getAllEdges(v, graph.getExitPoint()).stream()
-      .filter(edge -> edge.getType() == CfgEdgeType.FALSE_BRANCH)
-      .findAny();
-
-    if (edgeOrNot.isEmpty()) {
+    if (edgeToExit != CfgEdgeType.FALSE_BRANCH) {
       return Optional.empty();
     }
 
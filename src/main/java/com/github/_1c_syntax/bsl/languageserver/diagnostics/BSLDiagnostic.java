@@ -49,4 +49,14 @@ public interface BSLDiagnostic {
   default void configure(Map<String, Object> configuration) {
     DiagnosticHelper.configureDiagnostic(this, configuration);
   }
+
+  /**
+   * Drops references to the last checked {@link DocumentContext} and its parse trees.
+   * <p>
+   * Called before a pooled instance is returned to the pool, so an idle instance does not keep
+   * the document and its AST reachable. Implementations holding per-document state MUST clear it here.
+   */
+  default void clearDocumentState() {
+    // no per-document state by default
+  }
 }
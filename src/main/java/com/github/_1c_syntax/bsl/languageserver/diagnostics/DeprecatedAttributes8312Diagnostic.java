@@ -51,6 +51,12 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {
+  "Диаграмма", "Chart", "ДиаграммаГанта", "GanttChart", "СводнаяДиаграмма", "PivotChart",
+  "ОбластьПостроенияДиаграммы", "ChartPlotArea", "ГруппировкаПодчиненныхЭлементовФормы", "ChildFormItemsGroup",
+  "ПолучитьПалитру", "GetPalette", "УстановитьПалитру", "SetPalette",
+  "ОриентацияМетокДиаграммы", "ОчиститьЖурналРегистрации", "ClearEventLog"
+})
 public class DeprecatedAttributes8312Diagnostic extends AbstractVisitorDiagnostic {
 
   private static final String CHART_PLOT_AREA_RU = "ОбластьПостроенияДиаграммы";
@@ -43,6 +43,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {"ТекущаяДата", "CurrentDate"})
 public class DeprecatedCurrentDateDiagnostic extends AbstractFindMethodDiagnostic {
   private static final Pattern currentDatePattern = CaseInsensitivePattern.compile(
     "(текущаядата|currentdate)"
@@ -40,6 +40,8 @@ import java.util.regex.Pattern;
   compatibilityMode = DiagnosticCompatibilityMode.COMPATIBILITY_MODE_8_3_6,
   tags = {DiagnosticTag.DEPRECATED}
 )
+@SinglePassCompatible
+@DiagnosticPrefilter(identifiers = {"Найти", "Find"})
 public class DeprecatedFindDiagnostic extends AbstractFindMethodDiagnostic {
   private static final Pattern messagePattern = CaseInsensitivePattern.compile(
     "(найти|find)"
@@ -41,6 +41,7 @@ import java.util.regex.Pattern;
     DiagnosticTag.DEPRECATED
   }
 )
+@DiagnosticPrefilter(identifiers = {"Сообщить", "Message"})
 public class DeprecatedMessageDiagnostic extends AbstractFindMethodDiagnostic {
   private static final Pattern messagePattern = CaseInsensitivePattern.compile(
     "(сообщить|message)"
@@ -43,6 +43,10 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {
+  "КраткоеПредставлениеОшибки", "BriefErrorDescription", "ПодробноеПредставлениеОшибки", "DetailErrorDescription",
+  "ПоказатьИнформациюОбОшибке", "ShowErrorInfo"
+})
 public class DeprecatedMethods8317Diagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern DEPRECATED_METHODS_NAMES = CaseInsensitivePattern.compile(
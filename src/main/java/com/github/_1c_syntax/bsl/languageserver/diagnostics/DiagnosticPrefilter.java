@@ -0,0 +1,59 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics;
+
+import com.github._1c_syntax.bsl.languageserver.context.WordIndex;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Предварительный фильтр документов для диагностики.
+ * <p>
+ * Перечисляет слова, без которых диагностика гарантированно не может сработать. Диагностика запускается
+ * только для документов, в которых по {@link WordIndex} найден хотя бы один идентификатор из {@link #identifiers()}
+ * или хотя бы одно слово строковых литералов из {@link #stringWords()}. Регистр слов не учитывается.
+ * <p>
+ * Аннотация применима только к диагностикам с фиксированным набором искомых слов: если слова задаются
+ * параметрами диагностики, фильтр может ошибочно отсечь документ.
+ * Аннотация не наследуется - каждый класс диагностики помечается явно.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DiagnosticPrefilter {
+
+  /**
+   * @return Идентификаторы (имена методов, свойств, переменных, типов), наличие любого из которых
+   * в документе необходимо для срабатывания диагностики.
+   */
+  String[] identifiers() default {};
+
+  /**
+   * @return Слова внутри строковых литералов, наличие любого из которых в документе
+   * необходимо для срабатывания диагностики.
+   */
+  String[] stringWords() default {};
+}
@@ -386,4 +386,15 @@ public class DuplicatedInsertionIntoCollectionDiagnostic extends AbstractVisitor
       .reduce(firstIdentifier, (x, y) -> x.concat(".").concat(y))
       .replace("..", ".");
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    codeBlock = null;
+    blockRange = null;
+    blockAssignments = null;
+    blockBreakers = null;
+    blockCallParams = null;
+    firstParamInnerIdentifiers = null;
+  }
 }
@@ -47,6 +47,7 @@ import java.util.stream.Stream;
     DiagnosticTag.SUSPICIOUS
   }
 )
+@SinglePassCompatible
 public class EmptyCodeBlockDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final boolean DEFAULT_COMMENT_AS_CODE = false;
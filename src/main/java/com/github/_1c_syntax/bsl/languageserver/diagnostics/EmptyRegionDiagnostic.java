@@ -113,4 +113,10 @@ public class EmptyRegionDiagnostic extends AbstractListenerDiagnostic implements
       diagnostics
     );
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    regions.clear();
+  }
 }
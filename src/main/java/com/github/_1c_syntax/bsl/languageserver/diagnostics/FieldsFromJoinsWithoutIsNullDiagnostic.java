@@ -248,4 +248,10 @@ public class FieldsFromJoinsWithoutIsNullDiagnostic extends AbstractSDBLVisitorD
         "+1"
       )).collect(Collectors.toList());
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    nodesForIssues.clear();
+  }
 }
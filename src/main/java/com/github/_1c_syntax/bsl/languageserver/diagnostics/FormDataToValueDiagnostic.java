@@ -45,6 +45,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {"ДанныеФормыВЗначение", "FormDataToValue"})
 public class FormDataToValueDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern MESSAGE_PATTERN = CaseInsensitivePattern.compile(
@@ -40,6 +40,8 @@ import java.util.regex.Pattern;
   }
 
 )
+@SinglePassCompatible
+@DiagnosticPrefilter(identifiers = {"ПолучитьФорму", "GetForm"})
 public class GetFormMethodDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern MESSAGE_PATTERN = CaseInsensitivePattern.compile(
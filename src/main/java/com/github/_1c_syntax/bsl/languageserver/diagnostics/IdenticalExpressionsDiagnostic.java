@@ -34,7 +34,6 @@ import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.BinaryOpera
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.BslExpression;
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.BslOperator;
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.ExpressionNodeType;
-import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.ExpressionParseTreeRewriter;
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.NodeEqualityComparer;
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.TernaryOperatorNode;
 import com.github._1c_syntax.bsl.languageserver.utils.expressiontree.TransitiveOperationsIgnoringComparer;
@@ -48,6 +47,7 @@ import org.eclipse.lsp4j.FormattingOptions;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -101,7 +101,7 @@ public class IdenticalExpressionsDiagnostic extends AbstractVisitorDiagnostic {
       return ctx;
     }
 
-    var tree = ExpressionParseTreeRewriter.buildExpressionTree(ctx);
+    var tree = documentContext.getExpressionTree(ctx);
 
     var binariesList = flattenBinaryOperations(tree);
     if (binariesList.isEmpty()) {
@@ -110,18 +110,23 @@ public class IdenticalExpressionsDiagnostic extends AbstractVisitorDiagnostic {
 
     var comparer = new TransitiveOperationsIgnoringComparer();
     comparer.logicalOperationsAsTransitive(true);
+    Map<BslExpression, Integer> hashes = new IdentityHashMap<>();
     binariesList
       .stream()
-      .filter(x -> checkEquality(comparer, x))
+      .filter(x -> checkEquality(comparer, hashes, x))
       .forEach(x -> diagnosticStorage.addDiagnostic(ctx,
         info.getMessage(x.getRepresentingAst().getText(), getOperandText(x))));
 
     return ctx;
   }
 
-  private boolean checkEquality(NodeEqualityComparer comparer, BinaryOperationNode node) {
+  private boolean checkEquality(
+    NodeEqualityComparer comparer,
+    Map<BslExpression, Integer> hashes,
+    BinaryOperationNode node
+  ) {
 
-    var justEqual = comparer.areEqual(node.getLeft(), node.getRight());
+    var justEqual = areEqual(comparer, hashes, node.getLeft(), node.getRight());
     if (justEqual) {
       // отбрасывает популярные деления на время и байты
       return !isPopularQuantification(node);
@@ -132,8 +137,8 @@ public class IdenticalExpressionsDiagnostic extends AbstractVisitorDiagnostic {
       var searchableLeft = node.getLeft();
       BinaryOperationNode complementaryNode = node.getRight().cast();
       while (true) {
-        var equal = comparer.areEqual(searchableLeft, complementaryNode.getLeft()) ||
-          comparer.areEqual(searchableLeft, complementaryNode.getRight());
+        var equal = areEqual(comparer, hashes, searchableLeft, complementaryNode.getLeft()) ||
+          areEqual(comparer, hashes, searchableLeft, complementaryNode.getRight());
 
         if (equal) {
           return true;
@@ -150,6 +155,17 @@ public class IdenticalExpressionsDiagnostic extends AbstractVisitorDiagnostic {
     return false;
   }
 
+  private static boolean areEqual(
+    NodeEqualityComparer comparer,
+    Map<BslExpression, Integer> hashes,
+    BslExpression first,
+    BslExpression second
+  ) {
+    // выражения с разными хэшами заведомо различны, полное сравнение не требуется
+    return hashes.computeIfAbsent(first, comparer::hash).equals(hashes.computeIfAbsent(second, comparer::hash))
+      && comparer.areEqual(first, second);
+  }
+
   private boolean isPopularQuantification(BinaryOperationNode node) {
     if (popularDivisors.isEmpty()) {
       return false; // выключено игнорирование популярных делителей
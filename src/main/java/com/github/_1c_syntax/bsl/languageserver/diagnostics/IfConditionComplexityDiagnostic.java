@@ -39,6 +39,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
   }
 )
 
+@SinglePassCompatible
 public class IfConditionComplexityDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final int MAX_IF_CONDITION_COMPLEXITY = 3;
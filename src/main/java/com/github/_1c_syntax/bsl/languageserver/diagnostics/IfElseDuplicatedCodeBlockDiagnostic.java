@@ -128,5 +128,10 @@ public class IfElseDuplicatedCodeBlockDiagnostic extends AbstractVisitorDiagnost
     diagnosticStorage.addDiagnostic(currentCodeBlock, relatedInformation);
   }
 
-}
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    checkedBlocks.clear();
+  }
 
+}
@@ -34,8 +34,10 @@ import org.eclipse.lsp4j.DiagnosticRelatedInformation;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -77,21 +79,37 @@ public class IfElseDuplicatedConditionDiagnostic extends AbstractVisitorDiagnost
   }
 
   private void findDuplicatedExpression(List<BSLParser.ExpressionContext> expressionContexts) {
+    // условия с разными структурными хэшами заведомо различны,
+    // поэтому попарно сравниваются только условия с одинаковым хэшем
+    var hashes = new int[expressionContexts.size()];
+    Map<Integer, List<BSLParser.ExpressionContext>> expressionsByHash = new HashMap<>();
+    for (int i = 0; i < expressionContexts.size(); i++) {
+      var expressionContext = expressionContexts.get(i);
+      if (expressionContext != null) {
+        hashes[i] = DiagnosticHelper.nodeHash(expressionContext);
+        expressionsByHash.computeIfAbsent(hashes[i], hash -> new ArrayList<>()).add(expressionContext);
+      }
+    }
+
     for (int i = 0; i < expressionContexts.size() - 1; i++) {
-      if (!checkedConditions.contains(expressionContexts.get(i))) {
-        checkExpression(expressionContexts, i);
+      var currentExpression = expressionContexts.get(i);
+      if (currentExpression != null && !checkedConditions.contains(currentExpression)) {
+        checkExpression(currentExpression, expressionsByHash.get(hashes[i]));
       }
     }
   }
 
-  private void checkExpression(List<BSLParser.ExpressionContext> expressionContexts, int i) {
-    BSLParser.ExpressionContext currentExpression = expressionContexts.get(i);
-
-    List<BSLParser.ExpressionContext> identicalExpressions = expressionContexts.stream()
-      .skip(i)
-      .filter(expressionContext ->
-        !expressionContext.equals(currentExpression)
-          && DiagnosticHelper.equalNodes(currentExpression, expressionContext))
+  private void checkExpression(
+    BSLParser.ExpressionContext currentExpression,
+    List<BSLParser.ExpressionContext> sameHashExpressions
+  ) {
+    var followingExpressions = sameHashExpressions.subList(
+      sameHashExpressions.indexOf(currentExpression) + 1,
+      sameHashExpressions.size()
+    );
+
+    List<BSLParser.ExpressionContext> identicalExpressions = followingExpressions.stream()
+      .filter(expressionContext -> DiagnosticHelper.equalNodes(currentExpression, expressionContext))
       .collect(Collectors.toList());
 
     if (identicalExpressions.isEmpty()) {
@@ -122,5 +140,10 @@ public class IfElseDuplicatedConditionDiagnostic extends AbstractVisitorDiagnost
     diagnosticStorage.addDiagnostic(currentExpression, relatedInformation);
   }
 
-}
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    checkedConditions.clear();
+  }
 
+}
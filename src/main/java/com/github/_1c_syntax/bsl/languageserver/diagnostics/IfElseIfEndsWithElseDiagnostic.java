@@ -36,6 +36,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
     DiagnosticTag.BADPRACTICE
   }
 )
+@SinglePassCompatible
 public class IfElseIfEndsWithElseDiagnostic extends AbstractVisitorDiagnostic {
 
   @Override
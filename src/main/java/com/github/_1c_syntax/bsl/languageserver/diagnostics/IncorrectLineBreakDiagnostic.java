@@ -101,6 +101,8 @@ public class IncorrectLineBreakDiagnostic extends AbstractDiagnostic {
 
   @Override
   protected void check() {
+    commentStarts.clear();
+    queryFirstLines.clear();
     findCommentStarts();
     findQueryFirstLines();
 
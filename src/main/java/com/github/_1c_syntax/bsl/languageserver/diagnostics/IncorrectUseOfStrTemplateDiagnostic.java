@@ -48,7 +48,7 @@ import java.util.regex.Pattern;
   }
 
 )
-
+@DiagnosticPrefilter(identifiers = {"СтрШаблон", "StrTemplate"})
 public class IncorrectUseOfStrTemplateDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern messagePattern = CaseInsensitivePattern.compile(
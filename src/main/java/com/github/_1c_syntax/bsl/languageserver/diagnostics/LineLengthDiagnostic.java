@@ -34,9 +34,8 @@ import org.antlr.v4.runtime.Token;
 import org.eclipse.lsp4j.Range;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -53,7 +52,6 @@ public class LineLengthDiagnostic extends AbstractDiagnostic {
 
   private static final int MAX_LINE_LENGTH = 120;
   private static final boolean CHECK_METHOD_DESCRIPTION = true;
-  private int prevTokenType;
 
   @DiagnosticParameter(
     type = Integer.class,
@@ -67,46 +65,45 @@ public class LineLengthDiagnostic extends AbstractDiagnostic {
   )
   private boolean checkMethodDescription = CHECK_METHOD_DESCRIPTION;
 
-  private final Map<Integer, List<Integer>> tokensInOneLine = new HashMap<>();
-
   @Override
   protected void check() {
-    tokensInOneLine.clear();
-
-    documentContext.getTokensFromDefaultChannel().forEach((Token token) -> {
-        if (mustBePutIn(token)) {
-          putInCollection(token);
-        }
-        prevTokenType = token.getType();
-      }
-    );
-
+    List<Range> descriptionRanges;
     if (checkMethodDescription) {
-      documentContext.getComments().forEach(this::putInCollection);
+      descriptionRanges = Collections.emptyList();
     } else {
-      var descriptionRanges = documentContext.getSymbolTree().getMethods().stream()
+      descriptionRanges = documentContext.getSymbolTree().getMethods().stream()
         .map(MethodSymbol::getDescription)
         .flatMap(Optional::stream)
         .map(MethodDescription::getRange)
-        .collect(Collectors.toList());
-
-      documentContext.getComments().stream()
-        .filter(token -> !descriptionContainToken(descriptionRanges, token))
-        .forEach(this::putInCollection);
+        .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    tokensInOneLine.forEach((Integer key, List<Integer> value) -> {
-      Integer maxCharPosition = value.stream().max(Integer::compareTo).orElse(0);
+    var tokenViews = documentContext.getTokenViews();
+    var prevTokenType = 0;
+    for (var line = 0; line < tokenViews.getLineCount(); line++) {
+      var maxCharPosition = 0;
+      for (Token token : tokenViews.getTokensOnLine(line)) {
+        if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+          if (mustBePutIn(token, prevTokenType)) {
+            maxCharPosition = Math.max(maxCharPosition, endCharPosition(token));
+          }
+          prevTokenType = token.getType();
+        } else if (token.getType() == BSLLexer.LINE_COMMENT
+          && (checkMethodDescription || !descriptionContainToken(descriptionRanges, token))) {
+          maxCharPosition = Math.max(maxCharPosition, endCharPosition(token));
+        }
+      }
+
       if (maxCharPosition > maxLineLength) {
         diagnosticStorage.addDiagnostic(
-          Ranges.create(key, 0, key, maxCharPosition),
+          Ranges.create(line, 0, line, maxCharPosition),
           info.getMessage(maxCharPosition, maxLineLength)
         );
       }
-    });
+    }
   }
 
-  private boolean mustBePutIn(Token token) {
+  private static boolean mustBePutIn(Token token, int prevTokenType) {
 
     boolean isStringPart = token.getType() == BSLLexer.STRINGPART
       || token.getType() == BSLLexer.STRINGTAIL;
@@ -117,10 +114,8 @@ public class LineLengthDiagnostic extends AbstractDiagnostic {
       && token.getType() == BSLLexer.SEMICOLON);
   }
 
-  private void putInCollection(Token token) {
-    List<Integer> tokenList = tokensInOneLine.getOrDefault(token.getLine() - 1, new ArrayList<>());
-    tokenList.add(token.getCharPositionInLine() + token.getText().length());
-    tokensInOneLine.put(token.getLine() - 1, tokenList);
+  private static int endCharPosition(Token token) {
+    return token.getCharPositionInLine() + token.getText().length();
   }
 
   private static boolean descriptionContainToken(List<Range> descriptionRanges, Token token) {
@@ -67,4 +67,10 @@ public class LogicalOrInTheWhereSectionOfQueryDiagnostic extends AbstractSDBLLis
     }
     super.exitQuery(ctx);
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    ors.clear();
+  }
 }
@@ -57,6 +57,7 @@ public class MissedRequiredParameterDiagnostic extends AbstractVisitorDiagnostic
 
   @Override
   public ParseTree visitFile(BSLParser.FileContext ctx) {
+    calls.clear();
     super.visitFile(ctx);
     for (var reference : referenceIndex.getReferencesFrom(documentContext.getUri(), SymbolKind.Method)) {
       var call = calls.get(reference.getSelectionRange());
@@ -43,6 +43,7 @@ import java.util.stream.Stream;
     DiagnosticTag.BADPRACTICE
   }
 )
+@SinglePassCompatible
 public class MissingCodeTryCatchExDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final boolean DEFAULT_COMMENT_AS_CODE = false;
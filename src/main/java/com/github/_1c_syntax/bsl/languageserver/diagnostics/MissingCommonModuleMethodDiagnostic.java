@@ -26,9 +26,9 @@ import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticS
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticSeverity;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticTag;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticType;
-import com.github._1c_syntax.bsl.languageserver.references.model.LocationRepository;
 import com.github._1c_syntax.bsl.languageserver.references.model.OccurrenceType;
 import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrence;
+import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrenceStorage;
 import com.github._1c_syntax.bsl.languageserver.utils.Trees;
 import com.github._1c_syntax.bsl.parser.BSLParserRuleContext;
 import com.github._1c_syntax.bsl.types.ConfigurationSource;
@@ -55,7 +55,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MissingCommonModuleMethodDiagnostic extends AbstractDiagnostic {
   public static final String PRIVATE_METHOD_MESSAGE = "privateMethod";
-  private final LocationRepository locationRepository;
+  private final SymbolOccurrenceStorage symbolOccurrenceStorage;
 
   private static String getMethodNameByLocation(BSLParserRuleContext node, Range range) {
     return Trees.findTerminalNodeContainsPosition(node, range.getEnd())
@@ -68,7 +68,7 @@ public class MissingCommonModuleMethodDiagnostic extends AbstractDiagnostic {
     if (documentContext.getServerContext().getConfiguration().getConfigurationSource() == ConfigurationSource.EMPTY){
       return;
     }
-    locationRepository.getSymbolOccurrencesByLocationUri(documentContext.getUri())
+    symbolOccurrenceStorage.getAllByLocationUri(documentContext.getUri())
       .filter(symbolOccurrence -> symbolOccurrence.getOccurrenceType() == OccurrenceType.REFERENCE)
       .filter(symbolOccurrence -> symbolOccurrence.getSymbol().getSymbolKind() == SymbolKind.Method)
       .filter(symbolOccurrence -> symbolOccurrence.getSymbol().getModuleType() == ModuleType.CommonModule)
@@ -52,6 +52,7 @@ import java.util.regex.Pattern;
   },
   activatedByDefault = false
 )
+@DiagnosticPrefilter(identifiers = {"ПолучитьИзВременногоХранилища", "GetFromTempStorage"})
 public class MissingTempStorageDeletionDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern GET_FROM_TEMP_STORAGE_PATTERN = CaseInsensitivePattern.compile(
@@ -157,4 +157,11 @@ public class NestedStatementsDiagnostic extends AbstractListenerDiagnostic {
 
     diagnosticStorage.addDiagnostic(ctx.getStart(), relatedInformation);
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    lastCtx = null;
+    nestedParents.clear();
+  }
 }
@@ -40,6 +40,7 @@ import java.util.Collection;
     DiagnosticTag.BRAINOVERLOAD
   }
 )
+@SinglePassCompatible
 public class NestedTernaryOperatorDiagnostic extends AbstractVisitorDiagnostic {
 
   @Override
@@ -44,6 +44,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
     DiagnosticTag.BRAINOVERLOAD
   }
 )
+@SinglePassCompatible
 public class NumberOfValuesInStructureConstructorDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final int MAX_VALUES_COUNT = 3;
@@ -41,6 +41,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {"ПользователиОС", "OSUsers"})
 public class OSUsersMethodDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern messagePattern = CaseInsensitivePattern.compile(
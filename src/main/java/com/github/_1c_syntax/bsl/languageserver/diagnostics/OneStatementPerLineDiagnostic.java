@@ -148,4 +148,10 @@ public class OneStatementPerLineDiagnostic extends AbstractVisitorDiagnostic imp
       diagnostics
     );
   }
+
+  @Override
+  public void clearDocumentState() {
+    super.clearDocumentState();
+    statementsPerLine.clear();
+  }
 }
@@ -0,0 +1,45 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Маркер диагностики-визитора, которую можно вычислять в общем однопроходном обходе дерева
+ * {@link SinglePassDiagnosticWalker}.
+ * <p>
+ * Диагностика, помеченная аннотацией, обязуется в каждом переопределенном {@code visitXxx}
+ * только анализировать переданный узел и на всех ветках возвращать {@code super.visitXxx(ctx)}:
+ * не отсекать обход поддерева, не обходить дочерние узлы самостоятельно
+ * и не выполнять действий после обхода дочерних узлов.
+ * <p>
+ * Аннотация не наследуется - каждый класс диагностики помечается явно.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SinglePassCompatible {
+}
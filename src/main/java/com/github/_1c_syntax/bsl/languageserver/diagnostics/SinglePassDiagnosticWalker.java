@@ -0,0 +1,400 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import lombok.Value;
+import lombok.experimental.UtilityClass;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.eclipse.lsp4j.Diagnostic;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Однопроходный обходчик AST для набора диагностик.
+ * <p>
+ * Вместо отдельного обхода дерева каждой диагностикой выполняет один обход и на каждом узле
+ * вызывает только те диагностики, которые переопределили обработчик правила этого узла.
+ * Поддерживаются все диагностики-слушатели ({@link AbstractListenerDiagnostic})
+ * и диагностики-визиторы ({@link AbstractVisitorDiagnostic}), помеченные {@link SinglePassCompatible}.
+ * <p>
+ * Результат вычисления совпадает с результатом вызова {@link BSLDiagnostic#getDiagnostics(DocumentContext)}
+ * для каждой диагностики по отдельности.
+ */
+@UtilityClass
+public class SinglePassDiagnosticWalker {
+
+  private static final String VISIT_PREFIX = "visit";
+  private static final String ENTER_PREFIX = "enter";
+  private static final String EXIT_PREFIX = "exit";
+  private static final Set<String> EVERY_RULE_METHODS = Set.of("enterEveryRule", "exitEveryRule");
+  private static final Set<String> TERMINAL_METHODS = Set.of("visitTerminal", "visitErrorNode");
+  private static final Set<String> VISITOR_TRAVERSAL_METHODS = Set.of(
+    "visit", "visitChildren", "shouldVisitNextChild", "aggregateResult", "defaultResult"
+  );
+
+  private static final Map<String, Integer> RULE_INDEXES = createRuleIndexes();
+  private static final Map<Class<?>, Interest> INTERESTS = new ConcurrentHashMap<>();
+
+  /**
+   * Проверяет, может ли диагностика быть вычислена в однопроходном обходе.
+   *
+   * @param diagnostic Диагностика.
+   * @return {@code true}, если диагностика поддерживает однопроходный обход.
+   */
+  public static boolean supports(BSLDiagnostic diagnostic) {
+    return interestOf(diagnostic.getClass()).isSupported();
+  }
+
+  /**
+   * Вычисляет диагностики за один обход AST документа.
+   * <p>
+   * Ошибка в обработчике одной диагностики исключает только ее из дальнейшего обхода
+   * и передается в {@code errorHandler}, остальные диагностики вычисляются до конца.
+   *
+   * @param documentContext Контекст документа.
+   * @param diagnostics     Диагностики, для каждой из которых {@link #supports(BSLDiagnostic)} вернул {@code true}.
+   * @param errorHandler    Обработчик ошибок вычисления диагностики.
+   * @return Замечания, сгруппированные по успешно вычисленным диагностикам.
+   */
+  public static Map<BSLDiagnostic, List<Diagnostic>> compute(
+    DocumentContext documentContext,
+    Collection<? extends BSLDiagnostic> diagnostics,
+    BiConsumer<BSLDiagnostic, RuntimeException> errorHandler
+  ) {
+
+    List<Subscriber> subscribers = new ArrayList<>(diagnostics.size());
+    List<List<Subscriber>> ruleSubscribers = new ArrayList<>(RULE_INDEXES.size());
+    for (var i = 0; i < BSLParser.ruleNames.length; i++) {
+      ruleSubscribers.add(new ArrayList<>());
+    }
+    List<Subscriber> terminalSubscribers = new ArrayList<>();
+
+    for (BSLDiagnostic diagnostic : diagnostics) {
+      var interest = interestOf(diagnostic.getClass());
+      if (!interest.isSupported()) {
+        throw new IllegalArgumentException(
+          "Diagnostic " + diagnostic.getClass().getName() + " doesn't support single pass walk"
+        );
+      }
+
+      var subscriber = createSubscriber(diagnostic, documentContext);
+      subscribers.add(subscriber);
+
+      for (var i = 0; i < ruleSubscribers.size(); i++) {
+        if (interest.isEveryRule() || interest.getRules().get(i)) {
+          ruleSubscribers.get(i).add(subscriber);
+        }
+      }
+      if (interest.isTerminals()) {
+        terminalSubscribers.add(subscriber);
+      }
+    }
+
+    var subscribersByRule = new Subscriber[ruleSubscribers.size()][];
+    for (var i = 0; i < ruleSubscribers.size(); i++) {
+      subscribersByRule[i] = ruleSubscribers.get(i).toArray(new Subscriber[0]);
+    }
+
+    subscribers.forEach(Subscriber::start);
+    try {
+      walk(documentContext.getAst(), subscribersByRule, terminalSubscribers.toArray(new Subscriber[0]));
+    } finally {
+      subscribers.forEach(Subscriber::finish);
+    }
+
+    Map<BSLDiagnostic, List<Diagnostic>> result = new LinkedHashMap<>();
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.error == null) {
+        result.put(subscriber.diagnostic, subscriber.getDiagnostics());
+      } else {
+        errorHandler.accept(subscriber.diagnostic, subscriber.error);
+      }
+    }
+    return result;
+  }
+
+  private static void walk(ParseTree node, Subscriber[][] subscribersByRule, Subscriber[] terminalSubscribers) {
+    if (node instanceof TerminalNode) {
+      for (Subscriber subscriber : terminalSubscribers) {
+        subscriber.terminal((TerminalNode) node);
+      }
+      return;
+    }
+
+    var ctx = (ParserRuleContext) node;
+    var subscribers = subscribersByRule[ctx.getRuleIndex()];
+
+    for (Subscriber subscriber : subscribers) {
+      subscriber.enter(ctx);
+    }
+
+    var childCount = ctx.getChildCount();
+    for (var i = 0; i < childCount; i++) {
+      walk(ctx.getChild(i), subscribersByRule, terminalSubscribers);
+    }
+
+    for (Subscriber subscriber : subscribers) {
+      subscriber.exit(ctx);
+    }
+  }
+
+  private static Subscriber createSubscriber(BSLDiagnostic diagnostic, DocumentContext documentContext) {
+    if (diagnostic instanceof AbstractListenerDiagnostic) {
+      var listener = (AbstractListenerDiagnostic) diagnostic;
+      listener.prepareSinglePass(documentContext);
+      return new ListenerSubscriber(listener);
+    }
+
+    var visitor = (AbstractVisitorDiagnostic) diagnostic;
+    visitor.prepareSinglePass(documentContext);
+    return new VisitorSubscriber(visitor);
+  }
+
+  private static Interest interestOf(Class<?> diagnosticClass) {
+    return INTERESTS.computeIfAbsent(diagnosticClass, SinglePassDiagnosticWalker::computeInterest);
+  }
+
+  private static Interest computeInterest(Class<?> diagnosticClass) {
+    Class<?> baseClass;
+    if (AbstractListenerDiagnostic.class.isAssignableFrom(diagnosticClass)) {
+      baseClass = AbstractListenerDiagnostic.class;
+    } else if (AbstractVisitorDiagnostic.class.isAssignableFrom(diagnosticClass)
+      && diagnosticClass.isAnnotationPresent(SinglePassCompatible.class)) {
+      baseClass = AbstractVisitorDiagnostic.class;
+    } else {
+      return Interest.UNSUPPORTED;
+    }
+
+    var rules = new BitSet(BSLParser.ruleNames.length);
+    var everyRule = false;
+    var terminals = false;
+
+    for (Method method : diagnosticClass.getMethods()) {
+      var declaringClass = method.getDeclaringClass();
+      if (declaringClass == baseClass || !baseClass.isAssignableFrom(declaringClass)) {
+        continue;
+      }
+
+      var name = method.getName();
+      if ("getDiagnostics".equals(name) || VISITOR_TRAVERSAL_METHODS.contains(name)) {
+        // диагностика управляет обходом самостоятельно
+        return Interest.UNSUPPORTED;
+      } else if (EVERY_RULE_METHODS.contains(name)) {
+        everyRule = true;
+      } else if (TERMINAL_METHODS.contains(name)) {
+        terminals = true;
+      } else {
+        var ruleIndex = ruleIndexOf(name, baseClass);
+        if (ruleIndex != null) {
+          rules.set(ruleIndex);
+        }
+      }
+    }
+
+    return new Interest(true, rules, everyRule, terminals);
+  }
+
+  private static Integer ruleIndexOf(String methodName, Class<?> baseClass) {
+    if (baseClass == AbstractVisitorDiagnostic.class) {
+      return ruleIndexOf(methodName, VISIT_PREFIX);
+    }
+
+    var ruleIndex = ruleIndexOf(methodName, ENTER_PREFIX);
+    if (ruleIndex == null) {
+      ruleIndex = ruleIndexOf(methodName, EXIT_PREFIX);
+    }
+    return ruleIndex;
+  }
+
+  private static Integer ruleIndexOf(String methodName, String prefix) {
+    if (!methodName.startsWith(prefix)) {
+      return null;
+    }
+    return RULE_INDEXES.get(methodName.substring(prefix.length()));
+  }
+
+  private static Map<String, Integer> createRuleIndexes() {
+    Map<String, Integer> ruleIndexes = new HashMap<>();
+    for (var i = 0; i < BSLParser.ruleNames.length; i++) {
+      var ruleName = BSLParser.ruleNames[i];
+      ruleIndexes.put(Character.toUpperCase(ruleName.charAt(0)) + ruleName.substring(1), i);
+    }
+    return Map.copyOf(ruleIndexes);
+  }
+
+  @Value
+  private static class Interest {
+    private static final Interest UNSUPPORTED = new Interest(false, new BitSet(), false, false);
+
+    boolean supported;
+    BitSet rules;
+    boolean everyRule;
+    boolean terminals;
+  }
+
+  private abstract static class Subscriber {
+    protected final BSLDiagnostic diagnostic;
+    private RuntimeException error;
+
+    protected Subscriber(BSLDiagnostic diagnostic) {
+      this.diagnostic = diagnostic;
+    }
+
+    final void enter(ParserRuleContext ctx) {
+      if (error != null) {
+        return;
+      }
+      try {
+        onEnter(ctx);
+      } catch (RuntimeException e) {
+        error = e;
+      }
+    }
+
+    final void exit(ParserRuleContext ctx) {
+      if (error != null) {
+        return;
+      }
+      try {
+        onExit(ctx);
+      } catch (RuntimeException e) {
+        error = e;
+      }
+    }
+
+    final void terminal(TerminalNode node) {
+      if (error != null) {
+        return;
+      }
+      try {
+        onTerminal(node);
+      } catch (RuntimeException e) {
+        error = e;
+      }
+    }
+
+    void start() {
+      // no-op
+    }
+
+    void finish() {
+      // no-op
+    }
+
+    protected abstract void onEnter(ParserRuleContext ctx);
+
+    protected abstract void onExit(ParserRuleContext ctx);
+
+    protected abstract void onTerminal(TerminalNode node);
+
+    protected abstract List<Diagnostic> getDiagnostics();
+  }
+
+  private static final class ListenerSubscriber extends Subscriber {
+    private final AbstractListenerDiagnostic listener;
+
+    private ListenerSubscriber(AbstractListenerDiagnostic listener) {
+      super(listener);
+      this.listener = listener;
+    }
+
+    @Override
+    protected void onEnter(ParserRuleContext ctx) {
+      listener.enterEveryRule(ctx);
+      ctx.enterRule(listener);
+    }
+
+    @Override
+    protected void onExit(ParserRuleContext ctx) {
+      ctx.exitRule(listener);
+      listener.exitEveryRule(ctx);
+    }
+
+    @Override
+    protected void onTerminal(TerminalNode node) {
+      if (node instanceof ErrorNode) {
+        listener.visitErrorNode((ErrorNode) node);
+      } else {
+        listener.visitTerminal(node);
+      }
+    }
+
+    @Override
+    protected List<Diagnostic> getDiagnostics() {
+      return listener.diagnosticStorage.getDiagnostics();
+    }
+  }
+
+  private static final class VisitorSubscriber extends Subscriber {
+    private final AbstractVisitorDiagnostic visitor;
+
+    private VisitorSubscriber(AbstractVisitorDiagnostic visitor) {
+      super(visitor);
+      this.visitor = visitor;
+    }
+
+    @Override
+    void start() {
+      visitor.setSinglePassMode(true);
+    }
+
+    @Override
+    void finish() {
+      visitor.setSinglePassMode(false);
+    }
+
+    @Override
+    protected void onEnter(ParserRuleContext ctx) {
+      ctx.accept(visitor);
+    }
+
+    @Override
+    protected void onExit(ParserRuleContext ctx) {
+      // визитор обрабатывает узел целиком при входе
+    }
+
+    @Override
+    protected void onTerminal(TerminalNode node) {
+      node.accept(visitor);
+    }
+
+    @Override
+    protected List<Diagnostic> getDiagnostics() {
+      return visitor.diagnosticStorage.getDiagnostics();
+    }
+  }
+}
@@ -42,6 +42,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {"КаталогВременныхФайлов", "TempFilesDir"})
 public class TempFilesDirDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern MESSAGE_PATTERN = CaseInsensitivePattern.compile(
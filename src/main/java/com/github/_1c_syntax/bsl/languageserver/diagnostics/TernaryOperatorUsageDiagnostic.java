@@ -38,6 +38,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
   }
 )
 
+@SinglePassCompatible
 public class TernaryOperatorUsageDiagnostic extends AbstractVisitorDiagnostic {
 
   @Override
@@ -27,30 +27,21 @@ import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticP
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticSeverity;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticTag;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticType;
-import com.github._1c_syntax.bsl.languageserver.diagnostics.typo.JLanguageToolPool;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.typo.SpellingChecker;
 import com.github._1c_syntax.bsl.languageserver.utils.Trees;
 import com.github._1c_syntax.bsl.parser.BSLParser;
 import com.github._1c_syntax.bsl.parser.BSLParserRuleContext;
 import com.github._1c_syntax.utils.CaseInsensitivePattern;
-import lombok.AccessLevel;
-import lombok.Getter;
-import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
 import org.antlr.v4.runtime.Token;
 import org.apache.commons.lang3.StringUtils;
-import org.languagetool.JLanguageTool;
-import org.languagetool.language.AmericanEnglish;
-import org.languagetool.language.Russian;
-import org.languagetool.rules.RuleMatch;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -63,23 +54,9 @@ import java.util.stream.Collectors;
     DiagnosticTag.BADPRACTICE
   }
 )
-@Slf4j
+@RequiredArgsConstructor
 public class TypoDiagnostic extends AbstractDiagnostic {
 
-  @Getter(lazy = true, value = AccessLevel.PRIVATE)
-  private static final Map<String, JLanguageToolPool> languageToolPoolMap = Map.of(
-    "en", new JLanguageToolPool(new AmericanEnglish()),
-    "ru", new JLanguageToolPool(new Russian())
-  );
-
-  /**
-   * Карта, хранящая результат проверки слова (ошибка/нет ошибки) в разрезе языков.
-   */
-  private static final Map<String, Map<String, Boolean>> checkedWords = Map.of(
-    "en", new ConcurrentHashMap<>(),
-    "ru", new ConcurrentHashMap<>()
-  );
-
   private static final Pattern SPACES_PATTERN = Pattern.compile("\\s+");
   private static final Pattern QUOTE_PATTERN = Pattern.compile("\"");
   private static final String FORMAT_STRING_RU = "Л=|ЧЦ=|ЧДЦ=|ЧС=|ЧРД=|ЧРГ=|ЧН=|ЧВН=|ЧГ=|ЧО=|ДФ=|ДЛФ=|ДП=|БЛ=|БИ=";
@@ -112,6 +89,8 @@ public class TypoDiagnostic extends AbstractDiagnostic {
   )
   private String userWordsToIgnore = DEFAULT_USER_WORDS_TO_IGNORE;
 
+  private final SpellingChecker spellingChecker;
+
   @Override
   public void configure(Map<String, Object> configuration) {
     super.configure(configuration);
@@ -129,14 +108,6 @@ public class TypoDiagnostic extends AbstractDiagnostic {
       .collect(Collectors.toSet());
   }
 
-  private static JLanguageTool acquireLanguageTool(String lang) {
-    return getLanguageToolPoolMap().get(lang).checkOut();
-  }
-
-  private static void releaseLanguageTool(String lang, JLanguageTool languageTool) {
-    getLanguageToolPoolMap().get(lang).checkIn(languageTool);
-  }
-
   private Map<String, List<Token>> getTokensMap(
     DocumentContext documentContext
   ) {
@@ -167,57 +138,11 @@ public class TypoDiagnostic extends AbstractDiagnostic {
   protected void check() {
 
     String lang = info.getResourceString("diagnosticLanguage");
-    Map<String, Boolean> checkedWordsForLang = checkedWords.get(lang);
     Map<String, List<Token>> tokensMap = getTokensMap(documentContext);
-
-    // build string of unchecked words
-    Set<String> uncheckedWords = tokensMap.keySet().stream()
-      .filter(word -> !checkedWordsForLang.containsKey(word))
-      .collect(Collectors.toSet());
-
-    if (uncheckedWords.isEmpty()) {
-      fireDiagnosticOnCheckedWordsWithErrors(tokensMap);
-      return;
-    }
-
-    // Join with double \n to force LT make paragraph after each word.
-    // Otherwise results may be flaky cause of sort order of words in file.
-    String uncheckedWordsString = String.join("\n\n", uncheckedWords);
-
-    JLanguageTool languageTool = acquireLanguageTool(lang);
-
-    List<RuleMatch> matches = Collections.emptyList();
-    try {
-      matches = languageTool.check(
-        uncheckedWordsString,
-        true,
-        JLanguageTool.ParagraphHandling.ONLYNONPARA
-      );
-    } catch (IOException e) {
-      LOGGER.error(e.getMessage(), e);
-    } finally {
-      releaseLanguageTool(lang, languageTool);
-    }
-
-    // check words and mark matched as checked
-    matches.stream()
-      .map(ruleMatch -> ruleMatch.getSentence().getTokens()[1].getToken())
-      .forEach(word -> checkedWordsForLang.put(word, true));
-
-    // mark unmatched words without errors as checked
-    uncheckedWords.forEach(word -> checkedWordsForLang.putIfAbsent(word, false));
-
-    fireDiagnosticOnCheckedWordsWithErrors(tokensMap);
-  }
-
-  private void fireDiagnosticOnCheckedWordsWithErrors(
-    Map<String, List<Token>> tokensMap
-  ) {
-    String lang = info.getResourceString("diagnosticLanguage");
-    Map<String, Boolean> checkedWordsForLang = checkedWords.get(lang);
+    Set<String> wordsWithErrors = spellingChecker.getWordsWithErrors(lang, tokensMap.keySet());
 
     tokensMap.entrySet().stream()
-      .filter(entry -> checkedWordsForLang.getOrDefault(entry.getKey(), false))
+      .filter(entry -> wordsWithErrors.contains(entry.getKey()))
       .forEach((Map.Entry<String, List<Token>> entry) -> {
         String word = entry.getKey();
         List<Token> tokens = entry.getValue();
@@ -41,6 +41,7 @@ import java.util.Optional;
     DiagnosticTag.BRAINOVERLOAD
   }
 )
+@SinglePassCompatible
 public class UnaryPlusInConcatenationDiagnostic extends AbstractVisitorDiagnostic {
 
   @Override
@@ -47,6 +47,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@DiagnosticPrefilter(identifiers = {"БезопасныйРежим", "SafeMode"})
 public class UnsafeSafeModeMethodCallDiagnostic extends AbstractFindMethodDiagnostic {
 
   private static final Pattern SAFE_MODE_METHOD_NAME = CaseInsensitivePattern.compile(
@@ -42,6 +42,7 @@ import java.util.regex.Pattern;
   }
 
 )
+@SinglePassCompatible
 public class UseSystemInformationDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final Pattern PATTERN = CaseInsensitivePattern.compile("^(СистемнаяИнформация|SystemInfo)$");
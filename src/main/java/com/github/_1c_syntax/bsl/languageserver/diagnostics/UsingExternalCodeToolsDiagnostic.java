@@ -43,6 +43,7 @@ import java.util.regex.Pattern;
     DiagnosticTag.DESIGN
   }
 )
+@SinglePassCompatible
 public class UsingExternalCodeToolsDiagnostic extends AbstractVisitorDiagnostic {
 
   private static final Pattern externalCodeToolsName = CaseInsensitivePattern.compile(
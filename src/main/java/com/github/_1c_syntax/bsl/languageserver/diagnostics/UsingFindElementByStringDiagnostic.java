@@ -45,6 +45,7 @@ import java.util.regex.Pattern;
   }
 )
 
+@SinglePassCompatible
 public class UsingFindElementByStringDiagnostic extends AbstractVisitorDiagnostic {
 
   private final Pattern pattern = CaseInsensitivePattern.compile(
@@ -37,6 +37,7 @@ import org.antlr.v4.runtime.tree.ParseTree;
     DiagnosticTag.BADPRACTICE
   }
 )
+@SinglePassCompatible
 public class UsingGotoDiagnostic extends AbstractVisitorDiagnostic {
 
   @Override
@@ -47,6 +47,13 @@ import java.util.regex.Pattern;
   },
   compatibilityMode = DiagnosticCompatibilityMode.COMPATIBILITY_MODE_8_3_3
 )
+@DiagnosticPrefilter(identifiers = {
+  "ВОПРОС", "DOQUERYBOX", "ОТКРЫТЬФОРМУМОДАЛЬНО", "OPENFORMMODAL", "ОТКРЫТЬЗНАЧЕНИЕ", "OPENVALUE", "ПРЕДУПРЕЖДЕНИЕ",
+  "DOMESSAGEBOX", "ВВЕСТИДАТУ", "INPUTDATE", "ВВЕСТИЗНАЧЕНИЕ", "INPUTVALUE", "ВВЕСТИСТРОКУ", "INPUTSTRING",
+  "ВВЕСТИЧИСЛО", "INPUTNUMBER", "УСТАНОВИТЬВНЕШНЮЮКОМПОНЕНТУ", "INSTALLADDIN", "УСТАНОВИТЬРАСШИРЕНИЕРАБОТЫСФАЙЛАМИ",
+  "INSTALLFILESYSTEMEXTENSION", "УСТАНОВИТЬРАСШИРЕНИЕРАБОТЫСКРИПТОГРАФИЕЙ", "INSTALLCRYPTOEXTENSION", "ПОМЕСТИТЬФАЙЛ",
+  "PUTFILE"
+})
 public class UsingModalWindowsDiagnostic extends AbstractVisitorDiagnostic {
 
   private final Pattern modalityMethods = CaseInsensitivePattern.compile(
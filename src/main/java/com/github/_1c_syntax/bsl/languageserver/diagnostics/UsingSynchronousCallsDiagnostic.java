@@ -49,6 +49,18 @@ import java.util.regex.Pattern;
   },
   compatibilityMode = DiagnosticCompatibilityMode.COMPATIBILITY_MODE_8_3_3
 )
+@DiagnosticPrefilter(identifiers = {
+  "ВОПРОС", "DOQUERYBOX", "ОТКРЫТЬФОРМУМОДАЛЬНО", "OPENFORMMODAL", "ОТКРЫТЬЗНАЧЕНИЕ", "OPENVALUE", "ПРЕДУПРЕЖДЕНИЕ",
+  "DOMESSAGEBOX", "ВВЕСТИДАТУ", "INPUTDATE", "ВВЕСТИЗНАЧЕНИЕ", "INPUTVALUE", "ВВЕСТИСТРОКУ", "INPUTSTRING",
+  "ВВЕСТИЧИСЛО", "INPUTNUMBER", "УСТАНОВИТЬВНЕШНЮЮКОМПОНЕНТУ", "INSTALLADDIN", "УСТАНОВИТЬРАСШИРЕНИЕРАБОТЫСФАЙЛАМИ",
+  "INSTALLFILESYSTEMEXTENSION", "УСТАНОВИТЬРАСШИРЕНИЕРАБОТЫСКРИПТОГРАФИЕЙ", "INSTALLCRYPTOEXTENSION",
+  "ПОДКЛЮЧИТЬРАСШИРЕНИЕРАБОТЫСКРИПТОГРАФИЕЙ", "ATTACHCRYPTOEXTENSION", "ПОДКЛЮЧИТЬРАСШИРЕНИЕРАБОТЫСФАЙЛАМИ",
+  "ATTACHFILESYSTEMEXTENSION", "ПОМЕСТИТЬФАЙЛ", "PUTFILE", "КОПИРОВАТЬФАЙЛ", "FILECOPY", "ПЕРЕМЕСТИТЬФАЙЛ",
+  "MOVEFILE", "НАЙТИФАЙЛЫ", "FINDFILES", "УДАЛИТЬФАЙЛЫ", "DELETEFILES", "СОЗДАТЬКАТАЛОГ", "CREATEDIRECTORY",
+  "КАТАЛОГВРЕМЕННЫХФАЙЛОВ", "TEMPFILESDIR", "КАТАЛОГДОКУМЕНТОВ", "DOCUMENTSDIR", "РАБОЧИЙКАТАЛОГДАННЫХПОЛЬЗОВАТЕЛЯ",
+  "USERDATAWORKDIR", "ПОЛУЧИТЬФАЙЛЫ", "GETFILES", "ПОМЕСТИТЬФАЙЛЫ", "PUTFILES", "ЗАПРОСИТЬРАЗРЕШЕНИЕПОЛЬЗОВАТЕЛЯ",
+  "REQUESTUSERPERMISSION", "ЗАПУСТИТЬПРИЛОЖЕНИЕ", "RUNAPP"
+})
 public class UsingSynchronousCallsDiagnostic extends AbstractVisitorDiagnostic {
   private static final Pattern MODALITY_METHODS = CaseInsensitivePattern.compile(
     "(ВОПРОС|DOQUERYBOX|ОТКРЫТЬФОРМУМОДАЛЬНО|OPENFORMMODAL|ОТКРЫТЬЗНАЧЕНИЕ|OPENVALUE|" +
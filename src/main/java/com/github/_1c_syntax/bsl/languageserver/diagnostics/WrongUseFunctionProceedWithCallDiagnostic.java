@@ -44,7 +44,7 @@ import java.util.regex.Pattern;
   }
 
 )
-
+@DiagnosticPrefilter(identifiers = {"ПродолжитьВызов", "ProceedWithCall"})
 public class WrongUseFunctionProceedWithCallDiagnostic extends AbstractFindMethodDiagnostic {
   private static final Pattern MESSAGE_PATTERN = CaseInsensitivePattern.compile(
     "(ПродолжитьВызов|ProceedWithCall)"
@@ -0,0 +1,163 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure;
+
+import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
+import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.DiagnosticsOptions;
+import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.Mode;
+import com.github._1c_syntax.bsl.languageserver.configuration.events.LanguageServerConfigurationChangedEvent;
+import com.github._1c_syntax.bsl.languageserver.context.FileType;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.BSLDiagnostic;
+import com.github._1c_syntax.bsl.support.CompatibilityMode;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Кэш планов выполнения диагностик.
+ * <p>
+ * План выполнения - список классов диагностик, прошедших фильтрацию по настройкам, области действия,
+ * типу модуля и режиму совместимости. Различных сочетаний этих параметров немного, поэтому план вычисляется
+ * один раз для каждого сочетания, а не для каждого документа.
+ * <p>
+ * Кэш сбрасывается при изменении конфигурации сервера, а также при изменении режима или параметров диагностик
+ * в текущей конфигурации, в том числе без замены объекта параметров. Вместе с кэшем очищается пул
+ * экземпляров диагностик.
+ */
+@Component
+@RequiredArgsConstructor
+public class DiagnosticExecutionPlanCache {
+
+  private final LanguageServerConfiguration configuration;
+  private final DiagnosticObjectProvider diagnosticObjectProvider;
+
+  private final Map<Key, List<Class<? extends BSLDiagnostic>>> plans = new ConcurrentHashMap<>();
+
+  /**
+   * Режим и копия параметров диагностик, для которых построены планы. Сравниваются с текущими по значению
+   * без блокировки, что обнаруживает и изменение параметров на месте; блокировка берется только
+   * при обнаружении изменения.
+   */
+  private volatile PlannedOptions plannedOptions = new PlannedOptions(null, Collections.emptyMap());
+
+  /**
+   * Получить план выполнения диагностик.
+   *
+   * @param fileType          Тип файла.
+   * @param moduleType        Тип модуля.
+   * @param compatibilityMode Режим совместимости конфигурации.
+   * @param planner           Функция построения плана, вызываемая при отсутствии плана в кэше.
+   * @return Список классов диагностик для выполнения.
+   */
+  public List<Class<? extends BSLDiagnostic>> getPlan(
+    FileType fileType,
+    ModuleType moduleType,
+    @Nullable CompatibilityMode compatibilityMode,
+    Supplier<List<Class<? extends BSLDiagnostic>>> planner
+  ) {
+    invalidateIfOptionsChanged();
+    var key = new Key(
+      fileType,
+      moduleType,
+      compatibilityMode == null ? -1 : compatibilityMode.getMinor(),
+      compatibilityMode == null ? -1 : compatibilityMode.getVersion()
+    );
+    return plans.computeIfAbsent(key, (Key planKey) -> planner.get());
+  }
+
+  /**
+   * Сбросить все планы выполнения и пул экземпляров диагностик.
+   */
+  public synchronized void clear() {
+    plans.clear();
+    diagnosticObjectProvider.clear();
+    var diagnosticsOptions = configuration.getDiagnosticsOptions();
+    plannedOptions = new PlannedOptions(diagnosticsOptions.getMode(), copy(diagnosticsOptions.getParameters()));
+  }
+
+  @EventListener
+  public void handleEvent(LanguageServerConfigurationChangedEvent event) {
+    clear();
+  }
+
+  private void invalidateIfOptionsChanged() {
+    if (plannedOptions.matches(configuration.getDiagnosticsOptions())) {
+      return;
+    }
+    synchronized (this) {
+      if (!plannedOptions.matches(configuration.getDiagnosticsOptions())) {
+        clear();
+      }
+    }
+  }
+
+  @Nullable
+  private static Map<String, Either<Boolean, Map<String, Object>>> copy(
+    @Nullable Map<String, Either<Boolean, Map<String, Object>>> parameters
+  ) {
+    if (parameters == null) {
+      return null;
+    }
+    Map<String, Either<Boolean, Map<String, Object>>> parametersCopy = new HashMap<>(parameters.size());
+    parameters.forEach((String key, Either<Boolean, Map<String, Object>> value) -> {
+      if (value != null && value.isRight()) {
+        parametersCopy.put(key, Either.forRight(new HashMap<>(value.getRight())));
+      } else {
+        parametersCopy.put(key, value);
+      }
+    });
+    return parametersCopy;
+  }
+
+  @Value
+  private static class PlannedOptions {
+    @Nullable
+    Mode mode;
+    @Nullable
+    Map<String, Either<Boolean, Map<String, Object>>> parameters;
+
+    boolean matches(DiagnosticsOptions diagnosticsOptions) {
+      return diagnosticsOptions.getMode() == mode && Objects.equals(parameters, diagnosticsOptions.getParameters());
+    }
+  }
+
+  @Value
+  private static class Key {
+    FileType fileType;
+    ModuleType moduleType;
+    int compatibilityModeMinor;
+    int compatibilityModeVersion;
+  }
+
+}
@@ -21,19 +21,102 @@
  */
 package com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure;
 
+import com.github._1c_syntax.bsl.languageserver.configuration.events.LanguageServerConfigurationChangedEvent;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.BSLDiagnostic;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Поставщик экземпляров диагностик.
+ * <p>
+ * Помимо создания новых экземпляров через контекст приложения поддерживает пул уже созданных
+ * и сконфигурированных экземпляров. Экземпляр из пула используется монопольно между вызовами
+ * {@link #acquire(Class)} и {@link #release(BSLDiagnostic, int)}, состояние вычисления сбрасывается
+ * самой диагностикой в начале каждого вызова {@link BSLDiagnostic#getDiagnostics}.
+ * <p>
+ * При возврате в пул экземпляр освобождает ссылки на проверенный документ и его AST
+ * ({@link BSLDiagnostic#clearDocumentState()}). Число экземпляров одного класса в пуле ограничено,
+ * лишние экземпляры не сохраняются.
+ * <p>
+ * При изменении конфигурации пул очищается, а экземпляры, выданные до изменения, в пул не возвращаются.
+ */
 @Component
 @RequiredArgsConstructor
 public class DiagnosticObjectProvider {
 
+  /**
+   * Максимальное число экземпляров одного класса диагностики в пуле.
+   * Одновременно экземпляр одного класса нужен не более чем каждому потоку вычисления диагностик.
+   */
+  private static final int MAX_POOLED_INSTANCES = Runtime.getRuntime().availableProcessors() * 2;
+
   private final ApplicationContext applicationContext;
 
+  private final Map<Class<? extends BSLDiagnostic>, Queue<BSLDiagnostic>> pool = new ConcurrentHashMap<>();
+  private final AtomicInteger generation = new AtomicInteger();
+
   public <T extends BSLDiagnostic> T get(Class<T> clazz) {
     return applicationContext.getBean(clazz);
   }
 
+  /**
+   * Получить экземпляр диагностики из пула или создать новый.
+   *
+   * @param clazz Класс диагностики.
+   * @param <T>   Тип диагностики.
+   * @return Экземпляр диагностики для монопольного использования.
+   */
+  public <T extends BSLDiagnostic> T acquire(Class<T> clazz) {
+    var instances = pool.get(clazz);
+    var diagnostic = instances == null ? null : instances.poll();
+    if (diagnostic == null) {
+      return get(clazz);
+    }
+    return clazz.cast(diagnostic);
+  }
+
+  /**
+   * Вернуть экземпляр диагностики в пул.
+   *
+   * @param diagnostic Экземпляр, полученный через {@link #acquire(Class)}.
+   * @param generation Поколение пула, полученное через {@link #getGeneration()} до получения экземпляра.
+   *                   Экземпляры устаревших поколений в пул не возвращаются.
+   */
+  public void release(BSLDiagnostic diagnostic, int generation) {
+    diagnostic.clearDocumentState();
+    if (generation != this.generation.get()) {
+      return;
+    }
+    pool.computeIfAbsent(diagnostic.getClass(), clazz -> new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES))
+      .offer(diagnostic);
+  }
+
+  /**
+   * @return Текущее поколение пула. Меняется при каждой очистке пула.
+   */
+  public int getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Очистить пул экземпляров диагностик.
+   */
+  public void clear() {
+    generation.incrementAndGet();
+    pool.clear();
+  }
+
+  @EventListener
+  public void handleEvent(LanguageServerConfigurationChangedEvent event) {
+    clear();
+  }
+
 }
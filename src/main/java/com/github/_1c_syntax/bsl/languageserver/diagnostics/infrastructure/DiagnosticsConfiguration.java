@@ -27,7 +27,9 @@ import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.Mode;
 import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.SkipSupport;
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.languageserver.context.FileType;
+import com.github._1c_syntax.bsl.languageserver.context.WordIndex;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.BSLDiagnostic;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.DiagnosticPrefilter;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticCompatibilityMode;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticInfo;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticScope;
@@ -45,11 +47,14 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 import org.springframework.core.annotation.AnnotationUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -57,34 +62,58 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public abstract class DiagnosticsConfiguration {
 
+  /**
+   * Предварительные фильтры документов, построенные по аннотациям {@link DiagnosticPrefilter} классов диагностик.
+   */
+  private static final ClassValue<Optional<Predicate<WordIndex>>> PREFILTERS = new ClassValue<>() {
+    @Override
+    protected Optional<Predicate<WordIndex>> computeValue(Class<?> type) {
+      return Optional.ofNullable(type.getAnnotation(DiagnosticPrefilter.class))
+        .map(DiagnosticsConfiguration::createPrefilter);
+    }
+  };
+
   private final LanguageServerConfiguration configuration;
   private final DiagnosticObjectProvider diagnosticObjectProvider;
+  private final DiagnosticExecutionPlanCache executionPlanCache;
 
   @Bean
   @Scope("prototype")
   public List<BSLDiagnostic> diagnostics(DocumentContext documentContext) {
 
-    Collection<DiagnosticInfo> diagnosticInfos = diagnosticInfos();
-
     DiagnosticsOptions diagnosticsOptions = configuration.getDiagnosticsOptions();
 
     if (needToComputeDiagnostics(documentContext, diagnosticsOptions)) {
       FileType fileType = documentContext.getFileType();
       CompatibilityMode compatibilityMode = documentContext
         .getServerContext()
-        .getConfiguration()
+        .getConfigurationSnapshot()
         .getCompatibilityMode();
       ModuleType moduleType = documentContext.getModuleType();
 
-      return diagnosticInfos.stream()
-        .filter(diagnosticInfo -> isEnabled(diagnosticInfo, diagnosticsOptions))
-        .filter(info -> inScope(info, fileType))
-        .filter(info -> correctModuleType(info, moduleType, fileType))
-        .filter(info -> passedCompatibilityMode(info, compatibilityMode))
-        .map(DiagnosticInfo::getDiagnosticClass)
-        .filter(diagnostic -> AnnotationUtils.findAnnotation(diagnostic, Disabled.class) == null)
-        .map(diagnosticObjectProvider::get)
-        .collect(Collectors.toList());
+      var plan = executionPlanCache.getPlan(
+        fileType,
+        moduleType,
+        compatibilityMode,
+        () -> computePlan(fileType, moduleType, compatibilityMode)
+      );
+
+      // диагностики, для которых в документе нет ни одного из искомых слов, даже не создаются
+      List<BSLDiagnostic> diagnostics = new ArrayList<>(plan.size());
+      WordIndex wordIndex = null;
+      for (var diagnosticClass : plan) {
+        var prefilter = PREFILTERS.get(diagnosticClass);
+        if (prefilter.isPresent()) {
+          if (wordIndex == null) {
+            wordIndex = documentContext.getWordIndex();
+          }
+          if (!prefilter.get().test(wordIndex)) {
+            continue;
+          }
+        }
+        diagnostics.add(diagnosticObjectProvider.acquire(diagnosticClass));
+      }
+      return diagnostics;
     } else {
       return Collections.emptyList();
     }
@@ -93,6 +122,30 @@ public abstract class DiagnosticsConfiguration {
   @Lookup("diagnosticInfos")
   protected abstract Collection<DiagnosticInfo> diagnosticInfos();
 
+  private List<Class<? extends BSLDiagnostic>> computePlan(
+    FileType fileType,
+    ModuleType moduleType,
+    CompatibilityMode compatibilityMode
+  ) {
+    DiagnosticsOptions diagnosticsOptions = configuration.getDiagnosticsOptions();
+
+    return diagnosticInfos().stream()
+      .filter(diagnosticInfo -> isEnabled(diagnosticInfo, diagnosticsOptions))
+      .filter(info -> inScope(info, fileType))
+      .filter(info -> correctModuleType(info, moduleType, fileType))
+      .filter(info -> passedCompatibilityMode(info, compatibilityMode))
+      .map(DiagnosticInfo::getDiagnosticClass)
+      .filter(diagnostic -> AnnotationUtils.findAnnotation(diagnostic, Disabled.class) == null)
+      .collect(Collectors.toUnmodifiableList());
+  }
+
+  private static Predicate<WordIndex> createPrefilter(DiagnosticPrefilter prefilter) {
+    var identifiers = List.of(prefilter.identifiers());
+    var stringWords = List.of(prefilter.stringWords());
+    return (WordIndex wordIndex) -> wordIndex.containsAnyIdentifier(identifiers)
+      || wordIndex.containsAnyStringWord(stringWords);
+  }
+
   private static boolean needToComputeDiagnostics(
     DocumentContext documentContext,
     DiagnosticsOptions diagnosticsOptions
@@ -0,0 +1,236 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics.typo;
+
+import com.github._1c_syntax.utils.Absolute;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.languagetool.JLanguageTool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Хранилище результатов проверки слов (ошибка/нет ошибки) в разрезе языков.
+ * <p>
+ * Результаты проверки общие для всех экземпляров диагностики. Если включена настройка {@code app.cache.enabled},
+ * результаты сохраняются в каталог {@code app.cache.path} отдельно для каждого языка и версии словарей
+ * LanguageTool и загружаются при следующем запуске. Новые результаты записываются периодически, а также
+ * по накоплении {@code app.diagnostics.typo.flush-threshold} новых результатов по языку.
+ * <p>
+ * Количество результатов в памяти по каждому языку ограничено настройкой
+ * {@code app.diagnostics.typo.checked-words-limit}, при превышении вытесняются давно не использованные слова.
+ */
+@Slf4j
+@Component
+public class CheckedWordsStorage {
+
+  /**
+   * Версия формата файла хранилища.
+   */
+  private static final int FORMAT_VERSION = 1;
+  private static final String STORAGE_EXTENSION = ".bin.gz";
+
+  @Value("${app.cache.enabled:false}")
+  private boolean enabled;
+
+  @Value("${app.cache.path:.bsl-language-server/cache}")
+  private String cachePath = "";
+
+  @Value("${app.diagnostics.typo.checked-words-limit:500000}")
+  private int checkedWordsLimit = 500_000;
+
+  @Value("${app.diagnostics.typo.flush-threshold:10000}")
+  private int flushThreshold = 10_000;
+
+  private final Map<String, CheckedWords> checkedWords = new ConcurrentHashMap<>();
+
+  /**
+   * Получить результат проверки слова.
+   *
+   * @param lang Язык проверки.
+   * @param word Слово.
+   * @return Признак наличия ошибки в слове или {@code null}, если слово еще не проверялось.
+   */
+  @Nullable
+  public Boolean get(String lang, String word) {
+    return getCheckedWords(lang).verdicts.get(word);
+  }
+
+  /**
+   * Сохранить результат проверки слова.
+   *
+   * @param lang     Язык проверки.
+   * @param word     Слово.
+   * @param hasError Признак наличия ошибки в слове.
+   */
+  public void put(String lang, String word, boolean hasError) {
+    var words = getCheckedWords(lang);
+    if (words.verdicts.put(word, hasError) == null) {
+      words.changed.set(true);
+      if (words.unsavedCount.incrementAndGet() >= flushThreshold) {
+        flush(lang, words);
+      }
+    }
+  }
+
+  /**
+   * Записать на диск результаты проверки, полученные с момента загрузки или предыдущей записи.
+   */
+  @PreDestroy
+  @Scheduled(fixedDelay = 60000L)
+  public void save() {
+    checkedWords.forEach(this::flush);
+  }
+
+  /**
+   * Очистить результаты проверки в памяти.
+   */
+  public void clear() {
+    checkedWords.clear();
+  }
+
+  private CheckedWords getCheckedWords(String lang) {
+    return checkedWords.computeIfAbsent(lang, this::read);
+  }
+
+  private void flush(String lang, CheckedWords words) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (words) {
+      if (words.changed.compareAndSet(true, false)) {
+        words.unsavedCount.set(0);
+        write(lang, words);
+      }
+    }
+  }
+
+  private CheckedWords read(String lang) {
+    var words = new CheckedWords(checkedWordsLimit);
+    if (!enabled) {
+      return words;
+    }
+
+    var storagePath = getStoragePath(lang);
+    if (!Files.exists(storagePath)) {
+      return words;
+    }
+
+    try (var input = new DataInputStream(
+      new BufferedInputStream(new GZIPInputStream(Files.newInputStream(storagePath)))
+    )) {
+      if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(JLanguageTool.VERSION)) {
+        return words;
+      }
+      var size = input.readInt();
+      Map<String, Boolean> verdicts = new HashMap<>(size * 2);
+      for (var i = 0; i < size; i++) {
+        verdicts.put(input.readUTF(), input.readBoolean());
+      }
+      words.verdicts.putAll(verdicts);
+      LOGGER.debug("{} checked words loaded from {}", size, storagePath);
+    } catch (IOException e) {
+      LOGGER.warn("Can't read checked words storage {}", storagePath, e);
+    }
+    return words;
+  }
+
+  private void write(String lang, CheckedWords words) {
+    var storagePath = getStoragePath(lang);
+    Map<String, Boolean> verdicts;
+    synchronized (words.verdicts) {
+      verdicts = new HashMap<>(words.verdicts);
+    }
+    try {
+      Files.createDirectories(storagePath.getParent());
+      var tempFile = Files.createTempFile(storagePath.getParent(), null, null);
+      try (var output = new DataOutputStream(
+        new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile)))
+      )) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(JLanguageTool.VERSION);
+        output.writeInt(verdicts.size());
+        for (var entry : verdicts.entrySet()) {
+          output.writeUTF(entry.getKey());
+          output.writeBoolean(entry.getValue());
+        }
+      }
+      Files.move(tempFile, storagePath, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      LOGGER.warn("Can't write checked words storage {}", storagePath, e);
+    }
+  }
+
+  private Path getStoragePath(String lang) {
+    return Absolute.path(cachePath)
+      .resolve("typo")
+      .resolve(lang + "-" + JLanguageTool.VERSION + STORAGE_EXTENSION);
+  }
+
+  private static class CheckedWords {
+    private final Map<String, Boolean> verdicts;
+    private final AtomicBoolean changed = new AtomicBoolean();
+    private final AtomicInteger unsavedCount = new AtomicInteger();
+
+    CheckedWords(int limit) {
+      verdicts = Collections.synchronizedMap(new BoundedVerdicts(limit));
+    }
+  }
+
+  /**
+   * Результаты проверки в порядке использования с вытеснением давно не использованных слов.
+   */
+  private static class BoundedVerdicts extends LinkedHashMap<String, Boolean> {
+    private static final long serialVersionUID = -3871462039574121846L;
+    private final int limit;
+
+    BoundedVerdicts(int limit) {
+      super(16, 0.75f, true);
+      this.limit = limit;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+      return size() > limit;
+    }
+  }
+}
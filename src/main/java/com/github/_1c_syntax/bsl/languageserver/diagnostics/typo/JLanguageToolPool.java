@@ -22,18 +22,21 @@
 package com.github._1c_syntax.bsl.languageserver.diagnostics.typo;
 
 import com.github._1c_syntax.bsl.languageserver.utils.AbstractObjectPool;
-import lombok.AllArgsConstructor;
 import org.languagetool.JLanguageTool;
 import org.languagetool.Language;
 import org.languagetool.rules.Rule;
 
 import java.util.function.Predicate;
 
-@AllArgsConstructor
 public class JLanguageToolPool extends AbstractObjectPool<JLanguageTool> {
 
   private final Language language;
 
+  public JLanguageToolPool(Language language, int maxSize) {
+    super(maxSize);
+    this.language = language;
+  }
+
   @Override
   protected JLanguageTool create() {
     JLanguageTool languageTool = new JLanguageTool(language);
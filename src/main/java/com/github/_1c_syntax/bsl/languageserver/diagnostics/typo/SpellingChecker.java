@@ -0,0 +1,218 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics.typo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.language.AmericanEnglish;
+import org.languagetool.language.Russian;
+import org.languagetool.rules.RuleMatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка орфографии слов с помощью LanguageTool.
+ * <p>
+ * Результаты проверки хранятся в {@link CheckedWordsStorage}. Непроверенные слова всех документов попадают
+ * в общую очередь языка. Поток, получивший экземпляр {@link JLanguageTool} из пула, забирает из очереди
+ * пакет слов, накопившихся за время ожидания, в том числе слов других документов. Таким образом при
+ * параллельном анализе большого числа файлов LanguageTool вызывается на больших пакетах слов,
+ * а не один раз на каждый файл.
+ * <p>
+ * Размер пула экземпляров LanguageTool для каждого языка задается настройкой
+ * {@code app.diagnostics.typo.pool-size}. Значение 0 означает число доступных процессоров.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpellingChecker {
+
+  private static final int MAX_BATCH_SIZE = 2000;
+
+  private static final Map<String, Supplier<Language>> LANGUAGES = Map.of(
+    "en", AmericanEnglish::new,
+    "ru", Russian::new
+  );
+
+  private final CheckedWordsStorage checkedWordsStorage;
+
+  @Value("${app.diagnostics.typo.pool-size:0}")
+  private int poolSize;
+
+  private final Map<String, LanguageQueue> queues = new ConcurrentHashMap<>();
+
+  /**
+   * Проверить слова и получить слова, содержащие ошибки.
+   *
+   * @param lang  Язык проверки.
+   * @param words Проверяемые слова.
+   * @return Слова с ошибками.
+   */
+  public Set<String> getWordsWithErrors(String lang, Set<String> words) {
+    Set<String> wordsWithErrors = new HashSet<>();
+    Map<String, CompletableFuture<Boolean>> uncheckedWords = new HashMap<>();
+
+    for (String word : words) {
+      var hasError = checkedWordsStorage.get(lang, word);
+      if (hasError == null) {
+        uncheckedWords.put(word, getQueue(lang).enqueue(word));
+      } else if (hasError) {
+        wordsWithErrors.add(word);
+      }
+    }
+
+    if (uncheckedWords.isEmpty()) {
+      return wordsWithErrors;
+    }
+
+    // Пока очередь не пуста, текущий поток сам проверяет пакеты слов.
+    // Оставшиеся слова в этот момент проверяются другими потоками, их результат остается дождаться.
+    var queue = getQueue(lang);
+    while (!uncheckedWords.values().stream().allMatch(CompletableFuture::isDone) && queue.hasPendingWords()) {
+      queue.checkNextBatch();
+    }
+
+    uncheckedWords.forEach((String word, CompletableFuture<Boolean> hasError) -> {
+      if (Boolean.TRUE.equals(hasError.join())) {
+        wordsWithErrors.add(word);
+      }
+    });
+
+    return wordsWithErrors;
+  }
+
+  private LanguageQueue getQueue(String lang) {
+    return queues.computeIfAbsent(lang, (String key) -> {
+      var language = LANGUAGES.get(key);
+      if (language == null) {
+        throw new IllegalArgumentException("Unsupported language: " + key);
+      }
+      var size = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+      return new LanguageQueue(key, new JLanguageToolPool(language.get(), size));
+    });
+  }
+
+  private static Set<String> check(JLanguageTool languageTool, List<String> words) {
+    // Join with double \n to force LT make paragraph after each word.
+    // Otherwise results may be flaky cause of sort order of words in batch.
+    String text = String.join("\n\n", words);
+
+    List<RuleMatch> matches;
+    try {
+      matches = languageTool.check(text, true, JLanguageTool.ParagraphHandling.ONLYNONPARA);
+    } catch (IOException e) {
+      LOGGER.error(e.getMessage(), e);
+      return Collections.emptySet();
+    }
+
+    return matches.stream()
+      .map(ruleMatch -> ruleMatch.getSentence().getTokens()[1].getToken())
+      .collect(Collectors.toSet());
+  }
+
+  @RequiredArgsConstructor
+  private class LanguageQueue {
+    private final String lang;
+    private final JLanguageToolPool pool;
+    private final Queue<String> pendingWords = new ConcurrentLinkedQueue<>();
+    private final Map<String, CompletableFuture<Boolean>> wordsInProgress = new ConcurrentHashMap<>();
+
+    private CompletableFuture<Boolean> enqueue(String word) {
+      var future = new CompletableFuture<Boolean>();
+      var existingFuture = wordsInProgress.putIfAbsent(word, future);
+      if (existingFuture != null) {
+        return existingFuture;
+      }
+
+      // слово могло быть проверено между обращением к хранилищу и постановкой в очередь
+      var hasError = checkedWordsStorage.get(lang, word);
+      if (hasError != null) {
+        wordsInProgress.remove(word, future);
+        future.complete(hasError);
+        return future;
+      }
+
+      pendingWords.add(word);
+      return future;
+    }
+
+    private boolean hasPendingWords() {
+      return !pendingWords.isEmpty();
+    }
+
+    private void checkNextBatch() {
+      // пакет формируется после получения экземпляра из пула, чтобы захватить слова,
+      // поставленные в очередь другими потоками за время ожидания.
+      var languageTool = pool.checkOut();
+      List<String> batch = new ArrayList<>();
+      try {
+        while (batch.size() < MAX_BATCH_SIZE) {
+          var word = pendingWords.poll();
+          if (word == null) {
+            break;
+          }
+          batch.add(word);
+        }
+        if (batch.isEmpty()) {
+          return;
+        }
+
+        var wordsWithErrors = check(languageTool, batch);
+        batch.forEach((String word) -> {
+          var hasError = wordsWithErrors.contains(word);
+          checkedWordsStorage.put(lang, word, hasError);
+          complete(word, hasError);
+        });
+      } catch (RuntimeException e) {
+        // ожидающие результата потоки не должны зависнуть
+        batch.forEach(word -> complete(word, false));
+        throw e;
+      } finally {
+        pool.checkIn(languageTool);
+      }
+    }
+
+    private void complete(String word, boolean hasError) {
+      var future = wordsInProgress.remove(word);
+      if (future != null) {
+        future.complete(hasError);
+      }
+    }
+  }
+}
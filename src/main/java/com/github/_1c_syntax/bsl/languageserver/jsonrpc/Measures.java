@@ -0,0 +1,61 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.jsonrpc;
+
+import com.github._1c_syntax.bsl.languageserver.aop.measures.MeasureStatistics;
+import com.github._1c_syntax.bsl.languageserver.context.SecondaryDataBudget;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ответ на запрос <code>x-measures</code>.
+ * <br>
+ * См. {@link com.github._1c_syntax.bsl.languageserver.BSLLanguageServer#measures()}
+ */
+@Value
+public class Measures {
+
+  /**
+   * Пустой ответ. Возвращается, если подсистема замеров выключена.
+   */
+  public static final Measures EMPTY = new Measures(false, Collections.emptyList(), null);
+
+  /**
+   * Признак включенной подсистемы замеров (<code>app.measures.enabled</code>).
+   */
+  boolean enabled;
+
+  /**
+   * Статистика накопленных замеров. Длительности указаны в наносекундах.
+   */
+  List<MeasureStatistics> measures;
+
+  /**
+   * Показатели бюджета вторичных данных документов: загрузки вытесненного содержимого, вытеснения,
+   * количество и оценочный объем загруженных документов.
+   */
+  @Nullable
+  SecondaryDataBudget.Stats secondaryData;
+}
@@ -37,4 +37,13 @@ public interface ProtocolExtension {
   )
   CompletableFuture<Diagnostics> diagnostics(DiagnosticParams params);
 
+  /**
+   * @return Статистика замеров производительности сервера.
+   */
+  @JsonRequest(
+    value = "x-measures",
+    useSegment = false
+  )
+  CompletableFuture<Measures> measures();
+
 }
@@ -31,6 +31,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.function.Supplier;
 
 @Slf4j
@@ -43,7 +44,12 @@ public final class DiagnosticProvider {
   private final LanguageClientHolder clientHolder;
 
   public void computeAndPublishDiagnostics(DocumentContext documentContext) {
-    publishDiagnostics(documentContext, documentContext::getDiagnostics);
+    try {
+      publishDiagnostics(documentContext, documentContext::getDiagnostics);
+    } catch (CancellationException e) {
+      // документ изменился во время вычисления, диагностики будут опубликованы для новой версии
+      LOGGER.debug("Diagnostics computation was cancelled", e);
+    }
   }
 
   public void publishEmptyDiagnosticList(DocumentContext documentContext) {
@@ -21,86 +21,55 @@
  */
 package com.github._1c_syntax.bsl.languageserver.providers;
 
-import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
-import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
-import com.github._1c_syntax.bsl.languageserver.context.symbol.SourceDefinedSymbol;
-import com.github._1c_syntax.bsl.languageserver.context.symbol.Symbol;
-import com.github._1c_syntax.bsl.languageserver.context.symbol.VariableSymbol;
-import com.github._1c_syntax.bsl.languageserver.context.symbol.variable.VariableKind;
-import com.github._1c_syntax.utils.CaseInsensitivePattern;
+import com.github._1c_syntax.bsl.languageserver.context.WorkspaceSymbolIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.WorkspaceSymbol;
 import org.eclipse.lsp4j.WorkspaceSymbolParams;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.net.URI;
 import java.util.Collections;
-import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SymbolProvider {
 
-  private final ServerContext context;
+  private final WorkspaceSymbolIndex workspaceSymbolIndex;
 
-  private static final Set<VariableKind> supportedVariableKinds = EnumSet.of(
-    VariableKind.MODULE,
-    VariableKind.GLOBAL
-  );
+  /**
+   * Максимальное количество символов в ответе. Ноль - без ограничения.
+   */
+  @Value("${app.workspace-symbol.limit:0}")
+  private int limit;
 
   public List<? extends WorkspaceSymbol> getSymbols(WorkspaceSymbolParams params) {
     var queryString = Optional.ofNullable(params.getQuery())
       .orElse("");
 
-    Pattern pattern;
+    List<WorkspaceSymbolIndex.Entry> entries;
     try {
-      pattern = CaseInsensitivePattern.compile(queryString);
+      entries = workspaceSymbolIndex.find(queryString, limit);
     } catch (PatternSyntaxException e) {
       LOGGER.debug(e.getMessage(), e);
       return Collections.emptyList();
     }
 
-    return context.getDocuments().values().stream()
-      .flatMap(SymbolProvider::getSymbolPairs)
-      .filter(symbolPair -> queryString.isEmpty() || pattern.matcher(symbolPair.getValue().getName()).find())
+    return entries.stream()
       .map(SymbolProvider::createWorkspaceSymbol)
       .collect(Collectors.toList());
   }
 
-  private static Stream<Pair<URI, SourceDefinedSymbol>> getSymbolPairs(DocumentContext documentContext) {
-    return documentContext.getSymbolTree().getChildrenFlat().stream()
-      .filter(SymbolProvider::isSupported)
-      .map(symbol -> Pair.of(documentContext.getUri(), symbol));
-  }
-
-  private static boolean isSupported(Symbol symbol) {
-    var symbolKind = symbol.getSymbolKind();
-    switch (symbolKind) {
-      case Method:
-        return true;
-      case Variable:
-        return supportedVariableKinds.contains(((VariableSymbol) symbol).getKind());
-      default:
-        return false;
-    }
-  }
-
-  private static WorkspaceSymbol createWorkspaceSymbol(Pair<URI, SourceDefinedSymbol> symbolPair) {
-    var uri = symbolPair.getKey();
-    var symbol = symbolPair.getValue();
-    var location = new Location(uri.toString(), symbol.getRange());
+  private static WorkspaceSymbol createWorkspaceSymbol(WorkspaceSymbolIndex.Entry entry) {
+    var symbol = entry.getSymbol();
+    var location = new Location(entry.getUri().toString(), symbol.getRange());
 
     var workspaceSymbol = new WorkspaceSymbol();
     workspaceSymbol.setName(symbol.getName());
@@ -21,7 +21,11 @@
  */
 package com.github._1c_syntax.bsl.languageserver.recognizer;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+
 public abstract class AbstractDetector {
+  @Getter(AccessLevel.PACKAGE)
   private final double probability;
 
   public AbstractDetector(double probability) {
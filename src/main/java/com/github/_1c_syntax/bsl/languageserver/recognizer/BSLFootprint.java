@@ -26,6 +26,11 @@ import java.util.Set;
 
 public class BSLFootprint implements LanguageFootprint {
 
+  /**
+   * Общий для всех диагностик скомпилированный набор детекторов, в том числе кэш оценок строк.
+   */
+  private static final CompiledFootprint COMPILED_FOOTPRINT = new BSLFootprint().compileDetectors();
+
   private final Set<AbstractDetector> detectors = new HashSet<>();
 
   public BSLFootprint() {
@@ -66,4 +71,13 @@ public class BSLFootprint implements LanguageFootprint {
     return new HashSet<>(detectors);
   }
 
+  @Override
+  public CompiledFootprint compile() {
+    return COMPILED_FOOTPRINT;
+  }
+
+  private CompiledFootprint compileDetectors() {
+    return new CompiledFootprint(detectors);
+  }
+
 }
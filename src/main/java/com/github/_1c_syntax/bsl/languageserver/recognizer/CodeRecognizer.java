@@ -22,20 +22,16 @@
 package com.github._1c_syntax.bsl.languageserver.recognizer;
 
 public class CodeRecognizer {
-  private final LanguageFootprint language;
+  private final CompiledFootprint language;
   private final double threshold;
 
   public CodeRecognizer(double threshold, LanguageFootprint language) {
-    this.language = language;
+    this.language = language.compile();
     this.threshold = threshold;
   }
 
   private double recognition(String line) {
-    double probability = 0;
-    for (AbstractDetector pattern : language.getDetectors()) {
-      probability = 1 - (1 - probability) * (1 - pattern.detect(line));
-    }
-    return probability;
+    return language.recognition(line);
   }
 
   public final boolean meetsCondition(String line) {
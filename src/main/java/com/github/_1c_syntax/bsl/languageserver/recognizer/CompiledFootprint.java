@@ -0,0 +1,329 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.recognizer;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Скомпилированный набор детекторов языка.
+ * <p>
+ * Слова всех {@link ContainsDetector} объединяются в автомат Ахо-Корасик, ключевые слова всех
+ * {@link KeywordsDetector} - в хэш-таблицу с открытой адресацией. Строка оценивается за один проход без выделения
+ * памяти: каждое совпадение домножает вероятность того, что строка не является кодом, на {@code 1 - p}
+ * соответствующего детектора. Результат совпадает с последовательным вызовом всех детекторов.
+ * <p>
+ * Прочие детекторы вызываются как есть. Результаты оценки запоминаются для одинаковых строк.
+ */
+public final class CompiledFootprint {
+
+  private static final int MEMO_CAPACITY = 100_000;
+
+  private final ContainsAutomaton containsAutomaton;
+  private final KeywordTable keywordTable;
+  private final AbstractDetector[] otherDetectors;
+  private final Map<String, Double> memo = new ConcurrentHashMap<>();
+
+  public CompiledFootprint(Collection<AbstractDetector> detectors) {
+    var searchWords = new LinkedHashMap<String, Double>();
+    var selfOverlappingWords = new LinkedHashMap<String, Double>();
+    var keywords = new HashMap<String, Double>();
+    var others = new ArrayList<AbstractDetector>();
+
+    for (AbstractDetector detector : detectors) {
+      var factor = 1 - detector.getProbability();
+      if (detector.getClass() == ContainsDetector.class) {
+        for (String word : ((ContainsDetector) detector).getSearchWords()) {
+          if (word.isEmpty()) {
+            continue;
+          }
+          // вхождения слова с совпадающими префиксом и суффиксом могут пересекаться, а
+          // StringUtils.countMatches считает только непересекающиеся - такие слова считаются отдельно
+          var target = hasBorder(word) ? selfOverlappingWords : searchWords;
+          target.merge(word, factor, (Double left, Double right) -> left * right);
+        }
+      } else if (detector.getClass() == KeywordsDetector.class) {
+        // KeywordsDetector учитывает слово один раз, даже если оно указано в списке несколько раз
+        ((KeywordsDetector) detector).getKeywords().stream()
+          .distinct()
+          .forEach(keyword -> keywords.merge(keyword, factor, (Double left, Double right) -> left * right));
+      } else {
+        others.add(detector);
+      }
+    }
+
+    containsAutomaton = new ContainsAutomaton(searchWords, selfOverlappingWords);
+    keywordTable = new KeywordTable(keywords);
+    otherDetectors = others.toArray(new AbstractDetector[0]);
+  }
+
+  /**
+   * @param line Строка текста.
+   * @return Вероятность того, что строка является кодом.
+   */
+  public double recognition(String line) {
+    var cached = memo.get(line);
+    if (cached != null) {
+      return cached;
+    }
+
+    var probability = compute(line);
+    if (memo.size() >= MEMO_CAPACITY) {
+      memo.clear();
+    }
+    memo.put(line, probability);
+    return probability;
+  }
+
+  double compute(String line) {
+    // вероятность того, что строка не является кодом
+    double remaining = 1;
+
+    var state = ContainsAutomaton.ROOT;
+    var tokenStart = -1;
+    var tokenHash = 0;
+    var length = line.length();
+    for (var i = 0; i < length; i++) {
+      var character = line.charAt(i);
+
+      if (isKeywordDelimiter(character)) {
+        if (tokenStart >= 0) {
+          remaining *= keywordTable.getFactor(line, tokenStart, i, tokenHash);
+          tokenStart = -1;
+        }
+      } else {
+        if (tokenStart < 0) {
+          tokenStart = i;
+          tokenHash = 0;
+        }
+        tokenHash = 31 * tokenHash + character;
+      }
+
+      if (!Character.isWhitespace(character)) {
+        state = containsAutomaton.next(state, character);
+        remaining *= containsAutomaton.getFactor(state);
+      }
+    }
+    if (tokenStart >= 0) {
+      remaining *= keywordTable.getFactor(line, tokenStart, length, tokenHash);
+    }
+
+    remaining *= containsAutomaton.getSelfOverlappingFactor(line);
+
+    for (AbstractDetector detector : otherDetectors) {
+      remaining *= 1 - detector.detect(line);
+    }
+
+    return 1 - remaining;
+  }
+
+  private static boolean isKeywordDelimiter(char character) {
+    return character == ' ' || character == '\t' || character == '\n';
+  }
+
+  private static boolean hasBorder(String word) {
+    for (var length = 1; length < word.length(); length++) {
+      if (word.regionMatches(0, word, word.length() - length, length)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Автомат Ахо-Корасик по словам {@link ContainsDetector}.
+   * <p>
+   * Переходы узла хранятся в отсортированном массиве символов, множитель узла учитывает все слова,
+   * оканчивающиеся в нем, в том числе по цепочке суффиксных ссылок.
+   */
+  private static final class ContainsAutomaton {
+
+    private static final int ROOT = 0;
+    private static final char[] NO_LABELS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failures;
+    private final double[] factors;
+
+    private final String[] selfOverlappingWords;
+    private final double[] selfOverlappingFactors;
+
+    private ContainsAutomaton(Map<String, Double> words, Map<String, Double> selfOverlapping) {
+      List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+      List<Double> ownFactors = new ArrayList<>();
+      edges.add(new TreeMap<>());
+      ownFactors.add(1.0);
+
+      words.forEach((String word, Double factor) -> {
+        var node = ROOT;
+        for (var i = 0; i < word.length(); i++) {
+          var next = edges.get(node).get(word.charAt(i));
+          if (next == null) {
+            next = edges.size();
+            edges.get(node).put(word.charAt(i), next);
+            edges.add(new TreeMap<>());
+            ownFactors.add(1.0);
+          }
+          node = next;
+        }
+        ownFactors.set(node, ownFactors.get(node) * factor);
+      });
+
+      var size = edges.size();
+      labels = new char[size][];
+      targets = new int[size][];
+      failures = new int[size];
+      factors = new double[size];
+
+      for (var node = 0; node < size; node++) {
+        var nodeEdges = edges.get(node);
+        if (nodeEdges.isEmpty()) {
+          labels[node] = NO_LABELS;
+          targets[node] = NO_TARGETS;
+          continue;
+        }
+        labels[node] = new char[nodeEdges.size()];
+        targets[node] = new int[nodeEdges.size()];
+        var index = 0;
+        for (Map.Entry<Character, Integer> edge : nodeEdges.entrySet()) {
+          labels[node][index] = edge.getKey();
+          targets[node][index] = edge.getValue();
+          index++;
+        }
+      }
+
+      // обход в ширину: суффиксная ссылка узла вычисляется после ссылок всех более коротких узлов
+      factors[ROOT] = 1;
+      var queue = new ArrayDeque<Integer>();
+      for (int child : targets[ROOT]) {
+        failures[child] = ROOT;
+        queue.add(child);
+      }
+      while (!queue.isEmpty()) {
+        int node = queue.poll();
+        factors[node] = ownFactors.get(node) * factors[failures[node]];
+        for (var i = 0; i < labels[node].length; i++) {
+          var child = targets[node][i];
+          failures[child] = next(failures[node], labels[node][i]);
+          queue.add(child);
+        }
+      }
+
+      selfOverlappingWords = selfOverlapping.keySet().toArray(new String[0]);
+      selfOverlappingFactors = selfOverlapping.values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private int next(int state, char character) {
+      var current = state;
+      while (true) {
+        var index = Arrays.binarySearch(labels[current], character);
+        if (index >= 0) {
+          return targets[current][index];
+        }
+        if (current == ROOT) {
+          return ROOT;
+        }
+        current = failures[current];
+      }
+    }
+
+    private double getFactor(int state) {
+      return factors[state];
+    }
+
+    private double getSelfOverlappingFactor(String line) {
+      if (selfOverlappingWords.length == 0) {
+        return 1;
+      }
+      var lineWithoutWhitespaces = StringUtils.deleteWhitespace(line);
+      double factor = 1;
+      for (var i = 0; i < selfOverlappingWords.length; i++) {
+        var matches = StringUtils.countMatches(lineWithoutWhitespaces, selfOverlappingWords[i]);
+        factor *= Math.pow(selfOverlappingFactors[i], matches);
+      }
+      return factor;
+    }
+  }
+
+  /**
+   * Хэш-таблица ключевых слов {@link KeywordsDetector} с открытой адресацией.
+   * <p>
+   * Поиск выполняется по фрагменту строки и хэшу, вычисленному при проходе, без создания подстроки.
+   */
+  private static final class KeywordTable {
+
+    private final String[] keywords;
+    private final int[] hashes;
+    private final double[] factors;
+    private final int mask;
+
+    private KeywordTable(Map<String, Double> keywordFactors) {
+      var capacity = Integer.highestOneBit(Math.max(keywordFactors.size(), 1) * 4);
+      keywords = new String[capacity];
+      hashes = new int[capacity];
+      factors = new double[capacity];
+      mask = capacity - 1;
+
+      keywordFactors.forEach((String keyword, Double factor) -> {
+        var hash = keyword.hashCode();
+        var index = spread(hash) & mask;
+        while (keywords[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keywords[index] = keyword;
+        hashes[index] = hash;
+        factors[index] = factor;
+      });
+    }
+
+    private double getFactor(String line, int start, int end, int hash) {
+      var length = end - start;
+      var index = spread(hash) & mask;
+      while (keywords[index] != null) {
+        var keyword = keywords[index];
+        if (hashes[index] == hash
+          && keyword.length() == length
+          && line.regionMatches(start, keyword, 0, length)) {
+          return factors[index];
+        }
+        index = (index + 1) & mask;
+      }
+      return 1;
+    }
+
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
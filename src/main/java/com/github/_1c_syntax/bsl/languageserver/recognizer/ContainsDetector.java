@@ -21,6 +21,8 @@
  */
 package com.github._1c_syntax.bsl.languageserver.recognizer;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
@@ -28,6 +30,7 @@ import java.util.List;
 
 public class ContainsDetector extends AbstractDetector {
 
+  @Getter(AccessLevel.PACKAGE)
   private final List<String> searchWords;
 
   public ContainsDetector(double probability, String... searchWords) {
@@ -21,12 +21,16 @@
  */
 package com.github._1c_syntax.bsl.languageserver.recognizer;
 
+import lombok.AccessLevel;
+import lombok.Getter;
+
 import java.util.Arrays;
 import java.util.List;
 import java.util.StringTokenizer;
 
 public class KeywordsDetector extends AbstractDetector {
 
+  @Getter(AccessLevel.PACKAGE)
   private final List<String> keywords;
 
   public KeywordsDetector(double probability, String... keywords) {
@@ -25,4 +25,11 @@ import java.util.Set;
 
 public interface LanguageFootprint {
   Set<AbstractDetector> getDetectors();
+
+  /**
+   * @return Скомпилированный набор детекторов языка для однопроходной оценки строк.
+   */
+  default CompiledFootprint compile() {
+    return new CompiledFootprint(getDetectors());
+  }
 }
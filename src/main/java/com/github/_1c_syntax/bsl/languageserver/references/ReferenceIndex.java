@@ -27,27 +27,33 @@ import com.github._1c_syntax.bsl.languageserver.context.symbol.Exportable;
 import com.github._1c_syntax.bsl.languageserver.context.symbol.SourceDefinedSymbol;
 import com.github._1c_syntax.bsl.languageserver.context.symbol.SymbolTree;
 import com.github._1c_syntax.bsl.languageserver.references.model.Location;
-import com.github._1c_syntax.bsl.languageserver.references.model.LocationRepository;
 import com.github._1c_syntax.bsl.languageserver.references.model.OccurrenceType;
 import com.github._1c_syntax.bsl.languageserver.references.model.Reference;
 import com.github._1c_syntax.bsl.languageserver.references.model.Symbol;
 import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrence;
-import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrenceRepository;
+import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrenceStorage;
 import com.github._1c_syntax.bsl.languageserver.utils.MdoRefBuilder;
-import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import com.github._1c_syntax.bsl.languageserver.utils.RangeIndex;
 import com.github._1c_syntax.bsl.types.ModuleType;
 import com.github._1c_syntax.utils.StringInterner;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.SymbolKind;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Component
@@ -57,8 +63,20 @@ public class ReferenceIndex {
   private final ServerContext serverContext;
   private final StringInterner stringInterner;
 
-  private final LocationRepository locationRepository;
-  private final SymbolOccurrenceRepository symbolOccurrenceRepository;
+  private final SymbolOccurrenceStorage symbolOccurrenceStorage;
+
+  /**
+   * Версии обращений к символам в разрезе документов. После каждого изменения обращений документа
+   * ему присваивается новое значение общего счетчика, поэтому версия не повторяется и после удаления
+   * записи при очистке ссылок документа.
+   */
+  private final Map<URI, Long> occurrencesVersions = new ConcurrentHashMap<>();
+  private final AtomicLong occurrencesVersionCounter = new AtomicLong();
+
+  /**
+   * Построенные индексы обращений документов по позиции вместе с версией, по которой они построены.
+   */
+  private final Map<URI, OccurrencesByPosition> occurrencesByPosition = new ConcurrentHashMap<>();
 
   /**
    * Получить ссылки на символ.
@@ -87,8 +105,7 @@ public class ReferenceIndex {
       .symbolName(symbolName)
       .build();
 
-    return symbolOccurrenceRepository.getAllBySymbol(symbolDto)
-      .stream()
+    return symbolOccurrenceStorage.getAllBySymbol(symbolDto)
       .map(this::buildReference)
       .flatMap(Optional::stream)
       .collect(Collectors.toList());
@@ -102,9 +119,8 @@ public class ReferenceIndex {
    * @return данные ссылки.
    */
   public Optional<Reference> getReference(URI uri, Position position) {
-    return locationRepository.getSymbolOccurrencesByLocationUri(uri)
-      .filter(symbolOccurrence -> Ranges.containsPosition(symbolOccurrence.getLocation().getRange(), position))
-      .findAny()
+    return getOccurrencesByPosition(uri)
+      .findFirstContaining(position)
       .flatMap(this::buildReference);
   }
 
@@ -116,7 +132,7 @@ public class ReferenceIndex {
    */
   public List<Reference> getReferencesFrom(URI uri) {
 
-    return locationRepository.getSymbolOccurrencesByLocationUri(uri)
+    return symbolOccurrenceStorage.getAllByLocationUri(uri)
       .map(this::buildReference)
       .flatMap(Optional::stream)
       .collect(Collectors.toList());
@@ -130,7 +146,7 @@ public class ReferenceIndex {
    */
   public List<Reference> getReferencesFrom(URI uri, SymbolKind kind) {
 
-    return locationRepository.getSymbolOccurrencesByLocationUri(uri)
+    return symbolOccurrenceStorage.getAllByLocationUri(uri)
       .filter(s -> s.getSymbol().getSymbolKind() == kind)
       .map(this::buildReference)
       .flatMap(Optional::stream)
@@ -149,15 +165,34 @@ public class ReferenceIndex {
       .collect(Collectors.toList());
   }
 
+  /**
+   * Поиск документов, обращающихся к символам указанных модулей.
+   * <p>
+   * Используется для определения модулей, результаты анализа которых могут измениться
+   * при изменении указанных модулей (например, вызывающих экспортные методы общего модуля).
+   *
+   * @param documentContexts Модули, обращения к символам которых нужно найти.
+   * @return URI документов, в которых есть обращения к символам указанных модулей.
+   */
+  public Set<URI> getReferencingDocuments(Collection<DocumentContext> documentContexts) {
+    return documentContexts.stream()
+      .flatMap(documentContext -> symbolOccurrenceStorage.getAllByModule(
+        MdoRefBuilder.getMdoRef(documentContext),
+        documentContext.getModuleType()
+      ))
+      .map(symbolOccurrence -> symbolOccurrence.getLocation().getUri())
+      .collect(Collectors.toSet());
+  }
+
   /**
    * Очистить ссылки из/на текущий документ.
    *
    * @param uri URI документа.
    */
   public void clearReferences(URI uri) {
-    var symbolOccurrences = locationRepository.getSymbolOccurrencesByLocationUri(uri);
-    symbolOccurrenceRepository.deleteAll(symbolOccurrences.collect(Collectors.toSet()));
-    locationRepository.delete(uri);
+    symbolOccurrenceStorage.deleteAll(uri);
+    occurrencesVersions.remove(uri);
+    occurrencesByPosition.remove(uri);
   }
 
   /**
@@ -170,26 +205,8 @@ public class ReferenceIndex {
    * @param range      Диапазон, в котором происходит обращение к символу.
    */
   public void addMethodCall(URI uri, String mdoRef, ModuleType moduleType, String symbolName, Range range) {
-    String symbolNameCanonical = stringInterner.intern(symbolName.toLowerCase(Locale.ENGLISH));
-
-    var symbol = Symbol.builder()
-      .mdoRef(mdoRef)
-      .moduleType(moduleType)
-      .scopeName("")
-      .symbolKind(SymbolKind.Method)
-      .symbolName(symbolNameCanonical)
-      .build()
-      .intern();
-
-    var location = new Location(uri, range);
-    var symbolOccurrence = SymbolOccurrence.builder()
-      .occurrenceType(OccurrenceType.REFERENCE)
-      .symbol(symbol)
-      .location(location)
-      .build();
-
-    symbolOccurrenceRepository.save(symbolOccurrence);
-    locationRepository.updateLocation(symbolOccurrence);
+    symbolOccurrenceStorage.save(createMethodCall(uri, mdoRef, moduleType, symbolName, range));
+    invalidateOccurrencesByPosition(uri);
   }
 
   /**
@@ -210,6 +227,61 @@ public class ReferenceIndex {
                                String variableName,
                                Range range,
                                boolean definition) {
+    symbolOccurrenceStorage.save(
+      createVariableUsage(uri, mdoRef, moduleType, methodName, variableName, range, definition)
+    );
+    invalidateOccurrencesByPosition(uri);
+  }
+
+  /**
+   * Начать замену обращений из документа.
+   * <p>
+   * Обращения, добавленные в полученное обновление, заменяют прежние обращения документа
+   * при вызове {@link ReferencesUpdate#commit()}. Хранилища, поддерживающие атомарную замену,
+   * не показывают читателям документ с частично заполненными обращениями.
+   *
+   * @param uri URI документа.
+   * @return Обновление обращений документа.
+   */
+  public ReferencesUpdate startUpdate(URI uri) {
+    return new ReferencesUpdate(uri);
+  }
+
+  private SymbolOccurrence createMethodCall(
+    URI uri,
+    String mdoRef,
+    ModuleType moduleType,
+    String symbolName,
+    Range range
+  ) {
+    String symbolNameCanonical = stringInterner.intern(symbolName.toLowerCase(Locale.ENGLISH));
+
+    var symbol = Symbol.builder()
+      .mdoRef(mdoRef)
+      .moduleType(moduleType)
+      .scopeName("")
+      .symbolKind(SymbolKind.Method)
+      .symbolName(symbolNameCanonical)
+      .build()
+      .intern();
+
+    var location = new Location(uri, range);
+    return SymbolOccurrence.builder()
+      .occurrenceType(OccurrenceType.REFERENCE)
+      .symbol(symbol)
+      .location(location)
+      .build();
+  }
+
+  private SymbolOccurrence createVariableUsage(
+    URI uri,
+    String mdoRef,
+    ModuleType moduleType,
+    String methodName,
+    String variableName,
+    Range range,
+    boolean definition
+  ) {
     String methodNameCanonical = stringInterner.intern(methodName.toLowerCase(Locale.ENGLISH));
     String variableNameCanonical = stringInterner.intern(variableName.toLowerCase(Locale.ENGLISH));
 
@@ -223,15 +295,11 @@ public class ReferenceIndex {
       .intern();
 
     var location = new Location(uri, range);
-
-    var symbolOccurrence = SymbolOccurrence.builder()
+    return SymbolOccurrence.builder()
       .occurrenceType(definition ? OccurrenceType.DEFINITION : OccurrenceType.REFERENCE)
       .symbol(symbol)
       .location(location)
       .build();
-
-    symbolOccurrenceRepository.save(symbolOccurrence);
-    locationRepository.updateLocation(symbolOccurrence);
   }
 
   private Optional<Reference> buildReference(
@@ -276,16 +344,32 @@ public class ReferenceIndex {
     Optional<SymbolTree> symbolTree = Optional.ofNullable(serverContext.getDocument(uri))
       .map(DocumentContext::getSymbolTree);
     return symbolTree
-      .map(SymbolTree::getChildrenFlat)
-      .stream()
-      .flatMap(Collection::stream)
-      .filter(sourceDefinedSymbol -> sourceDefinedSymbol.getSymbolKind() != SymbolKind.Namespace)
-      .filter(symbol -> Ranges.containsPosition(symbol.getRange(), position))
-      .findFirst()
+      .flatMap(tree -> tree.getSymbolAt(position))
       .or(() -> symbolTree.map(SymbolTree::getModule))
       .orElseThrow();
   }
 
+  private RangeIndex<SymbolOccurrence> getOccurrencesByPosition(URI uri) {
+    // версия читается до чтения обращений: индекс, построенный по данным новее версии, будет перестроен повторно
+    long version = occurrencesVersions.getOrDefault(uri, 0L);
+    var cached = occurrencesByPosition.get(uri);
+    if (cached != null && cached.getVersion() == version) {
+      return cached.getIndex();
+    }
+
+    var occurrences = symbolOccurrenceStorage.getAllByLocationUri(uri).collect(Collectors.toList());
+    var index = RangeIndex.create(occurrences, (SymbolOccurrence occurrence) -> occurrence.getLocation().getRange());
+    // у документа без версии нет обращений: такой индекс не кэшируется, чтобы не хранить записи удаленных документов
+    if (version != 0L) {
+      occurrencesByPosition.put(uri, new OccurrencesByPosition(version, index));
+    }
+    return index;
+  }
+
+  private void invalidateOccurrencesByPosition(URI uri) {
+    occurrencesVersions.put(uri, occurrencesVersionCounter.incrementAndGet());
+  }
+
   private static boolean isReferenceAccessible(Reference reference) {
     if (!reference.isSourceDefinedSymbolReference()) {
       return true;
@@ -304,4 +388,55 @@ public class ReferenceIndex {
     return true;
   }
 
+  /**
+   * Накапливаемая замена обращений из документа.
+   *
+   * @see #startUpdate(URI)
+   */
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  public final class ReferencesUpdate {
+
+    private final URI uri;
+    private final List<SymbolOccurrence> symbolOccurrences = new ArrayList<>();
+
+    /**
+     * Добавить вызов метода.
+     *
+     * @see ReferenceIndex#addMethodCall(URI, String, ModuleType, String, Range)
+     */
+    public void addMethodCall(String mdoRef, ModuleType moduleType, String symbolName, Range range) {
+      symbolOccurrences.add(createMethodCall(uri, mdoRef, moduleType, symbolName, range));
+    }
+
+    /**
+     * Добавить обращение к переменной.
+     *
+     * @see ReferenceIndex#addVariableUsage(URI, String, ModuleType, String, String, Range, boolean)
+     */
+    public void addVariableUsage(String mdoRef,
+                                 ModuleType moduleType,
+                                 String methodName,
+                                 String variableName,
+                                 Range range,
+                                 boolean definition) {
+      symbolOccurrences.add(
+        createVariableUsage(uri, mdoRef, moduleType, methodName, variableName, range, definition)
+      );
+    }
+
+    /**
+     * Заменить прежние обращения документа накопленными.
+     */
+    public void commit() {
+      symbolOccurrenceStorage.replaceAll(uri, symbolOccurrences);
+      occurrencesByPosition.remove(uri);
+      invalidateOccurrencesByPosition(uri);
+    }
+  }
+
+  @Value
+  private static class OccurrencesByPosition {
+    long version;
+    RangeIndex<SymbolOccurrence> index;
+  }
 }
@@ -78,16 +78,20 @@ public class ReferenceIndexFiller {
   }
 
   public void fill(DocumentContext documentContext) {
-    index.clearReferences(documentContext.getUri());
+    // обращения документа накапливаются и заменяются одной операцией,
+    // чтобы параллельные читатели индекса не видели документ с частью обращений.
+    var update = index.startUpdate(documentContext.getUri());
     BSLParser.FileContext documentContextAst = documentContext.getAst();
-    new MethodSymbolReferenceIndexFinder(documentContext).visitFile(documentContextAst);
-    new VariableSymbolReferenceIndexFinder(documentContext).visitFile(documentContextAst);
+    new MethodSymbolReferenceIndexFinder(documentContext, update).visitFile(documentContextAst);
+    new VariableSymbolReferenceIndexFinder(documentContext, update).visitFile(documentContextAst);
+    update.commit();
   }
 
   @RequiredArgsConstructor
   private class MethodSymbolReferenceIndexFinder extends BSLParserBaseVisitor<BSLParserRuleContext> {
 
     private final DocumentContext documentContext;
+    private final ReferenceIndex.ReferencesUpdate update;
     private Set<String> commonModuleMdoRefFromSubParams = Collections.emptySet();
 
     @Override
@@ -192,7 +196,7 @@ public class ReferenceIndexFiller {
 
     private void checkCall(String mdoRef, Token methodName) {
       var methodNameText = Strings.trimQuotes(methodName.getText());
-      final var configuration = documentContext.getServerContext().getConfiguration();
+      final var configuration = documentContext.getServerContext().getConfigurationSnapshot();
       Map<ModuleType, URI> modules = configuration.getModulesByMDORef(mdoRef);
       for (ModuleType moduleType : modules.keySet()) {
         if (!DEFAULT_MODULE_TYPES.contains(moduleType)
@@ -204,7 +208,7 @@ public class ReferenceIndexFiller {
     }
 
     private void addMethodCall(String mdoRef, ModuleType moduleType, String methodName, Range range) {
-      index.addMethodCall(documentContext.getUri(), mdoRef, moduleType, methodName, range);
+      update.addMethodCall(mdoRef, moduleType, methodName, range);
     }
 
     private void addCallbackMethodCall(BSLParser.CallParamContext methodName, String mdoRef) {
@@ -244,15 +248,13 @@ public class ReferenceIndexFiller {
       if (paramList == null) {
         return Collections.emptySet();
       }
-      final var configuration = documentContext.getServerContext().getConfiguration();
+      final var configuration = documentContext.getServerContext().getConfigurationSnapshot();
       return paramList.param().stream()
         .map(BSLParser.ParamContext::IDENTIFIER)
         .filter(Objects::nonNull)
         .map(ParseTree::getText)
-        .map(configuration::getCommonModule)
-        .filter(Optional::isPresent)
+        .map(configuration::getCommonModuleMdoRef)
         .flatMap(Optional::stream)
-        .map(mdCommonModule -> mdCommonModule.getMdoReference().getMdoRef())
         .collect(Collectors.toSet());
     }
   }
@@ -261,6 +263,7 @@ public class ReferenceIndexFiller {
   private class VariableSymbolReferenceIndexFinder extends BSLParserBaseVisitor<BSLParserRuleContext> {
 
     private final DocumentContext documentContext;
+    private final ReferenceIndex.ReferencesUpdate update;
     private SourceDefinedSymbol currentScope;
 
     @Override
@@ -417,8 +420,7 @@ public class ReferenceIndexFiller {
         methodName = methodSymbol.get().getName();
       }
 
-      index.addVariableUsage(
-        documentContext.getUri(),
+      update.addVariableUsage(
         MdoRefBuilder.getMdoRef(documentContext),
         documentContext.getModuleType(),
         methodName,
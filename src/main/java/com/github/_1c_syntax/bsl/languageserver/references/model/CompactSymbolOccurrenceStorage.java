@@ -0,0 +1,319 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.references.model;
+
+import com.github._1c_syntax.bsl.types.ModuleType;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Компактное хранилище обращений к символам.
+ * <p>
+ * Символы и URI заменяются целочисленными идентификаторами, обращения документа хранятся
+ * в сегменте - массиве {@code int} по {@value #STRIDE} элементов на обращение
+ * (символ, тип обращения, диапазон). Для поиска по символу хранится только множество
+ * идентификаторов документов, в которых символ встречается, поэтому поиск просматривает
+ * лишь сегменты этих документов. Идентификаторы не освобождаются: их количество ограничено
+ * числом различных символов и документов рабочей области.
+ * <p>
+ * Сегмент неизменяем для читателей: изменение обращений документа публикует новый сегмент одной заменой,
+ * и читатели видят либо прежние, либо новые обращения документа целиком. Добавление обращения
+ * дописывает его в свободный хвост массива сегмента и публикует сегмент большего размера,
+ * поэтому заполнение документа по одному обращению выполняется за амортизированное O(1) на обращение.
+ * Объекты {@link SymbolOccurrence} создаются только при чтении.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.references", name = "storage", havingValue = "compact")
+public class CompactSymbolOccurrenceStorage implements SymbolOccurrenceStorage {
+
+  static final int STRIDE = 6;
+
+  private static final int SYMBOL = 0;
+  private static final int OCCURRENCE_TYPE = 1;
+  private static final int START_LINE = 2;
+  private static final int START_CHARACTER = 3;
+  private static final int END_LINE = 4;
+  private static final int END_CHARACTER = 5;
+
+  private static final int INITIAL_CAPACITY = STRIDE * 16;
+
+  private static final OccurrenceType[] OCCURRENCE_TYPES = OccurrenceType.values();
+
+  private final IdRegistry<URI> uris = new IdRegistry<>();
+  private final IdRegistry<Symbol> symbols = new IdRegistry<>();
+
+  /**
+   * Сегменты обращений в разрезе идентификаторов документов.
+   */
+  private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+
+  /**
+   * Идентификаторы документов, в которых встречается символ, в разрезе идентификаторов символов.
+   * Изменяются только под блокировкой сегмента документа в {@link #segments}.
+   */
+  private final Map<Integer, Set<Integer>> documentsBySymbol = new ConcurrentHashMap<>();
+
+  @Override
+  public void save(SymbolOccurrence symbolOccurrence) {
+    int uriId = uris.register(symbolOccurrence.getLocation().getUri());
+    int symbolId = symbols.register(symbolOccurrence.getSymbol());
+
+    segments.compute(uriId, (Integer id, Segment segment) -> {
+      var base = segment == null ? Segment.EMPTY : segment;
+      documentsBySymbol.computeIfAbsent(symbolId, key -> ConcurrentHashMap.newKeySet()).add(uriId);
+      return base.append(symbolId, symbolOccurrence);
+    });
+  }
+
+  @Override
+  public void replaceAll(URI uri, Collection<SymbolOccurrence> symbolOccurrences) {
+    if (symbolOccurrences.isEmpty()) {
+      deleteAll(uri);
+      return;
+    }
+
+    int uriId = uris.register(uri);
+    var data = new int[symbolOccurrences.size() * STRIDE];
+    var offset = 0;
+    for (var symbolOccurrence : symbolOccurrences) {
+      write(data, offset, symbols.register(symbolOccurrence.getSymbol()), symbolOccurrence);
+      offset += STRIDE;
+    }
+    var newSegment = new Segment(data, data.length);
+
+    segments.compute(uriId, (Integer id, Segment segment) -> {
+      updateDocumentsBySymbol(uriId, segment, newSegment);
+      return newSegment;
+    });
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllBySymbol(Symbol symbol) {
+    int symbolId = symbols.find(symbol);
+    if (symbolId < 0) {
+      return Stream.empty();
+    }
+
+    List<SymbolOccurrence> result = new ArrayList<>();
+    collectOccurrences(symbolId, result);
+    result.sort(null);
+    return result.stream();
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllByModule(String mdoRef, ModuleType moduleType) {
+    List<SymbolOccurrence> result = new ArrayList<>();
+    documentsBySymbol.keySet().forEach((Integer symbolId) -> {
+      var symbol = symbols.get(symbolId);
+      if (symbol.getModuleType() == moduleType && symbol.getMdoRef().equals(mdoRef)) {
+        collectOccurrences(symbolId, result);
+      }
+    });
+    return result.stream();
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllByLocationUri(URI uri) {
+    int uriId = uris.find(uri);
+    if (uriId < 0) {
+      return Stream.empty();
+    }
+
+    var segment = segments.get(uriId);
+    if (segment == null) {
+      return Stream.empty();
+    }
+
+    List<SymbolOccurrence> result = new ArrayList<>(segment.size / STRIDE);
+    for (var offset = 0; offset < segment.size; offset += STRIDE) {
+      result.add(createSymbolOccurrence(uri, segment.data, offset));
+    }
+    return result.stream();
+  }
+
+  @Override
+  public void deleteAll(URI uri) {
+    int uriId = uris.find(uri);
+    if (uriId < 0) {
+      return;
+    }
+
+    segments.computeIfPresent(uriId, (Integer id, Segment segment) -> {
+      updateDocumentsBySymbol(uriId, segment, null);
+      return null;
+    });
+  }
+
+  private void collectOccurrences(int symbolId, List<SymbolOccurrence> result) {
+    var documents = documentsBySymbol.get(symbolId);
+    if (documents == null) {
+      return;
+    }
+
+    for (int uriId : documents) {
+      var segment = segments.get(uriId);
+      if (segment == null) {
+        continue;
+      }
+      var uri = uris.get(uriId);
+      var data = segment.data;
+      for (var offset = 0; offset < segment.size; offset += STRIDE) {
+        if (data[offset + SYMBOL] == symbolId) {
+          result.add(createSymbolOccurrence(uri, data, offset));
+        }
+      }
+    }
+  }
+
+  private void updateDocumentsBySymbol(int uriId, @Nullable Segment oldSegment, @Nullable Segment newSegment) {
+    var newSymbolIds = symbolIdsOf(newSegment);
+    newSymbolIds.stream().forEach((int symbolId) ->
+      documentsBySymbol.computeIfAbsent(symbolId, key -> ConcurrentHashMap.newKeySet()).add(uriId)
+    );
+
+    var staleSymbolIds = symbolIdsOf(oldSegment);
+    staleSymbolIds.andNot(newSymbolIds);
+    staleSymbolIds.stream().forEach((int symbolId) ->
+      documentsBySymbol.computeIfPresent(symbolId, (Integer key, Set<Integer> documents) -> {
+        documents.remove(uriId);
+        return documents.isEmpty() ? null : documents;
+      })
+    );
+  }
+
+  private static BitSet symbolIdsOf(@Nullable Segment segment) {
+    var symbolIds = new BitSet();
+    if (segment != null) {
+      for (var offset = 0; offset < segment.size; offset += STRIDE) {
+        symbolIds.set(segment.data[offset + SYMBOL]);
+      }
+    }
+    return symbolIds;
+  }
+
+  private static void write(int[] data, int offset, int symbolId, SymbolOccurrence symbolOccurrence) {
+    var location = symbolOccurrence.getLocation();
+    data[offset + SYMBOL] = symbolId;
+    data[offset + OCCURRENCE_TYPE] = symbolOccurrence.getOccurrenceType().ordinal();
+    data[offset + START_LINE] = location.getStartLine();
+    data[offset + START_CHARACTER] = location.getStartCharacter();
+    data[offset + END_LINE] = location.getEndLine();
+    data[offset + END_CHARACTER] = location.getEndCharacter();
+  }
+
+  private SymbolOccurrence createSymbolOccurrence(URI uri, int[] data, int offset) {
+    var location = new Location(
+      uri,
+      data[offset + START_LINE],
+      data[offset + START_CHARACTER],
+      data[offset + END_LINE],
+      data[offset + END_CHARACTER]
+    );
+
+    return new SymbolOccurrence(
+      OCCURRENCE_TYPES[data[offset + OCCURRENCE_TYPE]],
+      symbols.get(data[offset + SYMBOL]),
+      location
+    );
+  }
+
+  /**
+   * Обращения к символам одного документа: первые {@code size} элементов массива {@code data}.
+   * <p>
+   * Сегмент, полученный добавлением обращения, может разделять массив с исходным сегментом:
+   * запись выполняется только за пределами размера любого опубликованного сегмента документа.
+   */
+  private static final class Segment {
+    private static final Segment EMPTY = new Segment(new int[0], 0);
+
+    private final int[] data;
+    private final int size;
+
+    private Segment(int[] data, int size) {
+      this.data = data;
+      this.size = size;
+    }
+
+    Segment append(int symbolId, SymbolOccurrence symbolOccurrence) {
+      var newData = data;
+      if (size + STRIDE > data.length) {
+        newData = Arrays.copyOf(data, Math.max(INITIAL_CAPACITY, data.length * 2));
+      }
+      write(newData, size, symbolId, symbolOccurrence);
+      return new Segment(newData, size + STRIDE);
+    }
+  }
+
+  /**
+   * Реестр значений с присвоением последовательных целочисленных идентификаторов.
+   * Идентификаторы не переиспользуются.
+   */
+  private static final class IdRegistry<T> {
+    private final Map<T, Integer> ids = new ConcurrentHashMap<>();
+    private volatile Object[] values = new Object[64];
+    private int size;
+
+    int register(T value) {
+      var id = ids.get(value);
+      if (id != null) {
+        return id;
+      }
+
+      synchronized (this) {
+        id = ids.get(value);
+        if (id != null) {
+          return id;
+        }
+
+        var currentValues = values;
+        if (size == currentValues.length) {
+          currentValues = Arrays.copyOf(currentValues, size * 2);
+        }
+        currentValues[size] = value;
+        values = currentValues;
+        ids.put(value, size);
+        return size++;
+      }
+    }
+
+    int find(T value) {
+      return ids.getOrDefault(value, -1);
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+      return (T) values[id];
+    }
+  }
+}
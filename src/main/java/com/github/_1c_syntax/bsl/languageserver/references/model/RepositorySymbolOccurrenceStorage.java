@@ -0,0 +1,71 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.references.model;
+
+import com.github._1c_syntax.bsl.types.ModuleType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище обращений к символам на основе {@link SymbolOccurrenceRepository} и {@link LocationRepository}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.references", name = "storage", havingValue = "repositories", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RepositorySymbolOccurrenceStorage implements SymbolOccurrenceStorage {
+
+  private final LocationRepository locationRepository;
+  private final SymbolOccurrenceRepository symbolOccurrenceRepository;
+
+  @Override
+  public void save(SymbolOccurrence symbolOccurrence) {
+    symbolOccurrenceRepository.save(symbolOccurrence);
+    locationRepository.updateLocation(symbolOccurrence);
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllBySymbol(Symbol symbol) {
+    return symbolOccurrenceRepository.getAllBySymbol(symbol).stream();
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllByModule(String mdoRef, ModuleType moduleType) {
+    return symbolOccurrenceRepository.getAllByModule(mdoRef, moduleType);
+  }
+
+  @Override
+  public Stream<SymbolOccurrence> getAllByLocationUri(URI uri) {
+    return locationRepository.getSymbolOccurrencesByLocationUri(uri);
+  }
+
+  @Override
+  public void deleteAll(URI uri) {
+    var symbolOccurrences = locationRepository.getSymbolOccurrencesByLocationUri(uri);
+    symbolOccurrenceRepository.deleteAll(symbolOccurrences.collect(Collectors.toSet()));
+    locationRepository.delete(uri);
+  }
+}
@@ -21,13 +21,16 @@
  */
 package com.github._1c_syntax.bsl.languageserver.references.model;
 
+import com.github._1c_syntax.bsl.types.ModuleType;
+import org.eclipse.lsp4j.SymbolKind;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
-import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
 
 /**
  * Хранилище обращений к символам.
@@ -36,9 +39,14 @@ import java.util.concurrent.ConcurrentSkipListSet;
 public class SymbolOccurrenceRepository {
 
   /**
-   * Список обращений к символам в разрезе символов.
+   * Минимальный тип символа в порядке сравнения {@link Symbol}.
    */
-  private final Map<Symbol, Set<SymbolOccurrence>> occurrencesToSymbols = new ConcurrentSkipListMap<>();
+  private static final SymbolKind FIRST_SYMBOL_KIND = SymbolKind.values()[0];
+
+  /**
+   * Список обращений к символам в разрезе символов, упорядоченных по модулю символа.
+   */
+  private final NavigableMap<Symbol, Set<SymbolOccurrence>> occurrencesToSymbols = new ConcurrentSkipListMap<>();
 
   /**
    * Сохранить обращение к символу в хранилище.
@@ -60,6 +68,20 @@ public class SymbolOccurrenceRepository {
     return occurrencesToSymbols.getOrDefault(symbol, Collections.emptySet());
   }
 
+  /**
+   * Получить все обращения к символам указанного модуля.
+   *
+   * @param mdoRef     Ссылка на объект метаданных модуля.
+   * @param moduleType Тип модуля.
+   * @return Обращения к символам модуля.
+   */
+  public Stream<SymbolOccurrence> getAllByModule(String mdoRef, ModuleType moduleType) {
+    var firstModuleSymbol = new Symbol(mdoRef, moduleType, "", FIRST_SYMBOL_KIND, "");
+    return occurrencesToSymbols.tailMap(firstModuleSymbol, true).entrySet().stream()
+      .takeWhile(entry -> entry.getKey().getMdoRef().equals(mdoRef) && entry.getKey().getModuleType() == moduleType)
+      .flatMap(entry -> entry.getValue().stream());
+  }
+
   /**
    * Удалить сохраненные данные по указанным обращениям к символу.
    *
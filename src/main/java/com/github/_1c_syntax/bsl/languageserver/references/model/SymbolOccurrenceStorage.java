@@ -0,0 +1,91 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.references.model;
+
+import com.github._1c_syntax.bsl.types.ModuleType;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище обращений к символам, используемое индексом ссылок.
+ * <p>
+ * Реализация выбирается настройкой {@code app.references.storage}:
+ * {@code repositories} (по умолчанию) - {@link RepositorySymbolOccurrenceStorage},
+ * {@code compact} - {@link CompactSymbolOccurrenceStorage}.
+ */
+public interface SymbolOccurrenceStorage {
+
+  /**
+   * Сохранить обращение к символу.
+   *
+   * @param symbolOccurrence Обращение к символу.
+   */
+  void save(SymbolOccurrence symbolOccurrence);
+
+  /**
+   * Получить все обращения к указанному символу, упорядоченные по расположению.
+   *
+   * @param symbol Символ.
+   * @return Обращения к символу.
+   */
+  Stream<SymbolOccurrence> getAllBySymbol(Symbol symbol);
+
+  /**
+   * Получить все обращения к символам указанного модуля, в том числе к символам, отсутствующим в модуле.
+   *
+   * @param mdoRef     Ссылка на объект метаданных модуля.
+   * @param moduleType Тип модуля.
+   * @return Обращения к символам модуля.
+   */
+  Stream<SymbolOccurrence> getAllByModule(String mdoRef, ModuleType moduleType);
+
+  /**
+   * Получить все обращения к символам в указанном URI.
+   *
+   * @param uri URI документа, в котором необходимо найти обращения к символам.
+   * @return Обращения к символам.
+   */
+  Stream<SymbolOccurrence> getAllByLocationUri(URI uri);
+
+  /**
+   * Удалить все обращения к символам в указанном URI.
+   *
+   * @param uri URI документа.
+   */
+  void deleteAll(URI uri);
+
+  /**
+   * Заменить все обращения к символам в указанном URI.
+   * <p>
+   * Реализация по умолчанию удаляет прежние обращения и сохраняет новые по одному.
+   * Реализации, умеющие заменять обращения документа атомарно, переопределяют метод.
+   *
+   * @param uri               URI документа.
+   * @param symbolOccurrences Новые обращения к символам в документе.
+   */
+  default void replaceAll(URI uri, Collection<SymbolOccurrence> symbolOccurrences) {
+    deleteAll(uri);
+    symbolOccurrences.forEach(this::save);
+  }
+}
@@ -21,15 +21,16 @@
  */
 package com.github._1c_syntax.bsl.languageserver.reporters;
 
-import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Component
-public class ConsoleReporter implements DiagnosticReporter {
+public class ConsoleReporter implements StreamingDiagnosticReporter {
 
   @Override
   public String key() {
@@ -37,8 +38,22 @@ public class ConsoleReporter implements DiagnosticReporter {
   }
 
   @Override
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
-    LOGGER.info("Analysis date: {}", analysisInfo.getDate());
-    LOGGER.info("File info:\n{}", analysisInfo.getFileinfos());
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
+    return new ReportWriter() {
+      @Override
+      public void write(FileInfo fileInfo) {
+        LOGGER.info("File info:\n{}", fileInfo);
+      }
+
+      @Override
+      public void complete(LocalDateTime date) {
+        LOGGER.info("Analysis date: {}", date);
+      }
+
+      @Override
+      public void close() {
+        // nothing to release
+      }
+    };
   }
 }
@@ -29,4 +29,19 @@ public interface DiagnosticReporter {
   String key();
 
   void report(AnalysisInfo analysisInfo, Path outputDir);
+
+  /**
+   * Создать потоковый писатель отчета.
+   * <p>
+   * Реализация по умолчанию накапливает результаты анализа файлов и формирует отчет
+   * через {@link #report(AnalysisInfo, Path)} при завершении писателя.
+   * Репортеры, умеющие писать отчет по мере поступления данных, реализуют {@link StreamingDiagnosticReporter}.
+   *
+   * @param sourceDir Каталог исходных файлов.
+   * @param outputDir Каталог размещения отчета.
+   * @return Писатель отчета.
+   */
+  default ReportWriter createWriter(String sourceDir, Path outputDir) {
+    return new BufferingReportWriter(this, sourceDir, outputDir);
+  }
 }
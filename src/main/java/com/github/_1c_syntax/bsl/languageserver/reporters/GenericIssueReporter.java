@@ -23,21 +23,22 @@ package com.github._1c_syntax.bsl.languageserver.reporters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticCode;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticInfo;
-import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
+import org.eclipse.lsp4j.Diagnostic;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
-public class GenericIssueReporter implements DiagnosticReporter {
+public class GenericIssueReporter implements StreamingDiagnosticReporter {
 
   private final Map<String, DiagnosticInfo> diagnosticInfos;
 
@@ -48,15 +49,39 @@ public class GenericIssueReporter implements DiagnosticReporter {
 
   @Override
   @SneakyThrows
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
-    GenericIssueReport report = new GenericIssueReport(analysisInfo, diagnosticInfos);
-
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
     ObjectMapper mapper = new ObjectMapper();
     mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
     File reportFile = new File(outputDir.toFile(), "bsl-generic-json.json");
-    mapper.writeValue(reportFile, report);
-    LOGGER.info("Generic issue report saved to {}", reportFile.getCanonicalPath());
+    return new Writer(mapper, reportFile);
   }
 
+  private class Writer extends JsonReportWriter {
+
+    Writer(ObjectMapper mapper, File reportFile) throws IOException {
+      super(mapper, reportFile, "Generic issue");
+
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("issues");
+    }
+
+    @Override
+    protected void writeFileInfo(FileInfo fileInfo) throws IOException {
+      String fileName = fileInfo.getPath().toString();
+      for (Diagnostic diagnostic : fileInfo.getDiagnostics()) {
+        generator.writeObject(new GenericIssueReport.GenericIssueEntry(
+          fileName,
+          diagnostic,
+          diagnosticInfos.get(DiagnosticCode.getStringValue(diagnostic.getCode()))
+        ));
+      }
+    }
+
+    @Override
+    protected void writeEnd() throws IOException {
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
 }
@@ -21,20 +21,25 @@
  */
 package com.github._1c_syntax.bsl.languageserver.reporters;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Component
-public class JUnitReporter implements DiagnosticReporter {
+public class JUnitReporter implements StreamingDiagnosticReporter {
 
   @Override
   public String key() {
@@ -43,15 +48,124 @@ public class JUnitReporter implements DiagnosticReporter {
 
   @Override
   @SneakyThrows
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
+    File reportFile = new File(outputDir.toFile(), "./bsl-junit.xml");
+    return new Writer(reportFile);
+  }
 
-    JUnitTestSuites jUnitReport = new JUnitTestSuites(analysisInfo);
+  /**
+   * Потоковый писатель JUnit-отчета поверх StAX.
+   * <p>
+   * Каждый файл с диагностиками выгружается отдельным элементом {@code testsuite} сразу после получения,
+   * структура элементов совпадает с сериализацией {@link JUnitTestSuites}.
+   * Отчет пишется во временный файл и переносится в файл отчета при завершении.
+   */
+  private static class Writer implements ReportWriter {
 
-    ObjectMapper mapper = new XmlMapper();
-    mapper.enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String INDENT = "  ";
+    private static final String CDATA_END = "]]>";
 
-    File reportFile = new File(outputDir.toFile(), "./bsl-junit.xml");
-    mapper.writeValue(reportFile, jUnitReport);
-    LOGGER.info("JUnit report saved to {}", reportFile.getCanonicalPath());
+    private final File reportFile;
+    private final Path tempFile;
+    private final OutputStream outputStream;
+    private final XMLStreamWriter xmlWriter;
+    private boolean completed;
+
+    Writer(File reportFile) throws IOException, XMLStreamException {
+      this.reportFile = reportFile;
+      this.tempFile = ReportFiles.createTempFile(reportFile);
+      this.outputStream = Files.newOutputStream(tempFile);
+      this.xmlWriter = XMLOutputFactory.newFactory()
+        .createXMLStreamWriter(outputStream, StandardCharsets.UTF_8.name());
+
+      xmlWriter.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+      newLine(0);
+      xmlWriter.writeStartElement("testsuites");
+      xmlWriter.writeAttribute("package", "bsl-language-server");
+    }
+
+    @Override
+    @SneakyThrows
+    public void write(FileInfo fileInfo) {
+      if (fileInfo.getDiagnostics().isEmpty()) {
+        return;
+      }
+
+      var testSuite = new JUnitTestSuites.JUnitTestSuite(fileInfo);
+
+      newLine(1);
+      xmlWriter.writeStartElement("testsuite");
+      xmlWriter.writeAttribute("name", testSuite.getName());
+
+      for (var testCase : testSuite.getTestcase()) {
+        newLine(2);
+        xmlWriter.writeStartElement("testcase");
+        xmlWriter.writeAttribute("name", testCase.getName());
+        xmlWriter.writeAttribute("classname", testCase.getClassname());
+
+        var failure = testCase.getFailure();
+        newLine(3);
+        xmlWriter.writeStartElement("failure");
+        xmlWriter.writeAttribute("type", failure.getType());
+        xmlWriter.writeAttribute("message", failure.getMessage());
+        writeCData(failure.getValue());
+        xmlWriter.writeEndElement();
+
+        newLine(2);
+        xmlWriter.writeEndElement();
+      }
+
+      newLine(1);
+      xmlWriter.writeEndElement();
+      xmlWriter.flush();
+    }
+
+    @Override
+    @SneakyThrows
+    public void complete(LocalDateTime date) {
+      newLine(0);
+      xmlWriter.writeEndElement();
+      xmlWriter.writeEndDocument();
+      xmlWriter.close();
+      outputStream.close();
+      ReportFiles.moveToReport(tempFile, reportFile);
+      completed = true;
+      LOGGER.info("JUnit report saved to {}", reportFile.getCanonicalPath());
+    }
+
+    @Override
+    @SneakyThrows
+    public void close() {
+      if (completed) {
+        return;
+      }
+      try {
+        xmlWriter.close();
+      } finally {
+        outputStream.close();
+        Files.deleteIfExists(tempFile);
+      }
+    }
+
+    /**
+     * Записать текст секциями CDATA.
+     * <p>
+     * Последовательность {@code ]]>} не может находиться внутри секции CDATA,
+     * поэтому текст разбивается на несколько секций между {@code ]]} и {@code >}.
+     */
+    private void writeCData(String text) throws XMLStreamException {
+      var start = 0;
+      var end = text.indexOf(CDATA_END);
+      while (end >= 0) {
+        xmlWriter.writeCData(text.substring(start, end + 2));
+        start = end + 2;
+        end = text.indexOf(CDATA_END, start);
+      }
+      xmlWriter.writeCData(text.substring(start));
+    }
+
+    private void newLine(int depth) throws XMLStreamException {
+      xmlWriter.writeCharacters(System.lineSeparator() + INDENT.repeat(depth));
+    }
   }
 }
@@ -0,0 +1,126 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.reporters;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Базовый потоковый писатель JSON-отчета.
+ * <p>
+ * Наследники открывают структуру отчета в конструкторе, дописывают элементы по каждому файлу
+ * в {@link #writeFileInfo(FileInfo)} и закрывают открытые объекты и массивы в {@link #writeEnd()}.
+ * Содержимое пишется во временный файл и переносится в файл отчета в {@link #completeReport}.
+ */
+@Slf4j
+abstract class JsonReportWriter implements ReportWriter {
+
+  protected final JsonGenerator generator;
+  private final File reportFile;
+  private final Path tempFile;
+  private final String reportName;
+  private boolean completed;
+
+  @SneakyThrows
+  protected JsonReportWriter(ObjectMapper mapper, File reportFile, String reportName) {
+    this.tempFile = ReportFiles.createTempFile(reportFile);
+    this.generator = mapper.createGenerator(tempFile.toFile(), JsonEncoding.UTF8);
+    this.reportFile = reportFile;
+    this.reportName = reportName;
+  }
+
+  @Override
+  @SneakyThrows
+  public void write(FileInfo fileInfo) {
+    writeFileInfo(fileInfo);
+  }
+
+  @Override
+  @SneakyThrows
+  public void complete(LocalDateTime date) {
+    writeEnd();
+    generator.close();
+    completeReport(tempFile, reportFile, date);
+    completed = true;
+    LOGGER.info("{} report saved to {}", reportName, reportFile.getAbsolutePath());
+  }
+
+  @Override
+  @SneakyThrows
+  public void close() {
+    if (completed) {
+      return;
+    }
+    try {
+      generator.close();
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  protected abstract void writeFileInfo(FileInfo fileInfo) throws IOException;
+
+  protected abstract void writeEnd() throws IOException;
+
+  /**
+   * Сформировать файл отчета из записанного содержимого.
+   * <p>
+   * По умолчанию содержимое целиком переносится в файл отчета.
+   *
+   * @param content    Временный файл с записанным содержимым.
+   * @param reportFile Файл отчета.
+   * @param date       Дата анализа.
+   * @throws IOException Ошибка записи.
+   */
+  protected void completeReport(Path content, File reportFile, LocalDateTime date) throws IOException {
+    ReportFiles.moveToReport(content, reportFile);
+  }
+
+  /**
+   * Записать в текущий открытый объект все поля переданного узла.
+   *
+   * @param node Узел, поля которого необходимо записать.
+   * @throws IOException Ошибка записи.
+   */
+  protected void writeFields(ObjectNode node) throws IOException {
+    Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+    while (fields.hasNext()) {
+      var field = fields.next();
+      generator.writeFieldName(field.getKey());
+      generator.writeTree(field.getValue());
+    }
+  }
+}
@@ -21,19 +21,29 @@
  */
 package com.github._1c_syntax.bsl.languageserver.reporters;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import com.github._1c_syntax.bsl.languageserver.reporters.databind.AnalysisInfoObjectMapper;
-import lombok.extern.slf4j.Slf4j;
+import lombok.SneakyThrows;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 
-@Slf4j
 @Component
-public class JsonReporter implements DiagnosticReporter {
+public class JsonReporter implements StreamingDiagnosticReporter {
+
+  private static final String FILEINFOS_FIELD = "fileinfos";
 
   @Override
   public String key() {
@@ -41,15 +51,68 @@ public class JsonReporter implements DiagnosticReporter {
   }
 
   @Override
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
-    ObjectMapper mapper = new AnalysisInfoObjectMapper();
-
-    try {
-      File reportFile = new File(outputDir.toFile(), "./bsl-json.json");
-      mapper.writeValue(reportFile, analysisInfo);
-      LOGGER.info("JSON report saved to {}", reportFile.getAbsolutePath());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+  @SneakyThrows
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
+    var reportFile = new File(outputDir.toFile(), "./bsl-json.json");
+    return new Writer(new AnalysisInfoObjectMapper(), sourceDir, reportFile);
+  }
+
+  private static class Writer extends JsonReportWriter {
+
+    private final ObjectMapper mapper;
+    private final String sourceDir;
+
+    Writer(ObjectMapper mapper, String sourceDir, File reportFile) throws IOException {
+      super(mapper, reportFile, "JSON");
+      this.mapper = mapper;
+      this.sourceDir = sourceDir;
+
+      // во временный файл пишется только массив fileinfos: дата анализа становится известна
+      // после его окончания и попадает в отчет при завершении.
+      generator.writeStartArray();
+    }
+
+    @Override
+    protected void writeFileInfo(FileInfo fileInfo) throws IOException {
+      generator.writeObject(fileInfo);
+    }
+
+    @Override
+    protected void writeEnd() throws IOException {
+      generator.writeEndArray();
+    }
+
+    @Override
+    protected void completeReport(Path content, File reportFile, LocalDateTime date) throws IOException {
+      // поля отчета сериализуются тем же маппером, что и AnalysisInfo целиком,
+      // чтобы формат и порядок полей не отличался от непотокового варианта.
+      ObjectNode header = mapper.valueToTree(new AnalysisInfo(date, Collections.emptyList(), sourceDir));
+
+      var report = ReportFiles.createTempFile(reportFile);
+      try {
+        try (var outputStream = new BufferedOutputStream(Files.newOutputStream(report))) {
+          outputStream.write('{');
+          Iterator<Map.Entry<String, JsonNode>> fields = header.fields();
+          while (fields.hasNext()) {
+            var field = fields.next();
+            outputStream.write(mapper.writeValueAsBytes(field.getKey()));
+            outputStream.write(':');
+            if (FILEINFOS_FIELD.equals(field.getKey())) {
+              Files.copy(content, outputStream);
+            } else {
+              outputStream.write(mapper.writeValueAsBytes(field.getValue()));
+            }
+            if (fields.hasNext()) {
+              outputStream.write(',');
+            }
+          }
+          outputStream.write('}');
+        }
+        ReportFiles.moveToReport(report, reportFile);
+      } finally {
+        Files.deleteIfExists(report);
+        Files.deleteIfExists(content);
+      }
     }
   }
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.reporters;
+
+import lombok.experimental.UtilityClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Работа с файлами потоково формируемых отчетов.
+ * <p>
+ * Отчет пишется во временный файл рядом с файлом отчета и переносится на его место только
+ * после завершения, поэтому прерванный анализ не оставляет неполного отчета.
+ */
+@UtilityClass
+class ReportFiles {
+
+  /**
+   * Создать временный файл в каталоге файла отчета.
+   *
+   * @param reportFile Файл отчета.
+   * @return Путь к временному файлу.
+   * @throws IOException Ошибка создания файла.
+   */
+  Path createTempFile(File reportFile) throws IOException {
+    var report = reportFile.toPath().toAbsolutePath().normalize();
+    return Files.createTempFile(report.getParent(), report.getFileName().toString(), ".tmp");
+  }
+
+  /**
+   * Перенести временный файл на место файла отчета.
+   *
+   * @param tempFile   Временный файл.
+   * @param reportFile Файл отчета.
+   * @throws IOException Ошибка переноса файла.
+   */
+  void moveToReport(Path tempFile, File reportFile) throws IOException {
+    var report = reportFile.toPath().toAbsolutePath().normalize();
+    try {
+      Files.move(tempFile, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile, report, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.reporters;
+
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Потоковый писатель отчета.
+ * <p>
+ * Получает результаты анализа отдельных файлов по мере их готовности и сразу выгружает их в отчет,
+ * не накапливая в памяти результат анализа всего проекта.
+ * Вызовы {@link #write(FileInfo)} выполняются последовательно. Отчет формируется только при вызове
+ * {@link #complete(LocalDateTime)}; закрытие незавершенного писателя (например, при ошибке анализа)
+ * освобождает ресурсы и не оставляет неполного отчета.
+ */
+public interface ReportWriter extends AutoCloseable {
+
+  /**
+   * Записать в отчет результат анализа файла.
+   *
+   * @param fileInfo Результат анализа файла.
+   */
+  void write(FileInfo fileInfo);
+
+  /**
+   * Завершить формирование отчета.
+   *
+   * @param date Дата анализа.
+   */
+  void complete(LocalDateTime date);
+
+  /**
+   * Освободить ресурсы писателя. Если отчет не был завершен, он не формируется.
+   */
+  @Override
+  void close();
+}
@@ -22,14 +22,21 @@
 package com.github._1c_syntax.bsl.languageserver.reporters;
 
 import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
@@ -49,9 +56,102 @@ public class ReportersAggregator {
     filteredReporters.forEach(diagnosticReporter -> diagnosticReporter.report(analysisInfo, outputDir));
   }
 
+  /**
+   * Создать писатель отчета, передающий результаты анализа файлов во все выбранные репортеры.
+   * <p>
+   * Результаты передаются в репортеры в порядке вызовов {@link ReportWriter#write}, поэтому для стабильного
+   * порядка файлов в отчетах вызывающая сторона должна передавать их упорядоченно (например, через
+   * {@code forEachOrdered} параллельного потока). Метод {@link ReportWriter#write} потокобезопасен.
+   * Завершение и закрытие выполняются для всех репортеров, даже если некоторые из них завершились ошибкой.
+   *
+   * @param sourceDir Каталог исходных файлов.
+   * @param outputDir Каталог размещения отчетов.
+   * @return Писатель отчета.
+   */
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
+    return combineWriters(filteredReporters, sourceDir, outputDir);
+  }
+
+  /**
+   * Создать писатель отчета, передающий результаты анализа файлов в репортеры с указанными ключами.
+   *
+   * @param reporterKeys Ключи репортеров.
+   * @param sourceDir    Каталог исходных файлов.
+   * @param outputDir    Каталог размещения отчетов.
+   * @return Писатель отчета.
+   */
+  public ReportWriter createWriter(Collection<String> reporterKeys, String sourceDir, Path outputDir) {
+    var selectedReporters = reporters.stream()
+      .filter(diagnosticReporter -> reporterKeys.contains(diagnosticReporter.key()))
+      .collect(Collectors.toList());
+
+    return combineWriters(selectedReporters, sourceDir, outputDir);
+  }
+
   public List<String> reporterKeys() {
     return reporters.stream()
       .map(DiagnosticReporter::key)
       .collect(Collectors.toList());
   }
+
+  private static ReportWriter combineWriters(
+    List<DiagnosticReporter> diagnosticReporters,
+    String sourceDir,
+    Path outputDir
+  ) {
+    List<ReportWriter> writers = new ArrayList<>(diagnosticReporters.size());
+    try {
+      for (var diagnosticReporter : diagnosticReporters) {
+        writers.add(diagnosticReporter.createWriter(sourceDir, outputDir));
+      }
+    } catch (RuntimeException e) {
+      forEachWriter(writers, ReportWriter::close, e);
+      throw e;
+    }
+
+    return new ReportWriter() {
+      @Override
+      public synchronized void write(FileInfo fileInfo) {
+        writers.forEach(writer -> writer.write(fileInfo));
+      }
+
+      @Override
+      public synchronized void complete(LocalDateTime date) {
+        forEachWriter(writers, writer -> writer.complete(date), null);
+      }
+
+      @Override
+      public synchronized void close() {
+        forEachWriter(writers, ReportWriter::close, null);
+      }
+    };
+  }
+
+  /**
+   * Выполнить действие для каждого писателя, не прерываясь на ошибках.
+   * Первая ошибка выбрасывается после обработки всех писателей, остальные добавляются к ней как подавленные.
+   */
+  @SneakyThrows
+  private static void forEachWriter(
+    List<ReportWriter> writers,
+    Consumer<ReportWriter> action,
+    @Nullable Throwable primaryException
+  ) {
+    var exception = primaryException;
+    for (var writer : writers) {
+      try {
+        action.accept(writer);
+      } catch (Exception e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+
+    if (exception != null && exception != primaryException) {
+      throw exception;
+    }
+  }
 }
@@ -40,15 +40,14 @@ import com.contrastsecurity.sarif.Tool;
 import com.contrastsecurity.sarif.ToolComponent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticCode;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.metadata.DiagnosticInfo;
-import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
 import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import com.github._1c_syntax.utils.Absolute;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp4j.Diagnostic;
 import org.eclipse.lsp4j.DiagnosticSeverity;
 import org.eclipse.lsp4j.Range;
@@ -57,9 +56,9 @@ import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -75,8 +74,7 @@ import java.util.stream.Collectors;
  */
 @Component
 @RequiredArgsConstructor
-@Slf4j
-public class SarifReporter implements DiagnosticReporter {
+public class SarifReporter implements StreamingDiagnosticReporter {
 
   private static final Map<DiagnosticSeverity, Result.Level> severityToResultLevel = Map.of(
     DiagnosticSeverity.Error, Result.Level.ERROR,
@@ -92,6 +90,9 @@ public class SarifReporter implements DiagnosticReporter {
     DiagnosticSeverity.Hint, ReportingConfiguration.Level.NONE
   );
 
+  private static final String RUNS_FIELD = "runs";
+  private static final String RESULTS_FIELD = "results";
+
   private final LanguageServerConfiguration configuration;
   private final Collection<DiagnosticInfo> diagnosticInfos;
   private final ServerInfo serverInfo;
@@ -103,41 +104,34 @@ public class SarifReporter implements DiagnosticReporter {
 
   @Override
   @SneakyThrows
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
-    var report = createReport(analysisInfo);
-
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
     var mapper = new ObjectMapper();
     mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
     var reportFile = new File(outputDir.toFile(), "./bsl-ls.sarif");
-    mapper.writeValue(reportFile, report);
-    LOGGER.info("SARIF report saved to {}", reportFile.getAbsolutePath());
+    return new Writer(mapper, reportFile);
   }
 
-  private SarifSchema210 createReport(AnalysisInfo analysisInfo) {
+  private SarifSchema210 createReport() {
     var schema = URI.create(
       "https://json.schemastore.org/sarif-2.1.0.json"
     );
-    var run = createRun(analysisInfo);
 
     return new SarifSchema210()
       .with$schema(schema)
-      .withVersion(SarifSchema210.Version._2_1_0)
-      .withRuns(List.of(run));
+      .withVersion(SarifSchema210.Version._2_1_0);
   }
 
-  private Run createRun(AnalysisInfo analysisInfo) {
+  private Run createRun() {
     var tool = createTool();
     var invocation = createInvocation();
-    var results = createResults(analysisInfo);
 
     return new Run()
       .withTool(tool)
       .withInvocations(List.of(invocation))
       .withLanguage(configuration.getLanguage().getLanguageCode())
       .withDefaultEncoding("UTF-8")
-      .withDefaultSourceLanguage("BSL")
-      .withResults(results);
+      .withDefaultSourceLanguage("BSL");
   }
 
   private Invocation createInvocation() {
@@ -224,18 +218,6 @@ public class SarifReporter implements DiagnosticReporter {
       .withProperties(properties);
   }
 
-  private static List<Result> createResults(AnalysisInfo analysisInfo) {
-    var results = new ArrayList<Result>();
-
-    analysisInfo.getFileinfos().forEach(fileInfo ->
-      fileInfo.getDiagnostics().stream()
-        .map(diagnostic -> createResult(fileInfo, diagnostic))
-        .collect(Collectors.toCollection(() -> results))
-    );
-
-    return results;
-  }
-
   private static Result createResult(FileInfo fileInfo, Diagnostic diagnostic) {
     var uri = Absolute.uri(fileInfo.getPath().toUri()).toString();
 
@@ -282,4 +264,44 @@ public class SarifReporter implements DiagnosticReporter {
       .withMessage(message)
       .withPhysicalLocation(physicalLocation);
   }
+
+  /**
+   * Потоковый писатель SARIF-отчета.
+   * <p>
+   * Описание инструмента и запуска сериализуется целиком при открытии отчета,
+   * результаты анализа дописываются в массив {@code results} единственного запуска по мере поступления.
+   */
+  private class Writer extends JsonReportWriter {
+
+    Writer(ObjectMapper mapper, File reportFile) throws IOException {
+      super(mapper, reportFile, "SARIF");
+
+      ObjectNode report = mapper.valueToTree(createReport());
+      report.remove(RUNS_FIELD);
+      ObjectNode run = mapper.valueToTree(createRun());
+      run.remove(RESULTS_FIELD);
+
+      generator.writeStartObject();
+      writeFields(report);
+      generator.writeArrayFieldStart(RUNS_FIELD);
+      generator.writeStartObject();
+      writeFields(run);
+      generator.writeArrayFieldStart(RESULTS_FIELD);
+    }
+
+    @Override
+    protected void writeFileInfo(FileInfo fileInfo) throws IOException {
+      for (Diagnostic diagnostic : fileInfo.getDiagnostics()) {
+        generator.writeObject(createResult(fileInfo, diagnostic));
+      }
+    }
+
+    @Override
+    protected void writeEnd() throws IOException {
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+  }
 }
@@ -0,0 +1,46 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.reporters;
+
+import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+
+import java.nio.file.Path;
+
+/**
+ * Репортер, формирующий отчет потоково - по мере поступления результатов анализа отдельных файлов.
+ * <p>
+ * Пиковое потребление памяти таким репортером ограничено данными одного файла.
+ * Формирование отчета по готовому {@link AnalysisInfo} сводится к последовательной записи его файлов.
+ */
+public interface StreamingDiagnosticReporter extends DiagnosticReporter {
+
+  @Override
+  ReportWriter createWriter(String sourceDir, Path outputDir);
+
+  @Override
+  default void report(AnalysisInfo analysisInfo, Path outputDir) {
+    try (var writer = createWriter(analysisInfo.getSourceDir(), outputDir)) {
+      analysisInfo.getFileinfos().forEach(writer::write);
+      writer.complete(analysisInfo.getDate());
+    }
+  }
+}
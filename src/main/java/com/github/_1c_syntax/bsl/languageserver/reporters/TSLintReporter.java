@@ -23,21 +23,17 @@ package com.github._1c_syntax.bsl.languageserver.reporters;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
 import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
 import lombok.SneakyThrows;
-import lombok.extern.slf4j.Slf4j;
 import org.eclipse.lsp4j.Diagnostic;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 
-@Slf4j
 @Component
-public class TSLintReporter implements DiagnosticReporter {
+public class TSLintReporter implements StreamingDiagnosticReporter {
 
   @Override
   public String key() {
@@ -46,20 +42,33 @@ public class TSLintReporter implements DiagnosticReporter {
 
   @Override
   @SneakyThrows
-  public void report(AnalysisInfo analysisInfo, Path outputDir) {
-    List<TSLintReportEntry> tsLintReport = new ArrayList<>();
-    for (FileInfo fileInfo : analysisInfo.getFileinfos()) {
-      for (Diagnostic diagnostic : fileInfo.getDiagnostics()) {
-        TSLintReportEntry entry = new TSLintReportEntry(fileInfo.getPath().toString(), diagnostic);
-        tsLintReport.add(entry);
-      }
-    }
-
+  public ReportWriter createWriter(String sourceDir, Path outputDir) {
     ObjectMapper mapper = new ObjectMapper();
     mapper.enable(SerializationFeature.INDENT_OUTPUT);
 
     File reportFile = new File(outputDir.toFile(), "./bsl-tslint.json");
-    mapper.writeValue(reportFile, tsLintReport);
-    LOGGER.info("TSLint report saved to {}", reportFile.getAbsolutePath());
+    return new Writer(mapper, reportFile);
+  }
+
+  private static class Writer extends JsonReportWriter {
+
+    Writer(ObjectMapper mapper, File reportFile) throws IOException {
+      super(mapper, reportFile, "TSLint");
+
+      generator.writeStartArray();
+    }
+
+    @Override
+    protected void writeFileInfo(FileInfo fileInfo) throws IOException {
+      String fileName = fileInfo.getPath().toString();
+      for (Diagnostic diagnostic : fileInfo.getDiagnostics()) {
+        generator.writeObject(new TSLintReportEntry(fileName, diagnostic));
+      }
+    }
+
+    @Override
+    protected void writeEnd() throws IOException {
+      generator.writeEndArray();
+    }
   }
 }
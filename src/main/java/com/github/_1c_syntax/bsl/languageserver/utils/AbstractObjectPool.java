@@ -45,41 +45,62 @@
  */
 package com.github._1c_syntax.bsl.languageserver.utils;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 
 /**
- * Generic object pool.
+ * Generic bounded object pool.
+ * <p>
+ * Objects are created lazily. The number of objects checked out at the same time (and therefore the number
+ * of created objects) never exceeds {@code maxSize}, callers of {@link #checkOut()} wait for a free object.
  *
  * @param <T> Type T of Object in the Pool
  */
 public abstract class AbstractObjectPool<T> {
 
-  private final Set<T> available = new HashSet<>();
-  private final Set<T> inUse = new HashSet<>();
+  private final Queue<T> available = new ConcurrentLinkedQueue<>();
+  private final Semaphore permits;
+  private final int maxSize;
+
+  protected AbstractObjectPool() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  protected AbstractObjectPool(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.permits = new Semaphore(maxSize);
+  }
 
   protected abstract T create();
 
   /**
-   * Checkout object from pool.
+   * Checkout object from pool. Waits for a free object if all objects are in use.
    */
-  public synchronized T checkOut() {
-    if (available.isEmpty()) {
-      available.add(create());
+  public T checkOut() {
+    permits.acquireUninterruptibly();
+    var instance = available.poll();
+    if (instance != null) {
+      return instance;
+    }
+    try {
+      return create();
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
     }
-    T instance = available.iterator().next();
-    available.remove(instance);
-    inUse.add(instance);
-    return instance;
   }
 
-  public synchronized void checkIn(T instance) {
-    inUse.remove(instance);
-    available.add(instance);
+  public void checkIn(T instance) {
+    available.offer(instance);
+    permits.release();
   }
 
   @Override
-  public synchronized String toString() {
-    return String.format("Pool available=%d inUse=%d", available.size(), inUse.size());
+  public String toString() {
+    return String.format("Pool available=%d inUse=%d", available.size(), maxSize - permits.availablePermits());
   }
 }
@@ -72,6 +72,42 @@ public final class DiagnosticHelper {
     return true;
   }
 
+  /**
+   * Структурный хэш узла дерева разбора, согласованный с {@link #equalNodes(Tree, Tree)}:
+   * у равных узлов хэши совпадают.
+   *
+   * @param node Узел дерева разбора.
+   * @return Хэш узла и всех его потомков.
+   */
+  public static int nodeHash(Tree node) {
+    var hash = 31 * node.getClass().getName().hashCode() + node.getChildCount();
+
+    if (node instanceof TerminalNode) {
+      hash = 31 * hash + ((TerminalNode) node).getSymbol().getType();
+      hash = 31 * hash + caseInsensitiveHash(node.toString());
+    }
+
+    for (int i = 0; i < node.getChildCount(); i++) {
+      hash = 31 * hash + nodeHash(node.getChild(i));
+    }
+
+    return hash;
+  }
+
+  /**
+   * Хэш строки, согласованный с {@link String#equalsIgnoreCase(String)}.
+   *
+   * @param text Строка.
+   * @return Хэш строки без учета регистра.
+   */
+  public static int caseInsensitiveHash(String text) {
+    var hash = 0;
+    for (int i = 0; i < text.length(); i++) {
+      hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(text.charAt(i)));
+    }
+    return hash;
+  }
+
   public static boolean isStructureType(ParseTree tnc) {
     return "Структура".equalsIgnoreCase(tnc.getText()) || "Structure".equalsIgnoreCase(tnc.getText());
   }
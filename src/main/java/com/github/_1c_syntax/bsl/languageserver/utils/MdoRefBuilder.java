@@ -24,10 +24,7 @@ package com.github._1c_syntax.bsl.languageserver.utils;
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.parser.BSLParser;
 import com.github._1c_syntax.bsl.types.MDOType;
-import com.github._1c_syntax.bsl.types.MdoReference;
 import com.github._1c_syntax.bsl.types.ModuleType;
-import com.github._1c_syntax.mdclasses.mdo.AbstractMDObjectBase;
-import com.github._1c_syntax.mdclasses.mdo.MDCommonModule;
 import com.github._1c_syntax.mdclasses.utils.MDOUtils;
 import com.github._1c_syntax.utils.StringInterner;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -54,9 +51,9 @@ public class MdoRefBuilder {
   }
 
   public static String getMdoRef(DocumentContext documentContext) {
-    var mdoRef = documentContext.getMdObject()
-      .map(AbstractMDObjectBase::getMdoReference)
-      .map(MdoReference::getMdoRef)
+    var mdoRef = documentContext.getServerContext()
+      .getConfigurationSnapshot()
+      .getMdoRef(documentContext.getUri())
       .orElseGet(() -> documentContext.getUri().toString());
     return stringInterner.intern(mdoRef);
   }
@@ -93,10 +90,8 @@ public class MdoRefBuilder {
 
   private Optional<String> getCommonModuleMdoRef(DocumentContext documentContext, String commonModuleName) {
     return documentContext.getServerContext()
-      .getConfiguration()
-      .getCommonModule(commonModuleName)
-      .map(MDCommonModule::getMdoReference)
-      .map(MdoReference::getMdoRef);
+      .getConfigurationSnapshot()
+      .getCommonModuleMdoRef(commonModuleName);
   }
 
   private String getMdoRef(MDOType mdoType, String identifier) {
@@ -0,0 +1,442 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс узлов дерева разбора по типам правил и токенов.
+ * <p>
+ * Для каждого типа правила хранится массив узлов в порядке обхода дерева (preorder) вместе с номерами узлов
+ * в этом порядке и номером последнего узла-потомка, для каждого типа токена - массив терминальных узлов
+ * и индексы их токенов. Поиск узлов внутри поддерева сводится к двоичному поиску диапазона в этих массивах
+ * вместо полного обхода поддерева.
+ * <p>
+ * Индекс регистрируется для корня дерева разбора и строится при первом обращении. Методы {@link Trees}
+ * используют зарегистрированный индекс автоматически. Реестр хранит слабые ссылки на корень и индекс,
+ * поэтому время жизни индекса определяется владельцем (см.
+ * {@link com.github._1c_syntax.bsl.languageserver.context.DocumentContext}).
+ * <p>
+ * Реестр - конкурентная таблица с ключами по идентичности корня, поиск индекса не берет общих блокировок.
+ * Записи собранных сборщиком мусора корней удаляются при регистрации новых индексов.
+ */
+public final class ParseTreeIndex {
+
+  private static final Map<RootKey, WeakReference<ParseTreeIndex>> REGISTRY = new ConcurrentHashMap<>();
+  private static final ReferenceQueue<ParseTree> COLLECTED_ROOTS = new ReferenceQueue<>();
+
+  private final ParseTree root;
+
+  @Nullable
+  private volatile Data data;
+
+  private ParseTreeIndex(ParseTree root) {
+    this.root = root;
+  }
+
+  /**
+   * Зарегистрировать индекс для дерева разбора. Индекс строится при первом обращении.
+   *
+   * @param root Корень дерева разбора.
+   * @return Индекс дерева. Индекс используется, пока на него есть ссылки.
+   */
+  public static ParseTreeIndex register(ParseTree root) {
+    expungeCollectedRoots();
+    var index = new ParseTreeIndex(root);
+    REGISTRY.put(new RootReference(root), new WeakReference<>(index));
+    return index;
+  }
+
+  /**
+   * Найти индекс дерева, которому принадлежит узел.
+   *
+   * @param tree Узел дерева разбора.
+   * @return Индекс дерева или {@code null}, если индекс для дерева не зарегистрирован.
+   */
+  @Nullable
+  static ParseTreeIndex find(ParseTree tree) {
+    var currentRoot = tree;
+    while (currentRoot.getParent() != null) {
+      currentRoot = currentRoot.getParent();
+    }
+    var reference = REGISTRY.get(new RootLookup(currentRoot));
+    return reference == null ? null : reference.get();
+  }
+
+  private static void expungeCollectedRoots() {
+    for (var reference = COLLECTED_ROOTS.poll(); reference != null; reference = COLLECTED_ROOTS.poll()) {
+      REGISTRY.remove((RootReference) reference);
+    }
+  }
+
+  /**
+   * @param tree      Узел дерева, в поддереве которого выполняется поиск (включая сам узел).
+   * @param ruleIndex Тип правила.
+   * @return Узлы правила в порядке обхода дерева или {@code null}, если поиск по индексу невозможен.
+   */
+  @Nullable
+  List<ParserRuleContext> findRuleNodes(ParseTree tree, int ruleIndex) {
+    var range = getSubtreeRange(tree);
+    if (range == null) {
+      return null;
+    }
+    var nodes = getData().getRuleNodes(ruleIndex);
+    if (nodes == null) {
+      return Collections.emptyList();
+    }
+    var from = lowerBound(nodes.orders, nodes.size, range[0]);
+    var to = lowerBound(nodes.orders, nodes.size, range[1] + 1);
+    return Collections.unmodifiableList(Arrays.asList(nodes.nodes).subList(from, to));
+  }
+
+  /**
+   * @param tree        Узел дерева, в поддереве которого выполняется поиск (включая сам узел).
+   * @param ruleIndexes Типы правил.
+   * @return Узлы правил в порядке обхода дерева или {@code null}, если поиск по индексу невозможен.
+   */
+  @Nullable
+  List<ParserRuleContext> findRuleNodes(ParseTree tree, Collection<Integer> ruleIndexes) {
+    var range = getSubtreeRange(tree);
+    if (range == null) {
+      return null;
+    }
+
+    var indexData = getData();
+    List<RuleNodes> sources = new ArrayList<>(ruleIndexes.size());
+    List<int[]> cursors = new ArrayList<>(ruleIndexes.size());
+    var size = 0;
+    for (var ruleIndex : ruleIndexes.stream().distinct().toArray(Integer[]::new)) {
+      var nodes = indexData.getRuleNodes(ruleIndex);
+      if (nodes == null) {
+        continue;
+      }
+      var from = lowerBound(nodes.orders, nodes.size, range[0]);
+      var to = lowerBound(nodes.orders, nodes.size, range[1] + 1);
+      if (from < to) {
+        sources.add(nodes);
+        cursors.add(new int[]{from, to});
+        size += to - from;
+      }
+    }
+
+    // слияние отсортированных по порядку обхода диапазонов
+    List<ParserRuleContext> result = new ArrayList<>(size);
+    while (result.size() < size) {
+      var next = -1;
+      for (var i = 0; i < sources.size(); i++) {
+        var cursor = cursors.get(i);
+        if (cursor[0] < cursor[1]
+          && (next == -1 || sources.get(i).orders[cursor[0]] < sources.get(next).orders[cursors.get(next)[0]])) {
+          next = i;
+        }
+      }
+      result.add(sources.get(next).nodes[cursors.get(next)[0]++]);
+    }
+    return result;
+  }
+
+  /**
+   * @param tree      Узел дерева, в поддереве которого выполняется поиск (включая сам узел).
+   * @param tokenType Тип токена.
+   * @return Терминальные узлы в порядке обхода дерева или {@code null}, если поиск по индексу невозможен.
+   */
+  @Nullable
+  List<TerminalNode> findTokenNodes(ParseTree tree, int tokenType) {
+    var indexData = getData();
+    var nodes = indexData.getTokenNodes(tokenType);
+    if (tree == root) {
+      return nodes == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(nodes.nodes));
+    }
+
+    if (!(tree instanceof ParserRuleContext) || indexData.hasDetachedTokens) {
+      return null;
+    }
+    var start = ((ParserRuleContext) tree).getStart();
+    var stop = ((ParserRuleContext) tree).getStop();
+    if (start == null || stop == null || stop.getTokenIndex() < start.getTokenIndex()) {
+      return null;
+    }
+    if (nodes == null) {
+      return Collections.emptyList();
+    }
+
+    var from = lowerBound(nodes.tokenIndexes, nodes.nodes.length, start.getTokenIndex());
+    var to = lowerBound(nodes.tokenIndexes, nodes.nodes.length, stop.getTokenIndex() + 1);
+    return Collections.unmodifiableList(Arrays.asList(nodes.nodes).subList(from, to));
+  }
+
+  /**
+   * @return Диапазон номеров узлов-правил поддерева в порядке обхода или {@code null}, если узел не найден.
+   */
+  @Nullable
+  private int[] getSubtreeRange(ParseTree tree) {
+    if (tree == root) {
+      return new int[]{0, Integer.MAX_VALUE - 1};
+    }
+    if (!(tree instanceof ParserRuleContext)) {
+      return null;
+    }
+
+    var ctx = (ParserRuleContext) tree;
+    var nodes = getData().getRuleNodes(ctx.getRuleIndex());
+    if (nodes == null || ctx.getStart() == null) {
+      return null;
+    }
+
+    var startIndex = ctx.getStart().getTokenIndex();
+    for (var i = lowerBound(nodes.starts, nodes.size, startIndex); i < nodes.size; i++) {
+      if (nodes.starts[i] != startIndex) {
+        break;
+      }
+      if (nodes.nodes[i] == ctx) {
+        return new int[]{nodes.orders[i], nodes.subtreeEnds[i]};
+      }
+    }
+    return null;
+  }
+
+  private Data getData() {
+    var currentData = data;
+    if (currentData == null) {
+      synchronized (this) {
+        currentData = data;
+        if (currentData == null) {
+          currentData = new Data(root);
+          data = currentData;
+        }
+      }
+    }
+    return currentData;
+  }
+
+  private static int lowerBound(int[] values, int size, int key) {
+    var low = 0;
+    var high = size;
+    while (low < high) {
+      var middle = (low + high) >>> 1;
+      if (values[middle] < key) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static final class Data {
+    private final List<RuleNodes> ruleNodes = new ArrayList<>();
+    private final List<List<TerminalNode>> tokenNodeLists = new ArrayList<>();
+    private final TokenNodes[] tokenNodes;
+    private boolean hasDetachedTokens;
+    private int order;
+
+    private Data(ParseTree root) {
+      visit(root);
+      tokenNodes = new TokenNodes[tokenNodeLists.size()];
+      for (var i = 0; i < tokenNodes.length; i++) {
+        var nodes = tokenNodeLists.get(i);
+        if (nodes != null) {
+          tokenNodes[i] = new TokenNodes(nodes);
+        }
+      }
+      tokenNodeLists.clear();
+    }
+
+    @Nullable
+    private RuleNodes getRuleNodes(int ruleIndex) {
+      return ruleIndex >= 0 && ruleIndex < ruleNodes.size() ? ruleNodes.get(ruleIndex) : null;
+    }
+
+    @Nullable
+    private TokenNodes getTokenNodes(int tokenType) {
+      // EOF имеет тип -1
+      var position = tokenType + 1;
+      return position >= 0 && position < tokenNodes.length ? tokenNodes[position] : null;
+    }
+
+    private void visit(ParseTree tree) {
+      if (tree instanceof TerminalNode) {
+        var node = (TerminalNode) tree;
+        var position = node.getSymbol().getType() + 1;
+        while (tokenNodeLists.size() <= position) {
+          tokenNodeLists.add(null);
+        }
+        if (tokenNodeLists.get(position) == null) {
+          tokenNodeLists.set(position, new ArrayList<>());
+        }
+        tokenNodeLists.get(position).add(node);
+        hasDetachedTokens |= node.getSymbol().getTokenIndex() < 0;
+        return;
+      }
+
+      if (!(tree instanceof ParserRuleContext)) {
+        for (var i = 0; i < tree.getChildCount(); i++) {
+          visit(tree.getChild(i));
+        }
+        return;
+      }
+
+      var ctx = (ParserRuleContext) tree;
+      var ruleIndex = ctx.getRuleIndex();
+      while (ruleNodes.size() <= ruleIndex) {
+        ruleNodes.add(null);
+      }
+      if (ruleNodes.get(ruleIndex) == null) {
+        ruleNodes.set(ruleIndex, new RuleNodes());
+      }
+      var nodes = ruleNodes.get(ruleIndex);
+      var position = nodes.add(ctx, startIndex(ctx), order++);
+
+      for (var i = 0; i < ctx.getChildCount(); i++) {
+        visit(ctx.getChild(i));
+      }
+      nodes.subtreeEnds[position] = order - 1;
+    }
+
+    private static int startIndex(ParserRuleContext ctx) {
+      Token start = ctx.getStart();
+      return start == null ? -1 : start.getTokenIndex();
+    }
+  }
+
+  private static final class RuleNodes {
+    private ParserRuleContext[] nodes = new ParserRuleContext[4];
+    private int[] starts = new int[4];
+    private int[] orders = new int[4];
+    private int[] subtreeEnds = new int[4];
+    private int size;
+
+    private int add(ParserRuleContext node, int start, int order) {
+      if (size == nodes.length) {
+        var capacity = size * 2;
+        nodes = Arrays.copyOf(nodes, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        orders = Arrays.copyOf(orders, capacity);
+        subtreeEnds = Arrays.copyOf(subtreeEnds, capacity);
+      }
+      nodes[size] = node;
+      starts[size] = start;
+      orders[size] = order;
+      return size++;
+    }
+  }
+
+  private static final class TokenNodes {
+    private final TerminalNode[] nodes;
+    private final int[] tokenIndexes;
+
+    private TokenNodes(List<TerminalNode> nodeList) {
+      nodes = nodeList.toArray(new TerminalNode[0]);
+      tokenIndexes = new int[nodes.length];
+      for (var i = 0; i < nodes.length; i++) {
+        tokenIndexes[i] = nodes[i].getSymbol().getTokenIndex();
+      }
+    }
+  }
+
+  /**
+   * Ключ реестра: корень дерева разбора, сравниваемый по идентичности.
+   */
+  private interface RootKey {
+    @Nullable
+    ParseTree getRoot();
+
+    static boolean sameRoot(RootKey key, Object obj) {
+      if (key == obj) {
+        return true;
+      }
+      if (!(obj instanceof RootKey)) {
+        return false;
+      }
+      var root = key.getRoot();
+      return root != null && root == ((RootKey) obj).getRoot();
+    }
+  }
+
+  /**
+   * Хранимый ключ, не удерживающий корень дерева.
+   */
+  private static final class RootReference extends WeakReference<ParseTree> implements RootKey {
+    private final int hash;
+
+    private RootReference(ParseTree root) {
+      super(root, COLLECTED_ROOTS);
+      hash = System.identityHashCode(root);
+    }
+
+    @Nullable
+    @Override
+    public ParseTree getRoot() {
+      return get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return RootKey.sameRoot(this, obj);
+    }
+  }
+
+  /**
+   * Ключ для поиска в реестре без создания слабой ссылки.
+   */
+  private static final class RootLookup implements RootKey {
+    private final ParseTree root;
+
+    private RootLookup(ParseTree root) {
+      this.root = root;
+    }
+
+    @Override
+    public ParseTree getRoot() {
+      return root;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(root);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return RootKey.sameRoot(this, obj);
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import lombok.Value;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Неизменяемый индекс элементов по диапазонам документа для поиска элементов, содержащих позицию.
+ * <p>
+ * Диапазоны хранятся упакованными в массивы, отсортированными по началу. Поверх массива строится
+ * неявное сбалансированное дерево интервалов: для каждого узла хранится максимальный конец диапазона
+ * в его поддереве. Поиск выполняется за O(log n + k), где k - количество найденных элементов.
+ * <p>
+ * Границы диапазонов включаются в поиск так же, как в {@link Ranges#containsPosition(Range, Position)}.
+ *
+ * @param <T> Тип индексируемых элементов.
+ */
+public final class RangeIndex<T> {
+
+  private static final RangeIndex<?> EMPTY = new RangeIndex<>(Collections.emptyList(), item -> null);
+
+  private final Object[] items;
+  private final int[] order;
+  private final long[] starts;
+  private final long[] ends;
+  private final long[] maxEnds;
+
+  private RangeIndex(Collection<? extends T> source, Function<? super T, Range> rangeFunction) {
+    var size = source.size();
+    var entries = new ArrayList<Entry>(size);
+    var index = 0;
+    for (T item : source) {
+      var range = rangeFunction.apply(item);
+      entries.add(new Entry(item, index++, pack(range.getStart()), pack(range.getEnd())));
+    }
+    entries.sort(Comparator.comparingLong(Entry::getStart).thenComparingInt(Entry::getOrder));
+
+    items = new Object[size];
+    order = new int[size];
+    starts = new long[size];
+    ends = new long[size];
+    maxEnds = new long[size];
+    for (var i = 0; i < size; i++) {
+      var entry = entries.get(i);
+      items[i] = entry.getItem();
+      order[i] = entry.getOrder();
+      starts[i] = entry.getStart();
+      ends[i] = entry.getEnd();
+    }
+    fillMaxEnds(0, size - 1);
+  }
+
+  /**
+   * Построить индекс.
+   *
+   * @param items         Индексируемые элементы.
+   * @param rangeFunction Функция получения диапазона элемента.
+   * @param <T>           Тип индексируемых элементов.
+   * @return Индекс элементов по диапазонам.
+   */
+  public static <T> RangeIndex<T> create(Collection<? extends T> items, Function<? super T, Range> rangeFunction) {
+    return new RangeIndex<>(items, rangeFunction);
+  }
+
+  /**
+   * @param <T> Тип индексируемых элементов.
+   * @return Пустой индекс.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> RangeIndex<T> empty() {
+    return (RangeIndex<T>) EMPTY;
+  }
+
+  /**
+   * @return Количество элементов в индексе.
+   */
+  public int size() {
+    return items.length;
+  }
+
+  /**
+   * Найти все элементы, диапазон которых содержит позицию.
+   *
+   * @param position Позиция.
+   * @return Найденные элементы в порядке, в котором они были переданы при построении индекса.
+   */
+  @SuppressWarnings("unchecked")
+  public List<T> findContaining(Position position) {
+    var found = new ArrayList<Integer>();
+    search(0, items.length - 1, pack(position), found::add);
+    if (found.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    // найденные индексы упорядочены по началу диапазона, результат восстанавливает исходный порядок элементов
+    found.sort(Comparator.comparingInt(i -> order[i]));
+    List<T> result = new ArrayList<>(found.size());
+    found.forEach(i -> result.add((T) items[i]));
+    return result;
+  }
+
+  /**
+   * Найти первый элемент, диапазон которого содержит позицию.
+   *
+   * @param position Позиция.
+   * @return Элемент с наименьшим порядковым номером при построении индекса среди содержащих позицию.
+   */
+  @SuppressWarnings("unchecked")
+  public Optional<T> findFirstContaining(Position position) {
+    var first = new int[]{-1};
+    search(0, items.length - 1, pack(position), (int i) -> {
+      if (first[0] == -1 || order[i] < order[first[0]]) {
+        first[0] = i;
+      }
+    });
+    return first[0] == -1 ? Optional.empty() : Optional.of((T) items[first[0]]);
+  }
+
+  private void search(int lo, int hi, long position, IntConsumer consumer) {
+    if (lo > hi) {
+      return;
+    }
+
+    var mid = (lo + hi) >>> 1;
+    if (maxEnds[mid] < position) {
+      return;
+    }
+
+    search(lo, mid - 1, position, consumer);
+
+    if (starts[mid] > position) {
+      // правое поддерево начинается не раньше текущего узла
+      return;
+    }
+
+    if (ends[mid] >= position) {
+      consumer.accept(mid);
+    }
+    search(mid + 1, hi, position, consumer);
+  }
+
+  private long fillMaxEnds(int lo, int hi) {
+    if (lo > hi) {
+      return Long.MIN_VALUE;
+    }
+
+    var mid = (lo + hi) >>> 1;
+    var maxEnd = Math.max(ends[mid], Math.max(fillMaxEnds(lo, mid - 1), fillMaxEnds(mid + 1, hi)));
+    maxEnds[mid] = maxEnd;
+    return maxEnd;
+  }
+
+  private static long pack(Position position) {
+    return ((long) position.getLine() << Integer.SIZE) | (position.getCharacter() & 0xFFFFFFFFL);
+  }
+
+  @Value
+  private static class Entry {
+    Object item;
+    int order;
+    long start;
+    long end;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import lombok.experimental.UtilityClass;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Применение изменений текста документа, полученных в режиме
+ * {@link org.eclipse.lsp4j.TextDocumentSyncKind#Incremental}.
+ */
+@UtilityClass
+public class TextChanges {
+
+  /**
+   * Применяет изменения к тексту документа в порядке их следования.
+   * <p>
+   * Изменение без диапазона заменяет текст целиком.
+   * Позиции считаются в UTF-16 code units, переводом строки считаются {@code \n}, {@code \r\n} и {@code \r}.
+   * Позиции за пределами строки или документа приводятся к ближайшей допустимой.
+   * <p>
+   * Смещения начал строк вычисляются один раз и после каждого изменения обновляются только
+   * для затронутых строк, поэтому пакет изменений не приводит к повторным просмотрам всего текста.
+   *
+   * @param content Текущий текст документа.
+   * @param changes Изменения текста.
+   * @return Текст документа после применения изменений.
+   */
+  public static String apply(String content, List<TextDocumentContentChangeEvent> changes) {
+    var lines = new LineIndex(content);
+
+    for (TextDocumentContentChangeEvent change : changes) {
+      var range = change.getRange();
+      if (range == null) {
+        lines = new LineIndex(change.getText());
+        continue;
+      }
+
+      var start = lines.offsetOf(range.getStart());
+      var end = Math.max(start, lines.offsetOf(range.getEnd()));
+      lines.replace(start, end, change.getText());
+    }
+
+    return lines.text.toString();
+  }
+
+  /**
+   * Вычисляет смещение позиции от начала текста.
+   *
+   * @param text     Текст.
+   * @param position Позиция в тексте.
+   * @return Смещение позиции от начала текста.
+   */
+  public static int offsetOf(CharSequence text, Position position) {
+    return new LineIndex(text).offsetOf(position);
+  }
+
+  /**
+   * Текст с упорядоченным массивом смещений начал строк.
+   */
+  private static final class LineIndex {
+    private final StringBuilder text;
+    private int[] starts;
+    private int count;
+
+    LineIndex(CharSequence content) {
+      text = new StringBuilder(content);
+      starts = new int[16];
+      starts[0] = 0;
+      count = 1;
+      appendLineStarts(0, text.length() + 1);
+    }
+
+    int offsetOf(Position position) {
+      var line = position.getLine();
+      if (line < 0) {
+        return 0;
+      }
+      if (line >= count) {
+        return text.length();
+      }
+
+      var lineStart = starts[line];
+      return lineStart + Math.min(Math.max(position.getCharacter(), 0), lineEnd(line) - lineStart);
+    }
+
+    /**
+     * Заменяет фрагмент текста и обновляет начала строк.
+     * <p>
+     * Начало строки определяется парой символов перед ним, поэтому пересчитываются только начала строк,
+     * соседние с замененным фрагментом: это учитывает разделение и склейку {@code \r\n} на его границах.
+     * Начала строк после фрагмента сдвигаются на изменение длины текста.
+     */
+    void replace(int start, int end, String replacement) {
+      var delta = replacement.length() - (end - start);
+      var scanFrom = Math.max(0, start - 1);
+      var tailFrom = indexAfter(end);
+      var tail = Arrays.copyOfRange(starts, tailFrom, count);
+
+      text.replace(start, end, replacement);
+
+      count = indexAfter(scanFrom);
+      appendLineStarts(scanFrom + 1, start + replacement.length() + 1);
+      ensureCapacity(count + tail.length);
+      for (int tailStart : tail) {
+        starts[count++] = tailStart + delta;
+      }
+    }
+
+    /**
+     * @return Индекс первого начала строки, большего {@code offset}.
+     */
+    private int indexAfter(int offset) {
+      var index = Arrays.binarySearch(starts, 0, count, offset);
+      return index >= 0 ? (index + 1) : -(index + 1);
+    }
+
+    private void appendLineStarts(int from, int to) {
+      var length = text.length();
+      for (var offset = from; offset < Math.min(to, length + 1); offset++) {
+        if (isLineStart(offset)) {
+          ensureCapacity(count + 1);
+          starts[count++] = offset;
+        }
+      }
+    }
+
+    private boolean isLineStart(int offset) {
+      if (offset == 0) {
+        return false;
+      }
+      var previous = text.charAt(offset - 1);
+      return previous == '\n'
+        || (previous == '\r' && (offset == text.length() || text.charAt(offset) != '\n'));
+    }
+
+    private int lineEnd(int line) {
+      var lineStart = starts[line];
+      var end = (line + 1 < count) ? starts[line + 1] : text.length();
+      if (end > lineStart && text.charAt(end - 1) == '\n') {
+        end--;
+      }
+      if (end > lineStart && text.charAt(end - 1) == '\r') {
+        end--;
+      }
+      return end;
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity > starts.length) {
+        starts = Arrays.copyOf(starts, Math.max(capacity, starts.length * 2));
+      }
+    }
+  }
+}
@@ -45,6 +45,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import static java.util.Objects.requireNonNull;
+
 @UtilityClass
 public final class Trees {
 
@@ -66,6 +68,11 @@ public final class Trees {
    */
 
   public static Collection<ParseTree> findAllRuleNodes(ParseTree t, int ruleIndex) {
+    var index = ParseTreeIndex.find(t);
+    var nodes = index == null ? null : index.findRuleNodes(t, ruleIndex);
+    if (nodes != null) {
+      return new ArrayList<>(nodes);
+    }
     return org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(t, ruleIndex);
   }
 
@@ -115,6 +122,11 @@ public final class Trees {
   }
 
   public static Collection<ParseTree> findAllTokenNodes(ParseTree t, int ttype) {
+    var index = ParseTreeIndex.find(t);
+    var nodes = index == null ? null : index.findTokenNodes(t, ttype);
+    if (nodes != null) {
+      return new ArrayList<>(nodes);
+    }
     return org.antlr.v4.runtime.tree.Trees.findAllTokenNodes(t, ttype);
   }
 
@@ -148,7 +160,7 @@ public final class Trees {
   private static List<ParseTree> getDescendantsWithFilter(ParseTree parent, ParseTree tnc, int ruleindex) {
     List<ParseTree> descendants;
     if (getRuleIndex(tnc) == ruleindex) {
-      descendants = new ArrayList<>(org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(parent, ruleindex));
+      descendants = new ArrayList<>(findAllRuleNodes(parent, ruleindex));
     } else {
       descendants = org.antlr.v4.runtime.tree.Trees.getDescendants(parent)
         .stream()
@@ -371,33 +383,57 @@ public final class Trees {
    * Получает дочерние ноды с нужными типами
    */
   public static Collection<ParserRuleContext> findAllRuleNodes(ParseTree t, Collection<Integer> indexes) {
+    var index = ParseTreeIndex.find(t);
+    var indexedNodes = index == null ? null : index.findRuleNodes(t, indexes);
+    if (indexedNodes != null) {
+      return indexedNodes;
+    }
+
     List<ParserRuleContext> nodes = new ArrayList<>();
+    collectRuleNodes(t, indexes, nodes);
+    return nodes;
+  }
 
+  private static void collectRuleNodes(ParseTree t, Collection<Integer> indexes, List<ParserRuleContext> nodes) {
     if (t instanceof ParserRuleContext
       && indexes.contains(((ParserRuleContext) t).getRuleIndex())) {
       nodes.add((ParserRuleContext) t);
     }
 
-    IntStream.range(0, t.getChildCount())
-      .mapToObj(i -> findAllRuleNodes(t.getChild(i), indexes))
-      .forEachOrdered(nodes::addAll);
-
-    return nodes;
+    for (var i = 0; i < t.getChildCount(); i++) {
+      collectRuleNodes(t.getChild(i), indexes, nodes);
+    }
   }
 
   /**
    * Проверяет наличие дочерней ноды с указанным типом
    */
   public static boolean nodeContains(ParseTree t, Integer... index) {
-    Set<Integer> indexes = new HashSet<>(Arrays.asList(index));
+    var treeIndex = ParseTreeIndex.find(t);
+    if (treeIndex != null && index.length > 0 && treeIndex.findRuleNodes(t, index[0]) != null) {
+      for (var ruleIndex : index) {
+        if (!requireNonNull(treeIndex.findRuleNodes(t, ruleIndex)).isEmpty()) {
+          return true;
+        }
+      }
+      return false;
+    }
 
+    return containsRuleNode(t, new HashSet<>(Arrays.asList(index)));
+  }
+
+  private static boolean containsRuleNode(ParseTree t, Set<Integer> indexes) {
     if (t instanceof ParserRuleContext
       && indexes.contains(((ParserRuleContext) t).getRuleIndex())) {
       return true;
     }
 
-    return IntStream.range(0, t.getChildCount())
-      .anyMatch(i -> nodeContains(t.getChild(i), index));
+    for (var i = 0; i < t.getChildCount(); i++) {
+      if (containsRuleNode(t.getChild(i), indexes)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -61,6 +61,52 @@ public class DefaultNodeEqualityComparer implements NodeEqualityComparer {
 
   }
 
+  @Override
+  public int hash(BslExpression expression) {
+    var hash = expression.getNodeType().ordinal();
+
+    switch (expression.getNodeType()) {
+      case LITERAL:
+      case IDENTIFIER:
+        return 31 * hash + DiagnosticHelper.nodeHash(expression.getRepresentingAst());
+      case BINARY_OP:
+        return 31 * hash + binaryOperationHash((BinaryOperationNode) expression);
+      case UNARY_OP:
+        var unary = (UnaryOperationNode) expression;
+        return 31 * (31 * hash + unary.getOperator().ordinal()) + hash(unary.getOperand());
+      case TERNARY_OP:
+        var ternary = (TernaryOperatorNode) expression;
+        hash = 31 * hash + hash(ternary.getCondition());
+        hash = 31 * hash + hash(ternary.getTruePart());
+        return 31 * hash + hash(ternary.getFalsePart());
+      case SKIPPED_CALL_ARG:
+        return hash;
+      case CALL:
+        return 31 * hash + callStatementHash((AbstractCallNode) expression);
+      default:
+        throw new IllegalStateException();
+    }
+  }
+
+  protected int callStatementHash(AbstractCallNode call) {
+    int hash;
+    if (call instanceof MethodCallNode) {
+      hash = DiagnosticHelper.caseInsensitiveHash(((MethodCallNode) call).getName().getText());
+    } else {
+      hash = 31 + hash(((ConstructorCallNode) call).getTypeName());
+    }
+
+    for (var argument : call.arguments()) {
+      hash = 31 * hash + hash(argument);
+    }
+    return hash;
+  }
+
+  protected int binaryOperationHash(BinaryOperationNode node) {
+    var hash = 31 * node.getOperator().ordinal() + hash(node.getLeft());
+    return 31 * hash + hash(node.getRight());
+  }
+
   protected boolean callStatementsEqual(AbstractCallNode first, AbstractCallNode second) {
     if (first instanceof MethodCallNode) {
       return methodCallsEqual((MethodCallNode) first, (MethodCallNode) second);
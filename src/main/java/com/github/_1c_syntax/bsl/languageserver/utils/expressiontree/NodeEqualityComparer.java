@@ -26,4 +26,14 @@ package com.github._1c_syntax.bsl.languageserver.utils.expressiontree;
  */
 public interface NodeEqualityComparer {
   boolean areEqual(BslExpression first, BslExpression second);
+
+  /**
+   * Структурный хэш выражения, согласованный со стратегией сравнения:
+   * для выражений, равных по {@link #areEqual(BslExpression, BslExpression)}, хэши совпадают.
+   * Позволяет искать одинаковые выражения группировкой по хэшу вместо попарного сравнения.
+   *
+   * @param expression Выражение.
+   * @return Хэш выражения.
+   */
+  int hash(BslExpression expression);
 }
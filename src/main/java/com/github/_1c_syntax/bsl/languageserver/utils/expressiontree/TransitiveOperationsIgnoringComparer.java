@@ -48,6 +48,16 @@ public class TransitiveOperationsIgnoringComparer extends DefaultNodeEqualityCom
 
   }
 
+  @Override
+  protected int binaryOperationHash(BinaryOperationNode node) {
+    if (isTransitiveOperation(node.getOperator())) {
+      // операнды транзитивной операции могут быть переставлены, поэтому хэши операндов складываются
+      return 31 * node.getOperator().ordinal() + hash(node.getLeft()) + hash(node.getRight());
+    }
+
+    return super.binaryOperationHash(node);
+  }
+
   /**
    * @param transitivityFlag Включает режим транзитивности логических операций
    *                         если true, то операторы И/ИЛИ считаются транзитивными
@@ -128,6 +128,35 @@ class BSLLSPLauncherTest {
     assertThat(errContent.toString()).isEmpty();
   }
 
+  @Test
+  void testAnalyzeShard() {
+    // given
+    String[] args = "--analyze --srcDir ./src/test/resources/cli --shard 1/2 --silent".split(" ");
+
+    // when-then
+    assertThatThrownBy(() -> BSLLSPLauncher.main(args))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessage("0");
+
+    // then
+    assertThat(outContent.toString()).isEmpty();
+    assertThat(errContent.toString()).isEmpty();
+  }
+
+  @Test
+  void testAnalyzeShardError() {
+    // given
+    String[] args = "--analyze --srcDir ./src/test/resources/cli --shard 3/2".split(" ");
+
+    // when-then
+    assertThatThrownBy(() -> BSLLSPLauncher.main(args))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessage("1");
+
+    // then
+    assertThat(outContent.toString()).contains("Shard index must be between 1 and 2");
+  }
+
   @Test
   void testFormat() {
     // given
@@ -21,10 +21,13 @@
  */
 package com.github._1c_syntax.bsl.languageserver;
 
+import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
+import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.ComputeTrigger;
 import com.github._1c_syntax.bsl.languageserver.jsonrpc.DiagnosticParams;
 import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
 import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.eclipse.lsp4j.DidChangeTextDocumentParams;
 import org.eclipse.lsp4j.DidCloseTextDocumentParams;
 import org.eclipse.lsp4j.DidOpenTextDocumentParams;
@@ -43,11 +46,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 @SpringBootTest
 @CleanupContextBeforeClassAndAfterClass
@@ -55,6 +62,8 @@ class BSLTextDocumentServiceTest {
 
   @Autowired
   private BSLTextDocumentService textDocumentService;
+  @Autowired
+  private LanguageServerConfiguration configuration;
 
   @Test
   void didOpen() throws IOException {
@@ -80,6 +89,62 @@ class BSLTextDocumentServiceTest {
     textDocumentService.didChange(params);
   }
 
+  @Test
+  void didChangeDuringDebouncedValidation() throws Exception {
+    // given
+    var diagnosticsOptions = configuration.getDiagnosticsOptions();
+    var computeTrigger = diagnosticsOptions.getComputeTrigger();
+    var onTypeDelay = FieldUtils.readField(textDocumentService, "onTypeDiagnosticsDelay", true);
+    diagnosticsOptions.setComputeTrigger(ComputeTrigger.ONTYPE);
+    FieldUtils.writeField(textDocumentService, "onTypeDiagnosticsDelay", 0L, true);
+
+    var textDocumentItem = getTextDocumentItem();
+    textDocumentService.didOpen(new DidOpenTextDocumentParams(textDocumentItem));
+    var uri = textDocumentItem.getUri();
+    var fileContent = textDocumentItem.getText();
+
+    try {
+      // when
+      var lastVersion = 20;
+      assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+        for (var version = 2; version <= lastVersion; version++) {
+          var params = new DidChangeTextDocumentParams(
+            new VersionedTextDocumentIdentifier(uri, version),
+            List.of(new TextDocumentContentChangeEvent(fileContent + "\n// " + version))
+          );
+          textDocumentService.didChange(params);
+          // даем отложенной проверке начаться до следующего изменения
+          Thread.sleep(version % 5);
+        }
+      });
+      var diagnostics = textDocumentService.diagnostics(new DiagnosticParams(getTextDocumentIdentifier()))
+        .get(30, TimeUnit.SECONDS);
+
+      // then
+      assertThat(diagnostics.getVersion()).isEqualTo(lastVersion);
+      assertThat(diagnostics.getDiagnostics()).isNotEmpty();
+    } finally {
+      diagnosticsOptions.setComputeTrigger(computeTrigger);
+      FieldUtils.writeField(textDocumentService, "onTypeDiagnosticsDelay", onTypeDelay, true);
+    }
+  }
+
+  @Test
+  void didChangeClosedDocumentIsIgnored() throws IOException {
+    // given
+    var textDocumentItem = getTextDocumentItem();
+    textDocumentService.didOpen(new DidOpenTextDocumentParams(textDocumentItem));
+    textDocumentService.didClose(new DidCloseTextDocumentParams(getTextDocumentIdentifier()));
+
+    var params = new DidChangeTextDocumentParams(
+      new VersionedTextDocumentIdentifier(textDocumentItem.getUri(), 2),
+      List.of(new TextDocumentContentChangeEvent(Ranges.create(0, 0, 0, 0), "// "))
+    );
+
+    // when-then
+    assertThatCode(() -> textDocumentService.didChange(params)).doesNotThrowAnyException();
+  }
+
   @Test
   void didClose() {
     DidCloseTextDocumentParams params = new DidCloseTextDocumentParams();
@@ -0,0 +1,139 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver;
+
+import com.github._1c_syntax.bsl.languageserver.RequestScheduler.Lane;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
+import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+  "app.scheduler.interactive.parallelism=1",
+  "app.scheduler.diagnostics.parallelism=1"
+})
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class RequestSchedulerTest {
+
+  @Autowired
+  private RequestScheduler scheduler;
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Test
+  void testTaskRunsInLaneThread() throws ExecutionException, InterruptedException {
+    // when
+    var interactiveThreadName = scheduler.supplyAsync(Lane.INTERACTIVE, () -> Thread.currentThread().getName());
+    var backgroundThreadName = scheduler.supplyAsync(Lane.BACKGROUND, () -> Thread.currentThread().getName());
+
+    // then
+    assertThat(interactiveThreadName.get()).startsWith("bsl-ls-interactive-");
+    assertThat(backgroundThreadName.get()).startsWith("bsl-ls-background-");
+  }
+
+  @Test
+  void testCancelledTaskIsNotExecuted() throws Exception {
+    // given
+    var latch = new CountDownLatch(1);
+    var blocker = scheduler.runAsync(Lane.INTERACTIVE, () -> await(latch));
+    var executed = new AtomicBoolean();
+
+    // when
+    var task = scheduler.runAsync(Lane.INTERACTIVE, () -> executed.set(true));
+    task.cancel(true);
+    latch.countDown();
+    blocker.get(10, TimeUnit.SECONDS);
+    scheduler.runAsync(Lane.INTERACTIVE, () -> {
+    }).get(10, TimeUnit.SECONDS);
+
+    // then
+    assertThat(task).isCancelled();
+    assertThat(executed).isFalse();
+  }
+
+  @Test
+  void testSupersededDocumentVersion() throws Exception {
+    // given
+    var documentContext = TestUtils.getDocumentContext("А = 1;");
+    var latch = new CountDownLatch(1);
+    var blocker = scheduler.runAsync(Lane.DIAGNOSTICS, () -> await(latch));
+    var executed = new AtomicBoolean();
+    var task = scheduler.runAsync(Lane.DIAGNOSTICS, documentContext, () -> executed.set(true));
+
+    // when
+    serverContext.rebuildDocument(documentContext, "А = 2;", documentContext.getVersion() + 1);
+    latch.countDown();
+    blocker.get(10, TimeUnit.SECONDS);
+
+    // then
+    assertThatThrownBy(() -> task.get(10, TimeUnit.SECONDS))
+      .hasCauseInstanceOf(ResponseErrorException.class)
+      .satisfies(e -> assertThat(((ResponseErrorException) e.getCause()).getResponseError().getCode())
+        .isEqualTo(ResponseErrorCode.ContentModified.getValue()));
+    assertThat(executed).isFalse();
+  }
+
+  @Test
+  void testDebouncedTasksAreCoalesced() throws Exception {
+    // given
+    var documentContext = TestUtils.getDocumentContext("А = 1;");
+    var executions = new AtomicInteger();
+    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+    // when
+    for (var i = 0; i < 5; i++) {
+      tasks.add(scheduler.runDebounced(Lane.DIAGNOSTICS, documentContext, 200, executions::incrementAndGet));
+    }
+    var lastTask = tasks.get(tasks.size() - 1);
+    lastTask.get(10, TimeUnit.SECONDS);
+
+    // then
+    assertThat(executions).hasValue(1);
+    assertThat(tasks.subList(0, tasks.size() - 1)).allMatch(CompletableFuture::isCancelled);
+    assertThat(lastTask).isCompleted();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -35,6 +35,7 @@ import java.io.FileOutputStream;
 import java.io.PrintStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
 @SpringBootTest
 @ActiveProfiles("measures")
@@ -49,7 +50,7 @@ class MeasureCollectorTest {
 
   @BeforeEach
   void setUpStreams() {
-    measureCollector.getMeasures().clear();
+    measureCollector.reset();
     outContent = new ByteArrayOutputStream();
     System.setOut(new PrintStream(outContent));
   }
@@ -65,13 +66,43 @@ class MeasureCollectorTest {
     measureCollector.measureIt(throwingSupplier, "test");
 
     // then
-    var measures = measureCollector.getMeasures();
+    assertThat(measureCollector.getStatistics())
+      .singleElement()
+      .satisfies(statistics -> {
+        assertThat(statistics.getName()).isEqualTo("test");
+        assertThat(statistics.getCount()).isEqualTo(1);
+      });
+  }
+
+  @Test
+  void testMeasuresPercentiles() {
+    // when
+    for (var i = 1; i <= 1_000; i++) {
+      measureCollector.record("test", i * 1_000L);
+    }
+
+    // then
+    var statistics = measureCollector.getStatistics().get(0);
+    assertThat(statistics.getCount()).isEqualTo(1_000);
+    assertThat(statistics.getTotal()).isEqualTo(500_500_000L);
+    assertThat(statistics.getMax()).isEqualTo(1_000_000L);
+    assertThat(statistics.getP50()).isCloseTo(500_000L, withinPercentage(7));
+    assertThat(statistics.getP90()).isCloseTo(900_000L, withinPercentage(7));
+    assertThat(statistics.getP99()).isCloseTo(990_000L, withinPercentage(7));
+  }
 
-    assertThat(measures)
-      .containsKey("test")
-      .extractingByKey("test")
-      .asList()
-      .isNotEmpty();
+  @Test
+  void testMeasuresDump() {
+    // given
+    measureCollector.measureIt(throwingSupplier, "test");
+
+    // when
+    var dump = measureCollector.dumpMeasures();
+
+    // then
+    assertThat(dump)
+      .contains("\"name\" : \"test\"")
+      .contains("\"p99\"");
   }
 
   @Test
@@ -83,7 +114,7 @@ class MeasureCollectorTest {
     measureCollector.printMeasures();
 
     // then
-    assertThat(outContent.toString()).containsPattern("test - \\d+");
+    assertThat(outContent.toString()).containsPattern("test - count: 1, total: [\\d.,]+ ms");
   }
 
 }
\ No newline at end of file
@@ -31,8 +31,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -66,7 +67,8 @@ class MeasuresSubsystemTest {
     documentContext.getDiagnostics();
 
     // then
-    Map<String, List<Long>> measures = measureCollector.getMeasures();
+    Map<String, MeasureStatistics> measures = measureCollector.getStatistics().stream()
+      .collect(Collectors.toMap(MeasureStatistics::getName, Function.identity()));
 
     assertThat(measures)
       .containsKey("context: ast")
@@ -78,6 +80,7 @@ class MeasuresSubsystemTest {
       .containsKey("context: cyclomaticComplexity")
       .containsKey("context: metrics")
       .containsKey("context: configuration")
+      .containsKey("context: rebuild")
     ;
 
     assertThat(measures.keySet())
@@ -86,7 +89,7 @@ class MeasuresSubsystemTest {
     ;
 
     assertThat(measures.values())
-      .allSatisfy(longs -> assertThat(longs).isNotEmpty())
+      .allSatisfy(statistics -> assertThat(statistics.getCount()).isPositive())
     ;
   }
 
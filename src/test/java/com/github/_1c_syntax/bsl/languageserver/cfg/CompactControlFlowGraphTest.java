@@ -0,0 +1,184 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cfg;
+
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.languageserver.utils.Trees;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CompactControlFlowGraphTest {
+
+  @Test
+  void compactGraphMirrorsSourceGraph() {
+    var code = "А = 1;\n" +
+      "Если Б = 2 Тогда\n" +
+      "    В = 4;\n" +
+      "КонецЕсли;";
+
+    var graph = buildGraph(code);
+    var compactGraph = CompactControlFlowGraph.of(graph);
+
+    assertThat(compactGraph.getVertexCount()).isEqualTo(graph.vertexSet().size());
+    assertThat(compactGraph.getEntryIndex()).isZero();
+    assertThat(compactGraph.getVertex(compactGraph.getEntryIndex())).isSameAs(graph.getEntryPoint());
+    assertThat(compactGraph.getVertex(compactGraph.getExitIndex())).isSameAs(graph.getExitPoint());
+    assertThat(compactGraph.getReachableCount()).isEqualTo(compactGraph.getVertexCount());
+
+    var condition = compactGraph.getSuccessor(compactGraph.getEntryIndex(), CfgEdgeType.DIRECT);
+    assertThat(compactGraph.getVertex(condition)).isInstanceOf(ConditionalVertex.class);
+    assertThat(compactGraph.getSuccessorCount(condition)).isEqualTo(2);
+    assertThat(compactGraph.getSuccessor(condition, CfgEdgeType.FALSE_BRANCH)).isEqualTo(compactGraph.getExitIndex());
+    assertThat(compactGraph.getSuccessor(condition, CfgEdgeType.LOOP_ITERATION))
+      .isEqualTo(CompactControlFlowGraph.NO_VERTEX);
+
+    var trueBranch = compactGraph.getSuccessor(condition, CfgEdgeType.TRUE_BRANCH);
+    assertThat(compactGraph.indexOf(compactGraph.getVertex(trueBranch))).isEqualTo(trueBranch);
+    assertThat(compactGraph.getPredecessorCount(compactGraph.getExitIndex())).isEqualTo(2);
+  }
+
+  @Test
+  void unreachableCode() {
+    var code = "А = 1;\n" +
+      "Возврат;\n" +
+      "Б = 2;";
+
+    var graph = CompactControlFlowGraph.of(buildGraph(code));
+
+    var unreachable = Reachability.unreachableVertices(graph);
+    assertThat(unreachable.cardinality()).isEqualTo(1);
+    var deadBlock = (BasicBlockVertex) graph.getVertex(unreachable.nextSetBit(0));
+    assertThat(deadBlock.statements().get(0).getText()).isEqualTo("Б=2");
+
+    assertThat(Reachability.reachableFrom(graph, graph.getEntryIndex()).get(unreachable.nextSetBit(0))).isFalse();
+    assertThat(Reachability.reaching(graph, graph.getExitIndex()).cardinality()).isEqualTo(graph.getVertexCount());
+  }
+
+  @Test
+  void dominators() {
+    var code = "А = 1;\n" +
+      "Если Б = 2 Тогда\n" +
+      "    В = 4;\n" +
+      "Иначе\n" +
+      "    В = 5;\n" +
+      "КонецЕсли;\n" +
+      "Г = 1;";
+
+    var graph = CompactControlFlowGraph.of(buildGraph(code));
+    var dominators = Dominators.of(graph);
+
+    var condition = graph.getSuccessor(graph.getEntryIndex(), CfgEdgeType.DIRECT);
+    var trueBranch = graph.getSuccessor(condition, CfgEdgeType.TRUE_BRANCH);
+    var join = graph.getSuccessor(trueBranch, CfgEdgeType.DIRECT);
+
+    assertThat(dominators.getImmediateDominator(graph.getEntryIndex())).isEqualTo(CompactControlFlowGraph.NO_VERTEX);
+    assertThat(dominators.getImmediateDominator(condition)).isEqualTo(graph.getEntryIndex());
+    assertThat(dominators.getImmediateDominator(join)).isEqualTo(condition);
+    assertThat(dominators.dominates(condition, trueBranch)).isTrue();
+    assertThat(dominators.dominates(trueBranch, join)).isFalse();
+    assertThat(dominators.dominates(graph.getEntryIndex(), graph.getExitIndex())).isTrue();
+    assertThat(dominators.dominates(join, join)).isTrue();
+  }
+
+  @Test
+  void defUseChains() {
+    var code = "А = 1;\n" +
+      "Если Б Тогда\n" +
+      "    А = 2;\n" +
+      "КонецЕсли;\n" +
+      "Сообщить(а);\n" +
+      "Для Инд = 1 По Н Цикл\n" +
+      "    Сумма = Сумма + Инд;\n" +
+      "КонецЦикла;\n" +
+      "В = 3;";
+
+    var graph = CompactControlFlowGraph.of(buildGraph(code));
+    var chains = DefUseChains.of(graph);
+
+    var useOfA = chains.getUses().stream()
+      .filter(use -> use.getName().equals("а"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(chains.getReachingDefinitions(useOfA))
+      .extracting(definition -> definition.getNode().getParent().getParent().getText())
+      .containsExactlyInAnyOrder("А=1", "А=2");
+
+    var useOfIndex = chains.getUses().stream()
+      .filter(use -> use.getName().equals("инд"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(chains.getReachingDefinitions(useOfIndex))
+      .hasSize(1)
+      .allMatch(definition -> graph.getVertex(definition.getVertex()) instanceof ForLoopVertex);
+
+    var useOfSum = chains.getUses().stream()
+      .filter(use -> use.getName().equals("сумма"))
+      .findFirst()
+      .orElseThrow();
+    var definitionOfSum = chains.getDefinitions().stream()
+      .filter(definition -> definition.getName().equals("сумма"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(chains.getReachingDefinitions(useOfSum)).containsExactly(definitionOfSum);
+    assertThat(chains.getReachedUses(definitionOfSum)).containsExactly(useOfSum);
+
+    assertThat(chains.getUses().stream().map(DefUseChains.VariableAccess::getName).collect(Collectors.toList()))
+      .contains("б", "н")
+      .doesNotContain("сообщить");
+    assertThat(chains.getUnusedDefinitions())
+      .extracting(DefUseChains.VariableAccess::getName)
+      .containsExactly("в");
+  }
+
+  @Test
+  void graphIsCachedInDocumentContext() {
+    var code = "Функция Тест()\n" +
+      "  Если А Тогда\n" +
+      "    Возврат 1;\n" +
+      "  КонецЕсли;\n" +
+      "  Возврат 0;\n" +
+      "КонецФункции";
+
+    var documentContext = TestUtils.getDocumentContext(code);
+    var function = (BSLParser.FunctionContext) Trees.findAllRuleNodes(documentContext.getAst(), BSLParser.RULE_function)
+      .iterator().next();
+    var codeBlock = function.subCodeBlock().codeBlock();
+
+    var graph = documentContext.getControlFlowGraph(codeBlock);
+
+    assertThat(documentContext.getControlFlowGraph(codeBlock)).isSameAs(graph);
+    assertThat(Reachability.unreachableVertices(graph).isEmpty()).isTrue();
+  }
+
+  private static ControlFlowGraph buildGraph(String code) {
+    var documentContext = TestUtils.getDocumentContext(code);
+    var builder = new CfgBuildingParseTreeVisitor();
+    builder.producePreprocessorConditions(false);
+    return builder.buildGraph(documentContext.getAst().fileCodeBlock().codeBlock());
+  }
+}
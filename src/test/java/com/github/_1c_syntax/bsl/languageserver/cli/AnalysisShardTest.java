@@ -0,0 +1,95 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisShardTest {
+
+  @Test
+  void testParse() {
+    // when
+    var shard = AnalysisShard.parse("2/3");
+
+    // then
+    assertThat(shard.getIndex()).isEqualTo(2);
+    assertThat(shard.getCount()).isEqualTo(3);
+    assertThat(shard).hasToString("2/3");
+  }
+
+  @Test
+  void testParseError() {
+    assertThatThrownBy(() -> AnalysisShard.parse("2")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnalysisShard.parse("a/b")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnalysisShard.parse("0/2")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnalysisShard.parse("3/2")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnalysisShard.parse("1/0")).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> AnalysisShard.parse("1/99999999999")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testEachFileBelongsToExactlyOneShard() {
+    // given
+    var shards = IntStream.rangeClosed(1, 4)
+      .mapToObj(index -> AnalysisShard.parse(index + "/4"))
+      .collect(Collectors.toList());
+    List<Path> paths = IntStream.range(0, 200)
+      .mapToObj(index -> Path.of("CommonModules", "Module" + index, "Ext", "Module.bsl"))
+      .collect(Collectors.toList());
+
+    // when-then
+    for (var path : paths) {
+      assertThat(shards.stream().filter(shard -> shard.contains(path))).hasSize(1);
+    }
+    for (var shard : shards) {
+      assertThat(paths.stream().filter(shard::contains)).isNotEmpty();
+    }
+  }
+
+  @Test
+  void testSingleShardContainsAllFiles() {
+    // given
+    var shard = AnalysisShard.parse("1/1");
+
+    // when-then
+    assertThat(shard.contains(Path.of("Module.bsl"))).isTrue();
+    assertThat(shard.contains(Path.of("CommonModules", "Module", "Ext", "Module.bsl"))).isTrue();
+  }
+
+  @Test
+  void testPathSeparatorsDoNotAffectShard() {
+    // given
+    var shard = AnalysisShard.parse("1/3");
+
+    // when-then
+    assertThat(shard.contains(Path.of("CommonModules\\Module\\Ext\\Module.bsl")))
+      .isEqualTo(shard.contains(Path.of("CommonModules/Module/Ext/Module.bsl")));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github._1c_syntax.bsl.languageserver.context.MetricStorage;
+import com.github._1c_syntax.bsl.languageserver.reporters.JsonReporter;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.databind.AnalysisInfoObjectMapper;
+import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class AnalyzeCommandTest {
+
+  @Autowired
+  private AnalyzeCommand command;
+
+  @Autowired
+  private CommandLine.IFactory picocliFactory;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testReportFilesAreOrderedByPath() throws IOException {
+    // given
+    var srcDir = Files.createDirectory(tempDir.resolve("src"));
+    var names = List.of("Д.bsl", "А.bsl", "В.bsl", "Б.bsl", "Г.bsl", "Е.bsl");
+    for (var name : names) {
+      Files.writeString(srcDir.resolve(name), "Процедура Тест()\nКонецПроцедуры\n");
+    }
+    var outputDir = Files.createDirectory(tempDir.resolve("out"));
+
+    // when
+    var exitCode = new CommandLine(command, picocliFactory).execute(
+      "-w", tempDir.toString(),
+      "-s", srcDir.toString(),
+      "-o", outputDir.toString(),
+      "-r", "json",
+      "-q"
+    );
+
+    // then
+    assertThat(exitCode).isZero();
+
+    var report = readReport(outputDir);
+    assertThat(report.getFileinfos())
+      .extracting(FileInfo::getPath)
+      .containsExactly(
+        Path.of("src/А.bsl"),
+        Path.of("src/Б.bsl"),
+        Path.of("src/В.bsl"),
+        Path.of("src/Г.bsl"),
+        Path.of("src/Д.bsl"),
+        Path.of("src/Е.bsl")
+      );
+  }
+
+  @Test
+  void testIncrementalAnalysisTakesSkippedFilesFromBaseline() throws IOException {
+    // given
+    var srcDir = Files.createDirectory(tempDir.resolve("src"));
+    var changedFile = Files.writeString(srcDir.resolve("Измененный.bsl"), "Процедура Тест()\nКонецПроцедуры\n");
+    Files.writeString(srcDir.resolve("Неизмененный.bsl"), "Процедура Тест()\nКонецПроцедуры\n");
+    Files.writeString(srcDir.resolve("БезБазы.bsl"), "Процедура Тест()\nКонецПроцедуры\n");
+
+    var baselineDir = Files.createDirectory(tempDir.resolve("baseline"));
+    var baselineDiagnostic = new Diagnostic(Ranges.create(0, 0, 1), "baseline", DiagnosticSeverity.Error, "test");
+    try (var writer = new JsonReporter().createWriter(srcDir.toString(), baselineDir)) {
+      writer.write(new FileInfo(Path.of("src/Измененный.bsl"), "", List.of(baselineDiagnostic), new MetricStorage()));
+      writer.write(new FileInfo(Path.of("src/Неизмененный.bsl"), "", List.of(baselineDiagnostic), new MetricStorage()));
+      writer.write(new FileInfo(Path.of("src/Удаленный.bsl"), "", List.of(baselineDiagnostic), new MetricStorage()));
+      writer.complete(LocalDateTime.now());
+    }
+    var outputDir = Files.createDirectory(tempDir.resolve("out"));
+
+    // when
+    var exitCode = new CommandLine(command, picocliFactory).execute(
+      "-w", tempDir.toString(),
+      "-s", srcDir.toString(),
+      "-o", outputDir.toString(),
+      "-r", "json",
+      "-q",
+      "--changed", changedFile.toString(),
+      "--baseline", baselineDir.resolve("bsl-json.json").toString()
+    );
+
+    // then
+    assertThat(exitCode).isZero();
+
+    var fileInfos = readReport(outputDir).getFileinfos();
+    // измененный файл проанализирован заново, неизмененный взят из базового отчета,
+    // файлы без результатов в базовом отчете и удаленные файлы в отчет не попадают
+    assertThat(fileInfos)
+      .extracting(FileInfo::getPath)
+      .containsExactly(Path.of("src/Измененный.bsl"), Path.of("src/Неизмененный.bsl"));
+    assertThat(fileInfos.get(0).getDiagnostics())
+      .extracting(Diagnostic::getMessage)
+      .doesNotContain("baseline");
+    assertThat(fileInfos.get(1).getDiagnostics())
+      .extracting(Diagnostic::getMessage)
+      .containsExactly("baseline");
+  }
+
+  private static AnalysisInfo readReport(Path outputDir) throws IOException {
+    ObjectMapper mapper = new AnalysisInfoObjectMapper();
+    mapper.findAndRegisterModules();
+    return mapper.readValue(outputDir.resolve("bsl-json.json").toFile(), AnalysisInfo.class);
+  }
+}
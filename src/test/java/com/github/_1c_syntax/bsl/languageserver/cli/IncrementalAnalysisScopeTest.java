@@ -0,0 +1,160 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.utils.Absolute;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github._1c_syntax.bsl.languageserver.util.TestUtils.PATH_TO_METADATA;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class IncrementalAnalysisScopeTest {
+
+  private static final String PATH_TO_REFERENCING_FILE = "./src/test/resources/references/ReferenceIndex.bsl";
+
+  @Autowired
+  private IncrementalAnalysisScope incrementalAnalysisScope;
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testScopeContainsDocumentsReferencingChangedModule() {
+    // given
+    populateContext();
+    var referencingDocument = TestUtils.getDocumentContextFromFile(PATH_TO_REFERENCING_FILE);
+    var commonModule = metadataFile("CommonModules/ПервыйОбщийМодуль/Ext/Module.bsl");
+
+    // when
+    var scope = incrementalAnalysisScope.compute(List.of(commonModule));
+
+    // then
+    assertThat(scope)
+      .contains(uriOf(commonModule), referencingDocument.getUri())
+      .doesNotContain(uriOf(metadataFile("Catalogs/Справочник1/Ext/ObjectModule.bsl")));
+  }
+
+  @Test
+  void testScopeContainsModulesOfSameObject() {
+    // given
+    populateContext();
+    var objectModule = metadataFile("Catalogs/Справочник1/Ext/ObjectModule.bsl");
+
+    // when
+    var scope = incrementalAnalysisScope.compute(List.of(objectModule));
+
+    // then
+    assertThat(scope)
+      .contains(uriOf(objectModule), uriOf(metadataFile("Catalogs/Справочник1/Ext/ManagerModule.bsl")))
+      .doesNotContain(uriOf(metadataFile("CommonModules/ПервыйОбщийМодуль/Ext/Module.bsl")));
+  }
+
+  @Test
+  void testChangedFilesOutsideContextAreIgnored() {
+    // given
+    populateContext();
+
+    // when
+    var scope = incrementalAnalysisScope.compute(List.of(tempDir.resolve("Удаленный.bsl").toFile()));
+
+    // then
+    assertThat(scope).isEmpty();
+  }
+
+  @Test
+  void testGetChangedFiles() throws IOException, InterruptedException {
+    // given
+    var srcDir = Files.createDirectory(tempDir.resolve("src"));
+    var changedFile = Files.writeString(srcDir.resolve("Измененный.bsl"), "А = 1;");
+    Files.writeString(srcDir.resolve("Неизмененный.bsl"), "Б = 2;");
+    var outsideFile = Files.writeString(tempDir.resolve("README.md"), "readme");
+
+    git("init", "-q");
+    git("add", ".");
+    git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "initial");
+
+    Files.writeString(changedFile, "А = 3;");
+    Files.writeString(outsideFile, "changed readme");
+
+    // when
+    var changedFiles = incrementalAnalysisScope.getChangedFiles(srcDir, "HEAD");
+
+    // then
+    assertThat(changedFiles).containsExactly(changedFile.toFile());
+  }
+
+  @Test
+  void testGetChangedFilesWithUnknownRevision() throws IOException, InterruptedException {
+    // given
+    git("init", "-q");
+
+    // when-then
+    assertThatThrownBy(() -> incrementalAnalysisScope.getChangedFiles(tempDir, "unknown-revision"))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageContaining("unknown-revision");
+  }
+
+  private void populateContext() {
+    serverContext.setConfigurationRoot(Absolute.path(PATH_TO_METADATA));
+    serverContext.populateContext();
+  }
+
+  private void git(String... args) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add("git");
+    command.addAll(List.of(args));
+    var exitCode = new ProcessBuilder(command)
+      .directory(tempDir.toFile())
+      .inheritIO()
+      .start()
+      .waitFor();
+    assertThat(exitCode).isZero();
+  }
+
+  private static File metadataFile(String relativePath) {
+    return Absolute.path(Path.of(PATH_TO_METADATA, relativePath)).toFile();
+  }
+
+  private static URI uriOf(File file) {
+    return Absolute.uri(file.toURI());
+  }
+}
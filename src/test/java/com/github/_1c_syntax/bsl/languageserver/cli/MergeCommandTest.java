@@ -0,0 +1,199 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github._1c_syntax.bsl.languageserver.context.MetricStorage;
+import com.github._1c_syntax.bsl.languageserver.reporters.JsonReporter;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.AnalysisInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.data.FileInfo;
+import com.github._1c_syntax.bsl.languageserver.reporters.databind.AnalysisInfoObjectMapper;
+import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.DiagnosticSeverity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class MergeCommandTest {
+
+  @Autowired
+  private MergeCommand command;
+
+  @Autowired
+  private CommandLine.IFactory picocliFactory;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testMerge() throws IOException {
+    // given
+    var date = LocalDateTime.of(2022, 1, 1, 12, 0);
+    var firstShard = writeShardReport("shard1", date, List.of(
+      fileInfo("CommonModules/First.bsl", 1),
+      fileInfo("CommonModules/Second.bsl", 0)
+    ));
+    var secondShard = writeShardReport("shard2", date, List.of(
+      fileInfo("CommonModules/Third.bsl", 2),
+      fileInfo("CommonModules/First.bsl", 3)
+    ));
+    var outputDir = Files.createDirectory(tempDir.resolve("merged"));
+
+    // when
+    var exitCode = new CommandLine(command, picocliFactory).execute(
+      "-r", "json",
+      "-o", outputDir.toString(),
+      firstShard.toString(),
+      secondShard.toString()
+    );
+
+    // then
+    assertThat(exitCode).isZero();
+
+    var report = readReport(outputDir);
+    assertThat(report.getDate()).isEqualTo(date);
+    assertThat(report.getSourceDir()).isEqualTo("src");
+    assertThat(report.getFileinfos())
+      .extracting(FileInfo::getPath)
+      .containsExactly(
+        Path.of("CommonModules/First.bsl"),
+        Path.of("CommonModules/Second.bsl"),
+        Path.of("CommonModules/Third.bsl")
+      );
+    // результаты дублирующегося файла берутся из первого отчета
+    assertThat(report.getFileinfos().get(0).getDiagnostics()).hasSize(1);
+    assertThat(report.getFileinfos().get(2).getDiagnostics()).hasSize(2);
+  }
+
+  @Test
+  void testMergeMissingReport() {
+    // when
+    var exitCode = new CommandLine(command, picocliFactory).execute(
+      "-r", "json",
+      "-o", tempDir.toString(),
+      tempDir.resolve("fake.json").toString()
+    );
+
+    // then
+    assertThat(exitCode).isEqualTo(1);
+    assertThat(tempDir.resolve("bsl-json.json")).doesNotExist();
+  }
+
+  @Test
+  void testMergeReportsWithDifferentSourceDirs() throws IOException {
+    // given
+    var date = LocalDateTime.of(2022, 1, 1, 12, 0);
+    var firstShard = writeShardReport("shard1", "src", date, List.of(fileInfo("CommonModules/First.bsl", 1)));
+    var secondShard = writeShardReport("shard2", "other", date, List.of(fileInfo("CommonModules/Second.bsl", 1)));
+    var outputDir = Files.createDirectory(tempDir.resolve("merged"));
+
+    // when
+    var exitCode = new CommandLine(command, picocliFactory).execute(
+      "-r", "json",
+      "-o", outputDir.toString(),
+      firstShard.toString(),
+      secondShard.toString()
+    );
+
+    // then
+    assertThat(exitCode).isEqualTo(1);
+    assertThat(outputDir.resolve("bsl-json.json")).doesNotExist();
+  }
+
+  @Test
+  void testMergeWithoutKnownReporter() throws IOException {
+    // given
+    var date = LocalDateTime.of(2022, 1, 1, 12, 0);
+    var shard = writeShardReport("shard1", date, List.of(fileInfo("CommonModules/First.bsl", 1)));
+
+    // when
+    var exitCodeWithoutReporter = new CommandLine(command, picocliFactory).execute(
+      "-o", tempDir.toString(),
+      shard.toString()
+    );
+    var exitCodeWithUnknownReporter = new CommandLine(command, picocliFactory).execute(
+      "-r", "unknown",
+      "-o", tempDir.toString(),
+      shard.toString()
+    );
+
+    // then
+    assertThat(exitCodeWithoutReporter).isEqualTo(1);
+    assertThat(exitCodeWithUnknownReporter).isEqualTo(1);
+    assertThat(tempDir.resolve("bsl-json.json")).doesNotExist();
+  }
+
+  private Path writeShardReport(String name, LocalDateTime date, List<FileInfo> fileInfos) throws IOException {
+    return writeShardReport(name, "src", date, fileInfos);
+  }
+
+  private Path writeShardReport(
+    String name,
+    String sourceDir,
+    LocalDateTime date,
+    List<FileInfo> fileInfos
+  ) throws IOException {
+    var shardDir = Files.createDirectory(tempDir.resolve(name));
+    try (var writer = new JsonReporter().createWriter(sourceDir, shardDir)) {
+      fileInfos.forEach(writer::write);
+      writer.complete(date);
+    }
+    return shardDir.resolve("bsl-json.json");
+  }
+
+  private static AnalysisInfo readReport(Path outputDir) throws IOException {
+    ObjectMapper mapper = new AnalysisInfoObjectMapper();
+    mapper.findAndRegisterModules();
+    return mapper.readValue(outputDir.resolve("bsl-json.json").toFile(), AnalysisInfo.class);
+  }
+
+  private static FileInfo fileInfo(String path, int diagnosticsCount) {
+    var diagnostic = new Diagnostic(
+      Ranges.create(0, 1, 2, 3),
+      "message",
+      DiagnosticSeverity.Error,
+      "test-source",
+      "test"
+    );
+    return new FileInfo(
+      Path.of(path),
+      "",
+      Collections.nCopies(diagnosticsCount, diagnostic),
+      new MetricStorage()
+    );
+  }
+}
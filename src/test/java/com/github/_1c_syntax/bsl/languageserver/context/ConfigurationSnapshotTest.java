@@ -0,0 +1,106 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import com.github._1c_syntax.utils.Absolute;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterClass
+class ConfigurationSnapshotTest {
+
+  private static final String PATH_TO_MODULE_FILE = "CommonModules/ПервыйОбщийМодуль/Ext/Module.bsl";
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Test
+  void testSnapshotMatchesConfiguration() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(TestUtils.PATH_TO_METADATA));
+    var configuration = serverContext.getConfiguration();
+
+    // when
+    var snapshot = serverContext.getConfigurationSnapshot();
+
+    // then
+    assertThat(snapshot.getConfigurationSource()).isEqualTo(configuration.getConfigurationSource());
+    assertThat(snapshot.getScriptVariant()).isEqualTo(configuration.getScriptVariant());
+    assertThat(snapshot.getModuleUris())
+      .containsExactlyInAnyOrderElementsOf(configuration.getModulesByType().keySet());
+
+    var uri = Absolute.uri(new File(TestUtils.PATH_TO_METADATA, PATH_TO_MODULE_FILE).toURI());
+    assertThat(snapshot.getModuleType(uri)).isEqualTo(ModuleType.CommonModule);
+    assertThat(snapshot.getMdoRef(uri)).hasValue("CommonModule.ПервыйОбщийМодуль");
+    assertThat(snapshot.getCommonModuleMdoRef("первыйобщиймодуль")).hasValue("CommonModule.ПервыйОбщийМодуль");
+    assertThat(snapshot.getModulesByMDORef("CommonModule.ПервыйОбщийМодуль"))
+      .isEqualTo(configuration.getModulesByMDORef("CommonModule.ПервыйОбщийМодуль"));
+    assertThat(snapshot.getModulesByMDORef("CommonModule.НесуществующийМодуль")).isEmpty();
+  }
+
+  @Test
+  void testBinaryRoundTrip() throws IOException {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(TestUtils.PATH_TO_METADATA));
+    var snapshot = serverContext.getConfigurationSnapshot();
+
+    // when
+    var outputStream = new ByteArrayOutputStream();
+    snapshot.write(new DataOutputStream(outputStream));
+    var inputStream = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+    var restored = ConfigurationSnapshot.read(inputStream);
+
+    // then
+    assertThat(restored.getConfigurationSource()).isEqualTo(snapshot.getConfigurationSource());
+    assertThat(restored.getScriptVariant()).isEqualTo(snapshot.getScriptVariant());
+    assertThat(restored.getCompatibilityMode()).isNotNull();
+    assertThat(restored.getCompatibilityMode().getMinor()).isEqualTo(snapshot.getCompatibilityMode().getMinor());
+    assertThat(restored.getCompatibilityMode().getVersion()).isEqualTo(snapshot.getCompatibilityMode().getVersion());
+    assertThat(restored.getModuleUris()).containsExactlyInAnyOrderElementsOf(snapshot.getModuleUris());
+    snapshot.getModuleUris().forEach((var uri) -> {
+      assertThat(restored.getModuleType(uri)).isEqualTo(snapshot.getModuleType(uri));
+      assertThat(restored.getMdoRef(uri)).isEqualTo(snapshot.getMdoRef(uri));
+      assertThat(restored.getModuleSupport(uri)).isEqualTo(snapshot.getModuleSupport(uri));
+    });
+    snapshot.getModuleUris().stream()
+      .map(snapshot::getMdoRef)
+      .flatMap(Optional::stream)
+      .forEach(mdoRef ->
+        assertThat(restored.getModulesByMDORef(mdoRef)).isEqualTo(snapshot.getModulesByMDORef(mdoRef)));
+  }
+
+}
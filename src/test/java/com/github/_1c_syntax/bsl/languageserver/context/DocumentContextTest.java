@@ -25,6 +25,7 @@ import com.github._1c_syntax.bsl.languageserver.context.symbol.MethodSymbol;
 import com.github._1c_syntax.bsl.languageserver.context.symbol.RegionSymbol;
 import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
 import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.parser.BSLLexer;
 import lombok.SneakyThrows;
 import org.antlr.v4.runtime.Lexer;
 import org.antlr.v4.runtime.Token;
@@ -37,7 +38,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -66,8 +69,29 @@ class DocumentContextTest {
     documentContext.clearSecondaryData();
 
     // then
-    final Object tokenizer = FieldUtils.readField(documentContext, "tokenizer", true);
-    assertThat(tokenizer).isNull();
+    final Object loadedContent = FieldUtils.readField(documentContext, "loadedContent", true);
+    assertThat(loadedContent).isNull();
+  }
+
+  @Test
+  void testEvictionKeepsComputedData() throws IllegalAccessException {
+    // given
+    var documentContext = getDocumentContext();
+    var symbolTree = documentContext.getSymbolTree();
+    var metrics = documentContext.getMetrics();
+    var modificationCount = documentContext.getModificationCount();
+    var tokensCount = documentContext.getTokens().size();
+
+    // when
+    var evicted = documentContext.tryClearSecondaryData();
+
+    // then
+    assertThat(evicted).isTrue();
+    assertThat(FieldUtils.readField(documentContext, "loadedContent", true)).isNull();
+    assertThat(documentContext.getTokens()).hasSize(tokensCount);
+    assertThat(documentContext.getSymbolTree()).isSameAs(symbolTree);
+    assertThat(documentContext.getMetrics()).isSameAs(metrics);
+    assertThat(documentContext.getModificationCount()).isEqualTo(modificationCount);
   }
 
   @Test
@@ -239,4 +263,39 @@ class DocumentContextTest {
     assertThat(lastToken.getType()).isEqualTo(Lexer.EOF);
     assertThat(lastToken.getChannel()).isEqualTo(Lexer.HIDDEN);
   }
+
+  @Test
+  void testTokenViews() {
+    // given
+    var documentContext = getDocumentContext("./src/test/resources/context/DocumentContextCommentsTest.bsl");
+    var tokens = documentContext.getTokens();
+
+    // when
+    var tokenViews = documentContext.getTokenViews();
+
+    // then
+    assertThat(documentContext.getTokenViews()).isSameAs(tokenViews);
+    assertThat(documentContext.getComments()).isSameAs(tokenViews.getComments());
+    assertThat(tokenViews.getDefaultChannelTokens())
+      .containsExactlyElementsOf(tokens.stream().filter(token -> token.getChannel() == Token.DEFAULT_CHANNEL)
+        .collect(Collectors.toList()));
+    assertThat(tokenViews.getComments())
+      .hasSize(8)
+      .allMatch(token -> token.getType() == BSLLexer.LINE_COMMENT);
+
+    var tokensByLines = new ArrayList<Token>();
+    for (var line = 0; line < tokenViews.getLineCount(); line++) {
+      var lineNumber = line + 1;
+      assertThat(tokenViews.getTokensOnLine(line)).allMatch(token -> token.getLine() == lineNumber);
+      tokensByLines.addAll(tokenViews.getTokensOnLine(line));
+    }
+    assertThat(tokensByLines).containsExactlyElementsOf(tokens);
+    assertThat(tokenViews.getTokensOnLine(tokenViews.getLineCount())).isEmpty();
+
+    // when
+    documentContext.clearSecondaryData();
+
+    // then
+    assertThat(documentContext.getTokenViews()).isNotSameAs(tokenViews);
+  }
 }
@@ -0,0 +1,133 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.parser.BSLTokenizer;
+import org.antlr.v4.runtime.Token;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalTokenizerTest {
+
+  private static final String CONTENT = "#Область Служебные\n" +
+    "&НаСервере\n" +
+    "Процедура Тест(Знач Параметр) Экспорт\n" +
+    "  // комментарий\n" +
+    "  Текст = \"первая строка\n" +
+    "  |вторая строка\n" +
+    "  |последняя строка\";\n" +
+    "  #Если Сервер Тогда\n" +
+    "  Сообщить(Текст + Параметр);\n" +
+    "  #КонецЕсли\n" +
+    "КонецПроцедуры\n" +
+    "#КонецОбласти\n";
+
+  @Test
+  void testRelexedTokensMatchFullTokenization() {
+    checkEdit(CONTENT, "Тест(", "Тест2(");
+    checkEdit(CONTENT, "  Сообщить", "  Сообщить(1);\n  Сообщить");
+    checkEdit(CONTENT, "  |вторая строка\n", "");
+    checkEdit(CONTENT, "вторая", "вто\"рая");
+    checkEdit(CONTENT, "первая строка\n", "первая строка\";\n");
+    checkEdit(CONTENT, "  #Если Сервер Тогда\n", "");
+    checkEdit(CONTENT, "// комментарий", "Если");
+    checkEdit(CONTENT, "#Область", "# Область");
+    checkEdit(CONTENT, "#КонецОбласти\n", "#КонецОбласти\nА = 1;");
+    checkEdit(CONTENT, "КонецПроцедуры\n", "КонецПроцедуры");
+    checkEdit(CONTENT.replace("\n", "\r\n"), "Параметр);", "Параметр);\r\n  А = 1;");
+    checkEdit(CONTENT, CONTENT, "");
+    checkEdit("", "", "А = 1;");
+  }
+
+  @Test
+  void testOnlyChangedLinesAreRelexed() {
+    // given
+    var oldTokens = new BSLTokenizer(CONTENT).getTokens();
+    var newContent = CONTENT.replace("Сообщить(Текст", "Сообщить(НовыйТекст");
+
+    // when
+    var tokens = IncrementalTokenizer.relex(CONTENT, oldTokens, newContent).orElseThrow();
+
+    // then
+    assertThat(tokens.get(0)).isSameAs(oldTokens.get(0));
+    assertThat(tokens.get(tokens.size() - 1)).isNotSameAs(oldTokens.get(oldTokens.size() - 1));
+    assertThat(describe(tokens)).isEqualTo(describe(new BSLTokenizer(newContent).getTokens()));
+  }
+
+  @Test
+  void testParseRelexedTokens() {
+    // given
+    var newContent = CONTENT.replace("Тест(", "Тест2(");
+    var tokens = IncrementalTokenizer.relex(CONTENT, new BSLTokenizer(CONTENT).getTokens(), newContent)
+      .orElseThrow();
+
+    // when
+    var ast = IncrementalTokenizer.parse(tokens);
+
+    // then
+    assertThat(ast.toStringTree()).isEqualTo(new BSLTokenizer(newContent).getAst().toStringTree());
+  }
+
+  @Test
+  void testContentWithBomIsNotRelexed() {
+    // given
+    var content = "\uFEFF" + CONTENT;
+
+    // when
+    var tokens = IncrementalTokenizer.relex(content, new BSLTokenizer(content).getTokens(), content + " ");
+
+    // then
+    assertThat(tokens).isEmpty();
+  }
+
+  private static void checkEdit(String content, String target, String replacement) {
+    var index = content.indexOf(target);
+    assertThat(index).isNotNegative();
+    var newContent = content.substring(0, index) + replacement + content.substring(index + target.length());
+
+    var tokens = IncrementalTokenizer.relex(content, new BSLTokenizer(content).getTokens(), newContent);
+
+    assertThat(tokens).isPresent();
+    assertThat(describe(tokens.get()))
+      .as("%s -> %s", target, replacement)
+      .isEqualTo(describe(new BSLTokenizer(newContent).getTokens()));
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    return tokens.stream()
+      .map(token -> String.join(":",
+        String.valueOf(token.getTokenIndex()),
+        String.valueOf(token.getType()),
+        String.valueOf(token.getChannel()),
+        String.valueOf(token.getLine()),
+        String.valueOf(token.getCharPositionInLine()),
+        String.valueOf(token.getStartIndex()),
+        String.valueOf(token.getStopIndex()),
+        token.getText()
+      ))
+      .collect(Collectors.toList());
+  }
+}
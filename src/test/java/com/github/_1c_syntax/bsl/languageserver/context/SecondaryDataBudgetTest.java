@@ -0,0 +1,141 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.context.symbol.MethodSymbol;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.utils.Absolute;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.context.secondary-data-budget=1B")
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class SecondaryDataBudgetTest {
+
+  private static final String PATH_TO_METADATA = "src/test/resources/metadata/designer";
+  private static final String PATH_TO_MODULE_FILE = "CommonModules/ПервыйОбщийМодуль/Ext/Module.bsl";
+  private static final String PATH_TO_CATALOG_FILE = "Catalogs/Справочник1/Ext/ManagerModule.bsl";
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Autowired
+  private SecondaryDataBudget secondaryDataBudget;
+
+  @Test
+  void testLeastRecentlyUsedDocumentIsEvictedAndRebuiltOnAccess() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(PATH_TO_METADATA));
+    var firstDocument = addDocument(PATH_TO_MODULE_FILE);
+    var secondDocument = addDocument(PATH_TO_CATALOG_FILE);
+    var initialStats = secondaryDataBudget.getStats();
+
+    // when
+    serverContext.rebuildDocument(firstDocument);
+    serverContext.rebuildDocument(secondDocument);
+    var statsAfterLoad = secondaryDataBudget.getStats();
+    var content = firstDocument.getContent();
+    var statsAfterAccess = secondaryDataBudget.getStats();
+
+    // then
+    assertThat(secondaryDataBudget.isEnabled()).isTrue();
+    assertThat(statsAfterLoad.getEvictions()).isGreaterThan(initialStats.getEvictions());
+    assertThat(statsAfterLoad.getLoadedDocuments()).isEqualTo(1);
+
+    assertThat(content).isNotEmpty();
+    assertThat(statsAfterAccess.getMisses()).isGreaterThan(statsAfterLoad.getMisses());
+    assertThat(statsAfterAccess.getLoadedDocuments()).isEqualTo(1);
+  }
+
+  @Test
+  void testOpenedDocumentIsNotEvicted() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(PATH_TO_METADATA));
+    var openedDocument = addDocument(PATH_TO_MODULE_FILE);
+    var secondDocument = addDocument(PATH_TO_CATALOG_FILE);
+
+    // when
+    serverContext.openDocument(openedDocument, "Процедура Тест()\nКонецПроцедуры", 1);
+    serverContext.rebuildDocument(secondDocument);
+    var statsBeforeAccess = secondaryDataBudget.getStats();
+    var content = openedDocument.getContent();
+
+    // then
+    assertThat(content).startsWith("Процедура Тест()");
+    assertThat(secondaryDataBudget.getStats().getMisses()).isEqualTo(statsBeforeAccess.getMisses());
+  }
+
+  @Test
+  void testEvictedDocumentChangedOnDiskIsRebuilt(@TempDir Path tempDir) throws IOException {
+    // given
+    var changedFile = tempDir.resolve("Changed.bsl");
+    var otherFile = tempDir.resolve("Other.bsl");
+    Files.writeString(changedFile, "Процедура Первая()\nКонецПроцедуры\n");
+    Files.writeString(otherFile, "Процедура Другая()\nКонецПроцедуры\n");
+    var changedDocument = serverContext.addDocument(changedFile.toUri());
+    var otherDocument = serverContext.addDocument(otherFile.toUri());
+    serverContext.rebuildDocument(changedDocument);
+    serverContext.rebuildDocument(otherDocument);
+    var modificationCount = changedDocument.getModificationCount();
+
+    // when
+    var newContent = "Процедура Вторая()\nКонецПроцедуры\n\nПроцедура Третья()\nКонецПроцедуры\n";
+    Files.writeString(changedFile, newContent);
+    var content = changedDocument.getContent();
+
+    // then
+    assertThat(content).isEqualTo(newContent);
+    assertThat(changedDocument.getModificationCount()).isGreaterThan(modificationCount);
+    assertThat(changedDocument.getSymbolTree().getMethods())
+      .extracting(MethodSymbol::getName)
+      .containsExactly("Вторая", "Третья");
+  }
+
+  @Test
+  void testExplicitlyClearedDocumentIsNotReloaded() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(PATH_TO_METADATA));
+    var documentContext = addDocument(PATH_TO_MODULE_FILE);
+    serverContext.rebuildDocument(documentContext);
+
+    // when
+    serverContext.tryClearDocument(documentContext);
+
+    // then
+    assertThatThrownBy(documentContext::getContent).isInstanceOf(IllegalStateException.class);
+  }
+
+  private DocumentContext addDocument(String path) {
+    var file = new File(PATH_TO_METADATA, path);
+    return serverContext.addDocument(file.toURI());
+  }
+}
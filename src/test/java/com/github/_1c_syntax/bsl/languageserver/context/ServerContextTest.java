@@ -36,7 +36,9 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 @SpringBootTest
 @CleanupContextBeforeClassAndAfterEachTestMethod
@@ -130,6 +132,32 @@ class ServerContextTest {
     assertThat(serverContext.getDocuments()).hasSizeGreaterThan(0);
   }
 
+  @Test
+  void testOpenDocumentWaitsForRunIfNotOpened() throws InterruptedException {
+    // given
+    var documentContext = serverContext.addDocument(Absolute.uri(new File(PATH_TO_METADATA, PATH_TO_MODULE_FILE)));
+    var opener = new Thread(() ->
+      serverContext.openDocument(documentContext, "Процедура ВРедакторе()\nКонецПроцедуры", 1)
+    );
+
+    // when
+    var executed = serverContext.runIfNotOpened(documentContext, () -> {
+      opener.start();
+      await().atMost(10, SECONDS).until(() -> opener.getState() == Thread.State.BLOCKED);
+      assertThat(serverContext.isDocumentOpened(documentContext)).isFalse();
+      serverContext.rebuildDocument(documentContext, "Процедура НаДиске()\nКонецПроцедуры", 0);
+    });
+    opener.join();
+
+    // then
+    assertThat(executed).isTrue();
+    assertThat(serverContext.isDocumentOpened(documentContext)).isTrue();
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("ВРедакторе")).isPresent();
+    assertThat(serverContext.runIfNotOpened(documentContext, () -> {
+      throw new IllegalStateException("must not be executed for an opened document");
+    })).isFalse();
+  }
+
   private DocumentContext addDocumentContext(ServerContext serverContext, String path) {
     var file = new File(PATH_TO_METADATA, path);
     var uri = Absolute.uri(file);
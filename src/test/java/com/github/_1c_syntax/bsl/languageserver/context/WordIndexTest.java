@@ -0,0 +1,100 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import org.antlr.v4.runtime.Token;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterClass
+class WordIndexTest {
+
+  @Test
+  void testIdentifiers() {
+    // given
+    var documentContext = TestUtils.getDocumentContext(
+      "Процедура Тест()\n" +
+        "  Сообщить(НСтр(\"ru = 'Привет, мир'\"));\n" +
+        "  СООБЩИТЬ(1);\n" +
+        "КонецПроцедуры"
+    );
+
+    // when
+    var wordIndex = documentContext.getWordIndex();
+
+    // then
+    assertThat(wordIndex.containsIdentifier("сообщить")).isTrue();
+    assertThat(wordIndex.containsIdentifier("Процедура")).isTrue();
+    assertThat(wordIndex.containsIdentifier("Привет")).isFalse();
+    assertThat(wordIndex.containsAnyIdentifier(List.of("Найти", "нстр"))).isTrue();
+    assertThat(wordIndex.containsAnyIdentifier(List.of("Найти", "Find"))).isFalse();
+    assertThat(wordIndex.getIdentifierTokens("Сообщить"))
+      .extracting(Token::getLine)
+      .containsExactly(2, 3);
+  }
+
+  @Test
+  void testStringWords() {
+    // given
+    var documentContext = TestUtils.getDocumentContext(
+      "Текст = \"ВЫБРАТЬ\n" +
+        "  |  Таблица.Поле КАК Поле\n" +
+        "  |ИЗ Справочник.Таблица КАК Таблица\";\n" +
+        "Пароль = \"пароль\";"
+    );
+
+    // when
+    var wordIndex = documentContext.getWordIndex();
+
+    // then
+    assertThat(wordIndex.containsStringWord("выбрать")).isTrue();
+    assertThat(wordIndex.containsStringWord("СПРАВОЧНИК")).isTrue();
+    assertThat(wordIndex.containsStringWord("Текст")).isFalse();
+    assertThat(wordIndex.containsAnyStringWord(List.of("Пароль", "Password"))).isTrue();
+    assertThat(wordIndex.getStringTokens("Таблица"))
+      .extracting(Token::getType)
+      .containsExactly(BSLLexer.STRINGPART, BSLLexer.STRINGTAIL);
+    assertThat(wordIndex.containsIdentifier("Выбрать")).isFalse();
+  }
+
+  @Test
+  void testIndexIsRebuiltWithContent() {
+    // given
+    var documentContext = TestUtils.getDocumentContext("Найти(А, Б);");
+    assertThat(documentContext.getWordIndex().containsIdentifier("Найти")).isTrue();
+
+    // when
+    documentContext.getServerContext().rebuildDocument(documentContext, "СтрНайти(А, Б);", 1);
+
+    // then
+    assertThat(documentContext.getWordIndex().containsIdentifier("Найти")).isFalse();
+    assertThat(documentContext.getWordIndex().containsIdentifier("СтрНайти")).isTrue();
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context;
+
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.utils.Absolute;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class WorkspaceSymbolIndexTest {
+
+  private static final String CONTENT = String.join("\n",
+    "Перем ГлобальнаяПеременная Экспорт;",
+    "Процедура НеУстаревшаяПроцедура() Экспорт",
+    "КонецПроцедуры",
+    "Процедура Процедура()",
+    "КонецПроцедуры",
+    "Функция ВызватьПроцедуру()",
+    "КонецФункции",
+    "Процедура Прочее()",
+    "КонецПроцедуры"
+  );
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Autowired
+  private WorkspaceSymbolIndex workspaceSymbolIndex;
+
+  @Test
+  void testRanking() {
+    // given
+    TestUtils.getDocumentContext(CONTENT);
+
+    // when
+    var names = workspaceSymbolIndex.find("процедур", 0).stream()
+      .map(WorkspaceSymbolIndex.Entry::getName);
+
+    // then
+    assertThat(names)
+      .containsExactly("Процедура", "ВызватьПроцедуру", "НеУстаревшаяПроцедура");
+  }
+
+  @Test
+  void testShortQueryAndCamelHumps() {
+    // given
+    TestUtils.getDocumentContext(CONTENT);
+
+    // when-then
+    assertThat(workspaceSymbolIndex.find("пр", 0))
+      .extracting(WorkspaceSymbolIndex.Entry::getName)
+      .startsWith("Прочее", "Процедура")
+      .contains("НеУстаревшаяПроцедура", "ВызватьПроцедуру")
+      .doesNotContain("ГлобальнаяПеременная");
+
+    assertThat(workspaceSymbolIndex.find("нуп", 0))
+      .extracting(WorkspaceSymbolIndex.Entry::getName)
+      .containsExactly("НеУстаревшаяПроцедура");
+  }
+
+  @Test
+  void testRegexQueryAndLimit() {
+    // given
+    TestUtils.getDocumentContext(CONTENT);
+
+    // when-then
+    assertThat(workspaceSymbolIndex.find("^Про.*", 0))
+      .extracting(WorkspaceSymbolIndex.Entry::getName)
+      .containsExactlyInAnyOrder("Процедура", "Прочее");
+    assertThat(workspaceSymbolIndex.find("", 2)).hasSize(2);
+    assertThatThrownBy(() -> workspaceSymbolIndex.find("\\", 0))
+      .isInstanceOf(PatternSyntaxException.class);
+  }
+
+  @Test
+  void testDocumentChangesAndRemoval() {
+    // given
+    var documentContext = TestUtils.getDocumentContext(CONTENT);
+    assertThat(workspaceSymbolIndex.find("Прочее", 0)).hasSize(1);
+
+    // when
+    serverContext.rebuildDocument(documentContext, "Процедура Другое()\nКонецПроцедуры", 0);
+
+    // then
+    assertThat(workspaceSymbolIndex.find("Прочее", 0)).isEmpty();
+    assertThat(workspaceSymbolIndex.find("Другое", 0)).hasSize(1);
+
+    // when
+    serverContext.removeDocument(documentContext.getUri());
+
+    // then
+    assertThat(workspaceSymbolIndex.find("Другое", 0)).isEmpty();
+  }
+
+  @Test
+  void testShortNamesAndContextClear() {
+    // given
+    TestUtils.getDocumentContext("Процедура Ф()\nКонецПроцедуры\nПроцедура ЗФ()\nКонецПроцедуры");
+
+    // when-then
+    assertThat(workspaceSymbolIndex.find("ф", 0))
+      .extracting(WorkspaceSymbolIndex.Entry::getName)
+      .containsExactly("Ф", "ЗФ");
+    assertThat(workspaceSymbolIndex.find("зф", 0))
+      .extracting(WorkspaceSymbolIndex.Entry::getName)
+      .containsExactly("ЗФ");
+
+    // when
+    serverContext.clear();
+
+    // then
+    assertThat(workspaceSymbolIndex.find("", 0)).isEmpty();
+  }
+
+  @Test
+  void testPopulatedContext() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(TestUtils.PATH_TO_METADATA));
+    serverContext.populateContext();
+
+    // when
+    var entries = workspaceSymbolIndex.find("НеУстаревшаяПроцедура", 0);
+
+    // then
+    assertThat(entries)
+      .hasSizeGreaterThan(1)
+      .allMatch(entry -> entry.getName().equals("НеУстаревшаяПроцедура"));
+  }
+
+}
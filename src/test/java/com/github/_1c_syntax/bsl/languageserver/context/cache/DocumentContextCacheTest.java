@@ -0,0 +1,175 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.cache;
+
+import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.MethodSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.SourceDefinedSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.VariableSymbol;
+import com.github._1c_syntax.bsl.languageserver.context.symbol.description.SourceDefinedSymbolDescription;
+import com.github._1c_syntax.bsl.languageserver.references.model.SymbolOccurrenceStorage;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.utils.Absolute;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+  "app.cache.enabled=true",
+  "app.cache.path=build/test-cache/document-context-cache"
+})
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class DocumentContextCacheTest {
+
+  private static final String CACHE_PATH = "build/test-cache/document-context-cache";
+  private static final String PATH_TO_MODULE_FILE = "CommonModules/ПервыйОбщийМодуль/Ext/Module.bsl";
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Autowired
+  private SymbolOccurrenceStorage symbolOccurrenceStorage;
+
+  @AfterEach
+  void cleanUp() {
+    FileUtils.deleteQuietly(new File(CACHE_PATH));
+  }
+
+  @Test
+  void testSymbolTreeRoundTrip() {
+    checkRoundTrip("./src/test/resources/context/symbol/MethodDescription.bsl");
+    checkRoundTrip("./src/test/resources/context/symbol/variableSymbolTest.bsl");
+    checkRoundTrip("./src/test/resources/context/symbol/SymbolTreeComputer.bsl");
+  }
+
+  @Test
+  void testPopulateContextFromCache() {
+    // given
+    serverContext.setConfigurationRoot(Absolute.path(TestUtils.PATH_TO_METADATA));
+    serverContext.populateContext();
+
+    var uri = Absolute.uri(new File(TestUtils.PATH_TO_METADATA, PATH_TO_MODULE_FILE));
+    var expectedMethods = getMethodNames(serverContext.getDocument(uri));
+    var expectedMetrics = serverContext.getDocument(uri).getMetrics();
+    var expectedOccurrences = symbolOccurrenceStorage.getAllByLocationUri(uri)
+      .collect(Collectors.toSet());
+
+    assertThat(new File(CACHE_PATH)).isDirectory();
+
+    // when
+    serverContext.clear();
+    serverContext.populateContext();
+
+    // then
+    var documentContext = serverContext.getDocument(uri);
+    assertThat(documentContext).isNotNull();
+    assertThat(getMethodNames(documentContext)).isEqualTo(expectedMethods);
+    assertThat(symbolOccurrenceStorage.getAllByLocationUri(uri))
+      .containsExactlyInAnyOrderElementsOf(expectedOccurrences);
+    assertThat(documentContext.getMetrics()).isEqualTo(expectedMetrics);
+
+    // when
+    documentContext.getContent();
+
+    // then
+    assertThat(documentContext.isComputedDataFrozen()).isTrue();
+    assertThat(getMethodNames(documentContext)).isEqualTo(expectedMethods);
+    assertThat(documentContext.getMetrics()).isEqualTo(expectedMetrics);
+    assertThat(symbolOccurrenceStorage.getAllByLocationUri(uri))
+      .containsExactlyInAnyOrderElementsOf(expectedOccurrences);
+  }
+
+  @Test
+  void testDiagnosticIgnoranceRoundTrip() {
+    // given
+    var documentContext = TestUtils.getDocumentContextFromFile(
+      "./src/test/resources/context/computer/DiagnosticIgnoranceComputerTest.bsl"
+    );
+    var snapshot = DocumentSnapshots.create(documentContext, Collections.emptyList(), 0, 0);
+
+    // when
+    var diagnosticIgnorance = DocumentSnapshots.createDiagnosticIgnorance(snapshot);
+
+    // then
+    assertThat(snapshot.getDiagnosticIgnorance()).isNotEmpty();
+    assertThat(snapshot.getMetrics()).isEqualTo(documentContext.getMetrics());
+    assertThat(diagnosticIgnorance.getDiagnosticIgnorance())
+      .isEqualTo(documentContext.getDiagnosticIgnorance().getDiagnosticIgnorance());
+  }
+
+  private static void checkRoundTrip(String path) {
+    var documentContext = TestUtils.getDocumentContextFromFile(path);
+    var symbolTree = documentContext.getSymbolTree();
+
+    var snapshot = DocumentSnapshots.create(documentContext, Collections.emptyList(), 0, 0);
+    var restoredTree = DocumentSnapshots.createSymbolTree(snapshot, documentContext);
+
+    var expected = symbolTree.getChildrenFlat();
+    var actual = restoredTree.getChildrenFlat();
+    assertThat(actual).hasSameSizeAs(expected);
+
+    for (var i = 0; i < expected.size(); i++) {
+      var expectedSymbol = expected.get(i);
+      var actualSymbol = actual.get(i);
+
+      assertThat(actualSymbol).isEqualTo(expectedSymbol);
+      assertThat(actualSymbol.getRange()).isEqualTo(expectedSymbol.getRange());
+      assertThat(actualSymbol.getParent().map(SourceDefinedSymbol::getSelectionRange))
+        .isEqualTo(expectedSymbol.getParent().map(SourceDefinedSymbol::getSelectionRange));
+
+      if (expectedSymbol instanceof MethodSymbol) {
+        var expectedMethod = (MethodSymbol) expectedSymbol;
+        var actualMethod = (MethodSymbol) actualSymbol;
+        assertThat(actualMethod.getParameters()).isEqualTo(expectedMethod.getParameters());
+        assertThat(actualMethod.getAnnotations()).isEqualTo(expectedMethod.getAnnotations());
+        assertThat(actualMethod.getDescription().map(SourceDefinedSymbolDescription::getRange))
+          .isEqualTo(expectedMethod.getDescription().map(SourceDefinedSymbolDescription::getRange));
+        assertThat(actualMethod.getDescription()).isEqualTo(expectedMethod.getDescription());
+      }
+
+      if (expectedSymbol instanceof VariableSymbol) {
+        var expectedVariable = (VariableSymbol) expectedSymbol;
+        var actualVariable = (VariableSymbol) actualSymbol;
+        assertThat(actualVariable.getKind()).isEqualTo(expectedVariable.getKind());
+        assertThat(actualVariable.getScope().getName()).isEqualTo(expectedVariable.getScope().getName());
+        assertThat(actualVariable.getDescription()).isEqualTo(expectedVariable.getDescription());
+      }
+    }
+  }
+
+  private static List<String> getMethodNames(DocumentContext documentContext) {
+    return documentContext.getSymbolTree().getMethods().stream()
+      .map(MethodSymbol::getName)
+      .collect(Collectors.toList());
+  }
+}
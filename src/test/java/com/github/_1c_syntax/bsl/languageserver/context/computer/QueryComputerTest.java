@@ -53,4 +53,21 @@ class QueryComputerTest {
     assertThat(queries.get(8).getTokens().get(31).getLine()).isEqualTo(50);
     assertThat(queries.get(9).getTokens().get(31).getLine()).isEqualTo(62);
   }
+
+  @Test
+  void computeQueryFarFromModuleStart() {
+    // given
+    var documentContext = TestUtils.getDocumentContext(
+      "\n".repeat(1000) + "Запрос = \"Выбрать 1 Как Поле\";"
+    );
+
+    // when
+    var queries = documentContext.getQueries();
+
+    //then
+    assertThat(queries).hasSize(1);
+    assertThat(queries.get(0).getAst().getStart().getLine()).isEqualTo(1001);
+    assertThat(queries.get(0).getTokens())
+      .allMatch(token -> token.getLine() == 1001);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.watcher;
+
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.references.ReferenceIndex;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import com.github._1c_syntax.utils.Absolute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class WorkspaceFileChangeProcessorTest {
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @Autowired
+  private ReferenceIndex referenceIndex;
+
+  @Autowired
+  private WorkspaceFileChangeProcessor processor;
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    serverContext.setConfigurationRoot(tempDir);
+  }
+
+  @Test
+  void testCreateChangeDelete() throws IOException {
+    // given
+    var file = tempDir.resolve("Module.bsl");
+    Files.writeString(file, "Процедура Первая()\n  Вторая();\nКонецПроцедуры\nПроцедура Вторая()\nКонецПроцедуры",
+      StandardCharsets.UTF_8);
+    var uri = Absolute.uri(file.toUri());
+
+    // when
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    var documentContext = serverContext.getDocument(uri);
+    assertThat(documentContext).isNotNull();
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("Первая")).isPresent();
+    assertThat(referenceIndex.getReferencesFrom(uri)).hasSize(1);
+
+    // when
+    Files.writeString(file, "Процедура Третья()\nКонецПроцедуры", StandardCharsets.UTF_8);
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(uri)).isSameAs(documentContext);
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("Первая")).isEmpty();
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("Третья")).isPresent();
+    assertThat(referenceIndex.getReferencesFrom(uri)).isEmpty();
+
+    // when
+    Files.delete(file);
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(uri)).isNull();
+  }
+
+  @Test
+  void testBurstOfEventsIsProcessedOnce() throws IOException {
+    // given
+    var file = tempDir.resolve("Module.os");
+    var uri = Absolute.uri(file.toUri());
+
+    // when
+    Files.writeString(file, "Процедура Первая()\nКонецПроцедуры", StandardCharsets.UTF_8);
+    processor.onChange(file.toUri());
+    Files.delete(file);
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(uri)).isNull();
+  }
+
+  @Test
+  void testNonSourceFilesAreIgnored() throws IOException {
+    // given
+    var file = tempDir.resolve("Configuration.xml");
+    Files.writeString(file, "<xml/>", StandardCharsets.UTF_8);
+
+    // when
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(file.toUri())).isNull();
+  }
+
+  @Test
+  void testFilesOutsideConfigurationRootAreIgnored() throws IOException {
+    // given
+    var configurationRoot = Files.createDirectory(tempDir.resolve("src"));
+    serverContext.setConfigurationRoot(configurationRoot);
+    var outsideFile = tempDir.resolve("Outside.bsl");
+    Files.writeString(outsideFile, "Процедура Снаружи()\nКонецПроцедуры", StandardCharsets.UTF_8);
+    var insideFile = configurationRoot.resolve("Inside.bsl");
+    Files.writeString(insideFile, "Процедура Внутри()\nКонецПроцедуры", StandardCharsets.UTF_8);
+
+    // when
+    processor.onChange(outsideFile.toUri());
+    processor.onChange(insideFile.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(outsideFile.toUri())).isNull();
+    assertThat(serverContext.getDocument(insideFile.toUri())).isNotNull();
+  }
+
+  @Test
+  void testOpenedDocumentIsNotRebuiltFromDisk() throws IOException {
+    // given
+    var file = tempDir.resolve("Module.bsl");
+    Files.writeString(file, "Процедура НаДиске()\nКонецПроцедуры", StandardCharsets.UTF_8);
+    var documentContext = serverContext.addDocument(file.toUri());
+    serverContext.openDocument(documentContext, "Процедура ВРедакторе()\nКонецПроцедуры", 1);
+
+    // when
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("ВРедакторе")).isPresent();
+    assertThat(documentContext.getSymbolTree().getMethodSymbol("НаДиске")).isEmpty();
+
+    // when
+    Files.delete(file);
+    processor.onChange(file.toUri());
+    processor.flush();
+
+    // then
+    assertThat(serverContext.getDocument(file.toUri())).isSameAs(documentContext);
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.context.watcher;
+
+import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.context.events.ServerContextPopulatedEvent;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterEachTestMethod;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterEachTestMethod
+class WorkspaceFileWatcherTest {
+
+  @Autowired
+  private WorkspaceFileWatcher watcher;
+
+  @Autowired
+  private ServerContext serverContext;
+
+  @MockBean
+  private WorkspaceFileChangeProcessor processor;
+
+  @TempDir
+  Path tempDir;
+
+  @AfterEach
+  void tearDown() {
+    watcher.stop();
+  }
+
+  @Test
+  void testFileChangesAreReported() throws IOException {
+    // given
+    var directory = Files.createDirectory(tempDir.resolve("Модули"));
+    watcher.start(serverContext, tempDir);
+
+    // when
+    var file = Files.writeString(directory.resolve("Модуль.bsl"), "А = 1;", StandardCharsets.UTF_8);
+
+    // then
+    await().atMost(10, SECONDS).untilAsserted(() -> verify(processor, atLeastOnce()).onChange(file.toUri()));
+
+    // when
+    var nestedDirectory = Files.createDirectories(tempDir.resolve("Новый").resolve("Вложенный"));
+    var nestedFile = Files.writeString(nestedDirectory.resolve("Модуль.os"), "Б = 2;", StandardCharsets.UTF_8);
+
+    // then
+    await().atMost(10, SECONDS).untilAsserted(() -> verify(processor, atLeastOnce()).onChange(nestedFile.toUri()));
+  }
+
+  @Test
+  void testFallbackIsNotStartedWithoutConnectedClient() throws IllegalAccessException {
+    // given
+    serverContext.setConfigurationRoot(tempDir);
+
+    // when
+    watcher.handleEvent(new ServerContextPopulatedEvent(serverContext));
+
+    // then
+    assertThat(FieldUtils.readField(watcher, "watcherThread", true)).isNull();
+  }
+}
@@ -24,9 +24,11 @@ package com.github._1c_syntax.bsl.languageserver.diagnostics;
 import com.github._1c_syntax.bsl.languageserver.configuration.LanguageServerConfiguration;
 import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.Mode;
 import com.github._1c_syntax.bsl.languageserver.configuration.diagnostics.SkipSupport;
+import com.github._1c_syntax.bsl.languageserver.configuration.events.LanguageServerConfigurationChangedEvent;
 import com.github._1c_syntax.bsl.languageserver.context.DocumentContext;
 import com.github._1c_syntax.bsl.languageserver.context.FileType;
 import com.github._1c_syntax.bsl.languageserver.context.ServerContext;
+import com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure.DiagnosticObjectProvider;
 import com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure.DiagnosticsConfiguration;
 import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
 import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
@@ -35,16 +37,19 @@ import com.github._1c_syntax.bsl.support.CompatibilityMode;
 import com.github._1c_syntax.bsl.support.SupportVariant;
 import com.github._1c_syntax.bsl.types.ModuleType;
 import com.github._1c_syntax.utils.Absolute;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -62,6 +67,10 @@ class DiagnosticsTest {
   protected ServerContext context;
   @Autowired
   protected DiagnosticsConfiguration diagnosticsConfiguration;
+  @Autowired
+  private DiagnosticObjectProvider diagnosticObjectProvider;
+  @Autowired
+  private ApplicationEventPublisher applicationEventPublisher;
 
   private DocumentContext documentContext;
 
@@ -73,29 +82,46 @@ class DiagnosticsTest {
   @Test
   void testCompatibilityMode() {
     // given
-    documentContext = spy(TestUtils.getDocumentContext(""));
+    documentContext = spy(TestUtils.getDocumentContext("А = Найти(Б, В);"));
     var serverContext = spy(context);
-    var bslConfiguration = spy(serverContext.getConfiguration());
+    var configurationSnapshot = spy(serverContext.getConfigurationSnapshot());
 
     doReturn(serverContext).when(documentContext).getServerContext();
-    doReturn(bslConfiguration).when(serverContext).getConfiguration();
+    doReturn(configurationSnapshot).when(serverContext).getConfigurationSnapshot();
 
     configuration.getDiagnosticsOptions().setMode(Mode.ON);
 
     // when-then pairs
-    doReturn(new CompatibilityMode(3, 10)).when(bslConfiguration).getCompatibilityMode();
+    doReturn(new CompatibilityMode(3, 10)).when(configurationSnapshot).getCompatibilityMode();
     assertThat(diagnosticsConfiguration.diagnostics(documentContext))
       .anyMatch(diagnostic -> diagnostic instanceof DeprecatedFindDiagnostic);
 
-    doReturn(new CompatibilityMode(3, 6)).when(bslConfiguration).getCompatibilityMode();
+    doReturn(new CompatibilityMode(3, 6)).when(configurationSnapshot).getCompatibilityMode();
     assertThat(diagnosticsConfiguration.diagnostics(documentContext))
       .anyMatch(diagnostic -> diagnostic instanceof DeprecatedFindDiagnostic);
 
-    doReturn(new CompatibilityMode(2, 16)).when(bslConfiguration).getCompatibilityMode();
+    doReturn(new CompatibilityMode(2, 16)).when(configurationSnapshot).getCompatibilityMode();
     assertThat(diagnosticsConfiguration.diagnostics(documentContext))
       .noneMatch(diagnostic -> diagnostic instanceof DeprecatedFindDiagnostic);
   }
 
+  @Test
+  void testPrefilter() {
+    // given
+    configuration.getDiagnosticsOptions().setMode(Mode.ON);
+    var documentWithoutWords = TestUtils.getDocumentContext("А = \"Сообщить\";");
+    var documentWithWords = TestUtils.getDocumentContext("сообщить(А);");
+
+    // then
+    assertThat(diagnosticsConfiguration.diagnostics(documentWithoutWords))
+      .noneMatch(diagnostic -> diagnostic instanceof DeprecatedMessageDiagnostic)
+      .noneMatch(diagnostic -> diagnostic instanceof UsingModalWindowsDiagnostic)
+      .anyMatch(diagnostic -> diagnostic instanceof CommentedCodeDiagnostic);
+
+    assertThat(diagnosticsConfiguration.diagnostics(documentWithWords))
+      .anyMatch(diagnostic -> diagnostic instanceof DeprecatedMessageDiagnostic);
+  }
+
   @Test
   void testModuleType() {
     // given
@@ -287,6 +313,87 @@ class DiagnosticsTest {
     ;
   }
 
+  @Test
+  void testDiagnosticInstancesReuse() {
+    // given
+    configuration.getDiagnosticsOptions().setMode(Mode.ON);
+    var diagnostics = diagnosticsConfiguration.diagnostics(documentContext);
+    var generation = diagnosticObjectProvider.getGeneration();
+
+    // when
+    diagnostics.forEach(diagnostic -> diagnosticObjectProvider.release(diagnostic, generation));
+    var reusedDiagnostics = diagnosticsConfiguration.diagnostics(documentContext);
+
+    // then
+    assertThat(reusedDiagnostics)
+      .hasSameSizeAs(diagnostics)
+      .containsExactlyInAnyOrderElementsOf(diagnostics);
+
+    // when
+    applicationEventPublisher.publishEvent(new LanguageServerConfigurationChangedEvent(configuration));
+    reusedDiagnostics.forEach(diagnostic -> diagnosticObjectProvider.release(diagnostic, generation));
+
+    // then
+    assertThat(diagnosticsConfiguration.diagnostics(documentContext))
+      .hasSameSizeAs(diagnostics)
+      .doesNotContainAnyElementsOf(diagnostics);
+  }
+
+  @Test
+  void testReleasedDiagnosticDropsDocumentState() throws IllegalAccessException {
+    // given
+    documentContext = TestUtils.getDocumentContext(
+      "Если А = 1 Тогда\n Б = 1;\n Возврат;\nИначе\n Б = 1;\n Возврат;\nКонецЕсли;"
+    );
+    var generation = diagnosticObjectProvider.getGeneration();
+    var diagnostic = diagnosticObjectProvider.acquire(IfElseDuplicatedCodeBlockDiagnostic.class);
+    assertThat(diagnostic.getDiagnostics(documentContext)).isNotEmpty();
+
+    // when
+    diagnosticObjectProvider.release(diagnostic, generation);
+
+    // then
+    assertThat(FieldUtils.readField(diagnostic, "documentContext", true)).isNull();
+    assertThat((Set<?>) FieldUtils.readField(diagnostic, "checkedBlocks", true)).isEmpty();
+  }
+
+  @Test
+  void testExecutionPlanFollowsDiagnosticsMode() {
+    // given
+    configuration.getDiagnosticsOptions().setMode(Mode.ON);
+    assertThat(diagnosticsConfiguration.diagnostics(documentContext))
+      .flatExtracting(Object::getClass)
+      .doesNotContain(TooManyReturnsDiagnostic.class);
+
+    // when
+    configuration.getDiagnosticsOptions().setMode(Mode.ALL);
+
+    // then
+    assertThat(diagnosticsConfiguration.diagnostics(documentContext))
+      .flatExtracting(Object::getClass)
+      .contains(TooManyReturnsDiagnostic.class);
+  }
+
+  @Test
+  void testExecutionPlanFollowsParametersChangedInPlace() {
+    // given
+    configuration.getDiagnosticsOptions().setMode(Mode.ONLY);
+    Map<String, Either<Boolean, Map<String, Object>>> rules = new HashMap<>();
+    rules.put("TooManyReturns", Either.forLeft(true));
+    configuration.getDiagnosticsOptions().setParameters(rules);
+    assertThat(diagnosticsConfiguration.diagnostics(documentContext))
+      .flatExtracting(Object::getClass)
+      .containsExactly(TooManyReturnsDiagnostic.class);
+
+    // when
+    rules.put("Typo", Either.forLeft(true));
+
+    // then
+    assertThat(diagnosticsConfiguration.diagnostics(documentContext))
+      .flatExtracting(Object::getClass)
+      .containsExactlyInAnyOrder(TooManyReturnsDiagnostic.class, TypoDiagnostic.class);
+  }
+
   @Test
   void testDiagnosticSubsystemsIncludeCheck() {
 
@@ -0,0 +1,136 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics;
+
+import com.github._1c_syntax.bsl.languageserver.diagnostics.infrastructure.DiagnosticObjectProvider;
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.eclipse.lsp4j.Diagnostic;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@CleanupContextBeforeClassAndAfterClass
+class SinglePassDiagnosticWalkerTest {
+
+  private static final List<Class<? extends BSLDiagnostic>> SINGLE_PASS_DIAGNOSTICS = List.of(
+    EmptyCodeBlockDiagnostic.class,
+    EmptyRegionDiagnostic.class,
+    ExtraCommasDiagnostic.class,
+    IfConditionComplexityDiagnostic.class,
+    IfElseIfEndsWithElseDiagnostic.class,
+    NestedStatementsDiagnostic.class,
+    NestedTernaryOperatorDiagnostic.class,
+    ParseErrorDiagnostic.class,
+    TernaryOperatorUsageDiagnostic.class,
+    UsingGotoDiagnostic.class,
+    DeprecatedFindDiagnostic.class
+  );
+
+  @Autowired
+  private DiagnosticObjectProvider diagnosticObjectProvider;
+
+  @Test
+  void testSupports() {
+    assertThat(SinglePassDiagnosticWalker.supports(diagnosticObjectProvider.get(EmptyRegionDiagnostic.class)))
+      .isTrue();
+    assertThat(SinglePassDiagnosticWalker.supports(diagnosticObjectProvider.get(UsingGotoDiagnostic.class)))
+      .isTrue();
+    assertThat(SinglePassDiagnosticWalker.supports(diagnosticObjectProvider.get(ExecuteExternalCodeDiagnostic.class)))
+      .isFalse();
+  }
+
+  @Test
+  void testSameResultsAsSeparateWalks() {
+    for (Class<? extends BSLDiagnostic> diagnosticClass : SINGLE_PASS_DIAGNOSTICS) {
+      // given
+      var documentContext = TestUtils.getDocumentContextFromFile(
+        "./src/test/resources/diagnostics/" + diagnosticClass.getSimpleName() + ".bsl"
+      );
+      var expected = new ArrayList<Diagnostic>();
+      for (Class<? extends BSLDiagnostic> clazz : SINGLE_PASS_DIAGNOSTICS) {
+        expected.addAll(diagnosticObjectProvider.get(clazz).getDiagnostics(documentContext));
+      }
+
+      // when
+      var diagnostics = SINGLE_PASS_DIAGNOSTICS.stream()
+        .map(diagnosticObjectProvider::get)
+        .collect(Collectors.toList());
+      Map<BSLDiagnostic, List<Diagnostic>> actual = SinglePassDiagnosticWalker.compute(
+        documentContext,
+        diagnostics,
+        (diagnostic, e) -> {
+          throw e;
+        }
+      );
+
+      // then
+      assertThat(actual).hasSize(SINGLE_PASS_DIAGNOSTICS.size());
+      assertThat(actual.values().stream().flatMap(List::stream))
+        .as(diagnosticClass.getSimpleName())
+        .containsExactlyInAnyOrderElementsOf(expected);
+    }
+  }
+
+  @Test
+  void testFailedDiagnosticIsExcluded() {
+    // given
+    var documentContext = TestUtils.getDocumentContextFromFile(
+      "./src/test/resources/diagnostics/UsingGotoDiagnostic.bsl"
+    );
+    var failingDiagnostic = new FailingDiagnostic();
+    failingDiagnostic.setInfo(diagnosticObjectProvider.get(UsingGotoDiagnostic.class).getInfo());
+    var usingGotoDiagnostic = diagnosticObjectProvider.get(UsingGotoDiagnostic.class);
+    var errors = new ArrayList<BSLDiagnostic>();
+
+    // when
+    var actual = SinglePassDiagnosticWalker.compute(
+      documentContext,
+      List.of(failingDiagnostic, usingGotoDiagnostic),
+      (diagnostic, e) -> errors.add(diagnostic)
+    );
+
+    // then
+    assertThat(errors).containsExactly(failingDiagnostic);
+    assertThat(actual).containsOnlyKeys(usingGotoDiagnostic);
+    assertThat(actual.get(usingGotoDiagnostic))
+      .isEqualTo(diagnosticObjectProvider.get(UsingGotoDiagnostic.class).getDiagnostics(documentContext));
+  }
+
+  @SinglePassCompatible
+  static class FailingDiagnostic extends AbstractVisitorDiagnostic {
+    @Override
+    public ParseTree visitGotoStatement(BSLParser.GotoStatementContext ctx) {
+      throw new IllegalStateException("fail");
+    }
+  }
+}
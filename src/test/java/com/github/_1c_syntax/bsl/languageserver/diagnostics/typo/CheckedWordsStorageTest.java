@@ -0,0 +1,86 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics.typo;
+
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+  "app.cache.enabled=true",
+  "app.cache.path=build/test-cache/checked-words-storage",
+  "app.diagnostics.typo.checked-words-limit=2",
+  "app.diagnostics.typo.flush-threshold=2"
+})
+@CleanupContextBeforeClassAndAfterClass
+class CheckedWordsStorageTest {
+
+  private static final String CACHE_PATH = "build/test-cache/checked-words-storage";
+
+  @Autowired
+  private CheckedWordsStorage checkedWordsStorage;
+
+  @AfterEach
+  void cleanUp() {
+    checkedWordsStorage.clear();
+    FileUtils.deleteQuietly(new File(CACHE_PATH));
+  }
+
+  @Test
+  void testLeastRecentlyUsedWordsAreEvicted() {
+    // given
+    checkedWordsStorage.put("ru", "Атмена", true);
+    checkedWordsStorage.put("ru", "Оплаты", false);
+    assertThat(checkedWordsStorage.get("ru", "Атмена")).isTrue();
+
+    // when
+    checkedWordsStorage.put("ru", "Недели", false);
+
+    // then
+    assertThat(checkedWordsStorage.get("ru", "Атмена")).isTrue();
+    assertThat(checkedWordsStorage.get("ru", "Недели")).isFalse();
+    assertThat(checkedWordsStorage.get("ru", "Оплаты")).isNull();
+  }
+
+  @Test
+  void testCheckedWordsAreFlushedByThreshold() {
+    // given
+    checkedWordsStorage.put("ru", "Атмена", true);
+    assertThat(new File(CACHE_PATH, "typo")).doesNotExist();
+
+    // when
+    checkedWordsStorage.put("ru", "Оплаты", false);
+    checkedWordsStorage.clear();
+
+    // then
+    assertThat(new File(CACHE_PATH, "typo")).isDirectory();
+    assertThat(checkedWordsStorage.get("ru", "Атмена")).isTrue();
+    assertThat(checkedWordsStorage.get("ru", "Оплаты")).isFalse();
+  }
+}
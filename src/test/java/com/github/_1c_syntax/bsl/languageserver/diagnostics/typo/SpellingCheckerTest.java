@@ -0,0 +1,108 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.diagnostics.typo;
+
+import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAndAfterClass;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+  "app.cache.enabled=true",
+  "app.cache.path=build/test-cache/typo-cache",
+  "app.diagnostics.typo.pool-size=2"
+})
+@CleanupContextBeforeClassAndAfterClass
+class SpellingCheckerTest {
+
+  private static final String CACHE_PATH = "build/test-cache/typo-cache";
+
+  @Autowired
+  private SpellingChecker spellingChecker;
+
+  @Autowired
+  private CheckedWordsStorage checkedWordsStorage;
+
+  @AfterEach
+  void cleanUp() {
+    checkedWordsStorage.clear();
+    FileUtils.deleteQuietly(new File(CACHE_PATH));
+  }
+
+  @Test
+  void testWordsWithErrors() {
+    // when
+    var wordsWithErrors = spellingChecker.getWordsWithErrors("ru", Set.of("Атмена", "Варинаты", "Оплаты", "Недели"));
+
+    // then
+    assertThat(wordsWithErrors).containsExactlyInAnyOrder("Атмена", "Варинаты");
+    assertThat(checkedWordsStorage.get("ru", "Атмена")).isTrue();
+    assertThat(checkedWordsStorage.get("ru", "Оплаты")).isFalse();
+  }
+
+  @Test
+  void testConcurrentChecks() {
+    // given
+    var words = List.of(
+      Set.of("Атмена", "Оплаты"),
+      Set.of("Варинаты", "Оплаты"),
+      Set.of("Недели", "Атмена"),
+      Set.of("Оплаты", "Недели")
+    );
+
+    // when
+    var wordsWithErrors = words.parallelStream()
+      .map(batch -> spellingChecker.getWordsWithErrors("ru", batch))
+      .collect(Collectors.toList());
+
+    // then
+    assertThat(wordsWithErrors.get(0)).containsExactly("Атмена");
+    assertThat(wordsWithErrors.get(1)).containsExactly("Варинаты");
+    assertThat(wordsWithErrors.get(2)).containsExactly("Атмена");
+    assertThat(wordsWithErrors.get(3)).isEmpty();
+  }
+
+  @Test
+  void testCheckedWordsArePersisted() {
+    // given
+    spellingChecker.getWordsWithErrors("ru", Set.of("Атмена", "Оплаты"));
+
+    // when
+    checkedWordsStorage.save();
+    checkedWordsStorage.clear();
+
+    // then
+    assertThat(new File(CACHE_PATH, "typo")).isDirectory();
+    assertThat(checkedWordsStorage.get("ru", "Атмена")).isTrue();
+    assertThat(checkedWordsStorage.get("ru", "Оплаты")).isFalse();
+    assertThat(checkedWordsStorage.get("ru", "Недели")).isNull();
+  }
+}
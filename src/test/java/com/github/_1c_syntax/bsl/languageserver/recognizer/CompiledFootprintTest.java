@@ -0,0 +1,96 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.recognizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CompiledFootprintTest {
+
+  @Test
+  void testMatchesDetectors() throws IOException {
+    // given
+    var footprint = new BSLFootprint();
+    var compiled = new CompiledFootprint(footprint.getDetectors());
+    var lines = Files.readAllLines(
+      Path.of("./src/test/resources/diagnostics/CommentedCodeDiagnostic.bsl"),
+      StandardCharsets.UTF_8
+    );
+
+    // then
+    assertThat(lines).isNotEmpty();
+    for (String line : lines) {
+      assertThat(compiled.compute(line))
+        .as(line)
+        .isCloseTo(recognition(footprint.getDetectors(), line), within(1e-9));
+    }
+  }
+
+  @Test
+  void testRepeatedAndOverlappingWords() {
+    // given
+    Set<AbstractDetector> detectors = Set.of(
+      new ContainsDetector(0.5, "?(", ");", "?(", "аа", "а;"),
+      new KeywordsDetector(0.3, "Если", "Если", "="),
+      new KeywordsDetector(0.2, "Если"),
+      new EndWithDetector(0.1, ';')
+    );
+    var compiled = new CompiledFootprint(detectors);
+
+    // then
+    for (String line : List.of("", "   ", "А = ?(Б, В, Г);", "Если аааа; Если\tа = 1", "\tЕсли\n", "ааа;а;")) {
+      assertThat(compiled.compute(line))
+        .as(line)
+        .isCloseTo(recognition(detectors, line), within(1e-9));
+    }
+  }
+
+  @Test
+  void testRecognitionIsMemoized() {
+    // given
+    var compiled = new BSLFootprint().compile();
+    var line = "//КонецЕсли;";
+
+    // then
+    assertThat(compiled).isSameAs(new BSLFootprint().compile());
+    assertThat(compiled.recognition(line)).isEqualTo(compiled.recognition(new String(line.toCharArray())));
+    assertThat(new CodeRecognizer(0.9, new BSLFootprint()).meetsCondition(line)).isTrue();
+  }
+
+  private static double recognition(Collection<AbstractDetector> detectors, String line) {
+    double probability = 0;
+    for (AbstractDetector detector : detectors) {
+      probability = 1 - (1 - probability) * (1 - detector.detect(line));
+    }
+    return probability;
+  }
+}
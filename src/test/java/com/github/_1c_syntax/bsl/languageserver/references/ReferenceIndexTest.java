@@ -27,6 +27,7 @@ import com.github._1c_syntax.bsl.languageserver.util.CleanupContextBeforeClassAn
 import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
 import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
 import com.github._1c_syntax.bsl.types.ModuleType;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.SymbolKind;
@@ -37,6 +38,8 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import javax.annotation.PostConstruct;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static com.github._1c_syntax.bsl.languageserver.util.TestUtils.PATH_TO_METADATA;
@@ -332,4 +335,37 @@ class ReferenceIndexTest {
 
     assertThat(reference).isEmpty();
   }
+
+  @Test
+  void testGetReferencingDocuments() {
+    // given
+    var documentContext = TestUtils.getDocumentContextFromFile(PATH_TO_FILE);
+    var commonModuleContext = serverContext.getDocument("CommonModule.ПервыйОбщийМодуль", ModuleType.CommonModule).orElseThrow();
+
+    // when
+    var referencingDocuments = referenceIndex.getReferencingDocuments(List.of(commonModuleContext));
+
+    // then
+    assertThat(referencingDocuments)
+      .contains(documentContext.getUri())
+    ;
+  }
+
+  @Test
+  void testClearReferencesDropsDocumentState() throws IllegalAccessException {
+    // given
+    var documentContext = TestUtils.getDocumentContext("Процедура Тест()\nКонецПроцедуры\nТест();");
+    var uri = documentContext.getUri();
+    assertThat(referenceIndex.getReference(uri, new Position(2, 1))).isPresent();
+
+    // when
+    referenceIndex.clearReferences(uri);
+
+    // then
+    assertThat(referenceIndex.getReference(uri, new Position(2, 1))).isEmpty();
+    assertThat((Map<?, ?>) FieldUtils.readField(referenceIndex, "occurrencesVersions", true))
+      .doesNotContainKey(uri);
+    assertThat((Map<?, ?>) FieldUtils.readField(referenceIndex, "occurrencesByPosition", true))
+      .doesNotContainKey(uri);
+  }
 }
\ No newline at end of file
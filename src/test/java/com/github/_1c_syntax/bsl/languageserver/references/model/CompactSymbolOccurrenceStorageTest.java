@@ -0,0 +1,211 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.references.model;
+
+import com.github._1c_syntax.bsl.languageserver.utils.Ranges;
+import com.github._1c_syntax.bsl.types.ModuleType;
+import org.eclipse.lsp4j.SymbolKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactSymbolOccurrenceStorageTest {
+
+  private static final URI FIRST_URI = URI.create("file:///fake/first.bsl");
+  private static final URI SECOND_URI = URI.create("file:///fake/second.bsl");
+
+  private CompactSymbolOccurrenceStorage storage;
+  private RepositorySymbolOccurrenceStorage referenceStorage;
+
+  private final Symbol method = symbol(SymbolKind.Method, "", "метод");
+  private final Symbol variable = symbol(SymbolKind.Variable, "метод", "переменная");
+
+  @BeforeEach
+  void setUp() {
+    storage = new CompactSymbolOccurrenceStorage();
+    referenceStorage = new RepositorySymbolOccurrenceStorage(new LocationRepository(), new SymbolOccurrenceRepository());
+
+    List.of(
+      occurrence(method, FIRST_URI, 3, OccurrenceType.REFERENCE),
+      occurrence(method, FIRST_URI, 1, OccurrenceType.REFERENCE),
+      occurrence(variable, FIRST_URI, 2, OccurrenceType.DEFINITION),
+      occurrence(method, SECOND_URI, 5, OccurrenceType.REFERENCE),
+      occurrence(variable, SECOND_URI, 6, OccurrenceType.REFERENCE)
+    ).forEach((SymbolOccurrence symbolOccurrence) -> {
+      storage.save(symbolOccurrence);
+      referenceStorage.save(symbolOccurrence);
+    });
+  }
+
+  @Test
+  void testGetAllBySymbol() {
+    assertThat(storage.getAllBySymbol(method))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(method).collect(Collectors.toList()))
+      .hasSize(3);
+    assertThat(storage.getAllBySymbol(variable))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(variable).collect(Collectors.toList()))
+      .hasSize(2);
+    assertThat(storage.getAllBySymbol(symbol(SymbolKind.Method, "", "другойметод"))).isEmpty();
+  }
+
+  @Test
+  void testGetAllByModule() {
+    // given
+    var otherModuleMethod = Symbol.builder()
+      .mdoRef("CommonModule.ДругойМодуль")
+      .moduleType(ModuleType.CommonModule)
+      .scopeName("")
+      .symbolKind(SymbolKind.Method)
+      .symbolName("метод")
+      .build()
+      .intern();
+    var otherModuleOccurrence = occurrence(otherModuleMethod, SECOND_URI, 9, OccurrenceType.REFERENCE);
+    storage.save(otherModuleOccurrence);
+    referenceStorage.save(otherModuleOccurrence);
+
+    // when-then
+    assertThat(storage.getAllByModule("CommonModule.ОбщийМодуль", ModuleType.CommonModule))
+      .containsExactlyInAnyOrderElementsOf(
+        referenceStorage.getAllByModule("CommonModule.ОбщийМодуль", ModuleType.CommonModule)
+          .collect(Collectors.toList())
+      )
+      .hasSize(5);
+    assertThat(storage.getAllByModule("CommonModule.ДругойМодуль", ModuleType.CommonModule))
+      .containsExactly(otherModuleOccurrence);
+    assertThat(referenceStorage.getAllByModule("CommonModule.ДругойМодуль", ModuleType.CommonModule))
+      .containsExactly(otherModuleOccurrence);
+    assertThat(storage.getAllByModule("CommonModule.ОбщийМодуль", ModuleType.ObjectModule)).isEmpty();
+  }
+
+  @Test
+  void testGetAllByLocationUri() {
+    assertThat(storage.getAllByLocationUri(FIRST_URI))
+      .containsExactlyInAnyOrderElementsOf(
+        referenceStorage.getAllByLocationUri(FIRST_URI).collect(Collectors.toList())
+      )
+      .hasSize(3);
+    assertThat(storage.getAllByLocationUri(URI.create("file:///fake/unknown.bsl"))).isEmpty();
+  }
+
+  @Test
+  void testDeleteAll() {
+    // when
+    storage.deleteAll(FIRST_URI);
+    referenceStorage.deleteAll(FIRST_URI);
+
+    // then
+    assertThat(storage.getAllByLocationUri(FIRST_URI)).isEmpty();
+    assertThat(storage.getAllByLocationUri(SECOND_URI)).hasSize(2);
+    assertThat(storage.getAllBySymbol(method))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(method).collect(Collectors.toList()))
+      .hasSize(1);
+
+    // when
+    storage.save(occurrence(method, FIRST_URI, 10, OccurrenceType.REFERENCE));
+
+    // then
+    assertThat(storage.getAllBySymbol(method)).hasSize(2);
+  }
+
+  @Test
+  void testReplaceAll() {
+    // given
+    var occurrences = List.of(
+      occurrence(variable, FIRST_URI, 7, OccurrenceType.REFERENCE),
+      occurrence(variable, FIRST_URI, 8, OccurrenceType.DEFINITION)
+    );
+
+    // when
+    storage.replaceAll(FIRST_URI, occurrences);
+    referenceStorage.replaceAll(FIRST_URI, occurrences);
+
+    // then
+    assertThat(storage.getAllByLocationUri(FIRST_URI)).containsExactlyElementsOf(occurrences);
+    assertThat(storage.getAllBySymbol(method))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(method).collect(Collectors.toList()))
+      .hasSize(1);
+    assertThat(storage.getAllBySymbol(variable))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(variable).collect(Collectors.toList()))
+      .hasSize(3);
+
+    // when
+    storage.replaceAll(FIRST_URI, List.of());
+
+    // then
+    assertThat(storage.getAllByLocationUri(FIRST_URI)).isEmpty();
+    assertThat(storage.getAllBySymbol(variable)).hasSize(1);
+  }
+
+  @Test
+  void testAppendKeepsPublishedOccurrences() {
+    // given
+    var before = storage.getAllByLocationUri(FIRST_URI).collect(Collectors.toList());
+
+    // when
+    for (var line = 100; line < 300; line++) {
+      var occurrence = occurrence(line % 2 == 0 ? method : variable, FIRST_URI, line, OccurrenceType.REFERENCE);
+      storage.save(occurrence);
+      referenceStorage.save(occurrence);
+    }
+
+    // then
+    assertThat(before).hasSize(3);
+    assertThat(storage.getAllByLocationUri(FIRST_URI))
+      .startsWith(before.toArray(new SymbolOccurrence[0]))
+      .hasSize(203);
+    assertThat(storage.getAllBySymbol(method))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(method).collect(Collectors.toList()));
+    assertThat(storage.getAllBySymbol(variable))
+      .containsExactlyElementsOf(referenceStorage.getAllBySymbol(variable).collect(Collectors.toList()));
+
+    // when
+    storage.replaceAll(FIRST_URI, List.of(occurrence(method, FIRST_URI, 1, OccurrenceType.REFERENCE)));
+
+    // then
+    assertThat(storage.getAllByLocationUri(FIRST_URI)).hasSize(1);
+    assertThat(storage.getAllBySymbol(variable)).hasSize(1);
+  }
+
+  private static Symbol symbol(SymbolKind symbolKind, String scopeName, String symbolName) {
+    return Symbol.builder()
+      .mdoRef("CommonModule.ОбщийМодуль")
+      .moduleType(ModuleType.CommonModule)
+      .scopeName(scopeName)
+      .symbolKind(symbolKind)
+      .symbolName(symbolName)
+      .build()
+      .intern();
+  }
+
+  private static SymbolOccurrence occurrence(Symbol symbol, URI uri, int line, OccurrenceType occurrenceType) {
+    return SymbolOccurrence.builder()
+      .occurrenceType(occurrenceType)
+      .symbol(symbol)
+      .location(new Location(uri, Ranges.create(line, 4, line, 10)))
+      .build();
+  }
+}
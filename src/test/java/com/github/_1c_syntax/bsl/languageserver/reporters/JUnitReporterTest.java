@@ -35,6 +35,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -111,4 +112,35 @@ class JUnitReporterTest {
     assertThat(report).isNotNull();
 
   }
+
+  @Test
+  void reportWithCDataEnd() throws Exception {
+
+    // given
+    var diagnostic = new Diagnostic(
+      Ranges.create(0, 1, 2, 3),
+      "Строка с ]]> внутри и в конце ]]>",
+      DiagnosticSeverity.Error,
+      "test-source",
+      "test"
+    );
+
+    var documentContext = TestUtils.getDocumentContext("");
+    String sourceDir = ".";
+    FileInfo fileInfo = new FileInfo(sourceDir, documentContext, Collections.singletonList(diagnostic));
+    AnalysisInfo analysisInfo = new AnalysisInfo(LocalDateTime.now(), Collections.singletonList(fileInfo), sourceDir);
+
+    DiagnosticReporter reporter = new JUnitReporter();
+
+    // when
+    reporter.report(analysisInfo, Path.of(sourceDir));
+
+    // then
+    var document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(file);
+    var failure = document.getElementsByTagName("failure").item(0);
+
+    assertThat(failure.getTextContent())
+      .isEqualTo("line: 1, column: 1, text: Строка с ]]> внутри и в конце ]]>");
+
+  }
 }
@@ -89,4 +89,66 @@ class JsonReporterTest {
     Assertions.assertThat(report.getFileinfos()).hasSize(1);
 
   }
-}
\ No newline at end of file
+
+  @Test
+  void reportWithWriter() throws IOException {
+
+    // given
+    Diagnostic diagnostic = new Diagnostic(
+      Ranges.create(0, 1, 2, 3),
+      "message",
+      DiagnosticSeverity.Error,
+      "test-source",
+      "test"
+    );
+
+    var documentContext = TestUtils.getDocumentContext("");
+    String sourceDir = ".";
+    FileInfo fileInfo = new FileInfo(sourceDir, documentContext, Collections.singletonList(diagnostic));
+    FileInfo emptyFileInfo = new FileInfo(sourceDir, documentContext, Collections.emptyList());
+
+    JsonReporter reporter = new JsonReporter();
+
+    // when
+    var date = LocalDateTime.now().withNano(0);
+    try (var writer = reporter.createWriter(sourceDir, Path.of(sourceDir))) {
+      writer.write(fileInfo);
+      writer.write(emptyFileInfo);
+      writer.complete(date);
+    }
+
+    // then
+    ObjectMapper mapper = new AnalysisInfoObjectMapper();
+
+    mapper.findAndRegisterModules();
+    AnalysisInfo report = mapper.readValue(file, AnalysisInfo.class);
+
+    Assertions.assertThat(report.getDate()).isEqualTo(date);
+    Assertions.assertThat(report.getSourceDir()).isEqualTo(sourceDir);
+    Assertions.assertThat(report.getFileinfos()).hasSize(2);
+    Assertions.assertThat(report.getFileinfos().get(0).getDiagnostics()).hasSize(1);
+    Assertions.assertThat(report.getFileinfos().get(1).getDiagnostics()).isEmpty();
+
+  }
+
+  @Test
+  void reportWithNotCompletedWriter() {
+
+    // given
+    var documentContext = TestUtils.getDocumentContext("");
+    String sourceDir = ".";
+    FileInfo fileInfo = new FileInfo(sourceDir, documentContext, Collections.emptyList());
+
+    JsonReporter reporter = new JsonReporter();
+
+    // when
+    try (var writer = reporter.createWriter(sourceDir, Path.of(sourceDir))) {
+      writer.write(fileInfo);
+    }
+
+    // then
+    Assertions.assertThat(file).doesNotExist();
+    Assertions.assertThat(new File(sourceDir).list((dir, name) -> name.startsWith("bsl-json.json"))).isEmpty();
+
+  }
+}
@@ -44,6 +44,9 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 @SpringBootTest(properties = {"spring.main.allow-bean-definition-overriding=true"})
 @ActiveProfiles("reportersAggregator")
 class ReportersAggregatorTest {
@@ -88,6 +91,76 @@ class ReportersAggregatorTest {
     // assertThat(outContent.toString()).containsIgnoringCase("Analysis date: ");
   }
 
+  @Test
+  void writerCompletesAndClosesAllReporters() {
+
+    // given
+    var failingReporter = new FakeReporter("failing", true);
+    var reporter = new FakeReporter("fake", false);
+    var reporters = List.<DiagnosticReporter>of(failingReporter, reporter);
+    var reportersAggregator = new ReportersAggregator(reporters, reporters);
+    var date = LocalDateTime.now();
+
+    // when
+    var writer = reportersAggregator.createWriter(".", Path.of("."));
+
+    // then
+    assertThatThrownBy(() -> writer.complete(date))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("failing complete");
+    assertThatThrownBy(writer::close)
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessage("failing close");
+
+    assertThat(reporter.completedDate).isEqualTo(date);
+    assertThat(reporter.closed).isTrue();
+    assertThat(failingReporter.closed).isTrue();
+  }
+
+  private static class FakeReporter implements StreamingDiagnosticReporter {
+
+    private final String key;
+    private final boolean failing;
+    private LocalDateTime completedDate;
+    private boolean closed;
+
+    FakeReporter(String key, boolean failing) {
+      this.key = key;
+      this.failing = failing;
+    }
+
+    @Override
+    public String key() {
+      return key;
+    }
+
+    @Override
+    public ReportWriter createWriter(String sourceDir, Path outputDir) {
+      return new ReportWriter() {
+        @Override
+        public void write(FileInfo fileInfo) {
+          // nothing to write
+        }
+
+        @Override
+        public void complete(LocalDateTime date) {
+          if (failing) {
+            throw new IllegalStateException(key + " complete");
+          }
+          completedDate = date;
+        }
+
+        @Override
+        public void close() {
+          closed = true;
+          if (failing) {
+            throw new IllegalStateException(key + " close");
+          }
+        }
+      };
+    }
+  }
+
   @TestConfiguration
   @Profile("reportersAggregator")
   static class Configuration {
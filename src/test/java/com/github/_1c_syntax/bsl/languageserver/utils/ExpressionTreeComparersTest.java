@@ -65,6 +65,54 @@ class ExpressionTreeComparersTest {
 
   }
 
+  @Test
+  void hashesAreConsistentWithEquality() {
+    var code = "С = Метод(А + 2, Новый Массив, ?(Б, -В, Г)) = МЕТОД(2 + а, Новый Массив, ?(Б, -В, Г))";
+    var tree = (BinaryOperationNode) getExpressionTree(code);
+
+    var defaultComparer = new DefaultNodeEqualityComparer();
+    assertThat(defaultComparer.areEqual(tree.getLeft(), tree.getRight())).isFalse();
+
+    var transitiveComparer = new TransitiveOperationsIgnoringComparer();
+    assertThat(transitiveComparer.areEqual(tree.getLeft(), tree.getRight())).isTrue();
+    assertThat(transitiveComparer.hash(tree.getLeft())).isEqualTo(transitiveComparer.hash(tree.getRight()));
+  }
+
+  @Test
+  void hashesDistinguishOperands() {
+    var code = "С = (А - Б) = (Б - А)";
+    var tree = (BinaryOperationNode) getExpressionTree(code);
+
+    var comparer = new TransitiveOperationsIgnoringComparer();
+    assertThat(comparer.areEqual(tree.getLeft(), tree.getRight())).isFalse();
+    assertThat(comparer.hash(tree.getLeft())).isNotEqualTo(comparer.hash(tree.getRight()));
+
+    var logicalCode = "С = А И Б ИЛИ Б И А";
+    var logicalTree = (BinaryOperationNode) getExpressionTree(logicalCode);
+    assertThat(comparer.hash(logicalTree.getLeft())).isNotEqualTo(comparer.hash(logicalTree.getRight()));
+
+    comparer.logicalOperationsAsTransitive(true);
+    assertThat(comparer.areEqual(logicalTree.getLeft(), logicalTree.getRight())).isTrue();
+    assertThat(comparer.hash(logicalTree.getLeft())).isEqualTo(comparer.hash(logicalTree.getRight()));
+  }
+
+  @Test
+  void expressionTreesAreCachedPerDocument() {
+    var documentContext = TestUtils.getDocumentContext("С = А + Б;");
+    var expression = documentContext.getAst().fileCodeBlock().codeBlock().statement(0).assignment().expression();
+
+    var tree = documentContext.getExpressionTree(expression);
+    assertThat(documentContext.getExpressionTree(expression)).isSameAs(tree);
+    assertThat(new DefaultNodeEqualityComparer().areEqual(tree, getExpressionTree("С = А + Б;"))).isTrue();
+
+    documentContext.getServerContext().rebuildDocument(documentContext, "С = А - Б;", 1);
+    var newExpression = documentContext.getAst().fileCodeBlock().codeBlock().statement(0).assignment().expression();
+    assertThat(documentContext.getExpressionTree(newExpression))
+      .isNotSameAs(tree)
+      .extracting(node -> ((BinaryOperationNode) node).getOperator())
+      .isEqualTo(BslOperator.SUBTRACT);
+  }
+
   BSLParser.ExpressionContext parse(String code) {
     var dContext = TestUtils.getDocumentContext(code);
     return dContext.getAst().fileCodeBlock().codeBlock().statement(0).assignment().expression();
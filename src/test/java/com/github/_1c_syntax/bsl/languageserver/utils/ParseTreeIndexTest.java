@@ -0,0 +1,137 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import com.github._1c_syntax.bsl.languageserver.util.TestUtils;
+import com.github._1c_syntax.bsl.parser.BSLLexer;
+import com.github._1c_syntax.bsl.parser.BSLParser;
+import com.github._1c_syntax.bsl.parser.BSLParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ParseTreeIndexTest {
+
+  private static final String PATH_TO_FILE = "./src/test/resources/context/DocumentContextTest.bsl";
+
+  @Test
+  void testRuleNodesMatchTreeWalk() {
+    // given
+    var ast = TestUtils.getDocumentContextFromFile(PATH_TO_FILE).getAst();
+    var subtrees = subtreesOf(ast);
+
+    // then
+    assertThat(ParseTreeIndex.find(ast)).isNotNull();
+    for (var subtree : subtrees) {
+      for (var ruleIndex = 0; ruleIndex < BSLParser.ruleNames.length; ruleIndex++) {
+        assertThat(Trees.findAllRuleNodes(subtree, ruleIndex))
+          .containsExactlyElementsOf(org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(subtree, ruleIndex));
+      }
+    }
+  }
+
+  @Test
+  void testMultipleRuleIndexes() {
+    // given
+    var ast = TestUtils.getDocumentContextFromFile(PATH_TO_FILE).getAst();
+    var ruleIndexes = List.of(BSLParser.RULE_procedure, BSLParser.RULE_function, BSLParser.RULE_statement);
+
+    // when
+    var found = Trees.findAllRuleNodes(ast, ruleIndexes);
+
+    // then
+    var expected = new ArrayList<ParseTree>();
+    collect(ast, expected, ruleIndexes);
+    assertThat(found).containsExactlyElementsOf(expected);
+    assertThat(Trees.nodeContains(ast, BSLParser.RULE_function)).isTrue();
+    assertThat(Trees.nodeContains(found.get(found.size() - 1), BSLParser.RULE_function)).isFalse();
+  }
+
+  @Test
+  void testTokenNodesMatchTreeWalk() {
+    // given
+    var ast = TestUtils.getDocumentContextFromFile(PATH_TO_FILE).getAst();
+    var subtrees = subtreesOf(ast);
+    var tokenTypes = List.of(BSLLexer.IDENTIFIER, BSLLexer.STRING, BSLLexer.SEMICOLON, BSLLexer.EOF);
+
+    // then
+    for (var subtree : subtrees) {
+      for (var tokenType : tokenTypes) {
+        assertThat(Trees.findAllTokenNodes(subtree, tokenType))
+          .containsExactlyElementsOf(org.antlr.v4.runtime.tree.Trees.findAllTokenNodes(subtree, tokenType));
+      }
+    }
+  }
+
+  @Test
+  void testUnregisteredTreeUsesTreeWalk() {
+    // given
+    var ast = TestUtils.getDocumentContextFromFile(PATH_TO_FILE).getAst();
+    var statement = (BSLParserRuleContext) Trees.findAllRuleNodes(ast, BSLParser.RULE_statement).get(0);
+    var detached = new BSLParser.StatementContext(null, 0);
+    detached.addChild(statement);
+
+    // then
+    assertThat(ParseTreeIndex.find(detached)).isNull();
+    assertThat(Trees.findAllRuleNodes(detached, BSLParser.RULE_statement))
+      .containsExactlyElementsOf(org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(detached, BSLParser.RULE_statement));
+  }
+
+  @Test
+  void testRegisterReplacesIndexOfSameRoot() {
+    // given
+    var ast = TestUtils.getDocumentContextFromFile(PATH_TO_FILE).getAst();
+    var statement = Trees.findAllRuleNodes(ast, BSLParser.RULE_statement).get(0);
+
+    // when
+    var index = ParseTreeIndex.register(ast);
+
+    // then
+    assertThat(ParseTreeIndex.find(ast)).isSameAs(index);
+    assertThat(ParseTreeIndex.find(statement)).isSameAs(index);
+  }
+
+  private static List<ParseTree> subtreesOf(ParseTree ast) {
+    var subtrees = new ArrayList<ParseTree>();
+    subtrees.add(ast);
+    subtrees.addAll(org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(ast, BSLParser.RULE_sub));
+    subtrees.addAll(org.antlr.v4.runtime.tree.Trees.findAllRuleNodes(ast, BSLParser.RULE_statement));
+    return subtrees;
+  }
+
+  private static void collect(ParseTree tree, List<ParseTree> result, List<Integer> ruleIndexes) {
+    if (tree instanceof BSLParserRuleContext
+      && ruleIndexes.contains(((BSLParserRuleContext) tree).getRuleIndex())) {
+      result.add(tree);
+    }
+    for (var i = 0; i < tree.getChildCount(); i++) {
+      collect(tree.getChild(i), result, ruleIndexes);
+    }
+  }
+
+}
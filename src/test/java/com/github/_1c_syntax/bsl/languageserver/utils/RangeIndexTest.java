@@ -0,0 +1,99 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangeIndexTest {
+
+  @Test
+  void testFindContainingKeepsSourceOrder() {
+    // given
+    var method = Ranges.create(0, 0, 10, 14);
+    var variable = Ranges.create(2, 2, 2, 10);
+    var secondMethod = Ranges.create(12, 0, 20, 14);
+    var index = RangeIndex.create(List.of(secondMethod, variable, method), range -> range);
+
+    // when
+    var found = index.findContaining(new Position(2, 5));
+
+    // then
+    assertThat(found).containsExactly(variable, method);
+    assertThat(index.findFirstContaining(new Position(2, 5))).contains(variable);
+    assertThat(index.findFirstContaining(new Position(15, 0))).contains(secondMethod);
+    assertThat(index.findFirstContaining(new Position(11, 0))).isEmpty();
+  }
+
+  @Test
+  void testBoundariesAreInclusive() {
+    // given
+    var range = Ranges.create(1, 4, 1, 8);
+    var index = RangeIndex.create(List.of(range), item -> item);
+
+    // then
+    assertThat(index.findFirstContaining(new Position(1, 4))).contains(range);
+    assertThat(index.findFirstContaining(new Position(1, 8))).contains(range);
+    assertThat(index.findFirstContaining(new Position(1, 3))).isEmpty();
+    assertThat(index.findFirstContaining(new Position(1, 9))).isEmpty();
+  }
+
+  @Test
+  void testEmptyIndex() {
+    assertThat(RangeIndex.<Range>empty().findContaining(new Position(0, 0))).isEmpty();
+    assertThat(RangeIndex.create(Collections.<Range>emptyList(), range -> range).size()).isZero();
+  }
+
+  @Test
+  void testMatchesLinearScan() {
+    // given
+    var random = new Random(42);
+    List<Range> ranges = new ArrayList<>();
+    for (var i = 0; i < 500; i++) {
+      var startLine = random.nextInt(200);
+      var endLine = startLine + random.nextInt(20);
+      ranges.add(Ranges.create(startLine, random.nextInt(40), endLine, random.nextInt(40) + 40));
+    }
+    var index = RangeIndex.create(ranges, range -> range);
+
+    for (var i = 0; i < 1_000; i++) {
+      var position = new Position(random.nextInt(230), random.nextInt(90));
+
+      // when
+      var expected = ranges.stream()
+        .filter(range -> Ranges.containsPosition(range, position))
+        .collect(Collectors.toList());
+
+      // then
+      assertThat(index.findContaining(position)).isEqualTo(expected);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is a part of BSL Language Server.
+ *
+ * Copyright (c) 2018-2023
+ * Alexey Sosnoviy <labotamy@gmail.com>, Nikita Fedkin <nixel2007@gmail.com> and contributors
+ *
+ * SPDX-License-Identifier: LGPL-3.0-or-later
+ *
+ * BSL Language Server is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3.0 of the License, or (at your option) any later version.
+ *
+ * BSL Language Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with BSL Language Server.
+ */
+package com.github._1c_syntax.bsl.languageserver.utils;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentContentChangeEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextChangesTest {
+
+  @Test
+  void testFullChange() {
+    var change = new TextDocumentContentChangeEvent("Новый текст");
+
+    assertThat(TextChanges.apply("Старый текст", List.of(change))).isEqualTo("Новый текст");
+  }
+
+  @Test
+  void testRangeChange() {
+    // given
+    var content = "Процедура А()\n  Б = 1;\nКонецПроцедуры";
+    var change = new TextDocumentContentChangeEvent(Ranges.create(1, 6, 1, 7), "42");
+
+    // when
+    var result = TextChanges.apply(content, List.of(change));
+
+    // then
+    assertThat(result).isEqualTo("Процедура А()\n  Б = 42;\nКонецПроцедуры");
+  }
+
+  @Test
+  void testSequentialChanges() {
+    // given
+    var content = "А = 1;\r\nБ = 2;\r\n";
+    var insertLine = new TextDocumentContentChangeEvent(Ranges.create(1, 0, 1, 0), "В = 3;\r\n");
+    var deleteFirstLine = new TextDocumentContentChangeEvent(Ranges.create(0, 0, 1, 0), "");
+    var appendToEnd = new TextDocumentContentChangeEvent(Ranges.create(3, 0, 3, 0), "Г = 4;");
+
+    // when
+    var result = TextChanges.apply(content, List.of(insertLine, deleteFirstLine, appendToEnd));
+
+    // then
+    assertThat(result).isEqualTo("В = 3;\r\nБ = 2;\r\nГ = 4;");
+  }
+
+  @Test
+  void testChangesJoiningLineBreaks() {
+    // given
+    var content = "А\rБ\nВ";
+    var deleteLine = new TextDocumentContentChangeEvent(Ranges.create(1, 0, 1, 1), "");
+    var appendToSecondLine = new TextDocumentContentChangeEvent(Ranges.create(1, 1, 1, 1), "Г");
+    var insertLineBreak = new TextDocumentContentChangeEvent(Ranges.create(0, 1, 0, 1), "\r");
+    var appendToLastLine = new TextDocumentContentChangeEvent(Ranges.create(2, 1, 2, 1), "Д");
+
+    // when
+    var result = TextChanges.apply(content, List.of(deleteLine, appendToSecondLine, insertLineBreak, appendToLastLine));
+
+    // then
+    assertThat(result).isEqualTo("А\r\r\nВДГ");
+  }
+
+  @Test
+  void testOffsetOf() {
+    var content = "а\r\nбв\rг\n";
+
+    assertThat(TextChanges.offsetOf(content, new Position(0, 0))).isZero();
+    assertThat(TextChanges.offsetOf(content, new Position(0, 10))).isEqualTo(1);
+    assertThat(TextChanges.offsetOf(content, new Position(1, 1))).isEqualTo(4);
+    assertThat(TextChanges.offsetOf(content, new Position(2, 0))).isEqualTo(6);
+    assertThat(TextChanges.offsetOf(content, new Position(3, 0))).isEqualTo(8);
+    assertThat(TextChanges.offsetOf(content, new Position(10, 0))).isEqualTo(8);
+  }
+}